@@ -0,0 +1,691 @@
+package com.aquila.mq.jna.build;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MQLayoutGenerator - Generates the MQ structure layout classes from the C headers
+ * <p>
+ * Run by the build (exec-maven-plugin, generate-sources) with the Java source launcher:
+ * <pre>
+ * java MQLayoutGenerator.java &lt;output dir&gt; &lt;package&gt; &lt;header&gt;...
+ * </pre>
+ * Every {@code struct tagMQxx} of the headers becomes an {@code MQxxLayout} flyweight view
+ * (see {@code MQStructView}) with the offset of each field, the length of each version taken from
+ * the {@code Ver:n} markers, and typed accessors. Offsets follow the 64-bit (LP64) alignment rules,
+ * and the computed lengths are checked against the {@code MQxx_LENGTH_n} defines of the headers:
+ * a mismatch fails the build instead of producing a wrong layout.
+ * <p>
+ * The headers are preprocessed first, as by a 64-bit Linux compiler ({@link #PREDEFINED}):
+ * {@code #if}, {@code #ifdef}, {@code #ifndef}, {@code #elif}, {@code #else} and {@code #define}
+ * are evaluated, so the cmqc.h and cmqxc.h of an MQ installation are read as they are. The headers
+ * are read in order and share their macros, as if each included the previous ones. A structure
+ * with a field the generator cannot parse, or of a type it does not know, is skipped with a warning.
+ * <p>
+ * An empty or missing header is skipped.
+ */
+public class MQLayoutGenerator {
+
+    private static final Pattern STRUCT = Pattern.compile("struct\\s+tag(MQ\\w+)\\s*\\{(.*?)\\}\\s*;", Pattern.DOTALL);
+    private static final Pattern VERSION_MARKER = Pattern.compile("/\\*\\s*Ver:(\\d+)\\s*\\*/");
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern DIRECTIVE = Pattern.compile("^\\s*#\\s*(\\w+)\\s*(.*)$");
+    private static final Pattern MACRO = Pattern.compile("(\\w+)(\\()?\\s*(.*)");
+    private static final Pattern FIELD = Pattern.compile("(\\w+)\\s+(\\w+)\\s*(?:\\[\\s*(\\w+)\\s*\\])?");
+    private static final Pattern STRING = Pattern.compile("\"[^\"]*\"");
+    private static final Pattern SIZED_TYPE = Pattern.compile("MQ(CHAR|BYTE)(\\d+)");
+
+    /**
+     * Macros of the target: 64-bit Linux on x86-64
+     */
+    static final Map<String, String> PREDEFINED = Map.of("MQ_64_BIT", "1", "__LP64__", "1", "_LP64", "1",
+            "__x86_64__", "1", "__linux__", "1", "__unix__", "1");
+
+    private static final String VERSION_TOKEN = "@VER ";
+    private static final int POINTER_SIZE = 8;
+
+    private static final Set<String> INT_TYPES = Set.of("MQLONG", "MQULONG", "MQINT32", "MQUINT32", "MQHCONN",
+            "MQHOBJ", "MQBOOL", "MQPID", "MQTID", "MQINT16", "MQUINT16");
+    private static final Set<String> LONG_TYPES = Set.of("MQINT64", "MQUINT64", "MQHMSG");
+    private static final Set<String> POINTER_TYPES = Set.of("MQPTR", "MQHCONFIG", "PMQVOID");
+    // Accessors of MQStructView that a field accessor must not override
+    private static final Set<String> RESERVED = Set.of("Buffer", "Offset");
+
+    enum Kind { INT, LONG, POINTER, CHAR, BYTE, STRUCT }
+
+    record Field(String name, String type, Kind kind, int size, int align, int offset, int count) {
+    }
+
+    /**
+     * @param versionLengths length of each version, padded as a C structure
+     * @param versionEnds    end of the last field of each version, without the padding
+     */
+    record Struct(String name, List<Field> fields, Map<Integer, Integer> versionLengths,
+                  Map<Integer, Integer> versionEnds, int size, int align) {
+    }
+
+    /**
+     * A field the generator cannot parse or lay out
+     */
+    static final class UnsupportedFieldException extends RuntimeException {
+        UnsupportedFieldException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * State of an open {@code #if}: whether the enclosing lines are active, whether the current branch
+     * is, and whether a branch was already taken
+     */
+    private static final class Conditional {
+        final boolean enclosing;
+        boolean active;
+        boolean taken;
+
+        Conditional(boolean enclosing, boolean active) {
+            this.enclosing = enclosing;
+            this.active = active;
+            this.taken = active;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: MQLayoutGenerator <output dir> <package> <header>...");
+            System.exit(2);
+        }
+        Path outputDir = Path.of(args[0]);
+        String packageName = args[1];
+        Map<String, String> macros = new HashMap<>(PREDEFINED);
+        Map<String, Struct> structs = new LinkedHashMap<>();
+        Map<String, String> sources = new HashMap<>();
+
+        for (int i = 2; i < args.length; i++) {
+            Path header = Path.of(args[i]);
+            if (!Files.exists(header) || Files.size(header) == 0) {
+                System.out.println("[mq-layouts] Skipping empty header " + header.getFileName());
+                continue;
+            }
+            String text = preprocess(Files.readString(header, StandardCharsets.ISO_8859_1), macros);
+            for (Struct struct : readStructs(text, macros, structs)) {
+                sources.put(struct.name(), header.getFileName().toString());
+            }
+        }
+
+        List<String> errors = new ArrayList<>();
+        Map<String, Map<Integer, Integer>> lengths = new HashMap<>();
+        for (Struct struct : structs.values()) {
+            lengths.put(struct.name(), check(struct, macros, errors));
+        }
+        if (!errors.isEmpty()) {
+            errors.forEach(e -> System.err.println("[mq-layouts] " + e));
+            System.exit(1);
+        }
+
+        Path packageDir = outputDir.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(packageDir);
+        int written = 0;
+        for (Struct struct : structs.values()) {
+            String source = generate(packageName, struct, lengths.get(struct.name()), macros,
+                    sources.get(struct.name()));
+            Path file = packageDir.resolve(struct.name() + "Layout.java");
+            // Leave unchanged files alone so that they are not recompiled
+            if (!Files.exists(file) || !Files.readString(file, StandardCharsets.UTF_8).equals(source)) {
+                Files.writeString(file, source, StandardCharsets.UTF_8);
+                written++;
+            }
+        }
+        System.out.println("[mq-layouts] " + structs.size() + " layouts, " + written + " written to " + packageDir);
+    }
+
+    // ========== Preprocessing ==========
+
+    /**
+     * Remove the comments and the lines of the inactive conditional branches, and record the
+     * defines of the active ones into {@code macros}. The {@code Ver:n} comments are kept as
+     * {@code @VER n;} tokens for the structure bodies.
+     *
+     * @return the active lines, without the directives
+     */
+    static String preprocess(String text, Map<String, String> macros) {
+        text = VERSION_MARKER.matcher(text.replace("\r", "")).replaceAll(VERSION_TOKEN + "$1;");
+        // A comment becomes a space, or the line breaks it spans so that directives stay on their lines
+        Matcher comment = COMMENT.matcher(text);
+        StringBuilder uncommented = new StringBuilder();
+        while (comment.find()) {
+            String breaks = comment.group().replaceAll("[^\n]", "");
+            comment.appendReplacement(uncommented, breaks.isEmpty() ? " " : breaks);
+        }
+        comment.appendTail(uncommented);
+        text = uncommented.toString().replace("\\\n", " ");
+
+        StringBuilder active = new StringBuilder();
+        Deque<Conditional> conditionals = new ArrayDeque<>();
+        for (String line : text.split("\n")) {
+            boolean enabled = conditionals.isEmpty() || conditionals.peek().active;
+            Matcher directive = DIRECTIVE.matcher(line);
+            if (!directive.matches()) {
+                if (enabled) {
+                    active.append(line).append('\n');
+                }
+                continue;
+            }
+            String argument = directive.group(2).trim();
+            switch (directive.group(1)) {
+                case "if" -> conditionals.push(new Conditional(enabled, enabled && evaluate(argument, macros) != 0));
+                case "ifdef" -> conditionals.push(new Conditional(enabled, enabled && macros.containsKey(argument)));
+                case "ifndef" -> conditionals.push(new Conditional(enabled, enabled && !macros.containsKey(argument)));
+                case "elif" -> {
+                    Conditional conditional = current(conditionals, "#elif");
+                    conditional.active = conditional.enclosing && !conditional.taken && evaluate(argument, macros) != 0;
+                    conditional.taken |= conditional.active;
+                }
+                case "else" -> {
+                    Conditional conditional = current(conditionals, "#else");
+                    conditional.active = conditional.enclosing && !conditional.taken;
+                    conditional.taken = true;
+                }
+                case "endif" -> {
+                    current(conditionals, "#endif");
+                    conditionals.pop();
+                }
+                case "define" -> {
+                    Matcher macro = MACRO.matcher(argument);
+                    // Function-like macros are not needed for the layouts
+                    if (enabled && macro.matches() && macro.group(2) == null) {
+                        macros.put(macro.group(1), macro.group(3).trim());
+                    }
+                }
+                case "undef" -> {
+                    if (enabled) {
+                        macros.remove(argument);
+                    }
+                }
+                default -> {
+                    // #include, #pragma, #error...: nothing to lay out
+                }
+            }
+        }
+        if (!conditionals.isEmpty()) {
+            throw new IllegalStateException(conditionals.size() + " #if without #endif");
+        }
+        return active.toString();
+    }
+
+    private static Conditional current(Deque<Conditional> conditionals, String directive) {
+        if (conditionals.isEmpty()) {
+            throw new IllegalStateException(directive + " without #if");
+        }
+        return conditionals.peek();
+    }
+
+    /**
+     * Evaluate the expression of an {@code #if}: integers, macros, {@code defined}, and the
+     * arithmetic, comparison and logical operators. An undefined macro, or one whose value is not an
+     * integer expression, is 0.
+     */
+    static long evaluate(String expression, Map<String, String> macros) {
+        return new Expression(expression, macros, new HashSet<>()).parse();
+    }
+
+    /**
+     * @return the integer value of a macro, null if it is not defined as an integer expression
+     */
+    static Long number(String name, Map<String, String> macros) {
+        String value = macros.get(name);
+        if (value == null || value.isEmpty() || value.startsWith("\"")) {
+            return null;
+        }
+        try {
+            return new Expression(value, macros, new HashSet<>(Set.of(name))).parse();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the string literal a macro is defined as, with its quotes, null if it is not one
+     */
+    static String string(String name, Map<String, String> macros) {
+        String value = macros.get(name);
+        return value != null && STRING.matcher(value).matches() ? value : null;
+    }
+
+    /**
+     * Recursive descent over the tokens of a preprocessor expression, with the C precedences
+     */
+    private static final class Expression {
+        private static final Pattern TOKEN = Pattern.compile(
+                "\\s*(0[xX][0-9a-fA-F]+|\\d+|\\w+|&&|\\|\\||==|!=|<=|>=|<<|>>|[-+*/%<>!~&|^()])[uUlL]*");
+
+        private final List<String> tokens = new ArrayList<>();
+        private final Map<String, String> macros;
+        private final Set<String> expanding;
+        private int position;
+
+        Expression(String text, Map<String, String> macros, Set<String> expanding) {
+            this.macros = macros;
+            this.expanding = expanding;
+            Matcher token = TOKEN.matcher(text);
+            int end = 0;
+            while (token.lookingAt()) {
+                tokens.add(token.group(1));
+                end = token.end();
+                token.region(end, text.length());
+            }
+            if (!text.substring(end).isBlank()) {
+                throw new IllegalArgumentException("Cannot evaluate '" + text + "'");
+            }
+        }
+
+        long parse() {
+            long value = binary(0);
+            if (position != tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "' in " + tokens);
+            }
+            return value;
+        }
+
+        private static final List<List<String>> LEVELS = List.of(List.of("||"), List.of("&&"), List.of("|"),
+                List.of("^"), List.of("&"), List.of("==", "!="), List.of("<", ">", "<=", ">="), List.of("<<", ">>"),
+                List.of("+", "-"), List.of("*", "/", "%"));
+
+        private long binary(int level) {
+            if (level == LEVELS.size()) {
+                return unary();
+            }
+            long left = binary(level + 1);
+            while (position < tokens.size() && LEVELS.get(level).contains(tokens.get(position))) {
+                String operator = tokens.get(position++);
+                long right = binary(level + 1);
+                left = switch (operator) {
+                    case "||" -> left != 0 || right != 0 ? 1 : 0;
+                    case "&&" -> left != 0 && right != 0 ? 1 : 0;
+                    case "|" -> left | right;
+                    case "^" -> left ^ right;
+                    case "&" -> left & right;
+                    case "==" -> left == right ? 1 : 0;
+                    case "!=" -> left != right ? 1 : 0;
+                    case "<" -> left < right ? 1 : 0;
+                    case ">" -> left > right ? 1 : 0;
+                    case "<=" -> left <= right ? 1 : 0;
+                    case ">=" -> left >= right ? 1 : 0;
+                    case "<<" -> left << right;
+                    case ">>" -> left >> right;
+                    case "+" -> left + right;
+                    case "-" -> left - right;
+                    case "*" -> left * right;
+                    case "/" -> left / right;
+                    default -> left % right;
+                };
+            }
+            return left;
+        }
+
+        private long unary() {
+            String token = next();
+            switch (token) {
+                case "!":
+                    return unary() == 0 ? 1 : 0;
+                case "-":
+                    return -unary();
+                case "+":
+                    return unary();
+                case "~":
+                    return ~unary();
+                case "(": {
+                    long value = binary(0);
+                    expect(")");
+                    return value;
+                }
+                case "defined": {
+                    boolean parenthesized = position < tokens.size() && tokens.get(position).equals("(");
+                    if (parenthesized) {
+                        position++;
+                    }
+                    String name = next();
+                    if (parenthesized) {
+                        expect(")");
+                    }
+                    return macros.containsKey(name) ? 1 : 0;
+                }
+                default:
+                    if (Character.isDigit(token.charAt(0))) {
+                        return token.startsWith("0x") || token.startsWith("0X")
+                                ? Long.parseLong(token.substring(2), 16) : Long.parseLong(token);
+                    }
+                    if (!Character.isLetter(token.charAt(0)) && token.charAt(0) != '_') {
+                        throw new IllegalArgumentException("Unexpected '" + token + "' in " + tokens);
+                    }
+                    String value = macros.get(token);
+                    if (value == null || value.isEmpty() || expanding.contains(token)) {
+                        return 0;
+                    }
+                    Set<String> nested = new HashSet<>(expanding);
+                    nested.add(token);
+                    try {
+                        return new Expression(value, macros, nested).parse();
+                    } catch (IllegalArgumentException e) {
+                        return 0;
+                    }
+            }
+        }
+
+        private String next() {
+            if (position == tokens.size()) {
+                throw new IllegalArgumentException("Incomplete expression " + tokens);
+            }
+            return tokens.get(position++);
+        }
+
+        private void expect(String token) {
+            if (!next().equals(token)) {
+                throw new IllegalArgumentException("Expected '" + token + "' in " + tokens);
+            }
+        }
+    }
+
+    // ========== Parsing ==========
+
+    /**
+     * Lay out the structures of a preprocessed header, adding them to {@code structs}, where the
+     * structures of the previous headers can be used as field types
+     *
+     * @return the structures of this header
+     */
+    static List<Struct> readStructs(String text, Map<String, String> macros, Map<String, Struct> structs) {
+        List<Struct> read = new ArrayList<>();
+        Matcher struct = STRUCT.matcher(text);
+        while (struct.find()) {
+            String name = struct.group(1);
+            if (structs.containsKey(name)) {
+                System.out.println("[mq-layouts] Skipping second declaration of " + name);
+                continue;
+            }
+            try {
+                Struct layout = layout(name, struct.group(2), macros, structs);
+                structs.put(name, layout);
+                read.add(layout);
+            } catch (UnsupportedFieldException e) {
+                System.out.println("[mq-layouts] Skipping " + name + ": " + e.getMessage());
+            }
+        }
+        return read;
+    }
+
+    private static Struct layout(String name, String body, Map<String, String> macros, Map<String, Struct> structs) {
+        List<Field> fields = new ArrayList<>();
+        Map<Integer, Integer> versionLengths = new LinkedHashMap<>();
+        Map<Integer, Integer> versionEnds = new LinkedHashMap<>();
+        int offset = 0;
+        int maxAlign = 1;
+        for (String declaration : body.split(";")) {
+            declaration = declaration.trim();
+            if (declaration.isEmpty()) {
+                continue;
+            }
+            if (declaration.startsWith(VERSION_TOKEN)) {
+                // Length of the version: the fields so far as a padded C structure
+                int version = Integer.parseInt(declaration.substring(VERSION_TOKEN.length()).trim());
+                versionLengths.put(version, align(offset, maxAlign));
+                versionEnds.put(version, offset);
+                continue;
+            }
+            Matcher field = FIELD.matcher(declaration);
+            if (!field.matches()) {
+                throw new UnsupportedFieldException("cannot parse field '" + declaration + "'");
+            }
+            String type = field.group(1);
+            int count = field.group(3) != null ? count(field.group(3), macros) : 1;
+            Field parsed = field(name, type, field.group(2), count, structs);
+            offset = align(offset, parsed.align());
+            fields.add(new Field(parsed.name(), type, parsed.kind(), parsed.size(), parsed.align(), offset,
+                    parsed.count()));
+            offset += parsed.size();
+            maxAlign = Math.max(maxAlign, parsed.align());
+        }
+        return new Struct(name, fields, versionLengths, versionEnds, align(offset, maxAlign), maxAlign);
+    }
+
+    private static int count(String dimension, Map<String, String> macros) {
+        if (dimension.chars().allMatch(Character::isDigit)) {
+            return Integer.parseInt(dimension);
+        }
+        Long value = number(dimension, macros);
+        if (value == null) {
+            throw new UnsupportedFieldException("unknown array size " + dimension);
+        }
+        return value.intValue();
+    }
+
+    private static Field field(String struct, String type, String name, int count, Map<String, Struct> structs) {
+        Matcher sized = SIZED_TYPE.matcher(type);
+        if (sized.matches()) {
+            Kind kind = sized.group(1).equals("CHAR") ? Kind.CHAR : Kind.BYTE;
+            return new Field(name, type, kind, Integer.parseInt(sized.group(2)) * count, 1, 0, 1);
+        }
+        if (type.equals("MQCHAR")) {
+            return new Field(name, type, Kind.CHAR, count, 1, 0, 1);
+        }
+        if (type.equals("MQBYTE")) {
+            return new Field(name, type, Kind.BYTE, count, 1, 0, 1);
+        }
+        if (INT_TYPES.contains(type)) {
+            return new Field(name, type, Kind.INT, 4 * count, 4, 0, count);
+        }
+        if (LONG_TYPES.contains(type)) {
+            return new Field(name, type, Kind.LONG, 8 * count, 8, 0, count);
+        }
+        Struct nested = structs.get(type);
+        if (nested != null) {
+            // A structure in the structure, e.g. an MQCHARV
+            return new Field(name, type, Kind.STRUCT, nested.size() * count, nested.align(), 0, count);
+        }
+        if (POINTER_TYPES.contains(type) || type.matches("P+MQ\\w+")) {
+            return new Field(name, type, Kind.POINTER, POINTER_SIZE * count, POINTER_SIZE, 0, count);
+        }
+        throw new UnsupportedFieldException(struct + "." + name + " has the unknown type " + type);
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * Check the computed lengths against the defines of the header. A header may define the length of
+     * a version as the padded structure or as the end of its last field: both are accepted, and the
+     * length the header defines is the one generated.
+     *
+     * @return the length of each version
+     */
+    static Map<Integer, Integer> check(Struct struct, Map<String, String> macros, List<String> errors) {
+        Map<Integer, Integer> lengths = new LinkedHashMap<>();
+        struct.versionLengths().forEach((version, length) -> {
+            Long expected = number(struct.name() + "_LENGTH_" + version, macros);
+            int end = struct.versionEnds().get(version);
+            if (expected == null) {
+                lengths.put(version, length);
+            } else if (expected == (long) length || expected == end) {
+                lengths.put(version, expected.intValue());
+            } else {
+                errors.add(struct.name() + " version " + version + ": computed length " + length
+                        + ", header defines " + expected);
+            }
+        });
+        Long current = number(struct.name() + "_CURRENT_LENGTH", macros);
+        if (current != null && current != struct.size()
+                && !lengths.containsValue(current.intValue())) {
+            errors.add(struct.name() + ": computed size " + struct.size() + ", header defines " + current);
+        }
+        return lengths;
+    }
+
+    // ========== Generation ==========
+
+    private static String generate(String packageName, Struct struct, Map<Integer, Integer> lengths,
+                                   Map<String, String> macros, String header) {
+        String className = struct.name() + "Layout";
+        String strucId = string(struct.name() + "_STRUC_ID", macros);
+        Long currentVersion = number(struct.name() + "_CURRENT_VERSION", macros);
+        boolean hasVersion = struct.fields().stream().anyMatch(f -> f.name().equals("Version") && f.kind() == Kind.INT);
+        boolean hasStrucId = struct.fields().stream().anyMatch(f -> f.name().equals("StrucId") && f.size() == 4);
+
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n");
+        out.append("import com.aquila.mq.jna.lib.MQStructView;\n\n");
+        out.append("import java.nio.ByteBuffer;\n\n");
+        out.append("/**\n");
+        out.append(" * ").append(className).append(" - 64-bit layout of ").append(struct.name())
+                .append(", generated from ").append(header).append(" by MQLayoutGenerator (do not edit)\n");
+        out.append(" */\n");
+        out.append("public final class ").append(className).append(" extends MQStructView {\n\n");
+
+        out.append("    public static final int SIZE = ").append(struct.size()).append(";\n");
+        lengths.forEach((version, length) ->
+                out.append("    public static final int LENGTH_").append(version).append(" = ").append(length).append(";\n"));
+        if (currentVersion != null) {
+            out.append("    public static final int CURRENT_VERSION = ").append(currentVersion).append(";\n");
+        }
+        if (strucId != null) {
+            out.append("    public static final String STRUC_ID = ").append(strucId).append(";\n");
+        }
+        out.append("\n");
+
+        for (Field field : struct.fields()) {
+            String constant = constantName(field.name());
+            out.append("    public static final int ").append(constant).append("_OFFSET = ").append(field.offset()).append(";\n");
+            if (field.kind() == Kind.CHAR || field.kind() == Kind.BYTE) {
+                out.append("    public static final int ").append(constant).append("_LENGTH = ").append(field.size()).append(";\n");
+            } else if (field.count() > 1) {
+                out.append("    public static final int ").append(constant).append("_COUNT = ").append(field.count()).append(";\n");
+            }
+        }
+
+        out.append("\n");
+        out.append("    public ").append(className).append("(ByteBuffer buffer, int offset) {\n");
+        out.append("        super(buffer, offset);\n");
+        out.append("    }\n\n");
+        out.append("    /**\n");
+        out.append("     * Allocate a direct buffer holding an initialized structure\n");
+        out.append("     */\n");
+        out.append("    public static ").append(className).append(" allocate() {\n");
+        out.append("        ").append(className).append(" view = new ").append(className)
+                .append("(ByteBuffer.allocateDirect(SIZE), 0);\n");
+        out.append("        view.init();\n");
+        out.append("        return view;\n");
+        out.append("    }\n\n");
+        out.append("    public ").append(className).append(" wrap(ByteBuffer buffer, int offset) {\n");
+        out.append("        attach(buffer, offset);\n");
+        out.append("        return this;\n");
+        out.append("    }\n\n");
+        out.append("    @Override\n");
+        out.append("    public int length() {\n");
+        out.append("        return SIZE;\n");
+        out.append("    }\n\n");
+        out.append("    /**\n");
+        out.append("     * Zero the structure (as a C static initializer)");
+        if (hasStrucId && strucId != null) {
+            out.append(", then set StrucId");
+        }
+        if (hasVersion) {
+            out.append(" and Version 1");
+        }
+        out.append("\n     */\n");
+        out.append("    @Override\n");
+        out.append("    public void init() {\n");
+        out.append("        fill(0, SIZE, (byte) 0);\n");
+        if (hasStrucId && strucId != null) {
+            out.append("        putStrucId(STRUC_ID);\n");
+        }
+        if (hasVersion) {
+            out.append("        putInt(VERSION_OFFSET, 1);\n");
+        }
+        out.append("    }\n");
+
+        for (Field field : struct.fields()) {
+            accessors(out, field);
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private static void accessors(StringBuilder out, Field field) {
+        String property = Character.toUpperCase(field.name().charAt(0)) + field.name().substring(1);
+        if (RESERVED.contains(property)) {
+            property += "Field";
+        }
+        String offset = constantName(field.name()) + "_OFFSET";
+        String length = constantName(field.name()) + "_LENGTH";
+        out.append("\n");
+        if (field.count() > 1 && field.kind() != Kind.STRUCT) {
+            // Array of integers or pointers: indexed accessors
+            int elementSize = field.size() / field.count();
+            String type = field.kind() == Kind.INT ? "int" : "long";
+            String access = field.kind() == Kind.INT ? "Int" : "Long";
+            String position = offset + " + index * " + elementSize;
+            getter(out, type, property, "int index", "get" + access + "(" + position + ")");
+            setter(out, property, "int index, " + type + " value", "put" + access + "(" + position + ", value)");
+            return;
+        }
+        switch (field.kind()) {
+            case INT -> {
+                getter(out, "int", property, "", "getInt(" + offset + ")");
+                setter(out, property, "int value", "putInt(" + offset + ", value)");
+            }
+            case LONG, POINTER -> {
+                getter(out, "long", property, "", "getLong(" + offset + ")");
+                setter(out, property, "long value", "putLong(" + offset + ", value)");
+            }
+            case CHAR -> {
+                getter(out, "String", property, "", "getName(" + offset + ", " + length + ")");
+                setter(out, property, "String value", "putName(" + offset + ", value, " + length + ")");
+            }
+            case BYTE -> {
+                getter(out, "void", property, "byte[] dst", "getBytes(" + offset + ", dst, " + length + ")");
+                setter(out, property, "byte[] src", "putBytes(" + offset + ", src, " + length + ")");
+            }
+            case STRUCT -> out.append("    // ").append(field.name()).append(": ").append(field.type())
+                    .append(" at ").append(offset).append("\n");
+        }
+    }
+
+    private static void getter(StringBuilder out, String type, String property, String parameter, String expression) {
+        if (property.equals("Version") && type.equals("int")) {
+            out.append("    @Override\n");
+        }
+        out.append("    public ").append(type).append(" get").append(property).append("(").append(parameter).append(") {\n");
+        out.append("        ").append(type.equals("void") ? "" : "return ").append(expression).append(";\n");
+        out.append("    }\n\n");
+    }
+
+    private static void setter(StringBuilder out, String property, String parameter, String statement) {
+        if (property.equals("Version") && parameter.startsWith("int")) {
+            out.append("    @Override\n");
+        }
+        out.append("    public void set").append(property).append("(").append(parameter).append(") {\n");
+        out.append("        ").append(statement).append(";\n");
+        out.append("    }\n");
+    }
+
+    /**
+     * ChannelName -> CHANNEL_NAME, SSLCipherSpec -> SSL_CIPHER_SPEC, pChannelDefinition -> P_CHANNEL_DEFINITION
+     */
+    static String constantName(String field) {
+        return field.replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                .replaceAll("([A-Z])([A-Z][a-z])", "$1_$2")
+                .toUpperCase();
+    }
+}
@@ -0,0 +1,775 @@
+ #if !defined(MQC_INCLUDED)            /* File not yet included? */
+   #define MQC_INCLUDED                /* Show file now included */
+ /****************************************************************/
+ /*                                                              */
+ /*  FILE NAME:      CMQC (subset)                               */
+ /*                                                              */
+ /*  DESCRIPTION:    Elementary data types and the MQI           */
+ /*                  structures whose layouts the library uses   */
+ /*                  (MQCBC, MQCHARV, MQCMHO, MQCNO, MQCSP,      */
+ /*                  MQDMHO, MQGMO, MQIMPO, MQMD, MQOD, MQPD,    */
+ /*                  MQPMO, MQSMPO)                              */
+ /*                                                              */
+ /****************************************************************/
+ /*                                                              */
+ /*  A pinned subset of the cmqc.h of IBM MQ 9.4, kept in the    */
+ /*  repository so that the build does not need an MQ            */
+ /*  installation: same field names, types and order, same       */
+ /*  Ver:n markers and the same MQxx_LENGTH_n values.            */
+ /*  MQLayoutGenerator reads it to generate the MQxxLayout       */
+ /*  classes and checks the computed lengths against the         */
+ /*  defines; MQLayoutTest checks them again against the         */
+ /*  structure sizes of the IBM MQ classes for Java.             */
+ /*                                                              */
+ /*  The mq-installation profile (active when                    */
+ /*  /opt/mqm/inc/cmqc.h exists) and the mq-redist profile       */
+ /*  (redistributable client) generate the layouts from the      */
+ /*  complete cmqc.h and cmqxc.h of IBM instead.                 */
+ /*                                                              */
+ /****************************************************************/
+
+ #if defined(__cplusplus)
+   extern "C" {
+ #endif
+
+ /****************************************************************/
+ /* Elementary Data Types                                        */
+ /****************************************************************/
+
+ #if !defined(MQPOINTER)
+   #define MQPOINTER *
+ #endif
+
+ typedef char            MQCHAR;
+ typedef unsigned char   MQBYTE;
+ typedef int             MQLONG;
+ typedef long long       MQINT64;
+ typedef MQLONG          MQHCONN;
+ typedef MQLONG          MQHOBJ;
+ typedef MQINT64         MQHMSG;
+ typedef void MQPOINTER  MQPTR;
+ typedef void MQPOINTER  PMQVOID;
+ typedef MQCHAR MQPOINTER PMQCHAR;
+
+ typedef MQCHAR          MQCHAR4[4];
+ typedef MQCHAR          MQCHAR8[8];
+ typedef MQCHAR          MQCHAR12[12];
+ typedef MQCHAR          MQCHAR28[28];
+ typedef MQCHAR          MQCHAR32[32];
+ typedef MQCHAR          MQCHAR48[48];
+ typedef MQBYTE          MQBYTE4[4];
+ typedef MQBYTE          MQBYTE8[8];
+ typedef MQBYTE          MQBYTE16[16];
+ typedef MQBYTE          MQBYTE24[24];
+ typedef MQBYTE          MQBYTE32[32];
+ typedef MQBYTE          MQBYTE40[40];
+ typedef MQBYTE          MQBYTE128[128];
+
+ /* Structures referenced by address only */
+ typedef struct tagMQCD  MQCD;
+ typedef MQCD  MQPOINTER PMQCD;
+ typedef struct tagMQSCO MQSCO;
+ typedef MQSCO MQPOINTER PMQSCO;
+ typedef struct tagMQCSP MQCSP;
+ typedef MQCSP MQPOINTER PMQCSP;
+ typedef struct tagMQBNO MQBNO;
+ typedef MQBNO MQPOINTER PMQBNO;
+
+ /****************************************************************/
+ /* Values Related to MQCBC Structure                            */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQCBC_STRUC_ID                 "CBC "
+
+ /* Structure Version Number */
+ #define MQCBC_VERSION_1                1
+ #define MQCBC_VERSION_2                2
+ #define MQCBC_CURRENT_VERSION          2
+
+ /* Structure Length */
+#if defined(MQ_64_BIT)
+ #define MQCBC_LENGTH_1                 56
+#else
+ #define MQCBC_LENGTH_1                 48
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCBC_LENGTH_2                 64
+#else
+ #define MQCBC_LENGTH_2                 52
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCBC_CURRENT_LENGTH           64
+#else
+ #define MQCBC_CURRENT_LENGTH           52
+#endif
+
+ /****************************************************************/
+ /* MQCBC Structure -- Callback Context                          */
+ /****************************************************************/
+
+ typedef struct tagMQCBC MQCBC;
+ typedef MQCBC MQPOINTER PMQCBC;
+
+ struct tagMQCBC {
+   MQCHAR4 StrucId;        /* Structure identifier */
+   MQLONG  Version;        /* Structure version number */
+   MQLONG  CallType;       /* Why function has been called */
+   MQHOBJ  Hobj;           /* Object handle */
+   MQPTR   CallbackArea;   /* Callback data passed to the function */
+   MQPTR   ConnectionArea; /* MQCTL data area passed to the function */
+   MQLONG  CompCode;       /* Completion code */
+   MQLONG  Reason;         /* Reason code */
+   MQLONG  State;          /* Consumer state */
+   MQLONG  DataLength;     /* Message length */
+   MQLONG  BufferLength;   /* Buffer length */
+   MQLONG  Flags;          /* Flags containing information about this consumer */
+   /* Ver:1 */
+   MQLONG  ReconnectDelay; /* Number of milliseconds before reconnect attempt */
+   /* Ver:2 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQCHARV Structure                          */
+ /****************************************************************/
+
+ /* Structure Length */
+#if defined(MQ_64_BIT)
+ #define MQCHARV_LENGTH_1               24
+#else
+ #define MQCHARV_LENGTH_1               20
+#endif
+ #define MQCHARV_CURRENT_LENGTH         MQCHARV_LENGTH_1
+
+ /****************************************************************/
+ /* MQCHARV Structure -- Variable Length String                  */
+ /****************************************************************/
+
+ typedef struct tagMQCHARV MQCHARV;
+ typedef MQCHARV MQPOINTER PMQCHARV;
+
+ struct tagMQCHARV {
+   MQPTR     VSPtr;       /* Address of variable length string */
+   MQLONG    VSOffset;    /* Offset of variable length string */
+   MQLONG    VSBufSize;   /* Size of buffer */
+   MQLONG    VSLength;    /* Length of variable length string */
+   MQLONG    VSCCSID;     /* CCSID of variable length string */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQCMHO Structure                           */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQCMHO_STRUC_ID                "CMHO"
+
+ /* Structure Version Number */
+ #define MQCMHO_VERSION_1               1
+ #define MQCMHO_CURRENT_VERSION         1
+
+ /* Structure Length */
+ #define MQCMHO_LENGTH_1                12
+ #define MQCMHO_CURRENT_LENGTH          12
+
+ /****************************************************************/
+ /* MQCMHO Structure -- Create Message Handle Options            */
+ /****************************************************************/
+
+ typedef struct tagMQCMHO MQCMHO;
+ typedef MQCMHO MQPOINTER PMQCMHO;
+
+ struct tagMQCMHO {
+   MQCHAR4 StrucId; /* Structure identifier */
+   MQLONG  Version; /* Structure version number */
+   MQLONG  Options; /* Options that control the action of MQCRTMH */
+   /* Ver:1 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQCNO Structure                            */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQCNO_STRUC_ID                 "CNO "
+
+ /* Structure Version Number */
+ #define MQCNO_VERSION_1                1
+ #define MQCNO_VERSION_2                2
+ #define MQCNO_VERSION_3                3
+ #define MQCNO_VERSION_4                4
+ #define MQCNO_VERSION_5                5
+ #define MQCNO_VERSION_6                6
+ #define MQCNO_VERSION_7                7
+ #define MQCNO_VERSION_8                8
+ #define MQCNO_CURRENT_VERSION          8
+
+ /* Structure Length */
+ #define MQCNO_LENGTH_1                 12
+#if defined(MQ_64_BIT)
+ #define MQCNO_LENGTH_2                 24
+#else
+ #define MQCNO_LENGTH_2                 20
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCNO_LENGTH_3                 152
+#else
+ #define MQCNO_LENGTH_3                 148
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCNO_LENGTH_4                 168
+#else
+ #define MQCNO_LENGTH_4                 156
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCNO_LENGTH_5                 200
+#else
+ #define MQCNO_LENGTH_5                 188
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCNO_LENGTH_6                 224
+#else
+ #define MQCNO_LENGTH_6                 208
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCNO_LENGTH_7                 256
+#else
+ #define MQCNO_LENGTH_7                 240
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCNO_LENGTH_8                 272
+#else
+ #define MQCNO_LENGTH_8                 252
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCNO_CURRENT_LENGTH           272
+#else
+ #define MQCNO_CURRENT_LENGTH           252
+#endif
+
+ /****************************************************************/
+ /* MQCNO Structure -- Connect Options                           */
+ /****************************************************************/
+
+ typedef struct tagMQCNO MQCNO;
+ typedef MQCNO MQPOINTER PMQCNO;
+
+ struct tagMQCNO {
+   MQCHAR4    StrucId;              /* Structure identifier */
+   MQLONG     Version;              /* Structure version number */
+   MQLONG     Options;              /* Options that control the */
+                                    /* action of MQCONNX */
+   /* Ver:1 */
+   MQLONG     ClientConnOffset;     /* Offset of MQCD structure for */
+                                    /* client connection */
+   MQPTR      ClientConnPtr;        /* Address of MQCD structure for */
+                                    /* client connection */
+   /* Ver:2 */
+   MQBYTE128  ConnTag;              /* Queue-manager connection tag */
+   /* Ver:3 */
+   PMQSCO     SSLConfigPtr;         /* Address of MQSCO structure for */
+                                    /* client connection */
+   MQLONG     SSLConfigOffset;      /* Offset of MQSCO structure for */
+                                    /* client connection */
+   /* Ver:4 */
+   MQBYTE24   ConnectionId;         /* Unique Connection Identifier */
+   MQLONG     SecurityParmsOffset;  /* Offset of MQCSP structure */
+   PMQCSP     SecurityParmsPtr;     /* Address of MQCSP structure */
+   /* Ver:5 */
+   PMQCHAR    CCDTUrlPtr;           /* Address of CCDT URL string */
+   MQLONG     CCDTUrlOffset;        /* Offset of CCDT URL string */
+   MQLONG     CCDTUrlLength;        /* Length of CCDT URL */
+   MQBYTE8    Reserved;             /* Reserved */
+   /* Ver:6 */
+   MQCHAR28   ApplName;             /* Application name */
+   MQBYTE4    Reserved2;            /* Reserved */
+   /* Ver:7 */
+   PMQBNO     BalanceParmsPtr;      /* Balance Parameter Pointer */
+   MQLONG     BalanceParmsOffset;   /* Balance Parameter Offset */
+   MQBYTE4    Reserved3;            /* Reserved */
+   /* Ver:8 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQCSP Structure                            */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQCSP_STRUC_ID                 "CSP "
+
+ /* Structure Version Number */
+ #define MQCSP_VERSION_1                1
+ #define MQCSP_VERSION_2                2
+ #define MQCSP_VERSION_3                3
+ #define MQCSP_CURRENT_VERSION          3
+
+ /* Structure Length */
+#if defined(MQ_64_BIT)
+ #define MQCSP_LENGTH_1                 56
+#else
+ #define MQCSP_LENGTH_1                 48
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCSP_LENGTH_2                 80
+#else
+ #define MQCSP_LENGTH_2                 68
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCSP_LENGTH_3                 104
+#else
+ #define MQCSP_LENGTH_3                 88
+#endif
+#if defined(MQ_64_BIT)
+ #define MQCSP_CURRENT_LENGTH           104
+#else
+ #define MQCSP_CURRENT_LENGTH           88
+#endif
+
+ /****************************************************************/
+ /* MQCSP Structure -- Security Parameters                       */
+ /****************************************************************/
+
+ struct tagMQCSP {
+   MQCHAR4 StrucId;            /* Structure identifier */
+   MQLONG  Version;            /* Structure version number */
+   MQLONG  AuthenticationType; /* Type of authentication */
+   MQBYTE4 Reserved1;          /* Reserved */
+   MQPTR   CSPUserIdPtr;       /* Address of user ID */
+   MQLONG  CSPUserIdOffset;    /* Offset of user ID */
+   MQLONG  CSPUserIdLength;    /* Length of user ID */
+   MQBYTE8 Reserved2;          /* Reserved */
+   MQPTR   CSPPasswordPtr;     /* Address of password */
+   MQLONG  CSPPasswordOffset;  /* Offset of password */
+   MQLONG  CSPPasswordLength;  /* Length of password */
+   /* Ver:1 */
+   MQBYTE8 Reserved3;          /* Reserved */
+   MQPTR   InitialKeyPtr;      /* Address of initial key */
+   MQLONG  InitialKeyOffset;   /* Offset of initial key */
+   MQLONG  InitialKeyLength;   /* Length of initial key */
+   /* Ver:2 */
+   MQBYTE8 Reserved4;          /* Reserved */
+   MQPTR   TokenPtr;           /* Address of token */
+   MQLONG  TokenOffset;        /* Offset of token */
+   MQLONG  TokenLength;        /* Length of token */
+   /* Ver:3 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQDMHO Structure                           */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQDMHO_STRUC_ID                "DMHO"
+
+ /* Structure Version Number */
+ #define MQDMHO_VERSION_1               1
+ #define MQDMHO_CURRENT_VERSION         1
+
+ /* Structure Length */
+ #define MQDMHO_LENGTH_1                12
+ #define MQDMHO_CURRENT_LENGTH          12
+
+ /****************************************************************/
+ /* MQDMHO Structure -- Delete Message Handle Options            */
+ /****************************************************************/
+
+ typedef struct tagMQDMHO MQDMHO;
+ typedef MQDMHO MQPOINTER PMQDMHO;
+
+ struct tagMQDMHO {
+   MQCHAR4 StrucId; /* Structure identifier */
+   MQLONG  Version; /* Structure version number */
+   MQLONG  Options; /* Options that control the action of MQDLTMH */
+   /* Ver:1 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQGMO Structure                            */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQGMO_STRUC_ID                 "GMO "
+
+ /* Structure Version Number */
+ #define MQGMO_VERSION_1                1
+ #define MQGMO_VERSION_2                2
+ #define MQGMO_VERSION_3                3
+ #define MQGMO_VERSION_4                4
+ #define MQGMO_CURRENT_VERSION          4
+
+ /* Structure Length */
+ #define MQGMO_LENGTH_1                 72
+ #define MQGMO_LENGTH_2                 80
+ #define MQGMO_LENGTH_3                 100
+ #define MQGMO_LENGTH_4                 112
+ #define MQGMO_CURRENT_LENGTH           112
+
+ /****************************************************************/
+ /* MQGMO Structure -- Get Message Options                       */
+ /****************************************************************/
+
+ typedef struct tagMQGMO MQGMO;
+ typedef MQGMO MQPOINTER PMQGMO;
+
+ struct tagMQGMO {
+   MQCHAR4   StrucId;         /* Structure identifier */
+   MQLONG    Version;         /* Structure version number */
+   MQLONG    Options;         /* Options that control the action of */
+                              /* MQGET */
+   MQLONG    WaitInterval;    /* Wait interval */
+   MQLONG    Signal1;         /* Signal */
+   MQLONG    Signal2;         /* Signal identifier */
+   MQCHAR48  ResolvedQName;   /* Resolved name of destination queue */
+   /* Ver:1 */
+   MQLONG    MatchOptions;    /* Options controlling selection */
+                              /* criteria used for MQGET */
+   MQCHAR    GroupStatus;     /* Flag indicating whether message */
+                              /* retrieved is in a group */
+   MQCHAR    SegmentStatus;   /* Flag indicating whether message */
+                              /* retrieved is a segment of a logical */
+                              /* message */
+   MQCHAR    Segmentation;    /* Flag indicating whether further */
+                              /* segmentation is allowed for the */
+                              /* message retrieved */
+   MQCHAR    Reserved1;       /* Reserved */
+   /* Ver:2 */
+   MQBYTE16  MsgToken;        /* Message token */
+   MQLONG    ReturnedLength;  /* Length of message data returned */
+                              /* (bytes) */
+   /* Ver:3 */
+   MQLONG    Reserved2;       /* Reserved */
+   MQHMSG    MsgHandle;       /* Message handle */
+   /* Ver:4 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQIMPO Structure                           */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQIMPO_STRUC_ID                "IMPO"
+
+ /* Structure Version Number */
+ #define MQIMPO_VERSION_1               1
+ #define MQIMPO_CURRENT_VERSION         1
+
+ /* Structure Length */
+#if defined(MQ_64_BIT)
+ #define MQIMPO_LENGTH_1                64
+#else
+ #define MQIMPO_LENGTH_1                60
+#endif
+#if defined(MQ_64_BIT)
+ #define MQIMPO_CURRENT_LENGTH          64
+#else
+ #define MQIMPO_CURRENT_LENGTH          60
+#endif
+
+ /****************************************************************/
+ /* MQIMPO Structure -- Inquire Message Property Options         */
+ /****************************************************************/
+
+ typedef struct tagMQIMPO MQIMPO;
+ typedef MQIMPO MQPOINTER PMQIMPO;
+
+ struct tagMQIMPO {
+   MQCHAR4 StrucId;           /* Structure identifier */
+   MQLONG  Version;           /* Structure version number */
+   MQLONG  Options;           /* Options that control the action of MQINQMP */
+   MQLONG  RequestedEncoding; /* Requested encoding of Value */
+   MQLONG  RequestedCCSID;    /* Requested character set identifier of Value */
+   MQLONG  ReturnedEncoding;  /* Returned encoding of Value */
+   MQLONG  ReturnedCCSID;     /* Returned character set identifier of Value */
+   MQLONG  Reserved1;         /* Reserved */
+   MQCHARV ReturnedName;      /* Returned property name */
+   MQCHAR8 TypeString;        /* Property data type as a string */
+   /* Ver:1 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQMD Structure                             */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQMD_STRUC_ID                  "MD  "
+
+ /* Structure Version Number */
+ #define MQMD_VERSION_1                 1
+ #define MQMD_VERSION_2                 2
+ #define MQMD_CURRENT_VERSION           2
+
+ /* Structure Length */
+ #define MQMD_LENGTH_1                  324
+ #define MQMD_LENGTH_2                  364
+ #define MQMD_CURRENT_LENGTH            364
+
+ /****************************************************************/
+ /* MQMD Structure -- Message Descriptor                         */
+ /****************************************************************/
+
+ typedef struct tagMQMD MQMD;
+ typedef MQMD MQPOINTER PMQMD;
+
+ struct tagMQMD {
+   MQCHAR4   StrucId;           /* Structure identifier */
+   MQLONG    Version;           /* Structure version number */
+   MQLONG    Report;            /* Options for report messages */
+   MQLONG    MsgType;           /* Message type */
+   MQLONG    Expiry;            /* Message lifetime */
+   MQLONG    Feedback;          /* Feedback or reason code */
+   MQLONG    Encoding;          /* Numeric encoding of message data */
+   MQLONG    CodedCharSetId;    /* Character set identifier of */
+                                /* message data */
+   MQCHAR8   Format;            /* Format name of message data */
+   MQLONG    Priority;          /* Message priority */
+   MQLONG    Persistence;       /* Message persistence */
+   MQBYTE24  MsgId;             /* Message identifier */
+   MQBYTE24  CorrelId;          /* Correlation identifier */
+   MQLONG    BackoutCount;      /* Backout counter */
+   MQCHAR48  ReplyToQ;          /* Name of reply queue */
+   MQCHAR48  ReplyToQMgr;       /* Name of reply queue manager */
+   MQCHAR12  UserIdentifier;    /* User identifier */
+   MQBYTE32  AccountingToken;   /* Accounting token */
+   MQCHAR32  ApplIdentityData;  /* Application data relating to */
+                                /* identity */
+   MQLONG    PutApplType;       /* Type of application that put the */
+                                /* message */
+   MQCHAR28  PutApplName;       /* Name of application that put the */
+                                /* message */
+   MQCHAR8   PutDate;           /* Date when message was put */
+   MQCHAR8   PutTime;           /* Time when message was put */
+   MQCHAR4   ApplOriginData;    /* Application data relating to */
+                                /* origin */
+   /* Ver:1 */
+   MQBYTE24  GroupId;           /* Group identifier */
+   MQLONG    MsgSeqNumber;      /* Sequence number of logical message */
+                                /* within group */
+   MQLONG    Offset;            /* Offset of data in physical message */
+                                /* from start of logical message */
+   MQLONG    MsgFlags;          /* Message flags */
+   MQLONG    OriginalLength;    /* Length of original message */
+   /* Ver:2 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQOD Structure                             */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQOD_STRUC_ID                  "OD  "
+
+ /* Structure Version Number */
+ #define MQOD_VERSION_1                 1
+ #define MQOD_VERSION_2                 2
+ #define MQOD_VERSION_3                 3
+ #define MQOD_VERSION_4                 4
+ #define MQOD_CURRENT_VERSION           4
+
+ /* Structure Length */
+ #define MQOD_LENGTH_1                  168
+#if defined(MQ_64_BIT)
+ #define MQOD_LENGTH_2                  208
+#else
+ #define MQOD_LENGTH_2                  200
+#endif
+#if defined(MQ_64_BIT)
+ #define MQOD_LENGTH_3                  344
+#else
+ #define MQOD_LENGTH_3                  336
+#endif
+#if defined(MQ_64_BIT)
+ #define MQOD_LENGTH_4                  424
+#else
+ #define MQOD_LENGTH_4                  400
+#endif
+#if defined(MQ_64_BIT)
+ #define MQOD_CURRENT_LENGTH            424
+#else
+ #define MQOD_CURRENT_LENGTH            400
+#endif
+
+ /****************************************************************/
+ /* MQOD Structure -- Object Descriptor                          */
+ /****************************************************************/
+
+ typedef struct tagMQOD MQOD;
+ typedef MQOD MQPOINTER PMQOD;
+
+ struct tagMQOD {
+   MQCHAR4   StrucId;              /* Structure identifier */
+   MQLONG    Version;              /* Structure version number */
+   MQLONG    ObjectType;           /* Object type */
+   MQCHAR48  ObjectName;           /* Object name */
+   MQCHAR48  ObjectQMgrName;       /* Object queue manager name */
+   MQCHAR48  DynamicQName;         /* Dynamic queue name */
+   MQCHAR12  AlternateUserId;      /* Alternate user identifier */
+   /* Ver:1 */
+   MQLONG    RecsPresent;          /* Number of object records */
+                                   /* present */
+   MQLONG    KnownDestCount;       /* Number of local queues opened */
+                                   /* successfully */
+   MQLONG    UnknownDestCount;     /* Number of remote queues opened */
+                                   /* successfully */
+   MQLONG    InvalidDestCount;     /* Number of queues that failed to */
+                                   /* open */
+   MQLONG    ObjectRecOffset;      /* Offset of first object record */
+                                   /* from start of MQOD */
+   MQLONG    ResponseRecOffset;    /* Offset of first response record */
+                                   /* from start of MQOD */
+   MQPTR     ObjectRecPtr;         /* Address of first object record */
+   MQPTR     ResponseRecPtr;       /* Address of first response */
+                                   /* record */
+   /* Ver:2 */
+   MQBYTE40  AlternateSecurityId;  /* Alternate security identifier */
+   MQCHAR48  ResolvedQName;        /* Resolved queue name */
+   MQCHAR48  ResolvedQMgrName;     /* Resolved queue manager name */
+   /* Ver:3 */
+   MQCHARV   ObjectString;         /* Object Long name */
+   MQCHARV   SelectionString;      /* Message Selector */
+   MQCHARV   ResObjectString;      /* Resolved Long object name */
+   MQLONG    ResolvedType;         /* Alias queue resolved object */
+                                   /* type */
+   /* Ver:4 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQPD Structure                             */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQPD_STRUC_ID                  "PD  "
+
+ /* Structure Version Number */
+ #define MQPD_VERSION_1                 1
+ #define MQPD_CURRENT_VERSION           1
+
+ /* Structure Length */
+ #define MQPD_LENGTH_1                  24
+ #define MQPD_CURRENT_LENGTH            24
+
+ /****************************************************************/
+ /* MQPD Structure -- Property Descriptor                        */
+ /****************************************************************/
+
+ typedef struct tagMQPD MQPD;
+ typedef MQPD MQPOINTER PMQPD;
+
+ struct tagMQPD {
+   MQCHAR4 StrucId;     /* Structure identifier */
+   MQLONG  Version;     /* Structure version number */
+   MQLONG  Options;     /* Options that control the action of MQSETMP and MQINQMP */
+   MQLONG  Support;     /* Property support option */
+   MQLONG  Context;     /* Property context */
+   MQLONG  CopyOptions; /* Property copy options */
+   /* Ver:1 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQPMO Structure                            */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQPMO_STRUC_ID                 "PMO "
+
+ /* Structure Version Number */
+ #define MQPMO_VERSION_1                1
+ #define MQPMO_VERSION_2                2
+ #define MQPMO_VERSION_3                3
+ #define MQPMO_CURRENT_VERSION          3
+
+ /* Structure Length */
+ #define MQPMO_LENGTH_1                 128
+#if defined(MQ_64_BIT)
+ #define MQPMO_LENGTH_2                 160
+#else
+ #define MQPMO_LENGTH_2                 152
+#endif
+#if defined(MQ_64_BIT)
+ #define MQPMO_LENGTH_3                 184
+#else
+ #define MQPMO_LENGTH_3                 176
+#endif
+#if defined(MQ_64_BIT)
+ #define MQPMO_CURRENT_LENGTH           184
+#else
+ #define MQPMO_CURRENT_LENGTH           176
+#endif
+
+ /****************************************************************/
+ /* MQPMO Structure -- Put Message Options                       */
+ /****************************************************************/
+
+ typedef struct tagMQPMO MQPMO;
+ typedef MQPMO MQPOINTER PMQPMO;
+
+ struct tagMQPMO {
+   MQCHAR4   StrucId;            /* Structure identifier */
+   MQLONG    Version;            /* Structure version number */
+   MQLONG    Options;            /* Options that control the action of */
+                                 /* MQPUT and MQPUT1 */
+   MQLONG    Timeout;            /* Reserved */
+   MQHOBJ    Context;            /* Object handle of input queue */
+   MQLONG    KnownDestCount;     /* Number of messages sent */
+                                 /* successfully to local queues */
+   MQLONG    UnknownDestCount;   /* Number of messages sent */
+                                 /* successfully to remote queues */
+   MQLONG    InvalidDestCount;   /* Number of messages that could not */
+                                 /* be sent */
+   MQCHAR48  ResolvedQName;      /* Resolved name of destination queue */
+   MQCHAR48  ResolvedQMgrName;   /* Resolved name of destination queue */
+                                 /* manager */
+   /* Ver:1 */
+   MQLONG    RecsPresent;        /* Number of put message records or */
+                                 /* response records present */
+   MQLONG    PutMsgRecFields;    /* Flags indicating which MQPMR fields */
+                                 /* are present */
+   MQLONG    PutMsgRecOffset;    /* Offset of first put message record */
+                                 /* from start of MQPMO */
+   MQLONG    ResponseRecOffset;  /* Offset of first response record */
+                                 /* from start of MQPMO */
+   MQPTR     PutMsgRecPtr;       /* Address of first put message */
+                                 /* record */
+   MQPTR     ResponseRecPtr;     /* Address of first response record */
+   /* Ver:2 */
+   MQHMSG    OriginalMsgHandle;  /* Original message handle */
+   MQHMSG    NewMsgHandle;       /* New message handle */
+   MQLONG    Action;             /* The action being performed */
+   MQLONG    PubLevel;           /* Publication level */
+   /* Ver:3 */
+ };
+
+ /****************************************************************/
+ /* Values Related to MQSMPO Structure                           */
+ /****************************************************************/
+
+ /* Structure Identifier */
+ #define MQSMPO_STRUC_ID                "SMPO"
+
+ /* Structure Version Number */
+ #define MQSMPO_VERSION_1               1
+ #define MQSMPO_CURRENT_VERSION         1
+
+ /* Structure Length */
+ #define MQSMPO_LENGTH_1                20
+ #define MQSMPO_CURRENT_LENGTH          20
+
+ /****************************************************************/
+ /* MQSMPO Structure -- Set Message Property Options             */
+ /****************************************************************/
+
+ typedef struct tagMQSMPO MQSMPO;
+ typedef MQSMPO MQPOINTER PMQSMPO;
+
+ struct tagMQSMPO {
+   MQCHAR4 StrucId;       /* Structure identifier */
+   MQLONG  Version;       /* Structure version number */
+   MQLONG  Options;       /* Options that control the action of MQSETMP */
+   MQLONG  ValueEncoding; /* Encoding of Value */
+   MQLONG  ValueCCSID;    /* Character set identifier of Value */
+   /* Ver:1 */
+ };
+
+ #if defined(__cplusplus)
+   }
+ #endif
+
+ #endif  /* End of header file */
@@ -0,0 +1,357 @@
+/*
+ * mqstub.c - Local stub of the IBM MQ verbs (libmqm.so)
+ *
+ * Every verb completes immediately with MQCC_OK so that benchmarks can
+ * measure the Java-to-native call overhead without a queue manager.
+ * Build with "make stub" and run with -Djna.library.path=target/native
+ */
+#include <pthread.h>
+#include <string.h>
+
+typedef int MQLONG;
+typedef MQLONG MQHCONN;
+typedef MQLONG MQHOBJ;
+typedef char MQCHAR;
+
+#define MQCC_OK      0
+#define MQRC_NONE    0
+#define STUB_HCONN   1
+#define STUB_HOBJ    1
+
+#define MQOP_START             0x00000001
+#define MQOP_START_WAIT        0x00000002
+#define MQOP_STOP              0x00000004
+#define MQOP_REGISTER          0x00000100
+#define MQOP_DEREGISTER        0x00000200
+#define MQCBCT_MSG_REMOVED     6
+
+#define MQPMO_ASYNC_RESPONSE   0x00010000
+#define PMO_OPTIONS_OFFSET     8
+
+#define MQIA_CURRENT_Q_DEPTH   3
+#define MQIA_FIRST             1
+#define MQIA_LAST              2000
+#define STUB_Q_DEPTH           42
+
+#define MQCC_FAILED                  2
+#define MQRC_PROPERTY_NOT_AVAILABLE  2471
+#define MQVL_NULL_TERMINATED         (-1)
+#define STUB_MAX_PROPERTIES          32
+#define STUB_PROPERTY_LENGTH         256
+
+#define STUB_MAX_CONSUMERS     16
+#define STUB_MSG_LENGTH        256
+
+typedef long long MQHMSG;
+
+typedef struct {
+    void *VSPtr;
+    MQLONG VSOffset;
+    MQLONG VSBufSize;
+    MQLONG VSLength;
+    MQLONG VSCCSID;
+} MQCHARV;
+
+typedef void (*MQCALLBACK)(MQHCONN Hconn, void *pMsgDesc, void *pGetMsgOpts, void *pBuffer, void *pContext);
+
+typedef struct {
+    MQCHAR StrucId[4];
+    MQLONG Version;
+    MQLONG CallbackType;
+    MQLONG Options;
+    void *CallbackArea;
+    MQCALLBACK CallbackFunction;
+    MQCHAR CallbackName[128];
+    MQLONG MaxMsgLength;
+} MQCBD;
+
+typedef struct {
+    MQCHAR StrucId[4];
+    MQLONG Version;
+    MQLONG CallType;
+    MQHOBJ Hobj;
+    void *CallbackArea;
+    void *ConnectionArea;
+    MQLONG CompCode;
+    MQLONG Reason;
+    MQLONG State;
+    MQLONG DataLength;
+    MQLONG BufferLength;
+    MQLONG Flags;
+    MQLONG ReconnectDelay;
+} MQCBC;
+
+typedef struct {
+    MQCHAR StrucId[4];
+    MQLONG Version;
+    MQLONG CompCode;
+    MQLONG Reason;
+    MQLONG PutSuccessCount;
+    MQLONG PutWarningCount;
+    MQLONG PutFailureCount;
+    MQLONG ObjectType;
+    MQCHAR ObjectName[48];
+    MQCHAR ObjectQMgrName[48];
+    MQCHAR ResolvedObjectName[48];
+    MQCHAR ResolvedQMgrName[48];
+} MQSTS;
+
+/* Asynchronous puts since the last MQSTAT */
+static MQLONG asyncPutCount;
+
+/* Registered message consumers, fed by the dispatcher started with MQCTL */
+static struct {
+    MQHOBJ hobj;
+    MQCALLBACK function;
+    void *area;
+} consumers[STUB_MAX_CONSUMERS];
+static int consumerCount;
+static volatile int running;
+static int dispatcherStarted;
+static pthread_t dispatcher;
+
+/* Properties of the message handles, shared by all handles */
+static struct {
+    char name[STUB_PROPERTY_LENGTH];
+    int nameLength;
+    MQLONG type;
+    char value[STUB_PROPERTY_LENGTH];
+    MQLONG valueLength;
+} properties[STUB_MAX_PROPERTIES];
+static int propertyCount;
+static MQHMSG nextHmsg = 1;
+
+static void ok(MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pCompCode = MQCC_OK;
+    *pReason = MQRC_NONE;
+}
+
+void MQCONN(MQCHAR *pQMgrName, MQHCONN *pHconn, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pHconn = STUB_HCONN;
+    ok(pCompCode, pReason);
+}
+
+void MQCONNX(MQCHAR *pQMgrName, void *pConnectOpts, MQHCONN *pHconn, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pHconn = STUB_HCONN;
+    ok(pCompCode, pReason);
+}
+
+void MQDISC(MQHCONN *pHconn, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pHconn = -1;
+    ok(pCompCode, pReason);
+}
+
+void MQOPEN(MQHCONN Hconn, void *pObjDesc, MQLONG Options, MQHOBJ *pHobj, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pHobj = STUB_HOBJ;
+    ok(pCompCode, pReason);
+}
+
+void MQCLOSE(MQHCONN Hconn, MQHOBJ *pHobj, MQLONG Options, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pHobj = 0;
+    ok(pCompCode, pReason);
+}
+
+void MQPUT(MQHCONN Hconn, MQHOBJ Hobj, void *pMsgDesc, void *pPutMsgOpts, MQLONG BufferLength, void *pBuffer,
+           MQLONG *pCompCode, MQLONG *pReason)
+{
+    MQLONG options;
+
+    memcpy(&options, (char *) pPutMsgOpts + PMO_OPTIONS_OFFSET, sizeof(options));
+    if (options & MQPMO_ASYNC_RESPONSE)
+        asyncPutCount++;
+    ok(pCompCode, pReason);
+}
+
+void MQPUT1(MQHCONN Hconn, void *pObjDesc, void *pMsgDesc, void *pPutMsgOpts, MQLONG BufferLength, void *pBuffer,
+            MQLONG *pCompCode, MQLONG *pReason)
+{
+    ok(pCompCode, pReason);
+}
+
+void MQBEGIN(MQHCONN Hconn, void *pBeginOptions, MQLONG *pCompCode, MQLONG *pReason)
+{
+    ok(pCompCode, pReason);
+}
+
+void MQCMIT(MQHCONN Hconn, MQLONG *pCompCode, MQLONG *pReason)
+{
+    ok(pCompCode, pReason);
+}
+
+void MQBACK(MQHCONN Hconn, MQLONG *pCompCode, MQLONG *pReason)
+{
+    ok(pCompCode, pReason);
+}
+
+void MQGET(MQHCONN Hconn, MQHOBJ Hobj, void *pMsgDesc, void *pGetMsgOpts, MQLONG BufferLength, void *pBuffer,
+           MQLONG *pDataLength, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pDataLength = BufferLength;
+    ok(pCompCode, pReason);
+}
+
+void MQCB(MQHCONN Hconn, MQLONG Operation, void *pCallbackDesc, MQHOBJ Hobj, void *pMsgDesc, void *pGetMsgOpts,
+          MQLONG *pCompCode, MQLONG *pReason)
+{
+    MQCBD *cbd = (MQCBD *) pCallbackDesc;
+    int i;
+
+    for (i = 0; i < consumerCount && consumers[i].hobj != Hobj; i++)
+        ;
+    if (Operation & MQOP_REGISTER) {
+        if (i == consumerCount && consumerCount < STUB_MAX_CONSUMERS)
+            consumerCount++;
+        consumers[i].hobj = Hobj;
+        consumers[i].function = cbd->CallbackFunction;
+        consumers[i].area = cbd->CallbackArea;
+    } else if ((Operation & MQOP_DEREGISTER) && i < consumerCount) {
+        consumers[i] = consumers[--consumerCount];
+    }
+    ok(pCompCode, pReason);
+}
+
+/* Deliver a message to every consumer in turn until MQOP_STOP */
+static void *dispatch(void *unused)
+{
+    char msgDesc[364] = {0};
+    char getMsgOpts[112] = {0};
+    char buffer[STUB_MSG_LENGTH] = {0};
+    MQCBC context;
+    int i;
+
+    while (running) {
+        for (i = 0; i < consumerCount && running; i++) {
+            memset(&context, 0, sizeof(context));
+            memcpy(context.StrucId, "CBC ", 4);
+            context.Version = 2;
+            context.CallType = MQCBCT_MSG_REMOVED;
+            context.Hobj = consumers[i].hobj;
+            context.CallbackArea = consumers[i].area;
+            context.DataLength = STUB_MSG_LENGTH;
+            context.BufferLength = STUB_MSG_LENGTH;
+            consumers[i].function(STUB_HCONN, msgDesc, getMsgOpts, buffer, &context);
+        }
+    }
+    return NULL;
+}
+
+void MQCTL(MQHCONN Hconn, MQLONG Operation, void *pControlOpts, MQLONG *pCompCode, MQLONG *pReason)
+{
+    if (Operation & MQOP_START) {
+        running = 1;
+        dispatcherStarted = pthread_create(&dispatcher, NULL, dispatch, NULL) == 0;
+    } else if (Operation & MQOP_START_WAIT) {
+        running = 1;
+        dispatch(NULL);
+    } else if (Operation & MQOP_STOP) {
+        running = 0;
+        if (dispatcherStarted && !pthread_equal(dispatcher, pthread_self())) {
+            pthread_join(dispatcher, NULL);
+            dispatcherStarted = 0;
+        }
+    }
+    ok(pCompCode, pReason);
+}
+
+void MQSTAT(MQHCONN Hconn, MQLONG Type, void *pStatus, MQLONG *pCompCode, MQLONG *pReason)
+{
+    MQSTS *status = (MQSTS *) pStatus;
+
+    status->CompCode = MQCC_OK;
+    status->Reason = MQRC_NONE;
+    status->PutSuccessCount = asyncPutCount;
+    status->PutWarningCount = 0;
+    status->PutFailureCount = 0;
+    asyncPutCount = 0;
+    ok(pCompCode, pReason);
+}
+
+/* Integer selectors report STUB_Q_DEPTH for the depth and 0 otherwise, character attributes are blank */
+void MQINQ(MQHCONN Hconn, MQHOBJ Hobj, MQLONG SelectorCount, MQLONG *pSelectors, MQLONG IntAttrCount,
+           MQLONG *pIntAttrs, MQLONG CharAttrLength, MQCHAR *pCharAttrs, MQLONG *pCompCode, MQLONG *pReason)
+{
+    int i, n = 0;
+
+    for (i = 0; i < SelectorCount; i++) {
+        if (pSelectors[i] >= MQIA_FIRST && pSelectors[i] <= MQIA_LAST && n < IntAttrCount)
+            pIntAttrs[n++] = pSelectors[i] == MQIA_CURRENT_Q_DEPTH ? STUB_Q_DEPTH : 0;
+    }
+    if (CharAttrLength > 0)
+        memset(pCharAttrs, ' ', CharAttrLength);
+    ok(pCompCode, pReason);
+}
+
+void MQSET(MQHCONN Hconn, MQHOBJ Hobj, MQLONG SelectorCount, MQLONG *pSelectors, MQLONG IntAttrCount,
+           MQLONG *pIntAttrs, MQLONG CharAttrLength, MQCHAR *pCharAttrs, MQLONG *pCompCode, MQLONG *pReason)
+{
+    ok(pCompCode, pReason);
+}
+
+void MQCRTMH(MQHCONN Hconn, void *pCrtMsgHOpts, MQHMSG *pHmsg, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pHmsg = nextHmsg++;
+    ok(pCompCode, pReason);
+}
+
+void MQDLTMH(MQHCONN Hconn, MQHMSG *pHmsg, void *pDltMsgHOpts, MQLONG *pCompCode, MQLONG *pReason)
+{
+    *pHmsg = 0;
+    propertyCount = 0;
+    ok(pCompCode, pReason);
+}
+
+static int findProperty(MQCHARV *name)
+{
+    int i;
+
+    for (i = 0; i < propertyCount; i++) {
+        if (properties[i].nameLength == name->VSLength && memcmp(properties[i].name, name->VSPtr, name->VSLength) == 0)
+            return i;
+    }
+    return -1;
+}
+
+void MQSETMP(MQHCONN Hconn, MQHMSG Hmsg, void *pSetPropOpts, void *pName, void *pPropDesc, MQLONG Type,
+             MQLONG ValueLength, void *pValue, MQLONG *pCompCode, MQLONG *pReason)
+{
+    MQCHARV *name = (MQCHARV *) pName;
+    int i = findProperty(name);
+
+    if (i < 0 && propertyCount < STUB_MAX_PROPERTIES && name->VSLength <= STUB_PROPERTY_LENGTH) {
+        i = propertyCount++;
+        properties[i].nameLength = name->VSLength;
+        memcpy(properties[i].name, name->VSPtr, name->VSLength);
+    }
+    if (ValueLength == MQVL_NULL_TERMINATED)
+        ValueLength = (MQLONG) strlen((char *) pValue);
+    if (i >= 0 && ValueLength <= STUB_PROPERTY_LENGTH) {
+        properties[i].type = Type;
+        properties[i].valueLength = ValueLength;
+        memcpy(properties[i].value, pValue, ValueLength);
+    }
+    ok(pCompCode, pReason);
+}
+
+/* The value is returned as set, without type conversion */
+void MQINQMP(MQHCONN Hconn, MQHMSG Hmsg, void *pInqPropOpts, void *pName, void *pPropDesc, MQLONG *pType,
+             MQLONG ValueLength, void *pValue, MQLONG *pDataLength, MQLONG *pCompCode, MQLONG *pReason)
+{
+    int i = findProperty((MQCHARV *) pName);
+
+    if (i < 0) {
+        *pCompCode = MQCC_FAILED;
+        *pReason = MQRC_PROPERTY_NOT_AVAILABLE;
+        return;
+    }
+    *pType = properties[i].type;
+    *pDataLength = properties[i].valueLength;
+    memcpy(pValue, properties[i].value,
+           properties[i].valueLength < ValueLength ? properties[i].valueLength : ValueLength);
+    ok(pCompCode, pReason);
+}
@@ -1,11 +1,8 @@
 package com.aquila.mq.jna;
 
 import com.aquila.mq.jna.lib.*;
-import com.sun.jna.ptr.IntByReference;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.List;
 
 import static com.ibm.mq.constants.CMQC.*;
@@ -22,10 +19,7 @@ public class MainIBMMQJNA {
         String connectionName = "192.168.1.73(1414)";  // Host(port)
 
         // Prepare the Queue Manager name (48 bytes, filled with spaces)
-        byte[] qmgrName = new byte[IBMMQJNA.MQ_Q_MGR_NAME_LENGTH];
-        Arrays.fill(qmgrName, (byte) ' ');
-        byte[] qmgrBytes = queueManagerName.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(qmgrBytes, 0, qmgrName, 0, Math.min(qmgrBytes.length, qmgrName.length));
+        byte[] qmgrName = MQNameCodec.DEFAULT.encode(queueManagerName, IBMMQJNA.MQ_Q_MGR_NAME_LENGTH);
 
         // Create and configure the MQCD structure (Channel Definition)
         MQCD mqcd = new MQCD();
@@ -45,9 +39,8 @@ public class MainIBMMQJNA {
         mqcno.setSecurityParms(mqcsp);
 
         // Output variables
-        IntByReference hConn = new IntByReference(MQHC_UNUSABLE_HCONN);
-        IntByReference compCode = new IntByReference();
-        IntByReference reason = new IntByReference();
+        MQCallContext ctx = MQCallContext.current();
+        ctx.setHConn(MQHC_UNUSABLE_HCONN);
 
         // Connection to Queue Manager via TCP/IP
         log.info("========================================");
@@ -58,23 +51,24 @@ public class MainIBMMQJNA {
         log.info("========================================");
 
         try {
-            IBMMQJNA.INSTANCE.MQCONNX(new String(qmgrName), mqcno, hConn, compCode, reason);
+            IBMMQJNA.INSTANCE.MQCONNX(new String(qmgrName, MQNameCodec.DEFAULT.getCharset()), mqcno, ctx.hConnRef(),
+                    ctx.compCodeRef(), ctx.reasonRef());
 
             // Check the result
-            if (compCode.getValue() == MQCC_FAILED) {
+            if (ctx.failed()) {
                 log.error("ERROR: MQCONNX failed");
-                log.error("  Completion Code: {}", compCode.getValue());
-                log.error("  Reason Code: {}", reason.getValue());
-                printReasonCode(reason.getValue());
+                log.error("  Completion Code: {}", ctx.getCompCode());
+                log.error("  Reason Code: {}", ctx.getReason());
+                printReasonCode(ctx.getReason());
                 System.exit(1);
             }
 
             log.info("Connected successfully!");
-            log.info("  Connection Handle: {}", hConn.getValue());
-            log.info("  Completion Code: {}", compCode.getValue());
+            log.info("  Connection Handle: {}", ctx.getHConn());
+            log.info("  Completion Code: {}", ctx.getCompCode());
 
             // After connecting with MQCONNX
-            try (PCFAgent pcfAgent = new PCFAgent(hConn.getValue())) {
+            try (PCFAgent pcfAgent = new PCFAgent(ctx.getHConn())) {
                 pcfAgent.connect();
 
                 // Get all queues
@@ -90,14 +84,14 @@ public class MainIBMMQJNA {
 
             // Clean disconnection
             log.info("Disconnecting...");
-            IBMMQJNA.INSTANCE.MQDISC(hConn, compCode, reason);
+            IBMMQJNA.INSTANCE.MQDISC(ctx.hConnRef(), ctx.compCodeRef(), ctx.reasonRef());
 
-            if (compCode.getValue() == MQCC_OK) {
+            if (ctx.isOk()) {
                 log.info("Disconnected successfully!");
             } else {
                 log.warn("Warning during disconnection");
-                log.warn("  Completion Code: {}", compCode.getValue());
-                log.warn("  Reason Code: {}", reason.getValue());
+                log.warn("  Completion Code: {}", ctx.getCompCode());
+                log.warn("  Reason Code: {}", ctx.getReason());
             }
 
         } catch (UnsatisfiedLinkError e) {
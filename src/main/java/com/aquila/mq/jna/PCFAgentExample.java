@@ -4,8 +4,6 @@ import com.aquila.mq.jna.lib.*;
 import com.sun.jna.ptr.IntByReference;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.List;
 
 import static com.ibm.mq.constants.CMQC.*;
@@ -26,10 +24,7 @@ public class PCFAgentExample {
         String connectionName = "192.168.1.73(1414)";
 
         // Prepare the Queue Manager name
-        byte[] qmgrName = new byte[IBMMQJNA.MQ_Q_MGR_NAME_LENGTH];
-        Arrays.fill(qmgrName, (byte) ' ');
-        byte[] qmgrBytes = queueManagerName.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(qmgrBytes, 0, qmgrName, 0, Math.min(qmgrBytes.length, qmgrName.length));
+        byte[] qmgrName = MQNameCodec.DEFAULT.encode(queueManagerName, IBMMQJNA.MQ_Q_MGR_NAME_LENGTH);
 
         // Create and configure MQCD
         MQCD mqcd = new MQCD();
@@ -59,7 +54,8 @@ public class PCFAgentExample {
 
         try {
             // Connect to Queue Manager
-            IBMMQJNA.INSTANCE.MQCONNX(new String(qmgrName), mqcno, hConn, compCode, reason);
+            IBMMQJNA.INSTANCE.MQCONNX(new String(qmgrName, MQNameCodec.DEFAULT.getCharset()), mqcno, hConn, compCode,
+                    reason);
 
             if (compCode.getValue() == MQCC_FAILED) {
                 log.error("MQCONNX failed with reason: {}", reason.getValue());
@@ -99,6 +95,44 @@ public class PCFAgentExample {
                     log.info("  {}", queue);
                 }
 
+                // Example: Get only the depth of the local queues
+                log.info("");
+                log.info("========================================");
+                log.info("Retrieving local queue depths...");
+                log.info("========================================");
+
+                List<QueueInfo> depths = pcfAgent.inquireQueues("*", PCFConstants.MQQT_LOCAL,
+                        PCFConstants.MQIA_CURRENT_Q_DEPTH);
+                for (QueueInfo queue : depths) {
+                    log.info("  {} {}", queue.getName(), queue.getCurrentDepth());
+                }
+
+                // Example: Let the queue manager select the deep queues
+                log.info("");
+                log.info("========================================");
+                log.info("Retrieving local queues deeper than 10000...");
+                log.info("========================================");
+
+                List<QueueInfo> deepQueues = pcfAgent.inquireQueues("*", PCFConstants.MQQT_LOCAL,
+                        PCFFilter.greater(PCFConstants.MQIA_CURRENT_Q_DEPTH, 10000),
+                        PCFConstants.MQIA_CURRENT_Q_DEPTH, PCFConstants.MQIA_MAX_Q_DEPTH);
+                for (QueueInfo queue : deepQueues) {
+                    log.info("  {}", queue);
+                }
+
+                // Example: Status of the local queues and the handles open on them
+                log.info("");
+                log.info("========================================");
+                log.info("Retrieving DEV.* queue status...");
+                log.info("========================================");
+
+                for (QueueStatus status : pcfAgent.inquireQueueStatus("DEV.*")) {
+                    log.info("  {}", status);
+                }
+                for (QueueHandleStatus handle : pcfAgent.inquireQueueHandles("DEV.*")) {
+                    log.info("  {}", handle);
+                }
+
             } catch (PCFAgent.PCFException e) {
                 log.error("PCF error: {}", e.getMessage());
             }
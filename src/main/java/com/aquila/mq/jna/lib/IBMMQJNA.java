@@ -1,15 +1,19 @@
 package com.aquila.mq.jna.lib;
 
 import com.sun.jna.Library;
-import com.sun.jna.Native;
+import com.sun.jna.Pointer;
 import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+
+import java.nio.ByteBuffer;
 
 public interface IBMMQJNA extends Library {
 
     // Load the IBM MQ native library
     // Linux: libmqm.so
     // Windows: mqm.dll
-    IBMMQJNA INSTANCE = Native.load("mqm", IBMMQJNA.class);
+    // The binding (JNA proxy, JNA direct mapping or Panama) is selected with -Dmq.binding, see MQBinding
+    IBMMQJNA INSTANCE = MQBinding.load();
 
     // Lengths
     int MQ_Q_MGR_NAME_LENGTH = 48;
@@ -64,6 +68,24 @@ public interface IBMMQJNA extends Library {
             IntByReference pReason
     );
 
+    /**
+     * MQCONNX - Extended connection with the name and the MQCNO already in native memory
+     * (see {@link MQConnectionDescriptors})
+     *
+     * @param pQMgrName    Queue Manager name (MQ_Q_MGR_NAME_LENGTH blank-padded characters)
+     * @param pConnectOpts Connection options (MQCNO structure pointing to its MQCD and MQCSP)
+     * @param pHconn       Connection handle (output)
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQCONNX(
+            Pointer pQMgrName,
+            Pointer pConnectOpts,
+            IntByReference pHconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
     /**
      * MQDISC - Disconnect
      *
@@ -96,6 +118,25 @@ public interface IBMMQJNA extends Library {
             IntByReference pReason
     );
 
+    /**
+     * MQOPEN - Open an object with its descriptor in native memory (e.g. {@link MQODView})
+     *
+     * @param Hconn     Connection handle
+     * @param pObjDesc  Object description (MQOD structure, direct buffer)
+     * @param Options   Open options
+     * @param pHobj     Object handle (output)
+     * @param pCompCode Completion code (output)
+     * @param pReason   Reason code (output)
+     */
+    void MQOPEN(
+            int Hconn,
+            ByteBuffer pObjDesc,
+            int Options,
+            IntByReference pHobj,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
     /**
      * MQCLOSE - Close an object
      *
@@ -160,4 +201,402 @@ public interface IBMMQJNA extends Library {
             IntByReference pCompCode,
             IntByReference pReason
     );
+
+    /**
+     * MQPUT1 - Open a queue, put one message and close the queue in a single call
+     *
+     * @param Hconn        Connection handle
+     * @param pObjDesc     Object description (MQOD structure)
+     * @param pMsgDesc     Message descriptor (MQMD structure)
+     * @param pPutMsgOpts  Put options (MQPMO structure)
+     * @param BufferLength Message length
+     * @param pBuffer      Message content
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQPUT1(
+            int Hconn,
+            byte[] pObjDesc,
+            byte[] pMsgDesc,
+            byte[] pPutMsgOpts,
+            int BufferLength,
+            byte[] pBuffer,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * <code>
+     * void MQENTRY MQCB (
+     * MQHCONN   Hconn,           // I: Connection handle
+     * MQLONG    Operation,       // I: Operation
+     * PMQVOID   pCallbackDesc,   // I: Callback descriptor
+     * MQHOBJ    Hobj,            // I: Object handle
+     * PMQVOID   pMsgDesc,        // I: Message descriptor
+     * PMQVOID   pGetMsgOpts,     // I: Get message options
+     * PMQLONG   pCompCode,       // OC: Completion code
+     * PMQLONG   pReason);        // OR: Reason code qualifying CompCode
+     * </code>
+     * MQCB - Register, deregister, suspend or resume a callback
+     *
+     * @param Hconn         Connection handle
+     * @param Operation     Operation (MQOP_REGISTER, MQOP_DEREGISTER, ...)
+     * @param pCallbackDesc Callback descriptor (MQCBD structure)
+     * @param Hobj          Object handle (MQHO_NONE for an event handler)
+     * @param pMsgDesc      Message descriptor used to select messages (MQMD structure), or null
+     * @param pGetMsgOpts   Get options (MQGMO structure), or null
+     * @param pCompCode     Completion code (output)
+     * @param pReason       Reason code (output)
+     */
+    void MQCB(
+            int Hconn,
+            int Operation,
+            MQCBD pCallbackDesc,
+            int Hobj,
+            byte[] pMsgDesc,
+            byte[] pGetMsgOpts,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQCTL - Start or stop the callbacks registered on a connection
+     *
+     * @param Hconn        Connection handle
+     * @param Operation    Operation (MQOP_START, MQOP_START_WAIT, MQOP_STOP, ...)
+     * @param pControlOpts Control options (MQCTLO structure)
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQCTL(
+            int Hconn,
+            int Operation,
+            MQCTLO pControlOpts,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQBEGIN - Begin a unit of work coordinated by the queue manager (server bindings only)
+     *
+     * @param Hconn         Connection handle
+     * @param pBeginOptions Begin options (MQBO structure)
+     * @param pCompCode     Completion code (output)
+     * @param pReason       Reason code (output)
+     */
+    void MQBEGIN(
+            int Hconn,
+            byte[] pBeginOptions,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQCMIT - Commit the changes made under syncpoint since the last sync point
+     *
+     * @param Hconn     Connection handle
+     * @param pCompCode Completion code (output)
+     * @param pReason   Reason code (output)
+     */
+    void MQCMIT(
+            int Hconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQBACK - Back out the changes made under syncpoint since the last sync point
+     *
+     * @param Hconn     Connection handle
+     * @param pCompCode Completion code (output)
+     * @param pReason   Reason code (output)
+     */
+    void MQBACK(
+            int Hconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQSTAT - Retrieve status information, e.g. the outcome of asynchronous puts since the last call
+     *
+     * @param Hconn     Connection handle
+     * @param Type      Status type (MQSTAT_TYPE_ASYNC_ERROR, ...)
+     * @param pStatus   Status information (MQSTS structure, output)
+     * @param pCompCode Completion code (output)
+     * @param pReason   Reason code (output)
+     */
+    void MQSTAT(
+            int Hconn,
+            int Type,
+            MQSTS pStatus,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * <code>
+     * void MQENTRY MQINQ (
+     * MQHCONN   Hconn,           // I: Connection handle
+     * MQHOBJ    Hobj,            // I: Object handle
+     * MQLONG    SelectorCount,   // I: Count of selectors
+     * PMQLONG   pSelectors,      // I: Array of attribute selectors
+     * MQLONG    IntAttrCount,    // I: Count of integer attributes
+     * PMQLONG   pIntAttrs,       // O: Array of integer attributes
+     * MQLONG    CharAttrLength,  // IL: Length of character attributes buffer
+     * PMQCHAR   pCharAttrs,      // OL: Character attributes
+     * PMQLONG   pCompCode,       // OC: Completion code
+     * PMQLONG   pReason);        // OR: Reason code qualifying CompCode
+     * </code>
+     * MQINQ - Inquire object attributes over an open handle (opened with MQOO_INQUIRE)
+     *
+     * @param Hconn          Connection handle
+     * @param Hobj           Object handle
+     * @param SelectorCount  Number of selectors
+     * @param pSelectors     Attribute selectors (MQIA_* and MQCA_*)
+     * @param IntAttrCount   Number of integer attributes
+     * @param pIntAttrs      Integer attributes, in selector order (output)
+     * @param CharAttrLength Length of the character attributes buffer
+     * @param pCharAttrs     Character attributes, concatenated in selector order (output)
+     * @param pCompCode      Completion code (output)
+     * @param pReason        Reason code (output)
+     */
+    void MQINQ(
+            int Hconn,
+            int Hobj,
+            int SelectorCount,
+            int[] pSelectors,
+            int IntAttrCount,
+            int[] pIntAttrs,
+            int CharAttrLength,
+            byte[] pCharAttrs,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQSET - Change object attributes over an open handle (opened with MQOO_SET)
+     *
+     * @param Hconn          Connection handle
+     * @param Hobj           Object handle
+     * @param SelectorCount  Number of selectors
+     * @param pSelectors     Attribute selectors (MQIA_* and MQCA_*)
+     * @param IntAttrCount   Number of integer attributes
+     * @param pIntAttrs      Integer attributes, in selector order
+     * @param CharAttrLength Length of the character attributes buffer
+     * @param pCharAttrs     Character attributes, concatenated in selector order
+     * @param pCompCode      Completion code (output)
+     * @param pReason        Reason code (output)
+     */
+    void MQSET(
+            int Hconn,
+            int Hobj,
+            int SelectorCount,
+            int[] pSelectors,
+            int IntAttrCount,
+            int[] pIntAttrs,
+            int CharAttrLength,
+            byte[] pCharAttrs,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQCRTMH - Create a message handle
+     *
+     * @param Hconn        Connection handle (or MQHC_UNASSOCIATED_HCONN)
+     * @param pCrtMsgHOpts Create options (MQCMHO structure)
+     * @param pHmsg        Message handle (output)
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQCRTMH(
+            int Hconn,
+            byte[] pCrtMsgHOpts,
+            LongByReference pHmsg,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQDLTMH - Delete a message handle
+     *
+     * @param Hconn        Connection handle
+     * @param pHmsg        Message handle (set to MQHM_NONE on return)
+     * @param pDltMsgHOpts Delete options (MQDMHO structure)
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQDLTMH(
+            int Hconn,
+            LongByReference pHmsg,
+            byte[] pDltMsgHOpts,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * <code>
+     * void MQENTRY MQSETMP (
+     * MQHCONN   Hconn,           // I: Connection handle
+     * MQHMSG    Hmsg,            // I: Message handle
+     * PMQVOID   pSetPropOpts,    // I: Options that control the action of MQSETMP
+     * PMQVOID   pName,           // I: Property name (MQCHARV)
+     * PMQVOID   pPropDesc,       // IO: Property descriptor
+     * MQLONG    Type,            // I: Property data type
+     * MQLONG    ValueLength,     // I: Length of property value in Value
+     * PMQVOID   pValue,          // I: Property value
+     * PMQLONG   pCompCode,       // OC: Completion code
+     * PMQLONG   pReason);        // OR: Reason code qualifying CompCode
+     * </code>
+     * MQSETMP - Set a message property
+     *
+     * @param Hconn        Connection handle
+     * @param Hmsg         Message handle
+     * @param pSetPropOpts Set options (MQSMPO structure)
+     * @param pName        Property name (MQCHARV structure)
+     * @param pPropDesc    Property descriptor (MQPD structure)
+     * @param Type         Property type (MQTYPE_*)
+     * @param ValueLength  Length of the value
+     * @param pValue       Property value
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQSETMP(
+            int Hconn,
+            long Hmsg,
+            Pointer pSetPropOpts,
+            Pointer pName,
+            Pointer pPropDesc,
+            int Type,
+            int ValueLength,
+            Pointer pValue,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQINQMP - Inquire a message property
+     *
+     * @param Hconn        Connection handle
+     * @param Hmsg         Message handle
+     * @param pInqPropOpts Inquire options (MQIMPO structure)
+     * @param pName        Property name (MQCHARV structure)
+     * @param pPropDesc    Property descriptor (MQPD structure, output)
+     * @param pType        Requested type on input, property type on output
+     * @param ValueLength  Length of the value buffer
+     * @param pValue       Property value (output)
+     * @param pDataLength  Length of the property value (output)
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQINQMP(
+            int Hconn,
+            long Hmsg,
+            Pointer pInqPropOpts,
+            Pointer pName,
+            Pointer pPropDesc,
+            IntByReference pType,
+            int ValueLength,
+            Pointer pValue,
+            IntByReference pDataLength,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQPUT - Send a message from native memory (no array marshalling)
+     *
+     * @param Hconn        Connection handle
+     * @param Hobj         Object handle
+     * @param pMsgDesc     Message descriptor (MQMD structure)
+     * @param pPutMsgOpts  Put options (MQPMO structure)
+     * @param BufferLength Message length
+     * @param pBuffer      Message content
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQPUT(
+            int Hconn,
+            int Hobj,
+            Pointer pMsgDesc,
+            Pointer pPutMsgOpts,
+            int BufferLength,
+            Pointer pBuffer,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQPUT - Send a message from direct buffers (passed from their current position)
+     *
+     * @param Hconn        Connection handle
+     * @param Hobj         Object handle
+     * @param pMsgDesc     Message descriptor (MQMD structure)
+     * @param pPutMsgOpts  Put options (MQPMO structure)
+     * @param BufferLength Message length
+     * @param pBuffer      Message content
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQPUT(
+            int Hconn,
+            int Hobj,
+            ByteBuffer pMsgDesc,
+            ByteBuffer pPutMsgOpts,
+            int BufferLength,
+            ByteBuffer pBuffer,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQGET - Receive a message into native memory (no array marshalling)
+     *
+     * @param Hconn        Connection handle
+     * @param Hobj         Object handle
+     * @param pMsgDesc     Message descriptor (MQMD structure)
+     * @param pGetMsgOpts  Get options (MQGMO structure)
+     * @param BufferLength Buffer size
+     * @param pBuffer      Buffer to receive the message
+     * @param pDataLength  Actual message length (output)
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQGET(
+            int Hconn,
+            int Hobj,
+            Pointer pMsgDesc,
+            Pointer pGetMsgOpts,
+            int BufferLength,
+            Pointer pBuffer,
+            IntByReference pDataLength,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    /**
+     * MQGET - Receive a message into direct buffers (passed from their current position)
+     *
+     * @param Hconn        Connection handle
+     * @param Hobj         Object handle
+     * @param pMsgDesc     Message descriptor (MQMD structure)
+     * @param pGetMsgOpts  Get options (MQGMO structure)
+     * @param BufferLength Buffer size
+     * @param pBuffer      Buffer to receive the message
+     * @param pDataLength  Actual message length (output)
+     * @param pCompCode    Completion code (output)
+     * @param pReason      Reason code (output)
+     */
+    void MQGET(
+            int Hconn,
+            int Hobj,
+            ByteBuffer pMsgDesc,
+            ByteBuffer pGetMsgOpts,
+            int BufferLength,
+            ByteBuffer pBuffer,
+            IntByReference pDataLength,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
 }
\ No newline at end of file
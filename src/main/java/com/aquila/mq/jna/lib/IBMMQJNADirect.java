@@ -0,0 +1,299 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+
+import java.nio.ByteBuffer;
+
+/**
+ * IBMMQJNADirect - Direct-mapped binding of the IBM MQ verbs
+ * <p>
+ * The verbs are declared as native methods and registered with {@link Native#register(Class, String)},
+ * so calls skip the reflective proxy used by {@code Native.load}.
+ * Select it with {@code -Dmq.binding=direct} (see {@link MQBinding}).
+ * Parameters are documented on {@link IBMMQJNA}.
+ */
+public class IBMMQJNADirect implements IBMMQJNA {
+
+    static {
+        Native.register(IBMMQJNADirect.class, MQBinding.LIBRARY_NAME);
+    }
+
+    @Override
+    public native void MQCONN(
+            byte[] pQMgrName,
+            IntByReference pHconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQCONNX(
+            String pQMgrName,
+            MQCNO pConnectOpts,
+            IntByReference pHconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQCONNX(
+            Pointer pQMgrName,
+            Pointer pConnectOpts,
+            IntByReference pHconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQDISC(
+            IntByReference pHconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQOPEN(
+            int Hconn,
+            byte[] pObjDesc,
+            int Options,
+            IntByReference pHobj,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQOPEN(
+            int Hconn,
+            ByteBuffer pObjDesc,
+            int Options,
+            IntByReference pHobj,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQCLOSE(
+            int Hconn,
+            IntByReference pHobj,
+            int Options,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQPUT(
+            int Hconn,
+            int Hobj,
+            byte[] pMsgDesc,
+            byte[] pPutMsgOpts,
+            int BufferLength,
+            byte[] pBuffer,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQGET(
+            int Hconn,
+            int Hobj,
+            byte[] pMsgDesc,
+            byte[] pGetMsgOpts,
+            int BufferLength,
+            byte[] pBuffer,
+            IntByReference pDataLength,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQPUT1(
+            int Hconn,
+            byte[] pObjDesc,
+            byte[] pMsgDesc,
+            byte[] pPutMsgOpts,
+            int BufferLength,
+            byte[] pBuffer,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQCB(
+            int Hconn,
+            int Operation,
+            MQCBD pCallbackDesc,
+            int Hobj,
+            byte[] pMsgDesc,
+            byte[] pGetMsgOpts,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQCTL(
+            int Hconn,
+            int Operation,
+            MQCTLO pControlOpts,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQBEGIN(
+            int Hconn,
+            byte[] pBeginOptions,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQCMIT(
+            int Hconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQBACK(
+            int Hconn,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQSTAT(
+            int Hconn,
+            int Type,
+            MQSTS pStatus,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQINQ(
+            int Hconn,
+            int Hobj,
+            int SelectorCount,
+            int[] pSelectors,
+            int IntAttrCount,
+            int[] pIntAttrs,
+            int CharAttrLength,
+            byte[] pCharAttrs,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQSET(
+            int Hconn,
+            int Hobj,
+            int SelectorCount,
+            int[] pSelectors,
+            int IntAttrCount,
+            int[] pIntAttrs,
+            int CharAttrLength,
+            byte[] pCharAttrs,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQCRTMH(
+            int Hconn,
+            byte[] pCrtMsgHOpts,
+            LongByReference pHmsg,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQDLTMH(
+            int Hconn,
+            LongByReference pHmsg,
+            byte[] pDltMsgHOpts,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQSETMP(
+            int Hconn,
+            long Hmsg,
+            Pointer pSetPropOpts,
+            Pointer pName,
+            Pointer pPropDesc,
+            int Type,
+            int ValueLength,
+            Pointer pValue,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQINQMP(
+            int Hconn,
+            long Hmsg,
+            Pointer pInqPropOpts,
+            Pointer pName,
+            Pointer pPropDesc,
+            IntByReference pType,
+            int ValueLength,
+            Pointer pValue,
+            IntByReference pDataLength,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQPUT(
+            int Hconn,
+            int Hobj,
+            Pointer pMsgDesc,
+            Pointer pPutMsgOpts,
+            int BufferLength,
+            Pointer pBuffer,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQPUT(
+            int Hconn,
+            int Hobj,
+            ByteBuffer pMsgDesc,
+            ByteBuffer pPutMsgOpts,
+            int BufferLength,
+            ByteBuffer pBuffer,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQGET(
+            int Hconn,
+            int Hobj,
+            Pointer pMsgDesc,
+            Pointer pGetMsgOpts,
+            int BufferLength,
+            Pointer pBuffer,
+            IntByReference pDataLength,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+
+    @Override
+    public native void MQGET(
+            int Hconn,
+            int Hobj,
+            ByteBuffer pMsgDesc,
+            ByteBuffer pGetMsgOpts,
+            int BufferLength,
+            ByteBuffer pBuffer,
+            IntByReference pDataLength,
+            IntByReference pCompCode,
+            IntByReference pReason
+    );
+}
@@ -0,0 +1,168 @@
+package com.aquila.mq.jna.lib;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * MQAsyncPutter - Fire-and-forget puts (MQPMO_ASYNC_RESPONSE) reconciled with MQSTAT
+ * <p>
+ * With an asynchronous put a client does not wait for the queue manager to confirm each message,
+ * so non-persistent throughput over TCP is bounded by bandwidth rather than by round-trip latency.
+ * The outcome is collected every {@code statusInterval} puts (and on {@link #close()}) with
+ * MQSTAT, which returns the success, warning and failure counts since its previous call and the
+ * reason of the first failure.
+ * <p>
+ * The queue handle stays owned by the caller. An instance is not thread safe.
+ */
+@Slf4j
+public class MQAsyncPutter implements AutoCloseable {
+
+    private static final int PUT_OPTIONS =
+            MQPMO.MQPMO_ASYNC_RESPONSE | MQPMO.MQPMO_NO_SYNCPOINT | MQPMO.MQPMO_NEW_MSG_ID | MQPMO.MQPMO_FAIL_IF_QUIESCING;
+    private static final byte[] PUT_MSG_OPTS = MQPMO.createMinimalPMO3(PUT_OPTIONS);
+    // Added to the put options of a message buffer, whose syncpoint choice is kept
+    private static final int BUFFER_PUT_OPTIONS =
+            MQPMO.MQPMO_ASYNC_RESPONSE | MQPMO.MQPMO_NEW_MSG_ID | MQPMO.MQPMO_FAIL_IF_QUIESCING;
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    private final int queueHandle;
+    private final int statusInterval;
+    private final byte[] putMsgOpts = new byte[PUT_MSG_OPTS.length];
+    private final MQSTS status = new MQSTS();
+    private int sinceStatus;
+    private long putCount;
+    private long successCount;
+    private long warningCount;
+    private long failureCount;
+    private int firstFailureReason = MQRC_NONE;
+
+    /**
+     * Create an asynchronous putter with the default binding
+     *
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param queueHandle      Handle of a queue opened for output
+     * @param statusInterval   Number of puts between two MQSTAT calls
+     */
+    public MQAsyncPutter(int connectionHandle, int queueHandle, int statusInterval) {
+        this(IBMMQJNA.INSTANCE, connectionHandle, queueHandle, statusInterval);
+    }
+
+    /**
+     * Create an asynchronous putter
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param queueHandle      Handle of a queue opened for output
+     * @param statusInterval   Number of puts between two MQSTAT calls
+     */
+    public MQAsyncPutter(IBMMQJNA mq, int connectionHandle, int queueHandle, int statusInterval) {
+        if (statusInterval < 1) {
+            throw new IllegalArgumentException("Invalid status interval " + statusInterval);
+        }
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+        this.queueHandle = queueHandle;
+        this.statusInterval = statusInterval;
+    }
+
+    /**
+     * Put the message held in the buffer without waiting for the queue manager. The put message
+     * options of the buffer are kept, with its message handle (setPutMsgHandle): only the Options
+     * field is rewritten, to an asynchronous response instead of a synchronous one.
+     */
+    public void put(MQMessageBuffer message) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        message.setPutOptions((message.putOptions().getOptions() & ~MQPMO.MQPMO_SYNC_RESPONSE) | BUFFER_PUT_OPTIONS);
+        message.put(connectionHandle, queueHandle, ctx);
+        completed(ctx);
+    }
+
+    /**
+     * Put a message without waiting for the queue manager
+     *
+     * @param msgDesc Message descriptor (MQMD structure), updated with the MsgId
+     * @param data    Message content
+     */
+    public void put(byte[] msgDesc, byte[] data) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        System.arraycopy(PUT_MSG_OPTS, 0, putMsgOpts, 0, putMsgOpts.length);
+        mq.MQPUT(connectionHandle, queueHandle, msgDesc, putMsgOpts, data.length, data, ctx.compCodeRef(),
+                ctx.reasonRef());
+        completed(ctx);
+    }
+
+    private void completed(MQCallContext ctx) throws MQCallException {
+        if (ctx.failed()) {
+            throw new MQCallException("Asynchronous MQPUT failed", ctx);
+        }
+        if (ctx.getCompCode() == MQCC_WARNING) {
+            // e.g. MQRC_ASYNC_XMIT_Q_FULL: accepted, but the client should slow down
+            log.debug("Asynchronous MQPUT warning, Reason: {}", ctx.getReason());
+        }
+        putCount++;
+        if (++sinceStatus >= statusInterval) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Collect the outcome of the puts done since the previous MQSTAT
+     *
+     * @return the status filled by MQSTAT (reused by the next call)
+     */
+    public MQSTS reconcile() throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        status.reset();
+        mq.MQSTAT(connectionHandle, MQSTS.MQSTAT_TYPE_ASYNC_ERROR, status, ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException("MQSTAT failed", ctx);
+        }
+        sinceStatus = 0;
+        successCount += status.PutSuccessCount;
+        warningCount += status.PutWarningCount;
+        failureCount += status.PutFailureCount;
+        if (status.PutFailureCount > 0) {
+            if (firstFailureReason == MQRC_NONE) {
+                firstFailureReason = status.Reason;
+            }
+            log.warn("{} asynchronous puts failed, first failure on {}, Reason: {}",
+                    status.PutFailureCount, status.getObjectName(), status.Reason);
+        }
+        return status;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public long getWarningCount() {
+        return warningCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return reason of the first failed put reported by MQSTAT, or MQRC_NONE
+     */
+    public int getFirstFailureReason() {
+        return firstFailureReason;
+    }
+
+    /**
+     * Collect the outcome of the last puts
+     */
+    @Override
+    public void close() throws MQCallException {
+        if (sinceStatus > 0) {
+            reconcile();
+        }
+    }
+}
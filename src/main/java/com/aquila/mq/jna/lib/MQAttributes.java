@@ -0,0 +1,228 @@
+package com.aquila.mq.jna.lib;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * MQAttributes - Typed MQINQ/MQSET over an open object handle
+ * <p>
+ * Reading an attribute costs one MQINQ on the handle instead of a PCF command to the command
+ * server and a wait for its reply, e.g. to poll the depth of a queue:
+ * <pre>
+ * try (MQAttributes queue = MQAttributes.open(hConn, "DEV.QUEUE.1", MQOO_INQUIRE)) {
+ *     int depth = queue.getCurrentDepth();
+ * }
+ * </pre>
+ * Single-attribute reads reuse the selector and value arrays of the instance, so an instance is
+ * not thread safe.
+ */
+public class MQAttributes implements AutoCloseable {
+
+    // Character attribute lengths
+    public static final int MQ_Q_DESC_LENGTH = 64;
+    public static final int MQ_TRIGGER_DATA_LENGTH = 64;
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    private final int objectHandle;
+    private final boolean ownsHandle;
+    private final int[] selector = new int[1];
+    private final int[] intValue = new int[1];
+
+    /**
+     * Attributes of an object opened by the caller (with MQOO_INQUIRE and/or MQOO_SET)
+     *
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param objectHandle     The object handle from MQOPEN
+     */
+    public MQAttributes(int connectionHandle, int objectHandle) {
+        this(IBMMQJNA.INSTANCE, connectionHandle, objectHandle, false);
+    }
+
+    /**
+     * Attributes of an object opened by the caller (with MQOO_INQUIRE and/or MQOO_SET)
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param objectHandle     The object handle from MQOPEN
+     */
+    public MQAttributes(IBMMQJNA mq, int connectionHandle, int objectHandle) {
+        this(mq, connectionHandle, objectHandle, false);
+    }
+
+    private MQAttributes(IBMMQJNA mq, int connectionHandle, int objectHandle, boolean ownsHandle) {
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+        this.objectHandle = objectHandle;
+        this.ownsHandle = ownsHandle;
+    }
+
+    /**
+     * Open a queue for attribute access; the handle is closed by {@link #close()}
+     *
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param queueName        Queue name
+     * @param options          MQOO_INQUIRE and/or MQOO_SET
+     */
+    public static MQAttributes open(int connectionHandle, String queueName, int options) throws MQCallException {
+        return open(IBMMQJNA.INSTANCE, connectionHandle, queueName, options);
+    }
+
+    /**
+     * Open a queue for attribute access; the handle is closed by {@link #close()}
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param queueName        Queue name
+     * @param options          MQOO_INQUIRE and/or MQOO_SET
+     */
+    public static MQAttributes open(IBMMQJNA mq, int connectionHandle, String queueName, int options)
+            throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        MQOD od = new MQOD();
+        od.setObjectName(queueName);
+        mq.MQOPEN(connectionHandle, od.toBytes(), options | MQOO_FAIL_IF_QUIESCING, ctx.hObjRef(),
+                ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException("MQOPEN failed for " + queueName, ctx);
+        }
+        return new MQAttributes(mq, connectionHandle, ctx.getHObj(), true);
+    }
+
+    public int getObjectHandle() {
+        return objectHandle;
+    }
+
+    // ========== MQINQ ==========
+
+    /**
+     * Inquire one integer attribute
+     *
+     * @param selector Attribute selector (MQIA_*)
+     */
+    public int getInt(int selector) throws MQCallException {
+        this.selector[0] = selector;
+        inquire(this.selector, intValue, null);
+        return intValue[0];
+    }
+
+    /**
+     * Inquire one character attribute
+     *
+     * @param selector Attribute selector (MQCA_*)
+     * @param length   Length of the attribute (e.g. MQ_Q_DESC_LENGTH)
+     * @return the value without its trailing blanks
+     */
+    public String getString(int selector, int length) throws MQCallException {
+        this.selector[0] = selector;
+        byte[] value = new byte[length];
+        inquire(this.selector, null, value);
+        return MQNameCodec.DEFAULT.decode(value, 0, length);
+    }
+
+    /**
+     * Inquire several attributes in one MQINQ
+     *
+     * @param selectors Attribute selectors (MQIA_* and MQCA_*)
+     * @param intAttrs  Receives the integer attributes in selector order, or null
+     * @param charAttrs Receives the character attributes concatenated in selector order, or null
+     */
+    public void inquire(int[] selectors, int[] intAttrs, byte[] charAttrs) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQINQ(
+                connectionHandle,
+                objectHandle,
+                selectors.length,
+                selectors,
+                intAttrs != null ? intAttrs.length : 0,
+                intAttrs,
+                charAttrs != null ? charAttrs.length : 0,
+                charAttrs,
+                ctx.compCodeRef(),
+                ctx.reasonRef()
+        );
+        if (ctx.failed()) {
+            throw new MQCallException("MQINQ failed", ctx);
+        }
+    }
+
+    public int getCurrentDepth() throws MQCallException {
+        return getInt(MQIA_CURRENT_Q_DEPTH);
+    }
+
+    public int getMaxDepth() throws MQCallException {
+        return getInt(MQIA_MAX_Q_DEPTH);
+    }
+
+    public int getOpenInputCount() throws MQCallException {
+        return getInt(MQIA_OPEN_INPUT_COUNT);
+    }
+
+    public int getOpenOutputCount() throws MQCallException {
+        return getInt(MQIA_OPEN_OUTPUT_COUNT);
+    }
+
+    public String getDescription() throws MQCallException {
+        return getString(MQCA_Q_DESC, MQ_Q_DESC_LENGTH);
+    }
+
+    // ========== MQSET ==========
+
+    /**
+     * Set one integer attribute (MQIA_INHIBIT_GET, MQIA_INHIBIT_PUT, trigger attributes, ...)
+     */
+    public void setInt(int selector, int value) throws MQCallException {
+        this.selector[0] = selector;
+        intValue[0] = value;
+        set(this.selector, intValue, null);
+    }
+
+    /**
+     * Set one character attribute, blank padded to its length (MQCA_TRIGGER_DATA)
+     */
+    public void setString(int selector, String value, int length) throws MQCallException {
+        this.selector[0] = selector;
+        set(this.selector, null, MQNameCodec.DEFAULT.encode(value, length));
+    }
+
+    /**
+     * Set several attributes in one MQSET
+     */
+    public void set(int[] selectors, int[] intAttrs, byte[] charAttrs) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQSET(
+                connectionHandle,
+                objectHandle,
+                selectors.length,
+                selectors,
+                intAttrs != null ? intAttrs.length : 0,
+                intAttrs,
+                charAttrs != null ? charAttrs.length : 0,
+                charAttrs,
+                ctx.compCodeRef(),
+                ctx.reasonRef()
+        );
+        if (ctx.failed()) {
+            throw new MQCallException("MQSET failed", ctx);
+        }
+    }
+
+    public void setInhibitPut(boolean inhibited) throws MQCallException {
+        setInt(MQIA_INHIBIT_PUT, inhibited ? MQQA_PUT_INHIBITED : MQQA_PUT_ALLOWED);
+    }
+
+    public void setInhibitGet(boolean inhibited) throws MQCallException {
+        setInt(MQIA_INHIBIT_GET, inhibited ? MQQA_GET_INHIBITED : MQQA_GET_ALLOWED);
+    }
+
+    /**
+     * Close the object handle if it was opened by {@link #open}
+     */
+    @Override
+    public void close() {
+        if (ownsHandle) {
+            MQCallContext ctx = MQCallContext.current();
+            ctx.setHObj(objectHandle);
+            mq.MQCLOSE(connectionHandle, ctx.hObjRef(), MQCO_NONE, ctx.compCodeRef(), ctx.reasonRef());
+        }
+    }
+}
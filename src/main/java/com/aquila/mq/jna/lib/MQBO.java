@@ -0,0 +1,44 @@
+package com.aquila.mq.jna.lib;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MQBO - MQ Begin Options
+ * Structure that specifies options for MQBEGIN
+ * Based on cmqc.h
+ */
+public final class MQBO {
+
+    // Structure ID
+    public static final String MQBO_STRUC_ID = "BO  ";
+
+    // Version constants
+    public static final int MQBO_VERSION_1 = 1;
+    public static final int MQBO_CURRENT_VERSION = MQBO_VERSION_1;
+
+    // Structure length
+    public static final int MQBO_LENGTH_1 = 12;
+
+    // Begin options
+    public static final int MQBO_NONE = 0x00000000;
+
+    private MQBO() {
+    }
+
+    /**
+     * Create a Version 1 MQBO byte array (12 bytes)
+     */
+    public static byte[] createMinimalBO(int options) {
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(MQBO_LENGTH_1);
+        buffer.order(java.nio.ByteOrder.nativeOrder());
+
+        // StrucId "BO  "
+        buffer.put(MQBO_STRUC_ID.getBytes(StandardCharsets.US_ASCII));
+        // Version
+        buffer.putInt(MQBO_VERSION_1);
+        // Options
+        buffer.putInt(options);
+
+        return buffer.array();
+    }
+}
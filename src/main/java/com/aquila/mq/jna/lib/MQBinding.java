@@ -0,0 +1,84 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Native;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+
+/**
+ * MQBinding - Selects how the MQ verbs of {@link IBMMQJNA} are bound to the native library
+ * <p>
+ * The binding is chosen once at startup with the {@code mq.binding} system property,
+ * e.g. {@code -Dmq.binding=direct}. Without the property the JNA proxy binding is used.
+ * The {@code panama} binding needs Java 22+ and the multi-release jar: without them
+ * {@link #load()} falls back to the proxy binding, while {@link #create()} refuses it.
+ */
+@Slf4j
+public enum MQBinding {
+
+    /**
+     * JNA interface mapping (Native.load): every call goes through the reflective proxy
+     */
+    PROXY,
+
+    /**
+     * JNA direct mapping (Native.register): verbs are registered as native methods
+     */
+    DIRECT,
+
+    /**
+     * Foreign Function &amp; Memory API (java.lang.foreign): verbs are called through downcall handles
+     */
+    PANAMA;
+
+    // System property used to select the binding
+    public static final String BINDING_PROPERTY = "mq.binding";
+
+    // Linux: libmqm.so, Windows: mqm.dll
+    public static final String LIBRARY_NAME = "mqm";
+
+    /**
+     * Create a new binding of this kind
+     */
+    public IBMMQJNA create() {
+        switch (this) {
+            case DIRECT:
+                return new IBMMQJNADirect();
+            case PANAMA:
+                return PanamaBinding.create();
+            case PROXY:
+            default:
+                return Native.load(LIBRARY_NAME, IBMMQJNA.class);
+        }
+    }
+
+    /**
+     * Get the binding requested by the mq.binding system property
+     */
+    public static MQBinding fromProperty() {
+        String value = System.getProperty(BINDING_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return PROXY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown {} value '{}', falling back to {}", BINDING_PROPERTY, value, PROXY);
+            return PROXY;
+        }
+    }
+
+    /**
+     * Load the binding requested by the mq.binding system property
+     */
+    public static IBMMQJNA load() {
+        MQBinding binding = fromProperty();
+        log.debug("Loading IBM MQ library '{}' with {} binding", LIBRARY_NAME, binding);
+        try {
+            return binding.create();
+        } catch (UnsupportedOperationException e) {
+            log.warn("{} binding unavailable, falling back to {}: {}", binding, PROXY, e.getMessage());
+            return PROXY.create();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCBCLayout;
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+
+/**
+ * MQCBC - MQ Callback Context
+ * Structure passed to a callback function by the queue manager
+ * Based on cmqc.h
+ * <p>
+ * The context is only valid during the callback; the offsets allow reading single fields
+ * from the pointer without mapping the whole structure.
+ */
+@Structure.FieldOrder({"StrucId", "Version", "CallType", "Hobj", "CallbackArea", "ConnectionArea",
+        "CompCode", "Reason", "State", "DataLength", "BufferLength", "Flags", "ReconnectDelay"})
+public class MQCBC extends Structure {
+
+    // Structure ID
+    public static final String MQCBC_STRUC_ID = "CBC ";
+
+    // Version constants
+    public static final int MQCBC_VERSION_1 = 1;
+    public static final int MQCBC_VERSION_2 = 2;
+
+    // Call types
+    public static final int MQCBCT_START_CALL = 1;
+    public static final int MQCBCT_STOP_CALL = 2;
+    public static final int MQCBCT_REGISTER_CALL = 3;
+    public static final int MQCBCT_DEREGISTER_CALL = 4;
+    public static final int MQCBCT_EVENT_CALL = 5;
+    public static final int MQCBCT_MSG_REMOVED = 6;
+    public static final int MQCBCT_MSG_NOT_REMOVED = 7;
+    public static final int MQCBCT_MC_EVENT_CALL = 8;
+
+    // Field offsets, from the generated layout
+    public static final int CALL_TYPE_OFFSET = MQCBCLayout.CALL_TYPE_OFFSET;
+    public static final int HOBJ_OFFSET = MQCBCLayout.HOBJ_OFFSET;
+    public static final int COMP_CODE_OFFSET = MQCBCLayout.COMP_CODE_OFFSET;
+    public static final int REASON_OFFSET = MQCBCLayout.REASON_OFFSET;
+    public static final int DATA_LENGTH_OFFSET = MQCBCLayout.DATA_LENGTH_OFFSET;
+    public static final int BUFFER_LENGTH_OFFSET = MQCBCLayout.BUFFER_LENGTH_OFFSET;
+
+    // Structure fields - Version 1
+    public byte[] StrucId = new byte[4];              // Structure identifier
+    public int Version;                               // Structure version number
+    public int CallType;                              // Why the function was called
+    public int Hobj;                                  // Object handle
+    public Pointer CallbackArea;                      // Callback data passed to the function
+    public Pointer ConnectionArea;                    // Connection data passed to the function
+    public int CompCode;                              // Completion code
+    public int Reason;                                // Reason code qualifying CompCode
+    public int State;                                 // Indication of the state of the current consumer
+    public int DataLength;                            // Length of message data
+    public int BufferLength;                          // Length of message buffer
+    public int Flags;                                 // Flags containing information about this consumer
+
+    // Version 2 fields
+    public int ReconnectDelay;                        // Number of milliseconds before reconnect attempt
+
+    public MQCBC() {
+        super();
+    }
+
+    /**
+     * Map the context passed to a callback
+     */
+    public MQCBC(Pointer p) {
+        super(p);
+        read();
+    }
+}
@@ -0,0 +1,91 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * MQCBD - MQ Callback Descriptor
+ * Structure that describes the callback function registered with MQCB
+ * Based on cmqc.h
+ */
+@Structure.FieldOrder({"StrucId", "Version", "CallbackType", "Options", "CallbackArea",
+        "CallbackFunction", "CallbackName", "MaxMsgLength"})
+public class MQCBD extends Structure {
+
+    // Structure ID
+    public static final String MQCBD_STRUC_ID = "CBD ";
+
+    // Version constants
+    public static final int MQCBD_VERSION_1 = 1;
+    public static final int MQCBD_CURRENT_VERSION = MQCBD_VERSION_1;
+
+    // Callback types
+    public static final int MQCBT_MESSAGE_CONSUMER = 1;
+    public static final int MQCBT_EVENT_HANDLER = 2;
+
+    // Callback options
+    public static final int MQCBDO_NONE = 0x00000000;
+    public static final int MQCBDO_START_CALL = 0x00000001;
+    public static final int MQCBDO_STOP_CALL = 0x00000004;
+    public static final int MQCBDO_REGISTER_CALL = 0x00000100;
+    public static final int MQCBDO_DEREGISTER_CALL = 0x00000200;
+    public static final int MQCBDO_FAIL_IF_QUIESCING = 0x00002000;
+    public static final int MQCBDO_EVENT_CALL = 0x00004000;
+    public static final int MQCBDO_MC_EVENT_CALL = 0x00008000;
+
+    // Maximum message length
+    public static final int MQCBD_FULL_MSG_LENGTH = -1;
+
+    // MQCB operations
+    public static final int MQOP_REGISTER = 0x00000100;
+    public static final int MQOP_DEREGISTER = 0x00000200;
+    public static final int MQOP_SUSPEND = 0x00010000;
+    public static final int MQOP_RESUME = 0x00020000;
+
+    // Structure fields - Version 1
+    public byte[] StrucId = new byte[4];              // Structure identifier
+    public int Version = MQCBD_VERSION_1;             // Structure version number
+    public int CallbackType = MQCBT_MESSAGE_CONSUMER; // Callback function type
+    public int Options = MQCBDO_NONE;                 // Options controlling message consumption
+    public Pointer CallbackArea = null;               // Callback data passed to the function
+    public Callback CallbackFunction = null;          // Callback function pointer
+    public byte[] CallbackName = new byte[128];       // Callback name (dynamically loaded functions only)
+    public int MaxMsgLength = MQCBD_FULL_MSG_LENGTH;  // Maximum message length
+
+    /**
+     * MQ message consumer and event handler function
+     * <code>
+     * void MQENTRY MessageConsumer (
+     * MQHCONN   Hconn,           // I: Connection handle
+     * PMQMD     pMsgDesc,        // IO: Message descriptor
+     * PMQGMO    pGetMsgOpts,     // IO: Get message options
+     * PMQVOID   pBuffer,         // IO: Message data
+     * PMQCBC    pContext);       // IO: Context data
+     * </code>
+     * The pointers are only valid for the duration of the call.
+     */
+    public interface MQCallback extends Callback {
+        void callback(int Hconn, Pointer pMsgDesc, Pointer pGetMsgOpts, Pointer pBuffer, Pointer pContext);
+    }
+
+    public MQCBD() {
+        super();
+        System.arraycopy(MQCBD_STRUC_ID.getBytes(StandardCharsets.US_ASCII), 0, StrucId, 0, 4);
+        Arrays.fill(CallbackName, (byte) 0);
+    }
+
+    /**
+     * Create a descriptor for a callback function
+     */
+    public static MQCBD create(int callbackType, int options, MQCallback function) {
+        MQCBD cbd = new MQCBD();
+        cbd.CallbackType = callbackType;
+        cbd.Options = options;
+        cbd.CallbackFunction = function;
+        return cbd;
+    }
+}
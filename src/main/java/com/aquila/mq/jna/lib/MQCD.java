@@ -3,7 +3,6 @@ package com.aquila.mq.jna.lib;
 import com.sun.jna.Pointer;
 import com.sun.jna.Structure;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**
@@ -225,9 +224,7 @@ public class MQCD extends Structure {
      * @param name The channel name to set (max 20 characters)
      */
     public void setChannelName(String name) {
-        Arrays.fill(ChannelName, (byte) ' ');
-        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(nameBytes, 0, ChannelName, 0, Math.min(nameBytes.length, ChannelName.length));
+        MQNameCodec.DEFAULT.encode(name, ChannelName, 0, ChannelName.length);
     }
 
     /**
@@ -236,20 +233,14 @@ public class MQCD extends Structure {
      * @param connName The connection name to set (max 264 characters)
      */
     public void setConnectionName(String connName) {
-        Arrays.fill(ConnectionName, (byte) ' ');
-        byte[] connBytes = connName.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(connBytes, 0, ConnectionName, 0, Math.min(connBytes.length, ConnectionName.length));
+        MQNameCodec.DEFAULT.encode(connName, ConnectionName, 0, ConnectionName.length);
     }
 
     public void setUser(String user) {
-        Arrays.fill(UserIdentifier, (byte) ' ');
-        byte[] userBytes = user.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(userBytes, 0, UserIdentifier, 0, Math.min(userBytes.length, UserIdentifier.length));
+        MQNameCodec.DEFAULT.encode(user, UserIdentifier, 0, UserIdentifier.length);
     }
 
     public void setPassword(String password) {
-        Arrays.fill(Password, (byte) ' ');
-        byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(passwordBytes, 0, Password, 0, Math.min(passwordBytes.length, Password.length));
+        MQNameCodec.DEFAULT.encodeUncached(password, Password, 0, Password.length);
     }
 }
\ No newline at end of file
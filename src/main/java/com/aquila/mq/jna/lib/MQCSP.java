@@ -62,7 +62,7 @@ public class MQCSP extends Structure {
         // Set user ID
         if (userId != null && !userId.isEmpty()) {
             byte[] userIdBytes = userId.getBytes(StandardCharsets.UTF_8);
-            userIdMemory = new Memory(userIdBytes.length);
+            userIdMemory = reuse(userIdMemory, userIdBytes.length);
             userIdMemory.write(0, userIdBytes, 0, userIdBytes.length);
             CSPUserIdPtr = userIdMemory;
             CSPUserIdLength = userIdBytes.length;
@@ -71,13 +71,21 @@ public class MQCSP extends Structure {
         // Set password
         if (password != null && !password.isEmpty()) {
             byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
-            passwordMemory = new Memory(passwordBytes.length);
+            passwordMemory = reuse(passwordMemory, passwordBytes.length);
             passwordMemory.write(0, passwordBytes, 0, passwordBytes.length);
             CSPPasswordPtr = passwordMemory;
             CSPPasswordLength = passwordBytes.length;
         }
     }
 
+    /**
+     * Keep the previous block when the new value fits, so that resetting the credentials
+     * before each reconnect does not allocate
+     */
+    private static Memory reuse(Memory memory, int length) {
+        return memory != null && memory.size() >= length ? memory : new Memory(length);
+    }
+
     public static class ByReference extends MQCSP implements Structure.ByReference {
     }
 }
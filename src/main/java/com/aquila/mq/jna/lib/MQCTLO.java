@@ -0,0 +1,53 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MQCTLO - MQ Control Callback Options
+ * Structure that specifies options for MQCTL
+ * Based on cmqc.h
+ */
+@Structure.FieldOrder({"StrucId", "Version", "Options", "Reserved", "ConnectionArea"})
+public class MQCTLO extends Structure {
+
+    // Structure ID
+    public static final String MQCTLO_STRUC_ID = "CTLO";
+
+    // Version constants
+    public static final int MQCTLO_VERSION_1 = 1;
+    public static final int MQCTLO_CURRENT_VERSION = MQCTLO_VERSION_1;
+
+    // Control options
+    public static final int MQCTLO_NONE = 0x00000000;
+    public static final int MQCTLO_THREAD_AFFINITY = 0x00000001;
+    public static final int MQCTLO_FAIL_IF_QUIESCING = 0x00002000;
+
+    // MQCTL operations
+    public static final int MQOP_START = 0x00000001;
+    public static final int MQOP_START_WAIT = 0x00000002;
+    public static final int MQOP_STOP = 0x00000004;
+
+    // Structure fields - Version 1
+    public byte[] StrucId = new byte[4];              // Structure identifier
+    public int Version = MQCTLO_VERSION_1;            // Structure version number
+    public int Options = MQCTLO_NONE;                 // Options that control the action of MQCTL
+    public int Reserved = -1;                         // Reserved (MQWI_UNLIMITED)
+    public Pointer ConnectionArea = null;             // Connection data passed to callback functions
+
+    public MQCTLO() {
+        super();
+        System.arraycopy(MQCTLO_STRUC_ID.getBytes(StandardCharsets.US_ASCII), 0, StrucId, 0, 4);
+    }
+
+    /**
+     * Create control options
+     */
+    public static MQCTLO create(int options) {
+        MQCTLO ctlo = new MQCTLO();
+        ctlo.Options = options;
+        return ctlo;
+    }
+}
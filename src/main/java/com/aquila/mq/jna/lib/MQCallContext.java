@@ -0,0 +1,126 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Memory;
+import com.sun.jna.ptr.IntByReference;
+
+import static com.ibm.mq.constants.CMQC.MQCC_FAILED;
+import static com.ibm.mq.constants.CMQC.MQCC_OK;
+
+/**
+ * MQCallContext - Per-thread output slots of the MQ verbs
+ * <p>
+ * The connection handle, object handle, completion code, reason and data length live in one
+ * preallocated native block. The {@link IntByReference} passed to the verbs are views on that block,
+ * and the results are read back as primitives. With the direct binding a verb call then allocates
+ * nothing; the proxy binding still boxes the arguments of each call:
+ * <pre>
+ * MQCallContext ctx = MQCallContext.current();
+ * IBMMQJNA.INSTANCE.MQPUT(hConn, hObj, md, pmo, length, data, ctx.compCodeRef(), ctx.reasonRef());
+ * if (!ctx.isOk()) { ... ctx.getReason() ... }
+ * </pre>
+ * A context is only used by its own thread; read the slots before the next verb call on that
+ * thread overwrites them.
+ */
+public final class MQCallContext {
+
+    // One MQLONG slot per output, in the order of the fields
+    private static final int SLOT_SIZE = Integer.BYTES;
+    private static final int HCONN_OFFSET = 0;
+    private static final int HOBJ_OFFSET = HCONN_OFFSET + SLOT_SIZE;
+    private static final int COMP_CODE_OFFSET = HOBJ_OFFSET + SLOT_SIZE;
+    private static final int REASON_OFFSET = COMP_CODE_OFFSET + SLOT_SIZE;
+    private static final int DATA_LENGTH_OFFSET = REASON_OFFSET + SLOT_SIZE;
+    private static final int SIZE = DATA_LENGTH_OFFSET + SLOT_SIZE;
+
+    private static final ThreadLocal<MQCallContext> CURRENT = ThreadLocal.withInitial(MQCallContext::new);
+
+    private final Memory memory = new Memory(SIZE);
+    private final IntByReference hConn = slot(HCONN_OFFSET);
+    private final IntByReference hObj = slot(HOBJ_OFFSET);
+    private final IntByReference compCode = slot(COMP_CODE_OFFSET);
+    private final IntByReference reason = slot(REASON_OFFSET);
+    private final IntByReference dataLength = slot(DATA_LENGTH_OFFSET);
+
+    private MQCallContext() {
+        memory.clear();
+    }
+
+    /**
+     * @return the call context of the current thread
+     */
+    public static MQCallContext current() {
+        return CURRENT.get();
+    }
+
+    private IntByReference slot(int offset) {
+        IntByReference ref = new IntByReference();
+        ref.setPointer(memory.share(offset, SLOT_SIZE));
+        return ref;
+    }
+
+    // ========== Slots passed to the verbs ==========
+
+    public IntByReference hConnRef() {
+        return hConn;
+    }
+
+    public IntByReference hObjRef() {
+        return hObj;
+    }
+
+    public IntByReference compCodeRef() {
+        return compCode;
+    }
+
+    public IntByReference reasonRef() {
+        return reason;
+    }
+
+    public IntByReference dataLengthRef() {
+        return dataLength;
+    }
+
+    // ========== Primitive access ==========
+
+    public int getHConn() {
+        return memory.getInt(HCONN_OFFSET);
+    }
+
+    public void setHConn(int value) {
+        memory.setInt(HCONN_OFFSET, value);
+    }
+
+    public int getHObj() {
+        return memory.getInt(HOBJ_OFFSET);
+    }
+
+    public void setHObj(int value) {
+        memory.setInt(HOBJ_OFFSET, value);
+    }
+
+    public int getCompCode() {
+        return memory.getInt(COMP_CODE_OFFSET);
+    }
+
+    public int getReason() {
+        return memory.getInt(REASON_OFFSET);
+    }
+
+    public int getDataLength() {
+        return memory.getInt(DATA_LENGTH_OFFSET);
+    }
+
+    /**
+     * @return true if the last verb completed with MQCC_OK
+     */
+    public boolean isOk() {
+        return getCompCode() == MQCC_OK;
+    }
+
+    /**
+     * @return true if the last verb completed with MQCC_FAILED
+     */
+    public boolean failed() {
+        return getCompCode() == MQCC_FAILED;
+    }
+}
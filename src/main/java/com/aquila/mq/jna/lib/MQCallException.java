@@ -0,0 +1,30 @@
+package com.aquila.mq.jna.lib;
+
+/**
+ * MQCallException - An MQ verb completed with a failure
+ */
+public class MQCallException extends Exception {
+    private final int compCode;
+    private final int reasonCode;
+
+    public MQCallException(String message, int compCode, int reasonCode) {
+        super(message + " (CompCode: " + compCode + ", Reason: " + reasonCode + ")");
+        this.compCode = compCode;
+        this.reasonCode = reasonCode;
+    }
+
+    /**
+     * Build the exception from the results held in a call context
+     */
+    public MQCallException(String message, MQCallContext ctx) {
+        this(message, ctx.getCompCode(), ctx.getReason());
+    }
+
+    public int getCompCode() {
+        return compCode;
+    }
+
+    public int getReasonCode() {
+        return reasonCode;
+    }
+}
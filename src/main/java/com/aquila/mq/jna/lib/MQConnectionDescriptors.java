@@ -0,0 +1,213 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCDLayout;
+import com.aquila.mq.jna.lib.layout.MQCNOLayout;
+import com.aquila.mq.jna.lib.layout.MQCSPLayout;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.ibm.mq.constants.CMQC.MQ_CSP_PASSWORD_LENGTH;
+import static com.ibm.mq.constants.CMQXC.MQCHT_CLNTCONN;
+import static com.ibm.mq.constants.CMQXC.MQXPT_TCP;
+
+/**
+ * MQConnectionDescriptors - Client connection descriptors built once for every MQCONNX
+ * <p>
+ * {@link MQCNO#setClientConnection} and {@link MQCNO#setSecurityParms} write the MQCD (close to
+ * 2 KB) and the MQCSP into fresh native memory on every connect. Here the queue manager name, the
+ * MQCNO, the MQCD, the MQCSP and the credentials live in one long-lived native block, linked by
+ * pointers once, and MQCONNX is called on that block as is:
+ * <pre>
+ * MQConnectionDescriptors descriptors = new MQConnectionDescriptors("QM1", "DEV.APP.SVRCONN", "host(1414)");
+ * descriptors.setCredentials("app", "passw0rd");
+ * int hConn = descriptors.connect();
+ * </pre>
+ * so re-establishing a pool of connections after a failover costs the MQCONNX calls only.
+ * <p>
+ * MQCONNX writes its outputs (ConnectionId) into the MQCNO: an instance is not thread safe,
+ * threads connecting in parallel each use their own {@link #copy()}.
+ */
+public final class MQConnectionDescriptors {
+
+    // The MQCNO at its current version, the MQCSP at Version 1 (as the MQCSP mapping writes it)
+    static final int MQCNO_LENGTH = MQCNOLayout.SIZE;
+    static final int MQCSP_LENGTH = MQCSPLayout.LENGTH_1;
+    public static final int MAX_USER_ID_LENGTH = 1024;
+
+    // Layout of the native block, every structure 8-byte aligned
+    private static final int Q_MGR_NAME_OFFSET = 0;
+    private static final int CNO_OFFSET = Q_MGR_NAME_OFFSET + IBMMQJNA.MQ_Q_MGR_NAME_LENGTH;
+    private static final int CSP_OFFSET = CNO_OFFSET + MQCNO_LENGTH;
+    private static final int CD_OFFSET = CSP_OFFSET + MQCSP_LENGTH;
+    private static final int USER_ID_OFFSET = CD_OFFSET + MQCDLayout.SIZE;
+    private static final int PASSWORD_OFFSET = USER_ID_OFFSET + MAX_USER_ID_LENGTH;
+    private static final int SIZE = PASSWORD_OFFSET + MQ_CSP_PASSWORD_LENGTH;
+
+    // Fields of the block, at the offsets of the generated layouts
+    private static final int OPTIONS = CNO_OFFSET + MQCNOLayout.OPTIONS_OFFSET;
+    private static final int CLIENT_CONN_PTR = CNO_OFFSET + MQCNOLayout.CLIENT_CONN_PTR_OFFSET;
+    private static final int SECURITY_PARMS_PTR = CNO_OFFSET + MQCNOLayout.SECURITY_PARMS_PTR_OFFSET;
+    private static final int AUTHENTICATION_TYPE = CSP_OFFSET + MQCSPLayout.AUTHENTICATION_TYPE_OFFSET;
+    private static final int USER_ID_PTR = CSP_OFFSET + MQCSPLayout.CSP_USER_ID_PTR_OFFSET;
+    private static final int USER_ID_LENGTH = CSP_OFFSET + MQCSPLayout.CSP_USER_ID_LENGTH_OFFSET;
+    private static final int PASSWORD_PTR = CSP_OFFSET + MQCSPLayout.CSP_PASSWORD_PTR_OFFSET;
+    private static final int PASSWORD_LENGTH = CSP_OFFSET + MQCSPLayout.CSP_PASSWORD_LENGTH_OFFSET;
+
+    private final Memory memory = new Memory(SIZE);
+    private final Pointer queueManagerNamePointer = memory.share(Q_MGR_NAME_OFFSET);
+    private final Pointer connectOptions = memory.share(CNO_OFFSET);
+    private final MQCDLayout channelDefinition;
+    private String queueManagerName;
+
+    /**
+     * Build the descriptors of a TCP client connection
+     *
+     * @param queueManagerName Queue manager name
+     * @param channelName      Client connection channel (MQCD ChannelName)
+     * @param connectionName   host(port) (MQCD ConnectionName)
+     */
+    public MQConnectionDescriptors(String queueManagerName, String channelName, String connectionName) {
+        memory.clear();
+        channelDefinition = new MQCDLayout(memory.getByteBuffer(CD_OFFSET, MQCDLayout.SIZE), 0);
+        // Same defaults as the JNA structures, encoded once
+        write(CNO_OFFSET, new MQCNO());
+        write(CSP_OFFSET, new MQCSP());
+        write(CD_OFFSET, new MQCD());
+        memory.setInt(OPTIONS, MQCNO.MQCNO_CLIENT_BINDING);
+
+        channelDefinition.setVersion(MQCD.MQCD_VERSION_10);
+        channelDefinition.setChannelName(channelName);
+        channelDefinition.setConnectionName(connectionName);
+        channelDefinition.setChannelType(MQCHT_CLNTCONN);
+        channelDefinition.setTransportType(MQXPT_TCP);
+        setQueueManagerName(queueManagerName);
+        link();
+    }
+
+    private MQConnectionDescriptors(MQConnectionDescriptors source) {
+        memory.write(0, source.memory.getByteArray(0, SIZE), 0, SIZE);
+        channelDefinition = new MQCDLayout(memory.getByteBuffer(CD_OFFSET, MQCDLayout.SIZE), 0);
+        queueManagerName = source.queueManagerName;
+        link();
+    }
+
+    private void write(int offset, Structure structure) {
+        structure.write();
+        memory.write(offset, structure.getPointer().getByteArray(0, structure.size()), 0, structure.size());
+    }
+
+    /**
+     * Point the MQCNO to the MQCD and the MQCSP, and the MQCSP to the credentials, of this block
+     */
+    private void link() {
+        memory.setPointer(CLIENT_CONN_PTR, memory.share(CD_OFFSET));
+        boolean authenticated = memory.getInt(AUTHENTICATION_TYPE) != MQCSP.MQCSP_AUTH_NONE;
+        memory.setPointer(SECURITY_PARMS_PTR, authenticated ? memory.share(CSP_OFFSET) : null);
+        memory.setPointer(USER_ID_PTR, memory.share(USER_ID_OFFSET));
+        memory.setPointer(PASSWORD_PTR, memory.share(PASSWORD_OFFSET));
+    }
+
+    /**
+     * @return an independent copy of the descriptors, for another connecting thread
+     */
+    public MQConnectionDescriptors copy() {
+        return new MQConnectionDescriptors(this);
+    }
+
+    public String getQueueManagerName() {
+        return queueManagerName;
+    }
+
+    public void setQueueManagerName(String queueManagerName) {
+        MQNameCodec.DEFAULT.encode(queueManagerName, memory, Q_MGR_NAME_OFFSET, IBMMQJNA.MQ_Q_MGR_NAME_LENGTH);
+        this.queueManagerName = queueManagerName;
+    }
+
+    /**
+     * @return the MQCNO Options (MQCNO_CLIENT_BINDING by default)
+     */
+    public int getOptions() {
+        return memory.getInt(OPTIONS);
+    }
+
+    /**
+     * Set the MQCNO Options, e.g. MQCNO_CLIENT_BINDING | MQCNO_RECONNECT
+     */
+    public void setOptions(int options) {
+        memory.setInt(OPTIONS, options);
+    }
+
+    /**
+     * The MQCD in the block, to set further channel attributes (SharingConversations,
+     * KeepAliveInterval, SSLCipherSpec, ...) before connecting
+     */
+    public MQCDLayout getChannelDefinition() {
+        return channelDefinition;
+    }
+
+    /**
+     * Authenticate with a user ID and a password (MQCSP_AUTH_USER_ID_AND_PWD)
+     */
+    public void setCredentials(String userId, String password) {
+        byte[] userIdBytes = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        if (userIdBytes.length > MAX_USER_ID_LENGTH) {
+            throw new IllegalArgumentException("User ID longer than " + MAX_USER_ID_LENGTH + " bytes");
+        }
+        if (passwordBytes.length > MQ_CSP_PASSWORD_LENGTH) {
+            throw new IllegalArgumentException("Password longer than " + MQ_CSP_PASSWORD_LENGTH + " bytes");
+        }
+        clearCredentials();
+        memory.write(USER_ID_OFFSET, userIdBytes, 0, userIdBytes.length);
+        memory.write(PASSWORD_OFFSET, passwordBytes, 0, passwordBytes.length);
+        memory.setInt(USER_ID_LENGTH, userIdBytes.length);
+        memory.setInt(PASSWORD_LENGTH, passwordBytes.length);
+        memory.setInt(AUTHENTICATION_TYPE, MQCSP.MQCSP_AUTH_USER_ID_AND_PWD);
+        link();
+    }
+
+    /**
+     * Zero the credentials and connect without an MQCSP
+     */
+    public void clearCredentials() {
+        memory.setMemory(USER_ID_OFFSET, MAX_USER_ID_LENGTH + MQ_CSP_PASSWORD_LENGTH, (byte) 0);
+        memory.setInt(USER_ID_LENGTH, 0);
+        memory.setInt(PASSWORD_LENGTH, 0);
+        memory.setInt(AUTHENTICATION_TYPE, MQCSP.MQCSP_AUTH_NONE);
+        link();
+    }
+
+    /**
+     * @return the MQCNO, pointing to the MQCD and MQCSP of the block
+     */
+    public Pointer getConnectOptions() {
+        return connectOptions;
+    }
+
+    /**
+     * Connect with the default binding
+     *
+     * @return the connection handle
+     */
+    public int connect() throws MQCallException {
+        return connect(IBMMQJNA.INSTANCE);
+    }
+
+    /**
+     * Connect (MQCONNX) with the descriptors of the block
+     *
+     * @param mq The MQ binding
+     * @return the connection handle
+     */
+    public int connect(IBMMQJNA mq) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQCONNX(queueManagerNamePointer, connectOptions, ctx.hConnRef(), ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException("MQCONNX failed for " + queueManagerName, ctx);
+        }
+        return ctx.getHConn();
+    }
+}
@@ -0,0 +1,283 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.CallbackThreadInitializer;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * MQConsumer - Callback-driven consumption of one or more queues on a connection
+ * <p>
+ * Each queue is registered with MQCB; once {@link #start()} has called MQCTL, the queue manager
+ * delivers messages on its own dispatch thread instead of one thread blocking in MQGET per queue.
+ * The message is copied out of the callback buffers and handed to the executor given at
+ * construction ({@code Runnable::run} processes it on the dispatch thread).
+ * <p>
+ * Messages are got outside syncpoint: a message handed to the executor has already been
+ * removed from the queue.
+ */
+@Slf4j
+public class MQConsumer implements AutoCloseable {
+
+    private static final int OPEN_OPTIONS = MQOO_INPUT_AS_Q_DEF | MQOO_FAIL_IF_QUIESCING;
+    private static final int GET_OPTIONS = MQGMO.MQGMO_NO_SYNCPOINT | MQGMO.MQGMO_CONVERT | MQGMO.MQGMO_FAIL_IF_QUIESCING;
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    private final Executor executor;
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final MQCTLO controlOptions = MQCTLO.create(MQCTLO.MQCTLO_FAIL_IF_QUIESCING);
+    private volatile boolean started;
+
+    /**
+     * Receives the messages of a queue
+     */
+    @FunctionalInterface
+    public interface MessageListener {
+        void onMessage(ConsumedMessage message);
+    }
+
+    /**
+     * A delivered message, copied out of the callback buffers
+     */
+    public static final class ConsumedMessage {
+        private final String queueName;
+        private final byte[] msgDesc;
+        private final byte[] data;
+        private MQMDView msgDescView;
+
+        ConsumedMessage(String queueName, byte[] msgDesc, byte[] data) {
+            this.queueName = queueName;
+            this.msgDesc = msgDesc;
+            this.data = data;
+        }
+
+        public String getQueueName() {
+            return queueName;
+        }
+
+        /**
+         * @return the message descriptor, MQMD_LENGTH_2 bytes (the Version field tells whether
+         * the Version 2 fields were received)
+         */
+        public byte[] getMsgDesc() {
+            return msgDesc;
+        }
+
+        /**
+         * @return a view decoding the descriptor fields only when they are read
+         */
+        public MQMDView msgDesc() {
+            if (msgDescView == null) {
+                msgDescView = new MQMDView(ByteBuffer.wrap(msgDesc), 0);
+            }
+            return msgDescView;
+        }
+
+        public byte[] getMsgId() {
+            byte[] msgId = new byte[MQMD.MQ_MSG_ID_LENGTH];
+            System.arraycopy(msgDesc, MQMD.MSG_ID_OFFSET, msgId, 0, MQMD.MQ_MSG_ID_LENGTH);
+            return msgId;
+        }
+
+        public byte[] getCorrelId() {
+            byte[] correlId = new byte[MQMD.MQ_CORREL_ID_LENGTH];
+            System.arraycopy(msgDesc, MQMD.CORREL_ID_OFFSET, correlId, 0, MQMD.MQ_CORREL_ID_LENGTH);
+            return correlId;
+        }
+
+        public MQId msgId() {
+            return MQId.read(msgDesc, MQMD.MSG_ID_OFFSET);
+        }
+
+        public MQId correlId() {
+            return MQId.read(msgDesc, MQMD.CORREL_ID_OFFSET);
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    /**
+     * Create a consumer for the given connection with the default binding
+     *
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param executor         Executor running the listeners
+     */
+    public MQConsumer(int connectionHandle, Executor executor) {
+        this(IBMMQJNA.INSTANCE, connectionHandle, executor);
+    }
+
+    /**
+     * Create a consumer for the given connection
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param executor         Executor running the listeners
+     */
+    public MQConsumer(IBMMQJNA mq, int connectionHandle, Executor executor) {
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+        this.executor = executor;
+    }
+
+    /**
+     * Open a queue and register its listener. Register queues before {@link #start()}.
+     */
+    public void subscribe(String queueName, MessageListener listener) throws MQCallException {
+        if (started) {
+            throw new IllegalStateException("Consumer already started, subscribe before start()");
+        }
+        if (registrations.containsKey(queueName)) {
+            throw new IllegalArgumentException("Queue already subscribed: " + queueName);
+        }
+        MQCallContext ctx = MQCallContext.current();
+
+        MQOD od = new MQOD();
+        od.setObjectName(queueName);
+        mq.MQOPEN(connectionHandle, od.toBytes(), OPEN_OPTIONS, ctx.hObjRef(), ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException("MQOPEN failed for " + queueName, ctx);
+        }
+
+        Registration registration = new Registration(queueName, ctx.getHObj(), listener);
+        // Keep the MQ dispatch thread attached to the JVM between callbacks
+        Native.setCallbackThreadInitializer(registration,
+                new CallbackThreadInitializer(true, false, "mq-consumer-" + queueName));
+
+        mq.MQCB(
+                connectionHandle,
+                MQCBD.MQOP_REGISTER,
+                registration.descriptor,
+                registration.hObj,
+                MQDescriptorTemplates.msgDesc(MQMD.MQFMT_NONE, null).newCopy(),
+                MQDescriptorTemplates.getOptions(GET_OPTIONS, MQGMO.MQWI_UNLIMITED, MQGMO.MQMO_NONE).newCopy(),
+                ctx.compCodeRef(),
+                ctx.reasonRef()
+        );
+        if (ctx.failed()) {
+            int compCode = ctx.getCompCode();
+            int reason = ctx.getReason();
+            closeQueue(registration.hObj);
+            throw new MQCallException("MQCB register failed for " + queueName, compCode, reason);
+        }
+        registrations.put(queueName, registration);
+        log.debug("Consumer registered on {}, handle: {}", queueName, registration.hObj);
+    }
+
+    /**
+     * Start message delivery on the connection (MQCTL MQOP_START)
+     */
+    public void start() throws MQCallException {
+        control(MQCTLO.MQOP_START, "MQCTL start failed");
+        started = true;
+    }
+
+    /**
+     * Stop message delivery on the connection (MQCTL MQOP_STOP).
+     * The consumer stays started when MQCTL fails, so that stop() or close() can be retried.
+     */
+    public void stop() throws MQCallException {
+        control(MQCTLO.MQOP_STOP, "MQCTL stop failed");
+        started = false;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    private void control(int operation, String error) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQCTL(connectionHandle, operation, controlOptions, ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException(error, ctx);
+        }
+    }
+
+    /**
+     * Stop delivery, deregister the callbacks and close the queues
+     */
+    @Override
+    public void close() {
+        if (started) {
+            try {
+                stop();
+            } catch (MQCallException e) {
+                log.warn("Failed to stop consumer: {}", e.getMessage());
+            }
+        }
+        MQCallContext ctx = MQCallContext.current();
+        for (Registration registration : registrations.values()) {
+            mq.MQCB(connectionHandle, MQCBD.MQOP_DEREGISTER, registration.descriptor, registration.hObj,
+                    null, null, ctx.compCodeRef(), ctx.reasonRef());
+            closeQueue(registration.hObj);
+            log.debug("Consumer on {} closed", registration.queueName);
+        }
+        registrations.clear();
+    }
+
+    private void closeQueue(int hObj) {
+        MQCallContext ctx = MQCallContext.current();
+        ctx.setHObj(hObj);
+        mq.MQCLOSE(connectionHandle, ctx.hObjRef(), MQCO_NONE, ctx.compCodeRef(), ctx.reasonRef());
+    }
+
+    /**
+     * Callback registered for one queue.
+     * Strongly referenced from the registrations map so that the native function pointer stays valid.
+     */
+    private final class Registration implements MQCBD.MQCallback {
+        final String queueName;
+        final int hObj;
+        final MessageListener listener;
+        final MQCBD descriptor;
+
+        Registration(String queueName, int hObj, MessageListener listener) {
+            this.queueName = queueName;
+            this.hObj = hObj;
+            this.listener = listener;
+            this.descriptor = MQCBD.create(MQCBD.MQCBT_MESSAGE_CONSUMER, MQCBD.MQCBDO_FAIL_IF_QUIESCING, this);
+        }
+
+        @Override
+        public void callback(int Hconn, Pointer pMsgDesc, Pointer pGetMsgOpts, Pointer pBuffer, Pointer pContext) {
+            int callType = pContext.getInt(MQCBC.CALL_TYPE_OFFSET);
+            if (callType != MQCBC.MQCBCT_MSG_REMOVED && callType != MQCBC.MQCBCT_MSG_NOT_REMOVED) {
+                if (callType == MQCBC.MQCBCT_EVENT_CALL) {
+                    log.warn("Consumer event on {}, Reason: {}", queueName, pContext.getInt(MQCBC.REASON_OFFSET));
+                }
+                return;
+            }
+            if (pContext.getInt(MQCBC.COMP_CODE_OFFSET) == MQCC_FAILED) {
+                log.warn("Consumer on {} failed, Reason: {}", queueName, pContext.getInt(MQCBC.REASON_OFFSET));
+                return;
+            }
+
+            // The buffers are only valid during the callback: copy before handing off
+            int length = Math.min(pContext.getInt(MQCBC.DATA_LENGTH_OFFSET),
+                    pContext.getInt(MQCBC.BUFFER_LENGTH_OFFSET));
+            byte[] msgDesc = new byte[MQMD.MQMD_LENGTH_2];
+            pMsgDesc.read(0, msgDesc, 0, pMsgDesc.getInt(MQMD.VERSION_OFFSET) >= MQMD.MQMD_VERSION_2
+                    ? MQMD.MQMD_LENGTH_2 : MQMD.MQMD_LENGTH_1);
+            ConsumedMessage message = new ConsumedMessage(queueName, msgDesc,
+                    length > 0 ? pBuffer.getByteArray(0, length) : new byte[0]);
+            try {
+                executor.execute(() -> listener.onMessage(message));
+            } catch (RejectedExecutionException e) {
+                log.error("Message from {} rejected by executor", queueName, e);
+            } catch (RuntimeException e) {
+                // Never let an exception unwind into the MQ dispatch thread
+                log.error("Listener on {} failed", queueName, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * MQDescriptorTemplate - An immutable, fully encoded MQ structure (MQMD, MQPMO, MQGMO, MQOD)
+ * <p>
+ * Built once by {@link MQDescriptorTemplates}; a send copies it into its own buffer and stamps
+ * only the fields that vary (MsgId, CorrelId, WaitInterval, ...).
+ */
+public final class MQDescriptorTemplate {
+
+    private final byte[] bytes;
+
+    MQDescriptorTemplate(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * @return a new array holding the structure, for the verbs that update it in place
+     */
+    public byte[] newCopy() {
+        return bytes.clone();
+    }
+
+    /**
+     * Copy the structure to the start of an array of at least {@link #length()} bytes
+     */
+    public void copyTo(byte[] dst) {
+        System.arraycopy(bytes, 0, dst, 0, bytes.length);
+    }
+
+    /**
+     * Copy the structure into a buffer at the given offset
+     */
+    public void copyTo(ByteBuffer dst, int offset) {
+        dst.put(offset, bytes);
+    }
+
+    /**
+     * Copy the structure into native memory at the given offset
+     */
+    public void copyTo(Pointer dst, long offset) {
+        dst.write(offset, bytes, 0, bytes.length);
+    }
+}
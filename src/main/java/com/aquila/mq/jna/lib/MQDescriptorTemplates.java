@@ -0,0 +1,106 @@
+package com.aquila.mq.jna.lib;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * MQDescriptorTemplates - Registry of descriptor templates, each built once
+ * <p>
+ * {@code MQMD.createMinimalMD}, {@code MQPMO.createMinimalPMO} and {@code MQGMO.createMinimalGMO}
+ * encode every field on each call. The registry encodes a variant the first time it is asked
+ * for and returns the same {@link MQDescriptorTemplate} afterwards:
+ * <ul>
+ *   <li>message descriptors by format and reply queue</li>
+ *   <li>put message options by options</li>
+ *   <li>get message options by options, wait interval and match options</li>
+ *   <li>object descriptors by object name</li>
+ * </ul>
+ * Lookups by name do not allocate. Lookups by options box the key, so keep the template in a
+ * constant where the options are fixed. Each registry stops caching at {@value #MAX_TEMPLATES}
+ * variants and builds the further ones on every call.
+ */
+public final class MQDescriptorTemplates {
+
+    static final int MAX_TEMPLATES = 1024;
+    private static final String NO_REPLY_QUEUE = "";
+
+    private static final Map<String, Map<String, MQDescriptorTemplate>> MSG_DESCS = new ConcurrentHashMap<>();
+    private static final Map<Integer, MQDescriptorTemplate> PUT_OPTIONS = new ConcurrentHashMap<>();
+    private static final Map<Long, Map<Integer, MQDescriptorTemplate>> GET_OPTIONS = new ConcurrentHashMap<>();
+    private static final Map<String, MQDescriptorTemplate> OBJECT_DESCS = new ConcurrentHashMap<>();
+
+    private MQDescriptorTemplates() {
+    }
+
+    /**
+     * Version 1 message descriptor: a request when a reply queue is given, a datagram otherwise
+     *
+     * @param format       Format name (MQMD.MQFMT_*)
+     * @param replyToQueue Reply queue, or null
+     */
+    public static MQDescriptorTemplate msgDesc(String format, String replyToQueue) {
+        String replyKey = replyToQueue != null ? replyToQueue : NO_REPLY_QUEUE;
+        Map<String, MQDescriptorTemplate> byReplyQueue = MSG_DESCS.get(format);
+        if (byReplyQueue == null) {
+            byReplyQueue = lookup(MSG_DESCS, format, f -> new ConcurrentHashMap<>());
+        }
+        MQDescriptorTemplate template = byReplyQueue.get(replyKey);
+        return template != null ? template : lookup(byReplyQueue, replyKey, r -> new MQDescriptorTemplate(
+                MQMD.createMinimalMD(format, replyToQueue != null ? MQMD.MQMT_REQUEST : MQMD.MQMT_DATAGRAM,
+                        replyToQueue)));
+    }
+
+    /**
+     * Version 1 put message options
+     *
+     * @param options Put options (MQPMO_*)
+     */
+    public static MQDescriptorTemplate putOptions(int options) {
+        MQDescriptorTemplate template = PUT_OPTIONS.get(options);
+        return template != null ? template : lookup(PUT_OPTIONS, options,
+                o -> new MQDescriptorTemplate(MQPMO.createMinimalPMO(o)));
+    }
+
+    /**
+     * Version 2 get message options
+     *
+     * @param options      Get options (MQGMO_*)
+     * @param waitInterval Wait interval in milliseconds
+     * @param matchOptions Match options (MQMO_*)
+     */
+    public static MQDescriptorTemplate getOptions(int options, int waitInterval, int matchOptions) {
+        long key = ((long) options << 32) | (matchOptions & 0xFFFFFFFFL);
+        Map<Integer, MQDescriptorTemplate> byWaitInterval = GET_OPTIONS.get(key);
+        if (byWaitInterval == null) {
+            byWaitInterval = lookup(GET_OPTIONS, key, k -> new ConcurrentHashMap<>());
+        }
+        MQDescriptorTemplate template = byWaitInterval.get(waitInterval);
+        return template != null ? template : lookup(byWaitInterval, waitInterval,
+                w -> new MQDescriptorTemplate(MQGMO.createMinimalGMO(options, w, matchOptions)));
+    }
+
+    /**
+     * Object descriptor of a queue: the full MQOD image ({@link MQODView#MQOD_LENGTH_4} bytes) with
+     * Version 1, so MQ reads the Version 1 fields only. The Version 4 fields are initialised, and a
+     * copy can be raised to Version 4 in place (object string, resolved type).
+     *
+     * @param objectName Queue name
+     */
+    public static MQDescriptorTemplate objectDescriptor(String objectName) {
+        MQDescriptorTemplate template = OBJECT_DESCS.get(objectName);
+        return template != null ? template : lookup(OBJECT_DESCS, objectName, name -> {
+            MQODView od = MQODView.allocate();
+            od.setObjectName(name);
+            return new MQDescriptorTemplate(od.toBytes());
+        });
+    }
+
+    private static <K, V> V lookup(Map<K, V> registry, K key, Function<K, V> builder) {
+        if (registry.size() >= MAX_TEMPLATES) {
+            V value = registry.get(key);
+            return value != null ? value : builder.apply(key);
+        }
+        return registry.computeIfAbsent(key, builder);
+    }
+}
@@ -1,5 +1,6 @@
 package com.aquila.mq.jna.lib;
 
+import com.aquila.mq.jna.lib.layout.MQGMOLayout;
 import com.sun.jna.Structure;
 
 import java.nio.charset.StandardCharsets;
@@ -26,6 +27,10 @@ public class MQGMO extends Structure {
     public static final int MQGMO_VERSION_4 = 4;
     public static final int MQGMO_CURRENT_VERSION = MQGMO_VERSION_4;
 
+    // Structure lengths
+    public static final int MQGMO_LENGTH_2 = MQGMOLayout.LENGTH_2;
+    public static final int MQGMO_LENGTH_4 = MQGMOLayout.LENGTH_4;
+
     // Get options
     public static final int MQGMO_NONE = 0x00000000;
     public static final int MQGMO_WAIT = 0x00000001;
@@ -128,7 +133,7 @@ public class MQGMO extends Structure {
      * Version 2 is needed for MatchOptions
      */
     public static byte[] createMinimalGMO(int options, int waitInterval, int matchOptions) {
-        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(80);
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(MQGMO_LENGTH_2);
         buffer.order(java.nio.ByteOrder.nativeOrder());
 
         // StrucId "GMO "
@@ -0,0 +1,123 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQGMOLayout;
+
+import java.nio.ByteBuffer;
+
+import static com.aquila.mq.jna.lib.MQGMO.*;
+
+/**
+ * MQGMOView - Flyweight MQGMO (Version 4, 112 bytes) over a direct ByteBuffer
+ *
+ * @see MQStructView
+ */
+public class MQGMOView extends MQStructView {
+
+    // Field offsets (generated from cmqc.h)
+    public static final int OPTIONS_OFFSET = MQGMOLayout.OPTIONS_OFFSET;
+    public static final int WAIT_INTERVAL_OFFSET = MQGMOLayout.WAIT_INTERVAL_OFFSET;
+    public static final int RESOLVED_Q_NAME_OFFSET = MQGMOLayout.RESOLVED_Q_NAME_OFFSET;
+    public static final int MATCH_OPTIONS_OFFSET = MQGMOLayout.MATCH_OPTIONS_OFFSET;
+    public static final int GROUP_STATUS_OFFSET = MQGMOLayout.GROUP_STATUS_OFFSET;
+    public static final int SEGMENT_STATUS_OFFSET = MQGMOLayout.SEGMENT_STATUS_OFFSET;
+    public static final int SEGMENTATION_OFFSET = MQGMOLayout.SEGMENTATION_OFFSET;
+    public static final int MSG_TOKEN_OFFSET = MQGMOLayout.MSG_TOKEN_OFFSET;
+    public static final int RETURNED_LENGTH_OFFSET = MQGMOLayout.RETURNED_LENGTH_OFFSET;
+    public static final int MSG_HANDLE_OFFSET = MQGMOLayout.MSG_HANDLE_OFFSET;
+
+    public static final int MQ_Q_NAME_LENGTH = 48;
+    public static final int MQ_MSG_TOKEN_LENGTH = 16;
+
+    /**
+     * View the get message options at the given offset of the buffer
+     */
+    public MQGMOView(ByteBuffer buffer, int offset) {
+        super(buffer, offset);
+    }
+
+    /**
+     * Allocate a direct buffer holding default get message options
+     */
+    public static MQGMOView allocate() {
+        MQGMOView view = new MQGMOView(ByteBuffer.allocateDirect(MQGMO_LENGTH_4), 0);
+        view.init();
+        return view;
+    }
+
+    /**
+     * Point the view at other get message options
+     */
+    public MQGMOView wrap(ByteBuffer buffer, int offset) {
+        attach(buffer, offset);
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return MQGMO_LENGTH_4;
+    }
+
+    @Override
+    public void init() {
+        putStrucId(MQGMO_STRUC_ID);
+        putInt(VERSION_OFFSET, MQGMO_VERSION_4);
+        putInt(OPTIONS_OFFSET, MQGMO_NO_WAIT);
+        putInt(WAIT_INTERVAL_OFFSET, 0);
+        putLong(16, 0L); // Signal1, Signal2
+        fill(RESOLVED_Q_NAME_OFFSET, MQ_Q_NAME_LENGTH, (byte) ' ');
+        putInt(MATCH_OPTIONS_OFFSET, MQMO_MATCH_MSG_ID | MQMO_MATCH_CORREL_ID);
+        fill(GROUP_STATUS_OFFSET, 4, (byte) ' ');
+        fill(MSG_TOKEN_OFFSET, MQ_MSG_TOKEN_LENGTH, (byte) 0);
+        putInt(RETURNED_LENGTH_OFFSET, -1);
+        putInt(RETURNED_LENGTH_OFFSET + 4, 0);
+        putLong(MSG_HANDLE_OFFSET, 0L);
+    }
+
+    public int getOptions() {
+        return getInt(OPTIONS_OFFSET);
+    }
+
+    public void setOptions(int options) {
+        putInt(OPTIONS_OFFSET, options);
+    }
+
+    public int getWaitInterval() {
+        return getInt(WAIT_INTERVAL_OFFSET);
+    }
+
+    public void setWaitInterval(int waitInterval) {
+        putInt(WAIT_INTERVAL_OFFSET, waitInterval);
+    }
+
+    public String getResolvedQName() {
+        return getName(RESOLVED_Q_NAME_OFFSET, MQ_Q_NAME_LENGTH);
+    }
+
+    public int getMatchOptions() {
+        return getInt(MATCH_OPTIONS_OFFSET);
+    }
+
+    public void setMatchOptions(int matchOptions) {
+        putInt(MATCH_OPTIONS_OFFSET, matchOptions);
+    }
+
+    public byte getGroupStatus() {
+        return buffer.get(base + GROUP_STATUS_OFFSET);
+    }
+
+    public byte getSegmentStatus() {
+        return buffer.get(base + SEGMENT_STATUS_OFFSET);
+    }
+
+    public int getReturnedLength() {
+        return getInt(RETURNED_LENGTH_OFFSET);
+    }
+
+    public long getMsgHandle() {
+        return getLong(MSG_HANDLE_OFFSET);
+    }
+
+    public void setMsgHandle(long hMsg) {
+        putLong(MSG_HANDLE_OFFSET, hMsg);
+    }
+}
@@ -0,0 +1,243 @@
+package com.aquila.mq.jna.lib;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * MQHandleCache - Per-connection cache of open object handles with LRU eviction
+ * <p>
+ * Opening a queue costs a full MQOPEN (a round trip to the queue manager for a client). The cache
+ * keeps the handles keyed by queue name and open options, so a destination is opened once and
+ * then reused:
+ * <pre>
+ * try (MQHandleCache handles = new MQHandleCache(hConn, 512)) {
+ *     handles.put("DEV.QUEUE.1", message);
+ * }
+ * </pre>
+ * Once {@code capacity} handles are open, the least recently used one is closed with MQCLOSE.
+ * A handle whose object definition changed since it was opened (MQRC_OBJECT_CHANGED) is closed
+ * and dropped, see {@link #invalidateIfChanged}.
+ * <p>
+ * Connection handles are bound to the thread that uses them, and so is the cache: an instance
+ * is not thread safe.
+ */
+@Slf4j
+public class MQHandleCache implements AutoCloseable {
+
+    public static final int DEFAULT_PUT_OPEN_OPTIONS = MQOO_OUTPUT | MQOO_FAIL_IF_QUIESCING;
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    private final int capacity;
+    private final LinkedHashMap<Key, Integer> handles;
+    private final Key probe = new Key();
+    // Copy target of the full-length MQOD image of MQDescriptorTemplates.objectDescriptor
+    private final byte[] objDesc = new byte[MQODView.MQOD_LENGTH_4];
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Key of an open handle: the queue name and the open options
+     */
+    private static final class Key {
+        String queueName;
+        int options;
+
+        Key set(String queueName, int options) {
+            this.queueName = queueName;
+            this.options = options;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return options == other.options && queueName.equals(other.queueName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * queueName.hashCode() + options;
+        }
+
+        @Override
+        public String toString() {
+            return queueName + " (options " + options + ")";
+        }
+    }
+
+    /**
+     * Create a handle cache for the given connection with the default binding
+     *
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param capacity         Maximum number of open handles
+     */
+    public MQHandleCache(int connectionHandle, int capacity) {
+        this(IBMMQJNA.INSTANCE, connectionHandle, capacity);
+    }
+
+    /**
+     * Create a handle cache for the given connection
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param capacity         Maximum number of open handles
+     */
+    public MQHandleCache(IBMMQJNA mq, int connectionHandle, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+        this.capacity = capacity;
+        this.handles = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+                if (size() <= MQHandleCache.this.capacity) {
+                    return false;
+                }
+                evictions++;
+                log.debug("Evicting handle of {}", eldest.getKey());
+                closeHandle(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the handle of a queue, opening it on a miss
+     *
+     * @param queueName Queue name
+     * @param options   Open options (MQOO_*)
+     * @return the object handle, owned by the cache: do not close it
+     */
+    public int open(String queueName, int options) throws MQCallException {
+        Integer hObj = handles.get(probe.set(queueName, options));
+        probe.queueName = null;
+        if (hObj != null) {
+            hits++;
+            return hObj;
+        }
+        misses++;
+        MQCallContext ctx = MQCallContext.current();
+        MQDescriptorTemplates.objectDescriptor(queueName).copyTo(objDesc);
+        mq.MQOPEN(connectionHandle, objDesc, options, ctx.hObjRef(), ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException("MQOPEN failed for " + queueName, ctx);
+        }
+        int opened = ctx.getHObj();
+        handles.put(new Key().set(queueName, options), opened);
+        return opened;
+    }
+
+    /**
+     * Put the message held in the buffer to a queue opened with {@link #DEFAULT_PUT_OPEN_OPTIONS}.
+     * If the queue definition changed since it was opened, the queue is reopened and the put
+     * retried once.
+     */
+    public void put(String queueName, MQMessageBuffer message) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        message.put(connectionHandle, open(queueName, DEFAULT_PUT_OPEN_OPTIONS), ctx);
+        if (invalidateIfChanged(queueName, DEFAULT_PUT_OPEN_OPTIONS, ctx.getReason())) {
+            message.put(connectionHandle, open(queueName, DEFAULT_PUT_OPEN_OPTIONS), ctx);
+        }
+        if (ctx.failed()) {
+            throw new MQCallException("MQPUT failed for " + queueName, ctx);
+        }
+    }
+
+    /**
+     * Drop the handle of a queue if a call on it returned MQRC_OBJECT_CHANGED
+     *
+     * @param reason Reason code of the call made with the handle
+     * @return true if the handle was invalidated, the next {@link #open} reopens the queue
+     */
+    public boolean invalidateIfChanged(String queueName, int options, int reason) {
+        return reason == MQRC_OBJECT_CHANGED && invalidate(queueName, options);
+    }
+
+    /**
+     * Close and drop the handle of a queue
+     *
+     * @return true if the queue was in the cache
+     */
+    public boolean invalidate(String queueName, int options) {
+        Integer hObj = handles.remove(probe.set(queueName, options));
+        probe.queueName = null;
+        if (hObj == null) {
+            return false;
+        }
+        invalidations++;
+        log.debug("Invalidated handle of {} (options {})", queueName, options);
+        closeHandle(hObj);
+        return true;
+    }
+
+    private void closeHandle(int hObj) {
+        MQCallContext ctx = MQCallContext.current();
+        ctx.setHObj(hObj);
+        mq.MQCLOSE(connectionHandle, ctx.hObjRef(), MQCO_NONE, ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            log.warn("MQCLOSE failed for handle {}, Reason: {}", hObj, ctx.getReason());
+        }
+    }
+
+    public int size() {
+        return handles.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of handles closed to stay within the capacity
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return number of handles dropped by {@link #invalidate}
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return hits / (hits + misses), 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Close all the cached handles
+     */
+    @Override
+    public void close() {
+        for (Iterator<Integer> it = handles.values().iterator(); it.hasNext(); ) {
+            closeHandle(it.next());
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * MQId - Immutable 24-byte message or correlation identifier (MsgId, CorrelId, GroupId)
+ * <p>
+ * The identifier is held in three longs: an instance takes the 40 heap bytes of a bare
+ * {@code byte[24]}, but is a map key by itself (no wrapper around the array), and equals and
+ * hashCode compare and mix three words instead of looping over 24 bytes. That makes it a cheap key
+ * for request/reply maps holding many in-flight identifiers:
+ * <pre>
+ * pending.put(MQId.read(msgDesc, MQMD.MSG_ID_OFFSET), request);
+ * ...
+ * Request request = pending.remove(view.correlId());
+ * </pre>
+ * An identifier reads from and writes to descriptor memory directly (byte[], ByteBuffer, native
+ * Pointer) without an intermediate array. The longs are big-endian, so {@link #compareTo} and
+ * {@link #toHex} follow the byte order of the identifier.
+ */
+public final class MQId implements Comparable<MQId> {
+
+    public static final int LENGTH = 24;
+
+    /**
+     * MQMI_NONE / MQCI_NONE: no identifier, all bytes zero
+     */
+    public static final MQId NONE = new MQId(0, 0, 0);
+
+    private static final VarHandle BIG_ENDIAN_LONG =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final boolean NATIVE_BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+            HEX_VALUES[Character.toLowerCase(HEX_DIGITS[i])] = (byte) i;
+        }
+    }
+
+    private final long high;
+    private final long middle;
+    private final long low;
+
+    private MQId(long high, long middle, long low) {
+        this.high = high;
+        this.middle = middle;
+        this.low = low;
+    }
+
+    private static MQId of(long high, long middle, long low) {
+        return (high | middle | low) == 0 ? NONE : new MQId(high, middle, low);
+    }
+
+    // ========== Reading ==========
+
+    /**
+     * @param bytes The 24 bytes of an identifier
+     */
+    public static MQId of(byte[] bytes) {
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Identifier of " + bytes.length + " bytes, expected " + LENGTH);
+        }
+        return read(bytes, 0);
+    }
+
+    /**
+     * Read the identifier at an offset of an array, e.g. {@code MQMD.CORREL_ID_OFFSET} of a descriptor
+     */
+    public static MQId read(byte[] source, int offset) {
+        return of((long) BIG_ENDIAN_LONG.get(source, offset),
+                (long) BIG_ENDIAN_LONG.get(source, offset + 8),
+                (long) BIG_ENDIAN_LONG.get(source, offset + 16));
+    }
+
+    /**
+     * Read the identifier at an index of a buffer (absolute, the position is not changed)
+     */
+    public static MQId read(ByteBuffer source, int index) {
+        boolean swap = source.order() != ByteOrder.BIG_ENDIAN;
+        return of(bigEndian(source.getLong(index), swap),
+                bigEndian(source.getLong(index + 8), swap),
+                bigEndian(source.getLong(index + 16), swap));
+    }
+
+    /**
+     * Read the identifier at an offset of native memory
+     */
+    public static MQId read(Pointer source, long offset) {
+        return of(bigEndian(source.getLong(offset), !NATIVE_BIG_ENDIAN),
+                bigEndian(source.getLong(offset + 8), !NATIVE_BIG_ENDIAN),
+                bigEndian(source.getLong(offset + 16), !NATIVE_BIG_ENDIAN));
+    }
+
+    private static long bigEndian(long value, boolean swap) {
+        return swap ? Long.reverseBytes(value) : value;
+    }
+
+    /**
+     * Parse the 48 hex digits of {@link #toHex()} (either case)
+     */
+    public static MQId fromHex(String hex) {
+        if (hex.length() != LENGTH * 2) {
+            throw new IllegalArgumentException("Identifier of " + hex.length() + " hex digits, expected " + LENGTH * 2);
+        }
+        return of(parseHex(hex, 0), parseHex(hex, 16), parseHex(hex, 32));
+    }
+
+    private static long parseHex(String hex, int start) {
+        long value = 0;
+        for (int i = start; i < start + 16; i++) {
+            char c = hex.charAt(i);
+            int digit = c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid hex digit '" + c + "' at " + i + " in " + hex);
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    // ========== Writing ==========
+
+    /**
+     * Write the identifier at an offset of an array
+     */
+    public void writeTo(byte[] target, int offset) {
+        BIG_ENDIAN_LONG.set(target, offset, high);
+        BIG_ENDIAN_LONG.set(target, offset + 8, middle);
+        BIG_ENDIAN_LONG.set(target, offset + 16, low);
+    }
+
+    /**
+     * Write the identifier at an index of a buffer (absolute, the position is not changed)
+     */
+    public void writeTo(ByteBuffer target, int index) {
+        boolean swap = target.order() != ByteOrder.BIG_ENDIAN;
+        target.putLong(index, bigEndian(high, swap));
+        target.putLong(index + 8, bigEndian(middle, swap));
+        target.putLong(index + 16, bigEndian(low, swap));
+    }
+
+    /**
+     * Write the identifier at an offset of native memory
+     */
+    public void writeTo(Pointer target, long offset) {
+        target.setLong(offset, bigEndian(high, !NATIVE_BIG_ENDIAN));
+        target.setLong(offset + 8, bigEndian(middle, !NATIVE_BIG_ENDIAN));
+        target.setLong(offset + 16, bigEndian(low, !NATIVE_BIG_ENDIAN));
+    }
+
+    /**
+     * @return a new array holding the 24 bytes
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[LENGTH];
+        writeTo(bytes, 0);
+        return bytes;
+    }
+
+    // ========== Value ==========
+
+    /**
+     * @return true for MQMI_NONE / MQCI_NONE
+     */
+    public boolean isNone() {
+        return (high | middle | low) == 0;
+    }
+
+    /**
+     * @return true if the identifier holds the 24 bytes at an offset of an array
+     */
+    public boolean matches(byte[] source, int offset) {
+        return high == (long) BIG_ENDIAN_LONG.get(source, offset)
+                && middle == (long) BIG_ENDIAN_LONG.get(source, offset + 8)
+                && low == (long) BIG_ENDIAN_LONG.get(source, offset + 16);
+    }
+
+    /**
+     * @return the 48 upper-case hex digits of the identifier
+     */
+    public String toHex() {
+        char[] chars = new char[LENGTH * 2];
+        appendHex(chars, 0, high);
+        appendHex(chars, 16, middle);
+        appendHex(chars, 32, low);
+        return new String(chars);
+    }
+
+    private static void appendHex(char[] chars, int start, long value) {
+        for (int i = start + 15; i >= start; i--) {
+            chars[i] = HEX_DIGITS[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MQId)) {
+            return false;
+        }
+        MQId other = (MQId) o;
+        return high == other.high && middle == other.middle && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        // Queue manager identifiers share their leading bytes (the queue manager name): the low
+        // word, a counter, carries most of the entropy and is mixed in last
+        long h = high * 0x9E3779B97F4A7C15L + middle;
+        h = h * 0x9E3779B97F4A7C15L + low;
+        return (int) (h ^ h >>> 32);
+    }
+
+    @Override
+    public int compareTo(MQId other) {
+        int c = Long.compareUnsigned(high, other.high);
+        if (c == 0) {
+            c = Long.compareUnsigned(middle, other.middle);
+        }
+        return c != 0 ? c : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
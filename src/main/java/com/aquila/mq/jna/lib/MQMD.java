@@ -1,5 +1,6 @@
 package com.aquila.mq.jna.lib;
 
+import com.aquila.mq.jna.lib.layout.MQMDLayout;
 import com.sun.jna.Structure;
 
 import java.nio.charset.StandardCharsets;
@@ -26,6 +27,17 @@ public class MQMD extends Structure {
     public static final int MQMD_VERSION_2 = 2;
     public static final int MQMD_CURRENT_VERSION = MQMD_VERSION_2;
 
+    // Structure lengths
+    public static final int MQMD_LENGTH_1 = MQMDLayout.LENGTH_1;
+    public static final int MQMD_LENGTH_2 = MQMDLayout.LENGTH_2;
+
+    // Field offsets (generated from cmqc.h)
+    public static final int VERSION_OFFSET = MQMDLayout.VERSION_OFFSET;
+    public static final int MSG_ID_OFFSET = MQMDLayout.MSG_ID_OFFSET;
+    public static final int CORREL_ID_OFFSET = MQMDLayout.CORREL_ID_OFFSET;
+    public static final int MQ_MSG_ID_LENGTH = MQMDLayout.MSG_ID_LENGTH;
+    public static final int MQ_CORREL_ID_LENGTH = MQMDLayout.CORREL_ID_LENGTH;
+
     // Message types
     public static final int MQMT_REQUEST = 1;
     public static final int MQMT_REPLY = 2;
@@ -116,29 +128,21 @@ public class MQMD extends Structure {
      * Set the format field
      */
     public void setFormat(String format) {
-        Arrays.fill(Format, (byte) ' ');
-        byte[] formatBytes = format.getBytes(StandardCharsets.US_ASCII);
-        System.arraycopy(formatBytes, 0, Format, 0, Math.min(formatBytes.length, Format.length));
+        MQNameCodec.DEFAULT.encode(format, Format, 0, Format.length);
     }
 
     /**
      * Set the reply-to queue name
      */
     public void setReplyToQ(String queueName) {
-        Arrays.fill(ReplyToQ, (byte) ' ');
-        byte[] queueBytes = queueName.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(queueBytes, 0, ReplyToQ, 0, Math.min(queueBytes.length, ReplyToQ.length));
+        MQNameCodec.DEFAULT.encode(queueName, ReplyToQ, 0, ReplyToQ.length);
     }
 
     /**
      * Get the message ID as hex string
      */
     public String getMsgIdHex() {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : MsgId) {
-            sb.append(String.format("%02X", b));
-        }
-        return sb.toString();
+        return MQId.of(MsgId).toHex();
     }
 
     /**
@@ -153,7 +157,7 @@ public class MQMD extends Structure {
      * Copy correlation ID from message ID (for request/reply)
      */
     public void copyMsgIdToCorrelId() {
-        System.arraycopy(MsgId, 0, CorrelId, 0, 24);
+        System.arraycopy(MsgId, 0, CorrelId, 0, MQ_CORREL_ID_LENGTH);
     }
 
     /**
@@ -179,7 +183,19 @@ public class MQMD extends Structure {
      * Create a minimal Version 1 MQMD byte array for PCF request (324 bytes)
      */
     public static byte[] createMinimalMD(String replyToQ) {
-        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(324);
+        return createMinimalMD(MQFMT_ADMIN, MQMT_REQUEST, replyToQ);
+    }
+
+    /**
+     * Create a minimal Version 1 MQMD byte array (324 bytes)
+     * See {@link MQDescriptorTemplates#msgDesc} to build each variant only once
+     *
+     * @param format   Format name (MQFMT_*)
+     * @param msgType  Message type (MQMT_*)
+     * @param replyToQ Reply queue, or null
+     */
+    public static byte[] createMinimalMD(String format, int msgType, String replyToQ) {
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(MQMD_LENGTH_1);
         buffer.order(java.nio.ByteOrder.nativeOrder());
 
         byte[] spaces = new byte[48];
@@ -192,7 +208,7 @@ public class MQMD extends Structure {
         // Report
         buffer.putInt(MQRO_NONE);
         // MsgType
-        buffer.putInt(MQMT_REQUEST);
+        buffer.putInt(msgType);
         // Expiry
         buffer.putInt(MQEI_UNLIMITED);
         // Feedback
@@ -201,12 +217,8 @@ public class MQMD extends Structure {
         buffer.putInt(MQENC_NATIVE);
         // CodedCharSetId
         buffer.putInt(MQCCSI_Q_MGR);
-        // Format (8 bytes) - "MQADMIN "
-        byte[] format = new byte[8];
-        Arrays.fill(format, (byte) ' ');
-        System.arraycopy(MQFMT_ADMIN.getBytes(StandardCharsets.US_ASCII), 0, format, 0,
-                Math.min(MQFMT_ADMIN.length(), 8));
-        buffer.put(format);
+        // Format (8 bytes)
+        buffer.put(MQNameCodec.DEFAULT.encode(format, 8));
         // Priority
         buffer.putInt(MQPRI_PRIORITY_AS_Q_DEF);
         // Persistence
@@ -218,13 +230,7 @@ public class MQMD extends Structure {
         // BackoutCount
         buffer.putInt(0);
         // ReplyToQ (48 bytes)
-        byte[] replyQ = new byte[48];
-        Arrays.fill(replyQ, (byte) ' ');
-        if (replyToQ != null) {
-            byte[] replyBytes = replyToQ.getBytes(StandardCharsets.UTF_8);
-            System.arraycopy(replyBytes, 0, replyQ, 0, Math.min(replyBytes.length, 48));
-        }
-        buffer.put(replyQ);
+        buffer.put(MQNameCodec.DEFAULT.encode(replyToQ, MQNameCodec.MQ_Q_NAME_LENGTH));
         // ReplyToQMgr (48 bytes of spaces)
         buffer.put(spaces);
         // UserIdentifier (12 bytes of spaces)
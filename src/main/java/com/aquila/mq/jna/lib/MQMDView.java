@@ -0,0 +1,336 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQMDLayout;
+import com.ibm.mq.constants.CMQC;
+
+import java.nio.ByteBuffer;
+
+import static com.aquila.mq.jna.lib.MQMD.*;
+
+/**
+ * MQMDView - Flyweight MQMD (Version 2, 364 bytes) over a direct ByteBuffer
+ * <p>
+ * Used on a received descriptor, a field is decoded only when it is read, straight from the
+ * descriptor bytes. The usual checks copy nothing: {@link #hasCorrelId}, {@link #hasMsgId} and
+ * {@link #isFormat} compare in place, and {@link #getFormat()} returns a shared string for the
+ * common formats.
+ *
+ * @see MQStructView
+ */
+public class MQMDView extends MQStructView {
+
+    // Field offsets (generated from cmqc.h)
+    public static final int REPORT_OFFSET = MQMDLayout.REPORT_OFFSET;
+    public static final int MSG_TYPE_OFFSET = MQMDLayout.MSG_TYPE_OFFSET;
+    public static final int EXPIRY_OFFSET = MQMDLayout.EXPIRY_OFFSET;
+    public static final int FEEDBACK_OFFSET = MQMDLayout.FEEDBACK_OFFSET;
+    public static final int ENCODING_OFFSET = MQMDLayout.ENCODING_OFFSET;
+    public static final int CCSID_OFFSET = MQMDLayout.CODED_CHAR_SET_ID_OFFSET;
+    public static final int FORMAT_OFFSET = MQMDLayout.FORMAT_OFFSET;
+    public static final int PRIORITY_OFFSET = MQMDLayout.PRIORITY_OFFSET;
+    public static final int PERSISTENCE_OFFSET = MQMDLayout.PERSISTENCE_OFFSET;
+    public static final int BACKOUT_COUNT_OFFSET = MQMDLayout.BACKOUT_COUNT_OFFSET;
+    public static final int REPLY_TO_Q_OFFSET = MQMDLayout.REPLY_TO_Q_OFFSET;
+    public static final int REPLY_TO_Q_MGR_OFFSET = MQMDLayout.REPLY_TO_Q_MGR_OFFSET;
+    public static final int USER_IDENTIFIER_OFFSET = MQMDLayout.USER_IDENTIFIER_OFFSET;
+    public static final int ACCOUNTING_TOKEN_OFFSET = MQMDLayout.ACCOUNTING_TOKEN_OFFSET;
+    public static final int APPL_IDENTITY_DATA_OFFSET = MQMDLayout.APPL_IDENTITY_DATA_OFFSET;
+    public static final int PUT_APPL_TYPE_OFFSET = MQMDLayout.PUT_APPL_TYPE_OFFSET;
+    public static final int PUT_APPL_NAME_OFFSET = MQMDLayout.PUT_APPL_NAME_OFFSET;
+    public static final int PUT_DATE_OFFSET = MQMDLayout.PUT_DATE_OFFSET;
+    public static final int PUT_TIME_OFFSET = MQMDLayout.PUT_TIME_OFFSET;
+    public static final int APPL_ORIGIN_DATA_OFFSET = MQMDLayout.APPL_ORIGIN_DATA_OFFSET;
+    public static final int GROUP_ID_OFFSET = MQMDLayout.GROUP_ID_OFFSET;
+    public static final int MSG_SEQ_NUMBER_OFFSET = MQMDLayout.MSG_SEQ_NUMBER_OFFSET;
+    public static final int OFFSET_OFFSET = MQMDLayout.OFFSET_OFFSET;
+    public static final int MSG_FLAGS_OFFSET = MQMDLayout.MSG_FLAGS_OFFSET;
+    public static final int ORIGINAL_LENGTH_OFFSET = MQMDLayout.ORIGINAL_LENGTH_OFFSET;
+
+    // Field lengths
+    public static final int MQ_FORMAT_LENGTH = 8;
+    public static final int MQ_Q_NAME_LENGTH = 48;
+    public static final int MQ_Q_MGR_NAME_LENGTH = 48;
+    public static final int MQ_USER_ID_LENGTH = 12;
+    public static final int MQ_ACCOUNTING_TOKEN_LENGTH = 32;
+    public static final int MQ_APPL_IDENTITY_DATA_LENGTH = 32;
+    public static final int MQ_PUT_APPL_NAME_LENGTH = 28;
+    public static final int MQ_PUT_DATE_LENGTH = 8;
+    public static final int MQ_PUT_TIME_LENGTH = 8;
+    public static final int MQ_APPL_ORIGIN_DATA_LENGTH = 4;
+    public static final int MQ_GROUP_ID_LENGTH = 24;
+
+    // Formats returned by getFormat() without decoding (most frequent first)
+    private static final String[] KNOWN_FORMATS = {
+            CMQC.MQFMT_STRING.trim(), CMQC.MQFMT_NONE.trim(), CMQC.MQFMT_ADMIN.trim(), CMQC.MQFMT_PCF.trim(),
+            CMQC.MQFMT_RF_HEADER_2.trim(), CMQC.MQFMT_EVENT.trim(), CMQC.MQFMT_DEAD_LETTER_HEADER.trim(),
+            CMQC.MQFMT_XMIT_Q_HEADER.trim()
+    };
+
+    /**
+     * View the descriptor at the given offset of the buffer
+     */
+    public MQMDView(ByteBuffer buffer, int offset) {
+        super(buffer, offset);
+    }
+
+    /**
+     * Allocate a direct buffer holding a default descriptor
+     */
+    public static MQMDView allocate() {
+        MQMDView view = new MQMDView(ByteBuffer.allocateDirect(MQMD_LENGTH_2), 0);
+        view.init();
+        return view;
+    }
+
+    /**
+     * Point the view at another descriptor
+     */
+    public MQMDView wrap(ByteBuffer buffer, int offset) {
+        attach(buffer, offset);
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return MQMD_LENGTH_2;
+    }
+
+    @Override
+    public void init() {
+        putStrucId(MQMD_STRUC_ID);
+        putInt(VERSION_OFFSET, MQMD_VERSION_2);
+        putInt(REPORT_OFFSET, MQRO_NONE);
+        putInt(MSG_TYPE_OFFSET, MQMT_DATAGRAM);
+        putInt(EXPIRY_OFFSET, MQEI_UNLIMITED);
+        putInt(FEEDBACK_OFFSET, MQFB_NONE);
+        putInt(ENCODING_OFFSET, MQENC_NATIVE);
+        putInt(CCSID_OFFSET, MQCCSI_Q_MGR);
+        fill(FORMAT_OFFSET, MQ_FORMAT_LENGTH, (byte) ' ');
+        putInt(PRIORITY_OFFSET, MQPRI_PRIORITY_AS_Q_DEF);
+        putInt(PERSISTENCE_OFFSET, MQPER_PERSISTENCE_AS_Q_DEF);
+        fill(MSG_ID_OFFSET, MQ_MSG_ID_LENGTH + MQ_CORREL_ID_LENGTH, (byte) 0);
+        putInt(BACKOUT_COUNT_OFFSET, 0);
+        fill(REPLY_TO_Q_OFFSET, MQ_Q_NAME_LENGTH + MQ_Q_MGR_NAME_LENGTH + MQ_USER_ID_LENGTH, (byte) ' ');
+        fill(ACCOUNTING_TOKEN_OFFSET, MQ_ACCOUNTING_TOKEN_LENGTH, (byte) 0);
+        fill(APPL_IDENTITY_DATA_OFFSET, MQ_APPL_IDENTITY_DATA_LENGTH, (byte) ' ');
+        putInt(PUT_APPL_TYPE_OFFSET, 0);
+        fill(PUT_APPL_NAME_OFFSET, MQ_PUT_APPL_NAME_LENGTH + MQ_PUT_DATE_LENGTH + MQ_PUT_TIME_LENGTH
+                + MQ_APPL_ORIGIN_DATA_LENGTH, (byte) ' ');
+        fill(GROUP_ID_OFFSET, MQ_GROUP_ID_LENGTH, (byte) 0);
+        putInt(MSG_SEQ_NUMBER_OFFSET, 1);
+        putInt(OFFSET_OFFSET, 0);
+        putInt(MSG_FLAGS_OFFSET, 0);
+        putInt(ORIGINAL_LENGTH_OFFSET, -1);
+    }
+
+    /**
+     * Clear MsgId and CorrelId before a get, so that the next message is returned
+     */
+    public void resetForGet() {
+        fill(MSG_ID_OFFSET, MQ_MSG_ID_LENGTH + MQ_CORREL_ID_LENGTH, (byte) 0);
+    }
+
+    public int getReport() {
+        return getInt(REPORT_OFFSET);
+    }
+
+    public void setReport(int report) {
+        putInt(REPORT_OFFSET, report);
+    }
+
+    public int getMsgType() {
+        return getInt(MSG_TYPE_OFFSET);
+    }
+
+    public void setMsgType(int msgType) {
+        putInt(MSG_TYPE_OFFSET, msgType);
+    }
+
+    public int getExpiry() {
+        return getInt(EXPIRY_OFFSET);
+    }
+
+    public void setExpiry(int expiry) {
+        putInt(EXPIRY_OFFSET, expiry);
+    }
+
+    public int getFeedback() {
+        return getInt(FEEDBACK_OFFSET);
+    }
+
+    public void setFeedback(int feedback) {
+        putInt(FEEDBACK_OFFSET, feedback);
+    }
+
+    public int getEncoding() {
+        return getInt(ENCODING_OFFSET);
+    }
+
+    public void setEncoding(int encoding) {
+        putInt(ENCODING_OFFSET, encoding);
+    }
+
+    public int getCodedCharSetId() {
+        return getInt(CCSID_OFFSET);
+    }
+
+    public void setCodedCharSetId(int ccsid) {
+        putInt(CCSID_OFFSET, ccsid);
+    }
+
+    /**
+     * @return the format without its trailing blanks, a shared string for the common formats
+     */
+    public String getFormat() {
+        for (String format : KNOWN_FORMATS) {
+            if (nameEquals(FORMAT_OFFSET, format, MQ_FORMAT_LENGTH)) {
+                return format;
+            }
+        }
+        return getName(FORMAT_OFFSET, MQ_FORMAT_LENGTH);
+    }
+
+    /**
+     * @param format Format name, with or without its trailing blanks (MQFMT_*)
+     */
+    public boolean isFormat(String format) {
+        return nameEquals(FORMAT_OFFSET, format, MQ_FORMAT_LENGTH);
+    }
+
+    public void setFormat(String format) {
+        putName(FORMAT_OFFSET, format, MQ_FORMAT_LENGTH);
+    }
+
+    public int getPriority() {
+        return getInt(PRIORITY_OFFSET);
+    }
+
+    public void setPriority(int priority) {
+        putInt(PRIORITY_OFFSET, priority);
+    }
+
+    public int getPersistence() {
+        return getInt(PERSISTENCE_OFFSET);
+    }
+
+    public void setPersistence(int persistence) {
+        putInt(PERSISTENCE_OFFSET, persistence);
+    }
+
+    public void getMsgId(byte[] msgId) {
+        getBytes(MSG_ID_OFFSET, msgId, MQ_MSG_ID_LENGTH);
+    }
+
+    public void setMsgId(byte[] msgId) {
+        putBytes(MSG_ID_OFFSET, msgId, MQ_MSG_ID_LENGTH);
+    }
+
+    public boolean hasMsgId(byte[] msgId) {
+        return bytesEqual(MSG_ID_OFFSET, msgId, MQ_MSG_ID_LENGTH);
+    }
+
+    public MQId msgId() {
+        return MQId.read(buffer, base + MSG_ID_OFFSET);
+    }
+
+    public void setMsgId(MQId msgId) {
+        msgId.writeTo(buffer, base + MSG_ID_OFFSET);
+    }
+
+    public void getCorrelId(byte[] correlId) {
+        getBytes(CORREL_ID_OFFSET, correlId, MQ_CORREL_ID_LENGTH);
+    }
+
+    public void setCorrelId(byte[] correlId) {
+        putBytes(CORREL_ID_OFFSET, correlId, MQ_CORREL_ID_LENGTH);
+    }
+
+    public boolean hasCorrelId(byte[] correlId) {
+        return bytesEqual(CORREL_ID_OFFSET, correlId, MQ_CORREL_ID_LENGTH);
+    }
+
+    public MQId correlId() {
+        return MQId.read(buffer, base + CORREL_ID_OFFSET);
+    }
+
+    public void setCorrelId(MQId correlId) {
+        correlId.writeTo(buffer, base + CORREL_ID_OFFSET);
+    }
+
+    /**
+     * Copy MsgId to CorrelId in place (for a reply)
+     */
+    public void copyMsgIdToCorrelId() {
+        for (int i = 0; i < MQ_MSG_ID_LENGTH; i += Long.BYTES) {
+            putLong(CORREL_ID_OFFSET + i, getLong(MSG_ID_OFFSET + i));
+        }
+    }
+
+    public int getBackoutCount() {
+        return getInt(BACKOUT_COUNT_OFFSET);
+    }
+
+    public String getReplyToQ() {
+        return getName(REPLY_TO_Q_OFFSET, MQ_Q_NAME_LENGTH);
+    }
+
+    public void setReplyToQ(String queueName) {
+        putName(REPLY_TO_Q_OFFSET, queueName, MQ_Q_NAME_LENGTH);
+    }
+
+    public String getReplyToQMgr() {
+        return getName(REPLY_TO_Q_MGR_OFFSET, MQ_Q_MGR_NAME_LENGTH);
+    }
+
+    public void setReplyToQMgr(String qMgrName) {
+        putName(REPLY_TO_Q_MGR_OFFSET, qMgrName, MQ_Q_MGR_NAME_LENGTH);
+    }
+
+    public String getUserIdentifier() {
+        return getName(USER_IDENTIFIER_OFFSET, MQ_USER_ID_LENGTH);
+    }
+
+    public int getPutApplType() {
+        return getInt(PUT_APPL_TYPE_OFFSET);
+    }
+
+    public String getPutApplName() {
+        return getName(PUT_APPL_NAME_OFFSET, MQ_PUT_APPL_NAME_LENGTH);
+    }
+
+    public String getPutDate() {
+        return getName(PUT_DATE_OFFSET, MQ_PUT_DATE_LENGTH);
+    }
+
+    public String getPutTime() {
+        return getName(PUT_TIME_OFFSET, MQ_PUT_TIME_LENGTH);
+    }
+
+    public void getGroupId(byte[] groupId) {
+        getBytes(GROUP_ID_OFFSET, groupId, MQ_GROUP_ID_LENGTH);
+    }
+
+    public void setGroupId(byte[] groupId) {
+        putBytes(GROUP_ID_OFFSET, groupId, MQ_GROUP_ID_LENGTH);
+    }
+
+    public int getMsgSeqNumber() {
+        return getInt(MSG_SEQ_NUMBER_OFFSET);
+    }
+
+    public void setMsgSeqNumber(int msgSeqNumber) {
+        putInt(MSG_SEQ_NUMBER_OFFSET, msgSeqNumber);
+    }
+
+    public int getMsgFlags() {
+        return getInt(MSG_FLAGS_OFFSET);
+    }
+
+    public void setMsgFlags(int msgFlags) {
+        putInt(MSG_FLAGS_OFFSET, msgFlags);
+    }
+
+    public int getOriginalLength() {
+        return getInt(ORIGINAL_LENGTH_OFFSET);
+    }
+}
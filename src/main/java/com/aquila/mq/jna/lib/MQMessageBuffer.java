@@ -0,0 +1,381 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQGMOLayout;
+import com.aquila.mq.jna.lib.layout.MQMDLayout;
+import com.aquila.mq.jna.lib.layout.MQPMOLayout;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+
+import java.nio.ByteBuffer;
+
+/**
+ * MQMessageBuffer - Message descriptor, put/get options and payload kept in one long-lived native block
+ * <p>
+ * MQPUT and MQGET are called with the {@link Pointer} variants of {@link IBMMQJNA}, so nothing is
+ * marshalled per call: the MQMD and options are updated in place by the queue manager and the
+ * payload is read or written through {@link #getData()} or the copy helpers. A new block holds a
+ * datagram descriptor with no format (MQFMT_NONE); set the format of what is put with setMsgDesc.
+ * An instance is not thread safe; keep one per thread or per consumer.
+ * <p>
+ * Layout of the block:
+ * <code>
+ * MQMD  (V2, 364 bytes)  at MSG_DESC_OFFSET
+ * MQPMO (V3, 184 bytes)  at PUT_OPTIONS_OFFSET
+ * MQGMO (V4, 112 bytes)  at GET_OPTIONS_OFFSET
+ * payload (capacity)     at DATA_OFFSET
+ * </code>
+ */
+public class MQMessageBuffer implements AutoCloseable {
+
+    // Offsets in the native block (8-byte aligned)
+    public static final int MSG_DESC_OFFSET = 0;
+    public static final int PUT_OPTIONS_OFFSET = align(MSG_DESC_OFFSET + MQMDLayout.LENGTH_2);
+    public static final int GET_OPTIONS_OFFSET = align(PUT_OPTIONS_OFFSET + MQPMOLayout.LENGTH_3);
+    public static final int DATA_OFFSET = align(GET_OPTIONS_OFFSET + MQGMOLayout.LENGTH_4);
+
+    private static final MQDescriptorTemplate DEFAULT_MSG_DESC = MQDescriptorTemplates.msgDesc(MQMD.MQFMT_NONE, null);
+    private static final MQDescriptorTemplate DEFAULT_PUT_OPTIONS = MQDescriptorTemplates.putOptions(MQPMO.MQPMO_NO_SYNCPOINT);
+    private static final MQDescriptorTemplate DEFAULT_GET_OPTIONS =
+            MQDescriptorTemplates.getOptions(MQGMO.MQGMO_NO_WAIT, 0, MQGMO.MQMO_NONE);
+
+    private final IBMMQJNA mq;
+    private final Memory memory;
+    private final Pointer msgDesc;
+    private final Pointer putOptions;
+    private final Pointer getOptions;
+    private final Pointer data;
+    private final ByteBuffer dataBuffer;
+    private final MQMDView msgDescView;
+    private final MQPMOView putOptionsView;
+    private final MQGMOView getOptionsView;
+    private final int capacity;
+    private final IntByReference dataLengthRef = new IntByReference();
+    private int dataLength;
+
+    /**
+     * Allocate a message buffer used with the default binding
+     *
+     * @param capacity Maximum payload size in bytes
+     */
+    public MQMessageBuffer(int capacity) {
+        this(IBMMQJNA.INSTANCE, capacity);
+    }
+
+    /**
+     * Allocate a message buffer used with the given binding
+     *
+     * @param mq       The MQ binding used by put/get
+     * @param capacity Maximum payload size in bytes
+     */
+    public MQMessageBuffer(IBMMQJNA mq, int capacity) {
+        this.mq = mq;
+        this.capacity = capacity;
+        this.memory = new Memory(DATA_OFFSET + (long) capacity);
+        this.memory.clear();
+        this.msgDesc = memory.share(MSG_DESC_OFFSET, MQMD.MQMD_LENGTH_2);
+        this.putOptions = memory.share(PUT_OPTIONS_OFFSET, MQPMO.MQPMO_LENGTH_3);
+        this.getOptions = memory.share(GET_OPTIONS_OFFSET, MQGMO.MQGMO_LENGTH_4);
+        this.data = memory.share(DATA_OFFSET, capacity);
+        this.dataBuffer = memory.getByteBuffer(DATA_OFFSET, capacity);
+        ByteBuffer header = memory.getByteBuffer(0, DATA_OFFSET);
+        this.msgDescView = new MQMDView(header, MSG_DESC_OFFSET);
+        this.putOptionsView = new MQPMOView(header, PUT_OPTIONS_OFFSET);
+        this.getOptionsView = new MQGMOView(header, GET_OPTIONS_OFFSET);
+
+        setMsgDesc(DEFAULT_MSG_DESC);
+        setPutOptions(DEFAULT_PUT_OPTIONS);
+        setGetOptions(DEFAULT_GET_OPTIONS);
+    }
+
+    /**
+     * Copy a message descriptor (e.g. from MQMD.createMinimalMD) into the block
+     */
+    public void setMsgDesc(byte[] md) {
+        memory.write(MSG_DESC_OFFSET, md, 0, Math.min(md.length, MQMD.MQMD_LENGTH_2));
+    }
+
+    /**
+     * Copy a message descriptor template into the block
+     */
+    public void setMsgDesc(MQDescriptorTemplate md) {
+        md.copyTo(msgDesc, 0);
+    }
+
+    /**
+     * Copy a put message options template into the block
+     */
+    public void setPutOptions(MQDescriptorTemplate pmo) {
+        pmo.copyTo(putOptions, 0);
+    }
+
+    /**
+     * Copy a get message options template into the block
+     */
+    public void setGetOptions(MQDescriptorTemplate gmo) {
+        gmo.copyTo(getOptions, 0);
+    }
+
+    /**
+     * Copy put message options (e.g. from MQPMO.createMinimalPMO) into the block
+     */
+    public void setPutOptions(byte[] pmo) {
+        memory.write(PUT_OPTIONS_OFFSET, pmo, 0, Math.min(pmo.length, MQPMO.MQPMO_LENGTH_3));
+    }
+
+    /**
+     * Copy get message options (e.g. from MQGMO.createMinimalGMO) into the block
+     */
+    public void setGetOptions(byte[] gmo) {
+        memory.write(GET_OPTIONS_OFFSET, gmo, 0, Math.min(gmo.length, MQGMO.MQGMO_LENGTH_4));
+    }
+
+    /**
+     * Rewrite the Options field of the put message options in place
+     */
+    public void setPutOptions(int options) {
+        putOptions.setInt(MQPMOLayout.OPTIONS_OFFSET, options);
+    }
+
+    /**
+     * Rewrite the Options, WaitInterval and MatchOptions fields of the get message options in place
+     * (MatchOptions needs a Version 2 or later MQGMO)
+     */
+    public void setGetOptions(int options, int waitInterval, int matchOptions) {
+        getOptions.setInt(MQGMOLayout.OPTIONS_OFFSET, options);
+        getOptions.setInt(MQGMOLayout.WAIT_INTERVAL_OFFSET, waitInterval);
+        getOptions.setInt(MQGMOLayout.MATCH_OPTIONS_OFFSET, matchOptions);
+    }
+
+    /**
+     * Attach a message handle (see {@link MQMessageProperties}) to the puts, raising the put message
+     * options to Version 3; MQHM_NONE detaches it
+     */
+    public void setPutMsgHandle(long hMsg) {
+        if (putOptions.getInt(MQPMOLayout.VERSION_OFFSET) < MQPMO.MQPMO_VERSION_3) {
+            putOptions.setInt(MQPMOLayout.VERSION_OFFSET, MQPMO.MQPMO_VERSION_3);
+            putOptions.setInt(MQPMOLayout.PUB_LEVEL_OFFSET, 9);
+        }
+        putOptions.setLong(MQPMOLayout.ORIGINAL_MSG_HANDLE_OFFSET, hMsg);
+    }
+
+    /**
+     * Attach a message handle (see {@link MQMessageProperties}) that receives the properties of the
+     * messages got, raising the get message options to Version 4; MQHM_NONE detaches it
+     */
+    public void setGetMsgHandle(long hMsg) {
+        getOptions.setInt(MQGMOLayout.VERSION_OFFSET, MQGMO.MQGMO_VERSION_4);
+        getOptions.setLong(MQGMOLayout.MSG_HANDLE_OFFSET, hMsg);
+    }
+
+    /**
+     * Copy the message ID out of the descriptor
+     */
+    public void getMsgId(byte[] msgId) {
+        msgDesc.read(MQMD.MSG_ID_OFFSET, msgId, 0, MQMD.MQ_MSG_ID_LENGTH);
+    }
+
+    /**
+     * Set the message ID in the descriptor
+     */
+    public void setMsgId(byte[] msgId) {
+        msgDesc.write(MQMD.MSG_ID_OFFSET, msgId, 0, MQMD.MQ_MSG_ID_LENGTH);
+    }
+
+    /**
+     * @return the message ID of the descriptor
+     */
+    public MQId msgId() {
+        return MQId.read(msgDesc, MQMD.MSG_ID_OFFSET);
+    }
+
+    /**
+     * Set the message ID in the descriptor
+     */
+    public void setMsgId(MQId msgId) {
+        msgId.writeTo(msgDesc, MQMD.MSG_ID_OFFSET);
+    }
+
+    /**
+     * Copy the correlation ID out of the descriptor
+     */
+    public void getCorrelId(byte[] correlId) {
+        msgDesc.read(MQMD.CORREL_ID_OFFSET, correlId, 0, MQMD.MQ_CORREL_ID_LENGTH);
+    }
+
+    /**
+     * Set the correlation ID in the descriptor
+     */
+    public void setCorrelId(byte[] correlId) {
+        msgDesc.write(MQMD.CORREL_ID_OFFSET, correlId, 0, MQMD.MQ_CORREL_ID_LENGTH);
+    }
+
+    /**
+     * @return the correlation ID of the descriptor
+     */
+    public MQId correlId() {
+        return MQId.read(msgDesc, MQMD.CORREL_ID_OFFSET);
+    }
+
+    /**
+     * Set the correlation ID in the descriptor
+     */
+    public void setCorrelId(MQId correlId) {
+        correlId.writeTo(msgDesc, MQMD.CORREL_ID_OFFSET);
+    }
+
+    /**
+     * Reset message ID and correlation ID for receiving new messages
+     */
+    public void resetForGet() {
+        msgDesc.setMemory(MQMD.MSG_ID_OFFSET, MQMD.MQ_MSG_ID_LENGTH, (byte) 0);
+        msgDesc.setMemory(MQMD.CORREL_ID_OFFSET, MQMD.MQ_CORREL_ID_LENGTH, (byte) 0);
+    }
+
+    /**
+     * Copy a payload into the block
+     */
+    public void setData(byte[] src, int offset, int length) {
+        if (length > capacity) {
+            throw new IllegalArgumentException("Message length " + length + " exceeds buffer capacity " + capacity);
+        }
+        data.write(0, src, offset, length);
+        dataLength = length;
+    }
+
+    /**
+     * Copy the current payload out of the block
+     *
+     * @return number of bytes copied
+     */
+    public int copyData(byte[] dst, int offset) {
+        int length = Math.min(dataLength, dst.length - offset);
+        data.read(0, dst, offset, length);
+        return length;
+    }
+
+    /**
+     * Copy the current payload into a new array
+     */
+    public byte[] toByteArray() {
+        return data.getByteArray(0, dataLength);
+    }
+
+    /**
+     * Direct view of the payload, positioned at 0 and limited to the current data length.
+     * The same instance is returned by every call.
+     */
+    public ByteBuffer getData() {
+        dataBuffer.clear().limit(dataLength);
+        return dataBuffer;
+    }
+
+    /**
+     * Set the payload length after writing through {@link #getData()} or {@link #getDataPointer()}
+     */
+    public void setDataLength(int dataLength) {
+        if (dataLength < 0 || dataLength > capacity) {
+            throw new IllegalArgumentException("Invalid data length " + dataLength + " (capacity " + capacity + ")");
+        }
+        this.dataLength = dataLength;
+    }
+
+    public int getDataLength() {
+        return dataLength;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return a flyweight view of the message descriptor held in the block
+     */
+    public MQMDView msgDesc() {
+        return msgDescView;
+    }
+
+    /**
+     * @return a flyweight view of the put message options held in the block
+     */
+    public MQPMOView putOptions() {
+        return putOptionsView;
+    }
+
+    /**
+     * @return a flyweight view of the get message options held in the block
+     */
+    public MQGMOView getOptions() {
+        return getOptionsView;
+    }
+
+    public Pointer getMsgDescPointer() {
+        return msgDesc;
+    }
+
+    public Pointer getPutOptionsPointer() {
+        return putOptions;
+    }
+
+    public Pointer getGetOptionsPointer() {
+        return getOptions;
+    }
+
+    public Pointer getDataPointer() {
+        return data;
+    }
+
+    /**
+     * MQPUT the current payload with the descriptor and put options held in the block
+     */
+    public void put(int hConn, int hObj, IntByReference compCode, IntByReference reason) {
+        mq.MQPUT(hConn, hObj, msgDesc, putOptions, dataLength, data, compCode, reason);
+    }
+
+    /**
+     * MQGET into the block with the descriptor and get options held in it.
+     * On return {@link #getDataLength()} is the number of payload bytes held in the block.
+     */
+    public void get(int hConn, int hObj, IntByReference compCode, IntByReference reason) {
+        mq.MQGET(hConn, hObj, msgDesc, getOptions, capacity, data, dataLengthRef, compCode, reason);
+        dataLength = Math.min(dataLengthRef.getValue(), capacity);
+    }
+
+    /**
+     * MQPUT the current payload, results in the given call context
+     */
+    public void put(int hConn, int hObj, MQCallContext ctx) {
+        put(hConn, hObj, ctx.compCodeRef(), ctx.reasonRef());
+    }
+
+    /**
+     * MQGET into the block, data length and results in the given call context
+     */
+    public void get(int hConn, int hObj, MQCallContext ctx) {
+        get(hConn, hObj, capacity, ctx);
+    }
+
+    /**
+     * MQGET at most {@code bufferLength} bytes into the block, e.g. only a header with
+     * MQGMO_ACCEPT_TRUNCATED_MSG. The data length in the call context is the full message length.
+     */
+    public void get(int hConn, int hObj, int bufferLength, MQCallContext ctx) {
+        if (bufferLength < 0 || bufferLength > capacity) {
+            throw new IllegalArgumentException("Invalid buffer length " + bufferLength + " (capacity " + capacity + ")");
+        }
+        mq.MQGET(hConn, hObj, msgDesc, getOptions, bufferLength, data, ctx.dataLengthRef(), ctx.compCodeRef(), ctx.reasonRef());
+        dataLength = Math.min(ctx.getDataLength(), bufferLength);
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    /**
+     * Release the native block
+     */
+    @Override
+    public void close() {
+        memory.close();
+    }
+}
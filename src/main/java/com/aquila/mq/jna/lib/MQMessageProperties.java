@@ -0,0 +1,255 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCHARVLayout;
+import com.aquila.mq.jna.lib.layout.MQCMHOLayout;
+import com.aquila.mq.jna.lib.layout.MQDMHOLayout;
+import com.aquila.mq.jna.lib.layout.MQIMPOLayout;
+import com.aquila.mq.jna.lib.layout.MQPDLayout;
+import com.aquila.mq.jna.lib.layout.MQSMPOLayout;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * MQMessageProperties - A reusable message handle (MQCRTMH) with typed MQSETMP/MQINQMP access
+ * <p>
+ * The handle is created once and kept for the lifetime of the instance: attach it to each put or
+ * get ({@link MQMessageBuffer#setPutMsgHandle}, {@link MQMessageBuffer#setGetMsgHandle}) instead of
+ * creating and deleting a handle per message. The MQSMPO, MQPD and MQIMPO structures and the value
+ * buffer live in one native block allocated here, and names are passed as {@link MQPropertyName}
+ * encoded once by the caller:
+ * <pre>
+ * static final MQPropertyName ROUTING_KEY = MQPropertyName.of("routing.key");
+ *
+ * try (MQMessageProperties properties = new MQMessageProperties(hConn, 256)) {
+ *     message.setPutMsgHandle(properties.getHandle());
+ *     for (...) {
+ *         properties.setString(ROUTING_KEY, key);
+ *         message.put(hConn, hObj, ctx);
+ *     }
+ * }
+ * </pre>
+ * An instance is not thread safe.
+ */
+public class MQMessageProperties implements AutoCloseable {
+
+    public static final int MQSMPO_LENGTH = MQSMPOLayout.SIZE;
+    public static final int MQPD_LENGTH = MQPDLayout.SIZE;
+    public static final int MQIMPO_LENGTH = MQIMPOLayout.SIZE;
+
+    // Values are written in the byte order of the platform
+    private static final int VALUE_ENCODING = MQENC_NATIVE;
+
+    // Offsets of the structures in the native block, every structure 8-byte aligned
+    private static final int SMPO_OFFSET = 0;
+    private static final int PD_OFFSET = align(SMPO_OFFSET + MQSMPO_LENGTH);
+    private static final int IMPO_OFFSET = align(PD_OFFSET + MQPD_LENGTH);
+    private static final int VALUE_OFFSET = align(IMPO_OFFSET + MQIMPO_LENGTH);
+
+    // MQCMHO / MQDMHO: Version 1, Options MQCMHO_DEFAULT_VALIDATION / MQDMHO_NONE
+    private static final byte[] CREATE_OPTIONS = MQCMHOLayout.allocate().toBytes();
+    private static final byte[] DELETE_OPTIONS = MQDMHOLayout.allocate().toBytes();
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    private final int capacity;
+    private final Memory memory;
+    private final Pointer setOptions;
+    private final Pointer propertyDesc;
+    private final Pointer inquireOptions;
+    private final Pointer value;
+    private final IntByReference typeRef = new IntByReference();
+    private final LongByReference handleRef = new LongByReference();
+    private long handle;
+
+    /**
+     * Create a message handle with the default binding
+     *
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param capacity         Size of the value buffer (largest string or byte string property)
+     */
+    public MQMessageProperties(int connectionHandle, int capacity) throws MQCallException {
+        this(IBMMQJNA.INSTANCE, connectionHandle, capacity);
+    }
+
+    /**
+     * Create a message handle
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     * @param capacity         Size of the value buffer (largest string or byte string property)
+     */
+    public MQMessageProperties(IBMMQJNA mq, int connectionHandle, int capacity) throws MQCallException {
+        if (capacity < Long.BYTES) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+        this.capacity = capacity;
+        this.memory = new Memory(VALUE_OFFSET + (long) capacity);
+        this.memory.clear();
+        this.setOptions = memory.share(SMPO_OFFSET, MQSMPO_LENGTH);
+        this.propertyDesc = memory.share(PD_OFFSET, MQPD_LENGTH);
+        this.inquireOptions = memory.share(IMPO_OFFSET, MQIMPO_LENGTH);
+        this.value = memory.share(VALUE_OFFSET, capacity);
+        initStructures();
+
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQCRTMH(connectionHandle, CREATE_OPTIONS.clone(), handleRef, ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException("MQCRTMH failed", ctx);
+        }
+        this.handle = handleRef.getValue();
+    }
+
+    private static int align(int offset) {
+        return (offset + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    private void initStructures() {
+        // MQSMPO: Version 1, Options MQSMPO_SET_FIRST
+        MQSMPOLayout smpo = new MQSMPOLayout(memory.getByteBuffer(SMPO_OFFSET, MQSMPO_LENGTH), 0);
+        smpo.init();
+        smpo.setValueEncoding(VALUE_ENCODING);
+        smpo.setValueCCSID(MQPropertyName.CCSID_UTF8);
+
+        // MQPD: Version 1, Context MQPD_NO_CONTEXT,
+        // CopyOptions MQCOPY_DEFAULT (MQCOPY_FORWARD | MQCOPY_PUBLISH | MQCOPY_REPORT)
+        MQPDLayout pd = new MQPDLayout(memory.getByteBuffer(PD_OFFSET, MQPD_LENGTH), 0);
+        pd.init();
+        pd.setSupport(MQPD_SUPPORT_OPTIONAL);
+        pd.setCopyOptions(MQCOPY_DEFAULT);
+
+        // MQIMPO: Version 1, the value converted to the requested type, encoding and CCSID, the
+        // ReturnedName in the CCSID of the application, blank TypeString
+        MQIMPOLayout impo = new MQIMPOLayout(memory.getByteBuffer(IMPO_OFFSET, MQIMPO_LENGTH), 0);
+        impo.init();
+        impo.setOptions(MQIMPO_CONVERT_VALUE | MQIMPO_CONVERT_TYPE);
+        impo.setRequestedEncoding(VALUE_ENCODING);
+        impo.setRequestedCCSID(MQPropertyName.CCSID_UTF8);
+        new MQCHARVLayout(impo.getBuffer(), MQIMPOLayout.RETURNED_NAME_OFFSET).setVSCCSID(MQCCSI_APPL);
+        impo.setTypeString("");
+    }
+
+    /**
+     * @return the message handle, to attach to MQPMO/MQGMO
+     */
+    public long getHandle() {
+        return handle;
+    }
+
+    // ========== MQSETMP ==========
+
+    public void setInt(MQPropertyName name, int value) throws MQCallException {
+        this.value.setInt(0, value);
+        set(name, MQTYPE_INT32, Integer.BYTES);
+    }
+
+    public void setLong(MQPropertyName name, long value) throws MQCallException {
+        this.value.setLong(0, value);
+        set(name, MQTYPE_INT64, Long.BYTES);
+    }
+
+    public void setBoolean(MQPropertyName name, boolean value) throws MQCallException {
+        this.value.setInt(0, value ? 1 : 0);
+        set(name, MQTYPE_BOOLEAN, Integer.BYTES);
+    }
+
+    /**
+     * Set a string property (UTF-8)
+     */
+    public void setString(MQPropertyName name, String value) throws MQCallException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        checkLength(bytes.length);
+        this.value.write(0, bytes, 0, bytes.length);
+        set(name, MQTYPE_STRING, bytes.length);
+    }
+
+    public void setBytes(MQPropertyName name, byte[] value) throws MQCallException {
+        checkLength(value.length);
+        this.value.write(0, value, 0, value.length);
+        set(name, MQTYPE_BYTE_STRING, value.length);
+    }
+
+    private void checkLength(int length) {
+        if (length > capacity) {
+            throw new IllegalArgumentException("Property value too large: " + length + " > " + capacity);
+        }
+    }
+
+    private void set(MQPropertyName name, int type, int length) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQSETMP(connectionHandle, handle, setOptions, name.getPointer(), propertyDesc, type, length, value,
+                ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            throw new MQCallException("MQSETMP failed for " + name, ctx);
+        }
+    }
+
+    // ========== MQINQMP ==========
+
+    /**
+     * @return the property converted to an integer, or defaultValue if the message does not have it
+     */
+    public int getInt(MQPropertyName name, int defaultValue) throws MQCallException {
+        return inquire(name, MQTYPE_INT32) < 0 ? defaultValue : value.getInt(0);
+    }
+
+    /**
+     * @return the property converted to a long, or defaultValue if the message does not have it
+     */
+    public long getLong(MQPropertyName name, long defaultValue) throws MQCallException {
+        return inquire(name, MQTYPE_INT64) < 0 ? defaultValue : value.getLong(0);
+    }
+
+    /**
+     * @return the property converted to a string, or null if the message does not have it
+     */
+    public String getString(MQPropertyName name) throws MQCallException {
+        int length = inquire(name, MQTYPE_STRING);
+        return length < 0 ? null : new String(value.getByteArray(0, length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the property as a byte string, or null if the message does not have it
+     */
+    public byte[] getBytes(MQPropertyName name) throws MQCallException {
+        int length = inquire(name, MQTYPE_BYTE_STRING);
+        return length < 0 ? null : value.getByteArray(0, length);
+    }
+
+    /**
+     * @return the length of the value, or -1 if the message does not have the property
+     */
+    private int inquire(MQPropertyName name, int type) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        typeRef.setValue(type);
+        mq.MQINQMP(connectionHandle, handle, inquireOptions, name.getPointer(), propertyDesc, typeRef, capacity,
+                value, ctx.dataLengthRef(), ctx.compCodeRef(), ctx.reasonRef());
+        if (ctx.failed()) {
+            if (ctx.getReason() == MQRC_PROPERTY_NOT_AVAILABLE) {
+                return -1;
+            }
+            throw new MQCallException("MQINQMP failed for " + name, ctx);
+        }
+        return Math.min(ctx.getDataLength(), capacity);
+    }
+
+    /**
+     * Delete the message handle
+     */
+    @Override
+    public void close() {
+        if (handle != MQHM_NONE) {
+            MQCallContext ctx = MQCallContext.current();
+            handleRef.setValue(handle);
+            mq.MQDLTMH(connectionHandle, handleRef, DELETE_OPTIONS.clone(), ctx.compCodeRef(), ctx.reasonRef());
+            handle = MQHM_NONE;
+        }
+    }
+}
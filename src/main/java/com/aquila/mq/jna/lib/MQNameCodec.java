@@ -0,0 +1,301 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MQNameCodec - Blank-padded fixed-width MQ names (queue, queue manager, channel, connection, ...)
+ * <p>
+ * The padded encoding of a name is computed once per width and kept, so writing a known name into
+ * a descriptor is a copy of its cached bytes, without {@code Arrays.fill} and
+ * {@code String.getBytes}:
+ * <pre>
+ * MQNameCodec.DEFAULT.encode(queueName, od.ObjectName, 0, MQNameCodec.MQ_Q_NAME_LENGTH);
+ * </pre>
+ * Names are encoded in the charset of a CCSID and padded with the blank of that charset (0x40 in
+ * EBCDIC). A name longer than its field is truncated on a character boundary.
+ * {@link #DEFAULT} uses the CCSID given by {@code -Dmq.ccsid} (1208, UTF-8, when not set).
+ * <p>
+ * Up to {@link #MAX_CACHED_NAMES} names are cached per width, up to {@link #MAX_CACHED_WIDTH}
+ * bytes; other names are encoded on each call. Instances are thread safe.
+ */
+public final class MQNameCodec {
+
+    public static final int MQ_CHANNEL_NAME_LENGTH = 20;
+    public static final int MQ_Q_NAME_LENGTH = 48;
+    public static final int MQ_Q_MGR_NAME_LENGTH = 48;
+    public static final int MQ_CONN_NAME_LENGTH = 264;
+
+    public static final int MAX_CACHED_WIDTH = MQ_CONN_NAME_LENGTH;
+    public static final int MAX_CACHED_NAMES = 4096;
+    public static final int CCSID_UTF8 = 1208;
+
+    private static final Map<Integer, MQNameCodec> CODECS = new ConcurrentHashMap<>();
+
+    public static final MQNameCodec DEFAULT = forCcsid(Integer.getInteger("mq.ccsid", CCSID_UTF8));
+
+    private final int ccsid;
+    private final Charset charset;
+    private final byte blank;
+    private final boolean asciiCompatible;
+    @SuppressWarnings("unchecked")
+    private final Map<String, byte[]>[] caches = new Map[MAX_CACHED_WIDTH + 1];
+
+    private MQNameCodec(int ccsid) {
+        this.ccsid = ccsid;
+        this.charset = charset(ccsid);
+        byte[] space = " ".getBytes(charset);
+        if (space.length != 1) {
+            throw new IllegalArgumentException("CCSID " + ccsid + " does not encode a blank on one byte");
+        }
+        this.blank = space[0];
+        this.asciiCompatible = isAsciiCompatible(charset);
+    }
+
+    /**
+     * @return true if the printable ASCII characters encode to their own code
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        StringBuilder ascii = new StringBuilder();
+        for (char c = ' '; c < 0x7F; c++) {
+            ascii.append(c);
+        }
+        byte[] encoded = ascii.toString().getBytes(charset);
+        for (int i = 0; i < encoded.length; i++) {
+            if (encoded[i] != ' ' + i) {
+                return false;
+            }
+        }
+        return encoded.length == ascii.length();
+    }
+
+    /**
+     * @return the codec of a CCSID (e.g. 1208, 819, 37, 500, 1047)
+     */
+    public static MQNameCodec forCcsid(int ccsid) {
+        MQNameCodec codec = CODECS.get(ccsid);
+        return codec != null ? codec : CODECS.computeIfAbsent(ccsid, MQNameCodec::new);
+    }
+
+    private static Charset charset(int ccsid) {
+        switch (ccsid) {
+            case CCSID_UTF8:
+                return StandardCharsets.UTF_8;
+            case 819:
+                return StandardCharsets.ISO_8859_1;
+            case 367:
+                return StandardCharsets.US_ASCII;
+            case 912:
+                return Charset.forName("ISO-8859-2");
+            case 923:
+                return Charset.forName("ISO-8859-15");
+            case 1252:
+            case 5348:
+                return Charset.forName("windows-1252");
+            default:
+                for (String name : new String[]{"IBM" + ccsid, "x-IBM" + ccsid, "Cp" + ccsid}) {
+                    if (Charset.isSupported(name)) {
+                        return Charset.forName(name);
+                    }
+                }
+                throw new IllegalArgumentException("No charset for CCSID " + ccsid);
+        }
+    }
+
+    public int getCcsid() {
+        return ccsid;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * @return the blank of the charset, the padding byte
+     */
+    byte blank() {
+        return blank;
+    }
+
+    // ========== Encoding ==========
+
+    /**
+     * Padded encoding of a name, shared: the array must not be modified
+     *
+     * @param name   Name, null for a blank field
+     * @param length Width of the field
+     */
+    public byte[] encode(String name, int length) {
+        if (length > MAX_CACHED_WIDTH) {
+            return pad(name, length);
+        }
+        String key = name != null ? name : "";
+        Map<String, byte[]> cache = caches[length];
+        if (cache == null) {
+            synchronized (caches) {
+                cache = caches[length];
+                if (cache == null) {
+                    cache = new ConcurrentHashMap<>();
+                    caches[length] = cache;
+                }
+            }
+        }
+        byte[] encoded = cache.get(key);
+        if (encoded == null) {
+            encoded = pad(key, length);
+            if (cache.size() < MAX_CACHED_NAMES) {
+                cache.putIfAbsent(key, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Write the padded name into a field of an array
+     */
+    public void encode(String name, byte[] target, int offset, int length) {
+        System.arraycopy(encode(name, length), 0, target, offset, length);
+    }
+
+    /**
+     * Write the padded name into a field of a buffer (absolute, the position is not changed)
+     */
+    public void encode(String name, ByteBuffer target, int index, int length) {
+        target.put(index, encode(name, length), 0, length);
+    }
+
+    /**
+     * Write the padded name into a field of native memory
+     */
+    public void encode(String name, Pointer target, long offset, int length) {
+        target.write(offset, encode(name, length), 0, length);
+    }
+
+    /**
+     * Write a padded value that must not stay in memory longer than needed (a password): it is
+     * encoded on each call and never cached
+     */
+    public void encodeUncached(String value, byte[] target, int offset, int length) {
+        System.arraycopy(pad(value, length), 0, target, offset, length);
+    }
+
+    /**
+     * Write a value unpadded at an index of a buffer (absolute), for the variable-length strings
+     * of PCF messages. ASCII values are written character by character, without an encoded copy.
+     *
+     * @return the number of bytes written
+     */
+    int write(String value, ByteBuffer target, int index) {
+        int n = value.length();
+        if (asciiCompatible && isAscii(value)) {
+            if (index + n > target.limit()) {
+                throw new BufferOverflowException();
+            }
+            for (int i = 0; i < n; i++) {
+                target.put(index + i, (byte) value.charAt(i));
+            }
+            return n;
+        }
+        byte[] bytes = value.getBytes(charset);
+        target.put(index, bytes);
+        return bytes.length;
+    }
+
+    private byte[] pad(String name, int length) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, blank);
+        if (name != null && !name.isEmpty()) {
+            CharsetEncoder encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            // Stops before the first character that does not fit: no character is cut in half
+            encoder.encode(CharBuffer.wrap(name), ByteBuffer.wrap(bytes), true);
+        }
+        return bytes;
+    }
+
+    // ========== Comparison ==========
+
+    /**
+     * Compare a padded field of a buffer with a name, without decoding the field
+     *
+     * @return true if the field holds the name followed by blanks or NULs
+     */
+    public boolean matches(String name, ByteBuffer source, int index, int length) {
+        int n = name.length();
+        if (n > length) {
+            return false;
+        }
+        if (!asciiCompatible || !isAscii(name)) {
+            byte[] encoded = encode(name, length);
+            for (int i = 0; i < length; i++) {
+                if (source.get(index + i) != encoded[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // ASCII names compare character by character, without the cache lookup
+        for (int i = 0; i < n; i++) {
+            if (source.get(index + i) != (byte) name.charAt(i)) {
+                return false;
+            }
+        }
+        for (int i = n; i < length; i++) {
+            byte b = source.get(index + i);
+            if (b != blank && b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========== Decoding ==========
+
+    /**
+     * Read a padded name without its trailing blanks and NULs
+     */
+    public String decode(byte[] source, int offset, int length) {
+        int end = length;
+        while (end > 0 && (source[offset + end - 1] == blank || source[offset + end - 1] == 0)) {
+            end--;
+        }
+        return new String(source, offset, end, charset);
+    }
+
+    /**
+     * Read a padded name from a buffer without its trailing blanks and NULs (absolute)
+     */
+    public String decode(ByteBuffer source, int index, int length) {
+        int end = length;
+        while (end > 0) {
+            byte b = source.get(index + end - 1);
+            if (b != blank && b != 0) {
+                break;
+            }
+            end--;
+        }
+        byte[] bytes = new byte[end];
+        source.get(index, bytes);
+        return new String(bytes, charset);
+    }
+}
@@ -104,25 +104,21 @@ public class MQOD extends Structure {
      * Set the object name (queue name)
      */
     public void setObjectName(String name) {
-        Arrays.fill(ObjectName, (byte) ' ');
-        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(nameBytes, 0, ObjectName, 0, Math.min(nameBytes.length, ObjectName.length));
+        MQNameCodec.DEFAULT.encode(name, ObjectName, 0, ObjectName.length);
     }
 
     /**
      * Set the dynamic queue name pattern
      */
     public void setDynamicQName(String name) {
-        Arrays.fill(DynamicQName, (byte) ' ');
-        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
-        System.arraycopy(nameBytes, 0, DynamicQName, 0, Math.min(nameBytes.length, DynamicQName.length));
+        MQNameCodec.DEFAULT.encode(name, DynamicQName, 0, DynamicQName.length);
     }
 
     /**
      * Get the resolved queue name
      */
     public String getResolvedQName() {
-        return new String(ResolvedQName, StandardCharsets.UTF_8).trim();
+        return MQNameCodec.DEFAULT.decode(ResolvedQName, 0, ResolvedQName.length);
     }
 
     /**
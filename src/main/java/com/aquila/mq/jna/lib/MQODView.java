@@ -0,0 +1,135 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCHARVLayout;
+import com.aquila.mq.jna.lib.layout.MQODLayout;
+
+import java.nio.ByteBuffer;
+
+import static com.aquila.mq.jna.lib.MQOD.*;
+
+/**
+ * MQODView - Flyweight MQOD (up to Version 4, 424 bytes) over a direct ByteBuffer
+ * <p>
+ * {@link #init()} writes a Version 1 descriptor with defaults for the later fields, so that
+ * {@link #setVersion(int)} is all that is needed to use them.
+ *
+ * @see MQStructView
+ */
+public class MQODView extends MQStructView {
+
+    // Structure lengths (64-bit)
+    public static final int MQOD_LENGTH_1 = MQODLayout.LENGTH_1;
+    public static final int MQOD_LENGTH_4 = MQODLayout.LENGTH_4;
+
+    // Field offsets (generated from cmqc.h)
+    public static final int OBJECT_TYPE_OFFSET = MQODLayout.OBJECT_TYPE_OFFSET;
+    public static final int OBJECT_NAME_OFFSET = MQODLayout.OBJECT_NAME_OFFSET;
+    public static final int OBJECT_Q_MGR_NAME_OFFSET = MQODLayout.OBJECT_Q_MGR_NAME_OFFSET;
+    public static final int DYNAMIC_Q_NAME_OFFSET = MQODLayout.DYNAMIC_Q_NAME_OFFSET;
+    public static final int ALTERNATE_USER_ID_OFFSET = MQODLayout.ALTERNATE_USER_ID_OFFSET;
+    public static final int RECS_PRESENT_OFFSET = MQODLayout.RECS_PRESENT_OFFSET;
+    public static final int ALTERNATE_SECURITY_ID_OFFSET = MQODLayout.ALTERNATE_SECURITY_ID_OFFSET;
+    public static final int RESOLVED_Q_NAME_OFFSET = MQODLayout.RESOLVED_Q_NAME_OFFSET;
+    public static final int RESOLVED_Q_MGR_NAME_OFFSET = MQODLayout.RESOLVED_Q_MGR_NAME_OFFSET;
+    public static final int OBJECT_STRING_OFFSET = MQODLayout.OBJECT_STRING_OFFSET;
+    public static final int RESOLVED_TYPE_OFFSET = MQODLayout.RESOLVED_TYPE_OFFSET;
+
+    public static final int MQ_OBJECT_NAME_LENGTH = 48;
+    public static final int MQ_Q_MGR_NAME_LENGTH = 48;
+    public static final int MQ_USER_ID_LENGTH = 12;
+    public static final int MQ_SECURITY_ID_LENGTH = 40;
+
+    private static final int MQCCSI_APPL = -3;
+
+    /**
+     * View the object descriptor at the given offset of the buffer
+     */
+    public MQODView(ByteBuffer buffer, int offset) {
+        super(buffer, offset);
+    }
+
+    /**
+     * Allocate a direct buffer holding a default object descriptor
+     */
+    public static MQODView allocate() {
+        MQODView view = new MQODView(ByteBuffer.allocateDirect(MQOD_LENGTH_4), 0);
+        view.init();
+        return view;
+    }
+
+    /**
+     * Point the view at another object descriptor
+     */
+    public MQODView wrap(ByteBuffer buffer, int offset) {
+        attach(buffer, offset);
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return MQOD_LENGTH_4;
+    }
+
+    @Override
+    public void init() {
+        putStrucId(MQOD_STRUC_ID);
+        putInt(VERSION_OFFSET, MQOD_VERSION_1);
+        putInt(OBJECT_TYPE_OFFSET, MQOT_Q);
+        fill(OBJECT_NAME_OFFSET, 3 * MQ_OBJECT_NAME_LENGTH + MQ_USER_ID_LENGTH, (byte) ' ');
+        putName(DYNAMIC_Q_NAME_OFFSET, "AMQ.*", MQ_OBJECT_NAME_LENGTH);
+        fill(RECS_PRESENT_OFFSET, ALTERNATE_SECURITY_ID_OFFSET - RECS_PRESENT_OFFSET, (byte) 0);
+        fill(ALTERNATE_SECURITY_ID_OFFSET, MQ_SECURITY_ID_LENGTH, (byte) 0);
+        fill(RESOLVED_Q_NAME_OFFSET, MQ_OBJECT_NAME_LENGTH + MQ_Q_MGR_NAME_LENGTH, (byte) ' ');
+        fill(OBJECT_STRING_OFFSET, MQOD_LENGTH_4 - OBJECT_STRING_OFFSET, (byte) 0);
+        putInt(OBJECT_STRING_OFFSET + MQCHARVLayout.VSCCSID_OFFSET, MQCCSI_APPL);
+        putInt(MQODLayout.SELECTION_STRING_OFFSET + MQCHARVLayout.VSCCSID_OFFSET, MQCCSI_APPL);
+        putInt(MQODLayout.RES_OBJECT_STRING_OFFSET + MQCHARVLayout.VSCCSID_OFFSET, MQCCSI_APPL);
+    }
+
+    public int getObjectType() {
+        return getInt(OBJECT_TYPE_OFFSET);
+    }
+
+    public void setObjectType(int objectType) {
+        putInt(OBJECT_TYPE_OFFSET, objectType);
+    }
+
+    public String getObjectName() {
+        return getName(OBJECT_NAME_OFFSET, MQ_OBJECT_NAME_LENGTH);
+    }
+
+    public void setObjectName(String name) {
+        putName(OBJECT_NAME_OFFSET, name, MQ_OBJECT_NAME_LENGTH);
+    }
+
+    public String getObjectQMgrName() {
+        return getName(OBJECT_Q_MGR_NAME_OFFSET, MQ_Q_MGR_NAME_LENGTH);
+    }
+
+    public void setObjectQMgrName(String name) {
+        putName(OBJECT_Q_MGR_NAME_OFFSET, name, MQ_Q_MGR_NAME_LENGTH);
+    }
+
+    public String getDynamicQName() {
+        return getName(DYNAMIC_Q_NAME_OFFSET, MQ_OBJECT_NAME_LENGTH);
+    }
+
+    public void setDynamicQName(String name) {
+        putName(DYNAMIC_Q_NAME_OFFSET, name, MQ_OBJECT_NAME_LENGTH);
+    }
+
+    public void setAlternateUserId(String userId) {
+        putName(ALTERNATE_USER_ID_OFFSET, userId, MQ_USER_ID_LENGTH);
+    }
+
+    /**
+     * @return the resolved queue name (Version 3 or later, filled by MQOPEN)
+     */
+    public String getResolvedQName() {
+        return getName(RESOLVED_Q_NAME_OFFSET, MQ_OBJECT_NAME_LENGTH);
+    }
+
+    public String getResolvedQMgrName() {
+        return getName(RESOLVED_Q_MGR_NAME_OFFSET, MQ_Q_MGR_NAME_LENGTH);
+    }
+}
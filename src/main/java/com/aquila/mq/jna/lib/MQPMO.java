@@ -1,5 +1,6 @@
 package com.aquila.mq.jna.lib;
 
+import com.aquila.mq.jna.lib.layout.MQPMOLayout;
 import com.sun.jna.Pointer;
 import com.sun.jna.Structure;
 
@@ -27,6 +28,10 @@ public class MQPMO extends Structure {
     public static final int MQPMO_VERSION_3 = 3;
     public static final int MQPMO_CURRENT_VERSION = MQPMO_VERSION_3;
 
+    // Structure lengths (64-bit)
+    public static final int MQPMO_LENGTH_1 = MQPMOLayout.LENGTH_1;
+    public static final int MQPMO_LENGTH_3 = MQPMOLayout.LENGTH_3;
+
     // Put options
     public static final int MQPMO_NONE = 0x00000000;
     public static final int MQPMO_SYNCPOINT = 0x00000002;
@@ -111,7 +116,7 @@ public class MQPMO extends Structure {
      * This avoids issues with JNA structure padding
      */
     public static byte[] createMinimalPMO(int options) {
-        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(128);
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(MQPMO_LENGTH_1);
         buffer.order(java.nio.ByteOrder.nativeOrder());
 
         // StrucId "PMO "
@@ -139,4 +144,35 @@ public class MQPMO extends Structure {
 
         return buffer.array();
     }
+
+    /**
+     * Create a minimal Version 3 MQPMO byte array (184 bytes)
+     * Version 3 carries the message handle fields; use it for asynchronous puts
+     * (MQPMO_ASYNC_RESPONSE) and message properties
+     */
+    public static byte[] createMinimalPMO3(int options) {
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(MQPMO_LENGTH_3);
+        buffer.order(java.nio.ByteOrder.nativeOrder());
+
+        // Version 1 part, with the version raised to 3
+        buffer.put(createMinimalPMO(options));
+        buffer.putInt(4, MQPMO_VERSION_3);
+        // RecsPresent, PutMsgRecFields, PutMsgRecOffset, ResponseRecOffset
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putInt(0);
+        // PutMsgRecPtr, ResponseRecPtr
+        buffer.putLong(0);
+        buffer.putLong(0);
+        // OriginalMsgHandle, NewMsgHandle (MQHM_NONE)
+        buffer.putLong(0);
+        buffer.putLong(0);
+        // Action (MQACTP_NEW)
+        buffer.putInt(0);
+        // PubLevel
+        buffer.putInt(9);
+
+        return buffer.array();
+    }
 }
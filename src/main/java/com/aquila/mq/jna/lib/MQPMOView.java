@@ -0,0 +1,117 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQPMOLayout;
+
+import java.nio.ByteBuffer;
+
+import static com.aquila.mq.jna.lib.MQPMO.*;
+
+/**
+ * MQPMOView - Flyweight MQPMO (Version 3, 184 bytes) over a direct ByteBuffer
+ *
+ * @see MQStructView
+ */
+public class MQPMOView extends MQStructView {
+
+    // Field offsets (generated from cmqc.h)
+    public static final int OPTIONS_OFFSET = MQPMOLayout.OPTIONS_OFFSET;
+    public static final int TIMEOUT_OFFSET = MQPMOLayout.TIMEOUT_OFFSET;
+    public static final int CONTEXT_OFFSET = MQPMOLayout.CONTEXT_OFFSET;
+    public static final int KNOWN_DEST_COUNT_OFFSET = MQPMOLayout.KNOWN_DEST_COUNT_OFFSET;
+    public static final int UNKNOWN_DEST_COUNT_OFFSET = MQPMOLayout.UNKNOWN_DEST_COUNT_OFFSET;
+    public static final int INVALID_DEST_COUNT_OFFSET = MQPMOLayout.INVALID_DEST_COUNT_OFFSET;
+    public static final int RESOLVED_Q_NAME_OFFSET = MQPMOLayout.RESOLVED_Q_NAME_OFFSET;
+    public static final int RESOLVED_Q_MGR_NAME_OFFSET = MQPMOLayout.RESOLVED_Q_MGR_NAME_OFFSET;
+    public static final int RECS_PRESENT_OFFSET = MQPMOLayout.RECS_PRESENT_OFFSET;
+    public static final int ORIGINAL_MSG_HANDLE_OFFSET = MQPMOLayout.ORIGINAL_MSG_HANDLE_OFFSET;
+    public static final int NEW_MSG_HANDLE_OFFSET = MQPMOLayout.NEW_MSG_HANDLE_OFFSET;
+    public static final int ACTION_OFFSET = MQPMOLayout.ACTION_OFFSET;
+    public static final int PUB_LEVEL_OFFSET = MQPMOLayout.PUB_LEVEL_OFFSET;
+
+    public static final int MQ_Q_NAME_LENGTH = 48;
+    public static final int MQ_Q_MGR_NAME_LENGTH = 48;
+
+    /**
+     * View the put message options at the given offset of the buffer
+     */
+    public MQPMOView(ByteBuffer buffer, int offset) {
+        super(buffer, offset);
+    }
+
+    /**
+     * Allocate a direct buffer holding default put message options
+     */
+    public static MQPMOView allocate() {
+        MQPMOView view = new MQPMOView(ByteBuffer.allocateDirect(MQPMO_LENGTH_3), 0);
+        view.init();
+        return view;
+    }
+
+    /**
+     * Point the view at other put message options
+     */
+    public MQPMOView wrap(ByteBuffer buffer, int offset) {
+        attach(buffer, offset);
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return MQPMO_LENGTH_3;
+    }
+
+    @Override
+    public void init() {
+        putStrucId(MQPMO_STRUC_ID);
+        putInt(VERSION_OFFSET, MQPMO_VERSION_3);
+        putInt(OPTIONS_OFFSET, MQPMO_NONE);
+        putInt(TIMEOUT_OFFSET, -1);
+        putInt(CONTEXT_OFFSET, 0);
+        putInt(KNOWN_DEST_COUNT_OFFSET, 0);
+        putInt(UNKNOWN_DEST_COUNT_OFFSET, 0);
+        putInt(INVALID_DEST_COUNT_OFFSET, 0);
+        fill(RESOLVED_Q_NAME_OFFSET, MQ_Q_NAME_LENGTH + MQ_Q_MGR_NAME_LENGTH, (byte) ' ');
+        // RecsPresent .. ResponseRecPtr, message handles, Action (MQACTP_NEW)
+        fill(RECS_PRESENT_OFFSET, PUB_LEVEL_OFFSET - RECS_PRESENT_OFFSET, (byte) 0);
+        putInt(PUB_LEVEL_OFFSET, 9);
+    }
+
+    public int getOptions() {
+        return getInt(OPTIONS_OFFSET);
+    }
+
+    public void setOptions(int options) {
+        putInt(OPTIONS_OFFSET, options);
+    }
+
+    /**
+     * Object handle of the input queue the context is passed from (MQPMO_PASS_*_CONTEXT)
+     */
+    public void setContext(int hObj) {
+        putInt(CONTEXT_OFFSET, hObj);
+    }
+
+    public String getResolvedQName() {
+        return getName(RESOLVED_Q_NAME_OFFSET, MQ_Q_NAME_LENGTH);
+    }
+
+    public String getResolvedQMgrName() {
+        return getName(RESOLVED_Q_MGR_NAME_OFFSET, MQ_Q_MGR_NAME_LENGTH);
+    }
+
+    public long getOriginalMsgHandle() {
+        return getLong(ORIGINAL_MSG_HANDLE_OFFSET);
+    }
+
+    public void setOriginalMsgHandle(long hMsg) {
+        putLong(ORIGINAL_MSG_HANDLE_OFFSET, hMsg);
+    }
+
+    public long getNewMsgHandle() {
+        return getLong(NEW_MSG_HANDLE_OFFSET);
+    }
+
+    public void setNewMsgHandle(long hMsg) {
+        putLong(NEW_MSG_HANDLE_OFFSET, hMsg);
+    }
+}
@@ -0,0 +1,65 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCHARVLayout;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MQPropertyName - A message property name encoded once in native memory
+ * <p>
+ * Holds the MQCHARV passed to MQSETMP/MQINQMP followed by the UTF-8 name it points to, so a
+ * property call passes a pointer instead of encoding the name again. Keep instances in constants:
+ * <pre>
+ * static final MQPropertyName ROUTING_KEY = MQPropertyName.of("routing.key");
+ * </pre>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class MQPropertyName {
+
+    public static final int MQCHARV_LENGTH = MQCHARVLayout.SIZE;
+
+    static final int CCSID_UTF8 = 1208;
+
+    private final String name;
+    private final Memory memory;
+
+    private MQPropertyName(String name) {
+        this.name = name;
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        this.memory = new Memory(MQCHARV_LENGTH + (long) Math.max(bytes.length, 1));
+        memory.write(MQCHARV_LENGTH, bytes, 0, bytes.length);
+        memory.setPointer(MQCHARVLayout.VS_PTR_OFFSET, memory.share(MQCHARV_LENGTH));
+        memory.setInt(MQCHARVLayout.VS_OFFSET_OFFSET, 0);
+        memory.setInt(MQCHARVLayout.VS_BUF_SIZE_OFFSET, bytes.length);
+        memory.setInt(MQCHARVLayout.VS_LENGTH_OFFSET, bytes.length);
+        memory.setInt(MQCHARVLayout.VSCCSID_OFFSET, CCSID_UTF8);
+    }
+
+    /**
+     * Encode a property name
+     */
+    public static MQPropertyName of(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Property name is empty");
+        }
+        return new MQPropertyName(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the MQCHARV describing the name
+     */
+    public Pointer getPointer() {
+        return memory;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,72 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Structure;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * MQSTS - MQ Status Reporting
+ * Structure filled by MQSTAT, e.g. with the outcome of asynchronous puts
+ * Based on cmqc.h
+ */
+@Structure.FieldOrder({"StrucId", "Version", "CompCode", "Reason", "PutSuccessCount",
+        "PutWarningCount", "PutFailureCount", "ObjectType", "ObjectName", "ObjectQMgrName",
+        "ResolvedObjectName", "ResolvedQMgrName"})
+public class MQSTS extends Structure {
+
+    // Structure ID
+    public static final String MQSTS_STRUC_ID = "STAT";
+
+    // Version constants
+    public static final int MQSTS_VERSION_1 = 1;
+
+    // MQSTAT types
+    public static final int MQSTAT_TYPE_ASYNC_ERROR = 0;
+    public static final int MQSTAT_TYPE_RECONNECTION = 1;
+    public static final int MQSTAT_TYPE_RECONNECTION_ERROR = 2;
+
+    // Structure fields - Version 1
+    public byte[] StrucId = new byte[4];              // Structure identifier
+    public int Version = MQSTS_VERSION_1;             // Structure version number
+    public int CompCode = 0;                          // Completion code of first error
+    public int Reason = 0;                            // Reason code of first error
+    public int PutSuccessCount = 0;                   // Number of asynchronous puts that succeeded
+    public int PutWarningCount = 0;                   // Number of asynchronous puts that completed with a warning
+    public int PutFailureCount = 0;                   // Number of asynchronous puts that failed
+    public int ObjectType = 0;                        // Object type of first error
+    public byte[] ObjectName = new byte[48];          // Object name of first error
+    public byte[] ObjectQMgrName = new byte[48];      // Queue manager name of first error
+    public byte[] ResolvedObjectName = new byte[48];  // Resolved object name of first error
+    public byte[] ResolvedQMgrName = new byte[48];    // Resolved queue manager name of first error
+
+    public MQSTS() {
+        super();
+        reset();
+    }
+
+    /**
+     * Restore the input state before reusing the structure for another MQSTAT
+     */
+    public void reset() {
+        System.arraycopy(MQSTS_STRUC_ID.getBytes(StandardCharsets.US_ASCII), 0, StrucId, 0, 4);
+        Version = MQSTS_VERSION_1;
+        CompCode = 0;
+        Reason = 0;
+        PutSuccessCount = 0;
+        PutWarningCount = 0;
+        PutFailureCount = 0;
+        ObjectType = 0;
+        Arrays.fill(ObjectName, (byte) ' ');
+        Arrays.fill(ObjectQMgrName, (byte) ' ');
+        Arrays.fill(ResolvedObjectName, (byte) ' ');
+        Arrays.fill(ResolvedQMgrName, (byte) ' ');
+    }
+
+    /**
+     * Get the name of the object of the first error
+     */
+    public String getObjectName() {
+        return MQNameCodec.DEFAULT.decode(ObjectName, 0, ObjectName.length);
+    }
+}
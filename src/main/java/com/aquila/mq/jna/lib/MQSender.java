@@ -0,0 +1,139 @@
+package com.aquila.mq.jna.lib;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * MQSender - One-shot message sending with MQPUT1
+ * <p>
+ * MQPUT1 opens the queue, puts the message and closes the queue in a single call, so a
+ * destination written to only now and then costs one client/server round trip instead of
+ * three (MQOPEN, MQPUT, MQCLOSE) and no object handle is kept open between sends.
+ * Use an open handle and MQPUT for destinations that receive a steady stream of messages.
+ * <p>
+ * The descriptors come from {@link MQDescriptorTemplates} and are copied into arrays owned by
+ * the sender, so a send encodes no structure. An instance is not thread safe.
+ */
+@Slf4j
+public class MQSender {
+
+    public static final int DEFAULT_PUT_OPTIONS =
+            MQPMO.MQPMO_NO_SYNCPOINT | MQPMO.MQPMO_NEW_MSG_ID | MQPMO.MQPMO_FAIL_IF_QUIESCING;
+    private static final MQDescriptorTemplate DEFAULT_PUT_MSG_OPTS = MQDescriptorTemplates.putOptions(DEFAULT_PUT_OPTIONS);
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    // Sized for the MQOD image of MQDescriptorTemplates.objectDescriptor (Version 1, Version 4 length)
+    private final byte[] objDesc = new byte[MQODView.MQOD_LENGTH_4];
+    private final byte[] msgDesc = new byte[MQMD.MQMD_LENGTH_1];
+    private final byte[] putMsgOpts = new byte[MQPMO.MQPMO_LENGTH_1];
+
+    /**
+     * Create a sender for the given connection
+     *
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     */
+    public MQSender(int connectionHandle) {
+        this(IBMMQJNA.INSTANCE, connectionHandle);
+    }
+
+    /**
+     * Create a sender for the given connection
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     */
+    public MQSender(IBMMQJNA mq, int connectionHandle) {
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+    }
+
+    /**
+     * Send a datagram with no format (MQFMT_NONE)
+     *
+     * @param queueName Destination queue
+     * @param message   Message content
+     * @return the MsgId assigned by the queue manager
+     */
+    public MQId send(String queueName, byte[] message) throws MQCallException {
+        return send(queueName, null, message);
+    }
+
+    /**
+     * Send a message with no format (MQFMT_NONE): a request when a reply queue is given, a
+     * datagram otherwise
+     *
+     * @param queueName    Destination queue
+     * @param replyToQueue Reply queue, or null
+     * @param message      Message content
+     * @return the MsgId assigned by the queue manager, to match the reply on CorrelId
+     */
+    public MQId send(String queueName, String replyToQueue, byte[] message) throws MQCallException {
+        return send(queueName, replyToQueue, MQMD.MQFMT_NONE, message);
+    }
+
+    /**
+     * Send a message: a request when a reply queue is given, a datagram otherwise
+     *
+     * @param queueName    Destination queue
+     * @param replyToQueue Reply queue, or null
+     * @param format       Format name (MQMD.MQFMT_*)
+     * @param message      Message content
+     * @return the MsgId assigned by the queue manager, to match the reply on CorrelId
+     */
+    public MQId send(String queueName, String replyToQueue, String format, byte[] message) throws MQCallException {
+        return send(queueName, replyToQueue, format, message, message.length);
+    }
+
+    /**
+     * Send the first bytes of an array, e.g. a command encoded by a reused {@link PCFWriter}
+     *
+     * @param queueName    Destination queue
+     * @param replyToQueue Reply queue, or null
+     * @param format       Format name (MQMD.MQFMT_*)
+     * @param message      Array holding the message content
+     * @param length       Length of the message content
+     * @return the MsgId assigned by the queue manager, to match the reply on CorrelId
+     */
+    public MQId send(String queueName, String replyToQueue, String format, byte[] message, int length) throws MQCallException {
+        MQDescriptorTemplates.objectDescriptor(queueName).copyTo(objDesc);
+        MQDescriptorTemplates.msgDesc(format, replyToQueue).copyTo(msgDesc);
+        DEFAULT_PUT_MSG_OPTS.copyTo(putMsgOpts);
+        send(objDesc, msgDesc, putMsgOpts, message, length);
+
+        return MQId.read(msgDesc, MQMD.MSG_ID_OFFSET);
+    }
+
+    /**
+     * Send a message with caller-built structures.
+     * The MQOD, MQMD and MQPMO arrays are updated in place (resolved names, MsgId).
+     */
+    public void send(byte[] objDesc, byte[] msgDesc, byte[] putMsgOpts, byte[] message) throws MQCallException {
+        send(objDesc, msgDesc, putMsgOpts, message, message.length);
+    }
+
+    private void send(byte[] objDesc, byte[] msgDesc, byte[] putMsgOpts, byte[] message, int length) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQPUT1(
+                connectionHandle,
+                objDesc,
+                msgDesc,
+                putMsgOpts,
+                length,
+                message,
+                ctx.compCodeRef(),
+                ctx.reasonRef()
+        );
+
+        if (ctx.failed()) {
+            throw new MQCallException("MQPUT1 failed", ctx);
+        }
+        log.trace("MQPUT1 completed, CompCode: {}", ctx.getCompCode());
+    }
+
+    /**
+     * Build the object descriptor of a queue: a Version 1 MQOD in a Version 4 length image
+     */
+    public static byte[] objectDescriptor(String queueName) {
+        return MQDescriptorTemplates.objectDescriptor(queueName).newCopy();
+    }
+}
@@ -0,0 +1,145 @@
+package com.aquila.mq.jna.lib;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * MQStructView - Flyweight access to an MQ structure laid out in a direct ByteBuffer
+ * <p>
+ * A view reads and writes the fields at their fixed offsets in the buffer, without the reflective
+ * {@code Structure.write()} and the copy of {@code toBytes()}. A view keeps no field values of its
+ * own: {@code wrap} points it at another structure, so one view can serve every message.
+ * <p>
+ * The buffer is switched to native byte order when it is wrapped.
+ */
+public abstract class MQStructView {
+
+    protected static final int STRUC_ID_OFFSET = 0;
+    protected static final int VERSION_OFFSET = 4;
+
+    protected ByteBuffer buffer;
+    protected int base;
+
+    protected MQStructView(ByteBuffer buffer, int offset) {
+        attach(buffer, offset);
+    }
+
+    protected final void attach(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset + length() > buffer.capacity()) {
+            throw new IndexOutOfBoundsException("Structure of " + length() + " bytes at " + offset
+                    + " does not fit in " + buffer.capacity() + " bytes");
+        }
+        if (buffer.order() != ByteOrder.nativeOrder()) {
+            buffer.order(ByteOrder.nativeOrder());
+        }
+        this.buffer = buffer;
+        this.base = offset;
+    }
+
+    /**
+     * @return the size of the structure at the highest version the view supports
+     */
+    public abstract int length();
+
+    /**
+     * Write the default value of every field (as the MQxx_DEFAULT initializers of cmqc.h)
+     */
+    public abstract void init();
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    public int getOffset() {
+        return base;
+    }
+
+    public int getVersion() {
+        return getInt(VERSION_OFFSET);
+    }
+
+    public void setVersion(int version) {
+        putInt(VERSION_OFFSET, version);
+    }
+
+    /**
+     * Copy the structure out, e.g. for the byte[] verbs
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[length()];
+        buffer.get(base, bytes);
+        return bytes;
+    }
+
+    // ========== Field access ==========
+
+    protected final int getInt(int offset) {
+        return buffer.getInt(base + offset);
+    }
+
+    protected final void putInt(int offset, int value) {
+        buffer.putInt(base + offset, value);
+    }
+
+    protected final long getLong(int offset) {
+        return buffer.getLong(base + offset);
+    }
+
+    protected final void putLong(int offset, long value) {
+        buffer.putLong(base + offset, value);
+    }
+
+    protected final void getBytes(int offset, byte[] dst, int length) {
+        buffer.get(base + offset, dst, 0, length);
+    }
+
+    protected final void putBytes(int offset, byte[] src, int length) {
+        buffer.put(base + offset, src, 0, length);
+    }
+
+    protected final void fill(int offset, int length, byte value) {
+        for (int i = 0; i < length; i++) {
+            buffer.put(base + offset + i, value);
+        }
+    }
+
+    /**
+     * Write a blank-padded name, copied from the encodings cached by {@link MQNameCodec}
+     */
+    protected final void putName(int offset, String name, int length) {
+        MQNameCodec.DEFAULT.encode(name, buffer, base + offset, length);
+    }
+
+    /**
+     * Read a blank-padded name without its trailing blanks and NULs
+     */
+    protected final String getName(int offset, int length) {
+        return MQNameCodec.DEFAULT.decode(buffer, base + offset, length);
+    }
+
+    /**
+     * Compare a blank-padded name with a string without decoding the name
+     */
+    protected final boolean nameEquals(int offset, String name, int length) {
+        return MQNameCodec.DEFAULT.matches(name, buffer, base + offset, length);
+    }
+
+    /**
+     * Compare a byte field with an array without copying the field
+     */
+    protected final boolean bytesEqual(int offset, byte[] value, int length) {
+        if (value.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(base + offset + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected final void putStrucId(String strucId) {
+        putName(STRUC_ID_OFFSET, strucId, 4);
+    }
+}
@@ -0,0 +1,194 @@
+package com.aquila.mq.jna.lib;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * MQUnitOfWork - Batches puts and gets under syncpoint and commits them together
+ * <p>
+ * Every operation is done under syncpoint; MQCMIT is issued once {@code batchSize} operations are
+ * pending, or when the oldest pending operation is older than {@code commitTimeoutMillis}. A
+ * persistent message then shares its log force with the rest of its batch instead of paying for
+ * its own.
+ * <p>
+ * Connection handles are bound to the thread that uses them, so there is no background timer:
+ * the timeout is checked on each operation and by {@link #commitIfDue()} (to be called from idle
+ * loops), and a get neither waits past it nor leaves operations pending when it finds no message.
+ * An instance is not thread safe.
+ */
+@Slf4j
+public class MQUnitOfWork implements AutoCloseable {
+
+    private static final int PUT_OPTIONS = MQPMO.MQPMO_SYNCPOINT | MQPMO.MQPMO_NEW_MSG_ID | MQPMO.MQPMO_FAIL_IF_QUIESCING;
+    private static final int GET_OPTIONS = MQGMO.MQGMO_SYNCPOINT | MQGMO.MQGMO_FAIL_IF_QUIESCING;
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    private final int batchSize;
+    private final long commitTimeoutNanos;
+    private int pending;
+    private long firstPendingNanos;
+    private long commits;
+
+    /**
+     * Create a unit of work for the given connection with the default binding
+     *
+     * @param connectionHandle    The MQ connection handle from MQCONN/MQCONNX
+     * @param batchSize           Number of operations per commit
+     * @param commitTimeoutMillis Maximum time an operation stays uncommitted (0 for no timeout)
+     */
+    public MQUnitOfWork(int connectionHandle, int batchSize, long commitTimeoutMillis) {
+        this(IBMMQJNA.INSTANCE, connectionHandle, batchSize, commitTimeoutMillis);
+    }
+
+    /**
+     * Create a unit of work for the given connection
+     *
+     * @param mq                  The MQ binding
+     * @param connectionHandle    The MQ connection handle from MQCONN/MQCONNX
+     * @param batchSize           Number of operations per commit
+     * @param commitTimeoutMillis Maximum time an operation stays uncommitted (0 for no timeout)
+     */
+    public MQUnitOfWork(IBMMQJNA mq, int connectionHandle, int batchSize, long commitTimeoutMillis) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize);
+        }
+        if (commitTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Invalid commit timeout " + commitTimeoutMillis);
+        }
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+        this.batchSize = batchSize;
+        this.commitTimeoutNanos = commitTimeoutMillis * 1_000_000L;
+    }
+
+    /**
+     * Put the message held in the buffer under syncpoint
+     */
+    public void put(int hObj, MQMessageBuffer message) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        message.setPutOptions(PUT_OPTIONS);
+        message.put(connectionHandle, hObj, ctx);
+        if (ctx.failed()) {
+            throw new MQCallException("MQPUT under syncpoint failed", ctx);
+        }
+        completed();
+    }
+
+    /**
+     * Get a message into the buffer under syncpoint
+     * <p>
+     * The wait is cut short when operations are pending, so that they are not held past the commit
+     * timeout; a get that finds no message commits them, as the queue is drained.
+     *
+     * @param waitInterval Wait interval in milliseconds (0 for no wait, MQWI_UNLIMITED for no limit)
+     * @return false if no message was available
+     */
+    public boolean get(int hObj, MQMessageBuffer message, int waitInterval) throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        int wait = waitInterval(waitInterval);
+        message.resetForGet();
+        message.setGetOptions(wait != 0 ? GET_OPTIONS | MQGMO.MQGMO_WAIT : GET_OPTIONS, wait, MQGMO.MQMO_NONE);
+        message.get(connectionHandle, hObj, ctx);
+        if (ctx.failed()) {
+            if (ctx.getReason() == MQRC_NO_MSG_AVAILABLE) {
+                // The queue is drained: do not keep what we have uncommitted until the timeout
+                if (pending > 0) {
+                    commit();
+                }
+                return false;
+            }
+            throw new MQCallException("MQGET under syncpoint failed", ctx);
+        }
+        completed();
+        return true;
+    }
+
+    /**
+     * @return the wait interval capped by the time left before the pending operations are due
+     */
+    private int waitInterval(int waitInterval) {
+        if (waitInterval == 0 || pending == 0 || commitTimeoutNanos == 0) {
+            return waitInterval;
+        }
+        long remaining = Math.max(0, (firstPendingNanos + commitTimeoutNanos - System.nanoTime()) / 1_000_000L);
+        return waitInterval < 0 ? (int) Math.min(remaining, Integer.MAX_VALUE) : (int) Math.min(waitInterval, remaining);
+    }
+
+    private void completed() throws MQCallException {
+        if (pending++ == 0) {
+            firstPendingNanos = System.nanoTime();
+        }
+        if (pending >= batchSize) {
+            commit();
+        } else {
+            commitIfDue();
+        }
+    }
+
+    /**
+     * Commit if the oldest pending operation has reached the commit timeout
+     *
+     * @return true if a commit was issued
+     */
+    public boolean commitIfDue() throws MQCallException {
+        if (pending > 0 && commitTimeoutNanos > 0 && System.nanoTime() - firstPendingNanos >= commitTimeoutNanos) {
+            commit();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Commit the pending operations (MQCMIT)
+     */
+    public void commit() throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQCMIT(connectionHandle, ctx.compCodeRef(), ctx.reasonRef());
+        int operations = pending;
+        pending = 0;
+        if (ctx.failed()) {
+            // A failed commit backs the unit of work out
+            throw new MQCallException("MQCMIT failed (" + operations + " operations backed out)", ctx);
+        }
+        log.trace("Committed {} operations", operations);
+        commits++;
+    }
+
+    /**
+     * Back out the pending operations (MQBACK)
+     */
+    public void backout() throws MQCallException {
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQBACK(connectionHandle, ctx.compCodeRef(), ctx.reasonRef());
+        pending = 0;
+        if (ctx.failed()) {
+            throw new MQCallException("MQBACK failed", ctx);
+        }
+    }
+
+    /**
+     * @return number of operations done since the last commit or backout
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return number of commits issued
+     */
+    public long getCommits() {
+        return commits;
+    }
+
+    /**
+     * Commit the operations still pending
+     */
+    @Override
+    public void close() throws MQCallException {
+        if (pending > 0) {
+            commit();
+        }
+    }
+}
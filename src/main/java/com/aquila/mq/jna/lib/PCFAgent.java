@@ -1,14 +1,16 @@
 package com.aquila.mq.jna.lib;
 
-import com.sun.jna.ptr.IntByReference;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.ibm.mq.constants.CMQC.*;
 
@@ -19,13 +21,26 @@ import static com.ibm.mq.constants.CMQC.*;
 @Slf4j
 public class PCFAgent implements AutoCloseable {
 
+    private final IBMMQJNA mq;
     private final int connectionHandle;
-    private int adminQueueHandle = -1;
+    private final MQSender sender;
     private int replyQueueHandle = -1;
     private String replyQueueName;
+    private MQMessageBuffer replyBuffer;
+    private final PCFCursor reply = new PCFCursor();
+    private final PCFWriter command = new PCFWriter();
+    private Responses<?> activeResponses;
 
     private static final int DEFAULT_WAIT_INTERVAL = 30000; // 30 seconds
     private static final int BUFFER_SIZE = 65536;
+    private static final int[] ALL_ATTRIBUTES = {};
+
+    // Reply descriptor template, copied into the reply buffer before each MQGET
+    private static final MQDescriptorTemplate REPLY_MD = MQDescriptorTemplates.msgDesc(MQMD.MQFMT_ADMIN, null);
+    private static final int REPLY_GMO_OPTIONS =
+            MQGMO.MQGMO_WAIT | MQGMO.MQGMO_NO_SYNCPOINT | MQGMO.MQGMO_CONVERT | MQGMO.MQGMO_FAIL_IF_QUIESCING;
+    private static final MQDescriptorTemplate REPLY_GMO = MQDescriptorTemplates.getOptions(REPLY_GMO_OPTIONS,
+            DEFAULT_WAIT_INTERVAL, MQGMO.MQMO_MATCH_CORREL_ID);
 
     /**
      * Create a PCF agent for the given connection
@@ -33,39 +48,45 @@ public class PCFAgent implements AutoCloseable {
      * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
      */
     public PCFAgent(int connectionHandle) {
+        this(IBMMQJNA.INSTANCE, connectionHandle);
+    }
+
+    /**
+     * Create a PCF agent for the given connection
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONN/MQCONNX
+     */
+    public PCFAgent(IBMMQJNA mq, int connectionHandle) {
+        this.mq = mq;
         this.connectionHandle = connectionHandle;
+        this.sender = new MQSender(mq, connectionHandle);
     }
 
     /**
-     * Initialize the agent by opening admin and reply queues
+     * Initialize the agent by opening the reply queue.
+     * Commands are sent with MQPUT1, so no handle is kept open on the admin command queue.
      */
     public void connect() throws PCFException {
-        log.debug("Opening PCF agent queues");
-
-        IntByReference compCode = new IntByReference();
-        IntByReference reason = new IntByReference();
-        IntByReference hObj = new IntByReference();
+        log.debug("Opening PCF reply queue");
 
-        // Open the command queue for output
-        MQOD adminOd = new MQOD();
-        adminOd.setObjectName(PCFConstants.SYSTEM_ADMIN_COMMAND_QUEUE);
-        adminOd.write();
+        MQCallContext ctx = MQCallContext.current();
+        replyQueueName = openReplyQueue(mq, connectionHandle, ctx);
+        replyQueueHandle = ctx.getHObj();
 
-        IBMMQJNA.INSTANCE.MQOPEN(
-                connectionHandle,
-                adminOd.toBytes(),
-                MQOO_OUTPUT | MQOO_FAIL_IF_QUIESCING,
-                hObj,
-                compCode,
-                reason
-        );
+        // Long-lived native buffer for replies: no per-reply array marshalling
+        replyBuffer = new MQMessageBuffer(mq, BUFFER_SIZE);
+        replyBuffer.setGetOptions(REPLY_GMO);
 
-        if (compCode.getValue() != MQCC_OK) {
-            throw new PCFException("Failed to open admin command queue", reason.getValue());
-        }
-        adminQueueHandle = hObj.getValue();
-        log.debug("Admin queue opened, handle: {}", adminQueueHandle);
+        log.debug("Reply queue opened: {}, handle: {}", replyQueueName, replyQueueHandle);
+    }
 
+    /**
+     * Open a dynamic reply queue from the default model queue
+     *
+     * @return the name of the queue created, its handle is left in the context
+     */
+    static String openReplyQueue(IBMMQJNA mq, int connectionHandle, MQCallContext ctx) throws PCFException {
         // Open a dynamic reply queue
         MQOD replyOd = new MQOD();
         replyOd.setObjectName(PCFConstants.SYSTEM_DEFAULT_MODEL_QUEUE);
@@ -75,35 +96,33 @@ public class PCFAgent implements AutoCloseable {
         // Get byte array - MQOPEN will modify it with the resolved queue name
         byte[] replyOdBytes = replyOd.toBytes();
 
-        IBMMQJNA.INSTANCE.MQOPEN(
+        mq.MQOPEN(
                 connectionHandle,
                 replyOdBytes,
                 MQOO_INPUT_EXCLUSIVE | MQOO_FAIL_IF_QUIESCING,
-                hObj,
-                compCode,
-                reason
+                ctx.hObjRef(),
+                ctx.compCodeRef(),
+                ctx.reasonRef()
         );
 
-        if (compCode.getValue() != MQCC_OK) {
-            throw new PCFException("Failed to open reply queue", reason.getValue());
+        if (!ctx.isOk()) {
+            throw new PCFException("Failed to open reply queue", ctx.getReason());
         }
-        replyQueueHandle = hObj.getValue();
 
         // Copy modified bytes back to structure and read resolved queue name
         replyOd.getPointer().write(0, replyOdBytes, 0, replyOdBytes.length);
         replyOd.read();
-        replyQueueName = replyOd.getResolvedQName();
+        String replyQueueName = replyOd.getResolvedQName();
 
         if (replyQueueName == null || replyQueueName.trim().isEmpty()) {
             // Fallback: try ObjectName field (where dynamic queue name is resolved)
-            replyQueueName = new String(replyOd.ObjectName, java.nio.charset.StandardCharsets.UTF_8).trim();
+            replyQueueName = MQNameCodec.DEFAULT.decode(replyOd.ObjectName, 0, replyOd.ObjectName.length);
         }
         if (replyQueueName == null || replyQueueName.trim().isEmpty() || replyQueueName.startsWith("SYSTEM.DEFAULT")) {
             // Second fallback: extract from DynamicQName field
-            replyQueueName = new String(replyOd.DynamicQName, java.nio.charset.StandardCharsets.UTF_8).trim();
+            replyQueueName = MQNameCodec.DEFAULT.decode(replyOd.DynamicQName, 0, replyOd.DynamicQName.length);
         }
-
-        log.debug("Reply queue opened: {}, handle: {}", replyQueueName, replyQueueHandle);
+        return replyQueueName;
     }
 
     /**
@@ -124,261 +143,505 @@ public class PCFAgent implements AutoCloseable {
      * @return List of QueueInfo objects
      */
     public List<QueueInfo> inquireQueues(String queueNamePattern, int queueType) throws PCFException {
-        ensureConnected();
+        return inquireQueues(queueNamePattern, queueType, ALL_ATTRIBUTES);
+    }
 
-        log.debug("Inquiring queues with pattern: {}, type: {}", queueNamePattern, queueType);
+    /**
+     * Inquire only some attributes of the queues matching the given pattern and type: the command
+     * server returns only those, and the other fields of each {@link QueueInfo} are left unset
+     * (see {@link QueueInfo#hasAttribute(int)}). The queue name and type are always returned.
+     * <pre>
+     * agent.inquireQueues("*", MQQT_LOCAL, MQIA_CURRENT_Q_DEPTH);
+     * </pre>
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     * @return List of QueueInfo objects
+     */
+    public List<QueueInfo> inquireQueues(String queueNamePattern, int queueType, int... attributes)
+            throws PCFException {
+        return inquireQueues(queueNamePattern, queueType, null, attributes);
+    }
 
-        // Build the PCF command message
-        byte[] message = buildInquireQueueMessage(queueNamePattern, queueType);
+    /**
+     * Inquire the queues matching the given pattern, type and filter: the filter is evaluated by
+     * the command server, which only replies for the matching queues.
+     * <pre>
+     * agent.inquireQueues("*", MQQT_LOCAL, PCFFilter.greater(MQIA_CURRENT_Q_DEPTH, 10000),
+     *         MQIA_CURRENT_Q_DEPTH, MQIA_MAX_Q_DEPTH);
+     * </pre>
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param filter           Condition on an attribute of the queues, null for none
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     * @return List of QueueInfo objects
+     */
+    public List<QueueInfo> inquireQueues(String queueNamePattern, int queueType, PCFFilter filter,
+                                         int... attributes) throws PCFException {
+        List<QueueInfo> queues = collect(iterateQueues(queueNamePattern, queueType, filter, attributes));
+        log.debug("Found {} queues", queues.size());
+        return queues;
+    }
 
-        // Send the command
-        byte[] correlId = sendCommand(message);
+    /**
+     * Inquire queues, each queue parsed when its reply arrives. Close the stream (try-with-resources)
+     * when it is not consumed to the end; see {@link Responses#close()}.
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @return a sequential stream of the queues, failing with {@link UncheckedPCFException}
+     */
+    public Stream<QueueInfo> streamQueues(String queueNamePattern, int queueType) throws PCFException {
+        return streamQueues(queueNamePattern, queueType, ALL_ATTRIBUTES);
+    }
 
-        // Receive and parse responses
-        List<QueueInfo> queues = new ArrayList<>();
-        boolean lastMessage = false;
+    /**
+     * Inquire only some attributes of the queues, each queue parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     * @return a sequential stream of the queues, failing with {@link UncheckedPCFException}
+     */
+    public Stream<QueueInfo> streamQueues(String queueNamePattern, int queueType, int... attributes)
+            throws PCFException {
+        return streamQueues(queueNamePattern, queueType, null, attributes);
+    }
 
-        while (!lastMessage) {
-            byte[] response = receiveResponse(correlId);
-            if (response == null) {
-                break;
-            }
+    /**
+     * Inquire the queues matching a filter, each queue parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param filter           Condition on an attribute of the queues, null for none
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     * @return a sequential stream of the queues, failing with {@link UncheckedPCFException}
+     */
+    public Stream<QueueInfo> streamQueues(String queueNamePattern, int queueType, PCFFilter filter,
+                                          int... attributes) throws PCFException {
+        return stream(iterateQueues(queueNamePattern, queueType, filter, attributes));
+    }
 
-            if (response.length < MQCFH.MQCFH_SIZE) {
-                log.error("Response too small: {} bytes, expected at least {}", response.length, MQCFH.MQCFH_SIZE);
-                break;
-            }
+    /**
+     * Inquire queues, each queue parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @return an iterator over the queues, to close when it is not consumed to the end
+     */
+    public Responses<QueueInfo> iterateQueues(String queueNamePattern, int queueType) throws PCFException {
+        return iterateQueues(queueNamePattern, queueType, ALL_ATTRIBUTES);
+    }
 
-            // Parse the response header
-            MQCFH header = MQCFH.fromBytes(response, 0);
+    /**
+     * Inquire only some attributes of the queues, each queue parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     * @return an iterator over the queues, to close when it is not consumed to the end
+     */
+    public Responses<QueueInfo> iterateQueues(String queueNamePattern, int queueType, int... attributes)
+            throws PCFException {
+        return iterateQueues(queueNamePattern, queueType, null, attributes);
+    }
 
-            if (header.CompCode != MQCC_OK) {
-                if (header.Reason == MQRC_UNKNOWN_OBJECT_NAME) {
-                    // No queues found matching the pattern
-                    log.debug("No queues found matching pattern: {}", queueNamePattern);
-                    break;
-                }
-                throw new PCFException("PCF command failed", header.Reason);
-            }
+    /**
+     * Inquire the queues matching a filter, each queue parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param filter           Condition on an attribute of the queues, null for none
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     * @return an iterator over the queues, to close when it is not consumed to the end
+     */
+    public Responses<QueueInfo> iterateQueues(String queueNamePattern, int queueType, PCFFilter filter,
+                                              int... attributes) throws PCFException {
+        ensureConnected();
 
-            // Parse queue information from parameters
-            QueueInfo queue = parseQueueResponse(response, header.ParameterCount);
-            if (queue != null) {
-                queues.add(queue);
-            }
+        log.debug("Inquiring queues with pattern: {}, type: {}, filter: {}, attributes: {}", queueNamePattern,
+                queueType, filter, attributes.length == 0 ? "all" : Arrays.toString(attributes));
 
-            lastMessage = header.isLast();
-        }
+        // Build the PCF command message in the reused buffer
+        writeInquireQueues(command, queueNamePattern, queueType, filter, attributes);
 
-        log.debug("Found {} queues", queues.size());
-        return queues;
+        // No queue matching the pattern: an MQRC_UNKNOWN_OBJECT_NAME reply, the iteration is empty.
+        // No queue matching the filter: a reply without queue name, skipped by the parser
+        return new Responses<>(sendCommand(command), MQRC_UNKNOWN_OBJECT_NAME, QueueInfo::parse);
+    }
+
+    // ========== Queue status ==========
+
+    /**
+     * Inquire the status of the queues matching the given pattern: depth, open counts, uncommitted
+     * messages, and with queue monitoring on the age of the oldest message and the last put and
+     * get times
+     *
+     * @param queueNamePattern Queue name pattern
+     * @return List of QueueStatus objects
+     */
+    public List<QueueStatus> inquireQueueStatus(String queueNamePattern) throws PCFException {
+        return inquireQueueStatus(queueNamePattern, null, ALL_ATTRIBUTES);
     }
 
     /**
-     * Build an INQUIRE_Q PCF command message
+     * Inquire the status of the queues matching the given pattern and filter
+     * <pre>
+     * agent.inquireQueueStatus("APP.*", PCFFilter.greater(MQIACF_OLDEST_MSG_AGE, 60),
+     *         MQIACF_OLDEST_MSG_AGE, MQCACF_LAST_GET_DATE, MQCACF_LAST_GET_TIME);
+     * </pre>
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a status attribute, null for none
+     * @param attributes       Status attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return List of QueueStatus objects
      */
-    private byte[] buildInquireQueueMessage(String queueNamePattern, int queueType) throws PCFException {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    public List<QueueStatus> inquireQueueStatus(String queueNamePattern, PCFFilter filter, int... attributes)
+            throws PCFException {
+        return collect(iterateQueueStatus(queueNamePattern, filter, attributes));
+    }
+
+    /**
+     * Inquire the status of the queues, each status parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a status attribute, null for none
+     * @param attributes       Status attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return a sequential stream of the statuses, failing with {@link UncheckedPCFException}
+     */
+    public Stream<QueueStatus> streamQueueStatus(String queueNamePattern, PCFFilter filter, int... attributes)
+            throws PCFException {
+        return stream(iterateQueueStatus(queueNamePattern, filter, attributes));
+    }
 
-            // Create PCF header
-            MQCFH header = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 2);
-            baos.write(header.toBytes());
+    /**
+     * Inquire the status of the queues, each status parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a status attribute, null for none
+     * @param attributes       Status attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return an iterator over the statuses, to close when it is not consumed to the end
+     */
+    public Responses<QueueStatus> iterateQueueStatus(String queueNamePattern, PCFFilter filter, int... attributes)
+            throws PCFException {
+        ensureConnected();
+        log.debug("Inquiring queue status with pattern: {}, filter: {}", queueNamePattern, filter);
+        writeInquireQueueStatus(command, queueNamePattern, PCFConstants.MQIACF_Q_STATUS, filter, attributes);
+        return new Responses<>(sendCommand(command), MQRC_UNKNOWN_OBJECT_NAME, QueueStatus::parse);
+    }
 
-            // Add queue name parameter
-            MQCFST queueNameParam = MQCFST.create(PCFConstants.MQCA_Q_NAME, queueNamePattern);
-            baos.write(queueNameParam.toBytes());
+    /**
+     * Inquire the handles open on the queues matching the given pattern: one result per handle,
+     * with the application, process and connection holding it
+     *
+     * @param queueNamePattern Queue name pattern
+     * @return List of QueueHandleStatus objects
+     */
+    public List<QueueHandleStatus> inquireQueueHandles(String queueNamePattern) throws PCFException {
+        return inquireQueueHandles(queueNamePattern, null, ALL_ATTRIBUTES);
+    }
 
-            // Add queue type parameter
-            MQCFIN queueTypeParam = MQCFIN.create(PCFConstants.MQIA_Q_TYPE, queueType);
-            baos.write(queueTypeParam.toBytes());
+    /**
+     * Inquire the handles open on the queues matching the given pattern and filter
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a handle attribute, null for none
+     * @param attributes       Handle attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return List of QueueHandleStatus objects
+     */
+    public List<QueueHandleStatus> inquireQueueHandles(String queueNamePattern, PCFFilter filter,
+                                                       int... attributes) throws PCFException {
+        return collect(iterateQueueHandles(queueNamePattern, filter, attributes));
+    }
 
-            return baos.toByteArray();
-        } catch (IOException e) {
-            throw new PCFException("Failed to build PCF message", e);
-        }
+    /**
+     * Inquire the handles open on the queues, each handle parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a handle attribute, null for none
+     * @param attributes       Handle attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return a sequential stream of the handles, failing with {@link UncheckedPCFException}
+     */
+    public Stream<QueueHandleStatus> streamQueueHandles(String queueNamePattern, PCFFilter filter,
+                                                        int... attributes) throws PCFException {
+        return stream(iterateQueueHandles(queueNamePattern, filter, attributes));
     }
 
     /**
-     * Send a PCF command and return the correlation ID
+     * Inquire the handles open on the queues, each handle parsed when its reply arrives
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a handle attribute, null for none
+     * @param attributes       Handle attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return an iterator over the handles, to close when it is not consumed to the end
      */
-    private byte[] sendCommand(byte[] message) throws PCFException {
-        IntByReference compCode = new IntByReference();
-        IntByReference reason = new IntByReference();
+    public Responses<QueueHandleStatus> iterateQueueHandles(String queueNamePattern, PCFFilter filter,
+                                                            int... attributes) throws PCFException {
+        ensureConnected();
+        log.debug("Inquiring queue handles with pattern: {}, filter: {}", queueNamePattern, filter);
+        writeInquireQueueStatus(command, queueNamePattern, PCFConstants.MQIACF_Q_HANDLE, filter, attributes);
+        return new Responses<>(sendCommand(command), MQRC_UNKNOWN_OBJECT_NAME, QueueHandleStatus::parse);
+    }
 
-        // Create minimal message descriptor byte array
-        byte[] mdBytes = MQMD.createMinimalMD(replyQueueName);
+    private static <T> List<T> collect(Responses<T> responses) throws PCFException {
+        List<T> results = new ArrayList<>();
+        try (responses) {
+            for (T result = responses.fetch(); result != null; result = responses.fetch()) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
 
-        // Create minimal put message options byte array
-        int pmoOptions = MQPMO.MQPMO_NO_SYNCPOINT | MQPMO.MQPMO_NEW_MSG_ID | MQPMO.MQPMO_FAIL_IF_QUIESCING;
-        byte[] pmoBytes = MQPMO.createMinimalPMO(pmoOptions);
+    private static <T> Stream<T> stream(Responses<T> responses) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(responses,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(responses::close);
+    }
 
-        // Send the message
-        IBMMQJNA.INSTANCE.MQPUT(
-                connectionHandle,
-                adminQueueHandle,
-                mdBytes,
-                pmoBytes,
-                message.length,
-                message,
-                compCode,
-                reason
-        );
+    /**
+     * Write an INQUIRE_Q_STATUS command
+     *
+     * @param statusType MQIACF_Q_STATUS for the queues, MQIACF_Q_HANDLE for their open handles
+     */
+    static void writeInquireQueueStatus(PCFWriter command, String queueNamePattern, int statusType,
+                                        PCFFilter filter, int... attributes) {
+        command.command(PCFConstants.MQCMD_INQUIRE_Q_STATUS)
+                .string(PCFConstants.MQCA_Q_NAME, queueNamePattern)
+                .integer(PCFConstants.MQIACF_Q_STATUS_TYPE, statusType);
+        if (attributes.length > 0) {
+            command.integerList(PCFConstants.MQIACF_Q_STATUS_ATTRS, attributes);
+        }
+        if (filter != null) {
+            filter.writeTo(command);
+        }
+    }
 
-        if (compCode.getValue() != MQCC_OK) {
-            throw new PCFException("Failed to send PCF command", reason.getValue());
+    /**
+     * Write an INQUIRE_Q command
+     */
+    static void writeInquireQueues(PCFWriter command, String queueNamePattern, int queueType, PCFFilter filter,
+                                   int... attributes) {
+        command.command(PCFConstants.MQCMD_INQUIRE_Q)
+                .string(PCFConstants.MQCA_Q_NAME, queueNamePattern)
+                .integer(PCFConstants.MQIA_Q_TYPE, queueType);
+        if (attributes.length > 0) {
+            // Without the selector the command server returns every attribute of every queue
+            command.integerList(PCFConstants.MQIACF_Q_ATTRS, attributes);
+        }
+        if (filter != null) {
+            filter.writeTo(command);
         }
+    }
 
-        // Read back the assigned message ID from MQMD to use as correlation ID
-        // MsgId is at offset 48 in MQMD V1 (after StrucId[4]+Version[4]+Report[4]+MsgType[4]+
-        // Expiry[4]+Feedback[4]+Encoding[4]+CodedCharSetId[4]+Format[8]+Priority[4]+Persistence[4] = 48)
-        byte[] correlId = new byte[24];
-        System.arraycopy(mdBytes, 48, correlId, 0, 24);
+    /**
+     * Run any PCF command, each reply decoded into a {@link PCFMessage} when it arrives
+     *
+     * @param message Command written by a {@link PCFWriter}
+     * @return an iterator over the replies, to close when it is not consumed to the end
+     */
+    public Responses<PCFMessage> execute(PCFWriter message) throws PCFException {
+        ensureConnected();
+        return new Responses<>(sendCommand(message), MQRC_NONE, PCFMessage::decode);
+    }
+
+    /**
+     * Send a PCF command and return the correlation ID
+     */
+    private MQId sendCommand(PCFWriter message) throws PCFException {
+        if (activeResponses != null) {
+            // The replies of the previous command share the reply buffer: drain them first
+            activeResponses.close();
+        }
+        // One MQPUT1 (open, put, close) on the command queue; the MsgId is the reply CorrelId
+        MQId correlId;
+        try {
+            correlId = sender.send(PCFConstants.SYSTEM_ADMIN_COMMAND_QUEUE, replyQueueName, MQMD.MQFMT_ADMIN,
+                    message.array(), message.length());
+        } catch (MQCallException e) {
+            throw new PCFException("Failed to send PCF command", e.getReasonCode());
+        }
 
         log.trace("Command sent, MsgId extracted");
         return correlId;
     }
 
     /**
-     * Receive a PCF response matching the correlation ID
+     * Receive a PCF response matching the correlation ID into the reply buffer
+     *
+     * @return the cursor over the reply, null if no reply arrived within the wait interval
      */
-    private byte[] receiveResponse(byte[] correlId) throws PCFException {
-        IntByReference compCode = new IntByReference();
-        IntByReference reason = new IntByReference();
-        IntByReference dataLength = new IntByReference();
-
-        // Create minimal message descriptor with CorrelId set
-        // CorrelId is at offset 72 in MQMD V1 (offset 48 for MsgId + 24 bytes)
-        byte[] mdBytes = MQMD.createMinimalMD(null);
-        System.arraycopy(correlId, 0, mdBytes, 72, 24);
+    private PCFCursor receiveResponse(MQId correlId) throws PCFException {
+        return receiveResponse(correlId, REPLY_GMO_OPTIONS, BUFFER_SIZE);
+    }
 
-        // Create minimal get message options
-        int gmoOptions = MQGMO.MQGMO_WAIT | MQGMO.MQGMO_NO_SYNCPOINT | MQGMO.MQGMO_CONVERT | MQGMO.MQGMO_FAIL_IF_QUIESCING;
-        byte[] gmoBytes = MQGMO.createMinimalGMO(gmoOptions, DEFAULT_WAIT_INTERVAL, MQGMO.MQMO_MATCH_CORREL_ID);
+    private PCFCursor receiveResponse(MQId correlId, int getOptions, int bufferLength) throws PCFException {
+        MQCallContext ctx = MQCallContext.current();
 
-        // Receive buffer
-        byte[] buffer = new byte[BUFFER_SIZE];
+        // Reset the descriptor in place (MQGET overwrote it) and match on CorrelId
+        replyBuffer.setMsgDesc(REPLY_MD);
+        replyBuffer.setCorrelId(correlId);
+        replyBuffer.setGetOptions(getOptions, DEFAULT_WAIT_INTERVAL, MQGMO.MQMO_MATCH_CORREL_ID);
 
-        // Get the message
-        IBMMQJNA.INSTANCE.MQGET(
-                connectionHandle,
-                replyQueueHandle,
-                mdBytes,
-                gmoBytes,
-                buffer.length,
-                buffer,
-                dataLength,
-                compCode,
-                reason
-        );
+        // Get the message straight into the native reply buffer
+        replyBuffer.get(connectionHandle, replyQueueHandle, bufferLength, ctx);
 
-        if (compCode.getValue() == MQCC_FAILED) {
-            if (reason.getValue() == MQRC_NO_MSG_AVAILABLE) {
+        if (ctx.failed()) {
+            if (ctx.getReason() == MQRC_NO_MSG_AVAILABLE) {
                 return null;
             }
-            throw new PCFException("Failed to receive PCF response", reason.getValue());
+            throw new PCFException("Failed to receive PCF response", ctx.getReason());
         }
 
-        // Return only the actual message data
-        byte[] result = new byte[dataLength.getValue()];
-        System.arraycopy(buffer, 0, result, 0, dataLength.getValue());
-        return result;
+        if (replyBuffer.getDataLength() < MQCFH.MQCFH_SIZE) {
+            throw new PCFException("Response too small: " + replyBuffer.getDataLength()
+                    + " bytes, expected at least " + MQCFH.MQCFH_SIZE);
+        }
+
+        // Parsed in place: the reply is not copied out of the native buffer
+        return reply.wrap(replyBuffer.getData());
     }
 
     /**
-     * Parse queue information from a PCF response
+     * Parses one PCF reply message into a result, null to skip the message
      */
-    private QueueInfo parseQueueResponse(byte[] response, int parameterCount) {
-        QueueInfo queue = new QueueInfo();
-        int offset = MQCFH.MQCFH_SIZE;
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(PCFCursor reply);
+    }
 
-        for (int i = 0; i < parameterCount && offset + 8 <= response.length; i++) {
-            // Read the structure type (first field at offset+0) and length (at offset+4)
-            ByteBuffer headerBuffer = ByteBuffer.wrap(response, offset, 8);
-            headerBuffer.order(ByteOrder.BIG_ENDIAN);  // PCF uses big-endian
-            int structType = headerBuffer.getInt();
-            int strucLength = headerBuffer.getInt();
+    /**
+     * Replies of one PCF command, received and parsed one message at a time
+     * <p>
+     * A command such as INQUIRE_Q answers with one reply message per object, the last one flagged
+     * MQCFC_LAST. {@link #next()} gets the next reply only when the previous result has been
+     * consumed, so no list of every object is held and the first results are available as soon as
+     * their reply arrives.
+     * <p>
+     * Stopping early leaves replies of the command on the reply queue: {@link #close()} drains them.
+     * The replies are got into the reply buffer of the agent, so sending another command drains the
+     * responses still open first; an instance is not thread safe.
+     */
+    public final class Responses<T> implements Iterator<T>, AutoCloseable {
+        private final MQId correlId;
+        private final int emptyReason;
+        private final ResponseParser<T> parser;
+        private T next;
+        private boolean done;
+
+        private Responses(MQId correlId, int emptyReason, ResponseParser<T> parser) {
+            this.correlId = correlId;
+            this.emptyReason = emptyReason;
+            this.parser = parser;
+            activeResponses = this;
+        }
 
-            // Validate structure length
-            if (strucLength <= 0 || offset + strucLength > response.length) {
-                log.warn("Invalid structure length {} at offset {}, stopping parse", strucLength, offset);
-                break;
+        /**
+         * @throws UncheckedPCFException if a reply cannot be received or reports a failure
+         */
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = fetch();
+                } catch (PCFException e) {
+                    throw new UncheckedPCFException(e);
+                }
             }
+            return next != null;
+        }
 
-            switch (structType) {
-                case PCFConstants.MQCFT_STRING:
-                    MQCFST strParam = MQCFST.fromBytes(response, offset);
-                    setQueueStringAttribute(queue, strParam.Parameter, strParam.getStringValue());
-                    offset += strParam.StrucLength;
-                    break;
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = next;
+            next = null;
+            return result;
+        }
 
-                case PCFConstants.MQCFT_INTEGER:
-                    MQCFIN intParam = MQCFIN.fromBytes(response, offset);
-                    setQueueIntAttribute(queue, intParam.Parameter, intParam.Value);
-                    offset += MQCFIN.MQCFIN_SIZE;
+        /**
+         * Receive replies until one parses into a result
+         *
+         * @return the result, null after the last reply
+         */
+        T fetch() throws PCFException {
+            while (!done) {
+                PCFCursor response;
+                try {
+                    response = receiveResponse(correlId);
+                } catch (PCFException e) {
+                    close();
+                    throw e;
+                }
+                if (response == null) {
+                    // No reply within the wait interval: the command server gave up or is not running
+                    finish();
                     break;
+                }
 
-                case PCFConstants.MQCFT_INTEGER_LIST:
-                case PCFConstants.MQCFT_STRING_LIST:
-                default:
-                    // Skip other structure types using the length from header
-                    offset += strucLength;
-                    break;
+                if (response.isLast()) {
+                    finish();
+                }
+
+                if (response.getCompCode() != MQCC_OK) {
+                    int reason = response.getReason();
+                    close();
+                    if (reason == emptyReason) {
+                        log.debug("No object found, Reason: {}", reason);
+                        break;
+                    }
+                    throw new PCFException("PCF command failed", reason);
+                }
+
+                T result = parser.parse(response);
+                if (result != null) {
+                    return result;
+                }
             }
+            return null;
         }
 
-        return queue.getName() != null ? queue : null;
-    }
-
-    /**
-     * Set a string attribute on a QueueInfo object
-     */
-    private void setQueueStringAttribute(QueueInfo queue, int parameter, String value) {
-        switch (parameter) {
-            case PCFConstants.MQCA_Q_NAME:
-                queue.setName(value);
-                break;
-            case PCFConstants.MQCA_Q_DESC:
-                queue.setDescription(value);
-                break;
-            case PCFConstants.MQCA_BASE_Q_NAME:
-                queue.setBaseQName(value);
-                break;
-            case PCFConstants.MQCA_REMOTE_Q_NAME:
-                queue.setRemoteQName(value);
-                break;
-            case PCFConstants.MQCA_REMOTE_Q_MGR_NAME:
-                queue.setRemoteQMgrName(value);
-                break;
-            case PCFConstants.MQCA_CLUSTER_NAME:
-                queue.setClusterName(value);
-                break;
+        private void finish() {
+            done = true;
+            if (activeResponses == this) {
+                activeResponses = null;
+            }
         }
-    }
 
-    /**
-     * Set an integer attribute on a QueueInfo object
-     */
-    private void setQueueIntAttribute(QueueInfo queue, int parameter, int value) {
-        switch (parameter) {
-            case PCFConstants.MQIA_Q_TYPE:
-                queue.setType(value);
-                break;
-            case PCFConstants.MQIA_CURRENT_Q_DEPTH:
-                queue.setCurrentDepth(value);
-                break;
-            case PCFConstants.MQIA_MAX_Q_DEPTH:
-                queue.setMaxDepth(value);
-                break;
-            case PCFConstants.MQIA_MAX_MSG_LENGTH:
-                queue.setMaxMsgLength(value);
-                break;
-            case PCFConstants.MQIA_OPEN_INPUT_COUNT:
-                queue.setOpenInputCount(value);
-                break;
-            case PCFConstants.MQIA_OPEN_OUTPUT_COUNT:
-                queue.setOpenOutputCount(value);
-                break;
+        /**
+         * Stop the iteration. Replies not received yet are got and discarded up to the last one
+         * (truncated to their MQCFH, which flags the last reply: the parameters are not copied), so
+         * they do not pile up on the reply queue; this waits for the replies the command server is
+         * still sending.
+         */
+        @Override
+        public void close() {
+            if (done) {
+                return;
+            }
+            finish();
+            next = null;
+            if (replyQueueHandle < 0) {
+                // Agent closed: the dynamic reply queue went with its replies
+                return;
+            }
+            int discarded = 0;
+            try {
+                PCFCursor response;
+                while ((response = receiveResponse(correlId,
+                        REPLY_GMO_OPTIONS | MQGMO.MQGMO_ACCEPT_TRUNCATED_MSG, MQCFH.MQCFH_SIZE)) != null) {
+                    discarded++;
+                    if (response.isLast()) {
+                        break;
+                    }
+                }
+            } catch (PCFException e) {
+                log.warn("Failed to drain PCF replies: {}", e.getMessage());
+            }
+            log.debug("Discarded {} PCF replies", discarded);
         }
     }
 
@@ -386,7 +649,7 @@ public class PCFAgent implements AutoCloseable {
      * Ensure the agent is connected
      */
     private void ensureConnected() throws PCFException {
-        if (adminQueueHandle < 0 || replyQueueHandle < 0) {
+        if (replyQueueHandle < 0) {
             throw new PCFException("PCF agent not connected. Call connect() first.");
         }
     }
@@ -396,21 +659,37 @@ public class PCFAgent implements AutoCloseable {
      */
     @Override
     public void close() {
-        IntByReference compCode = new IntByReference();
-        IntByReference reason = new IntByReference();
+        MQCallContext ctx = MQCallContext.current();
+
+        if (activeResponses != null) {
+            activeResponses.finish();
+        }
 
         if (replyQueueHandle >= 0) {
-            IntByReference hObj = new IntByReference(replyQueueHandle);
-            IBMMQJNA.INSTANCE.MQCLOSE(connectionHandle, hObj, MQCO_NONE, compCode, reason);
+            ctx.setHObj(replyQueueHandle);
+            mq.MQCLOSE(connectionHandle, ctx.hObjRef(), MQCO_NONE, ctx.compCodeRef(), ctx.reasonRef());
             replyQueueHandle = -1;
             log.debug("Reply queue closed");
         }
 
-        if (adminQueueHandle >= 0) {
-            IntByReference hObj = new IntByReference(adminQueueHandle);
-            IBMMQJNA.INSTANCE.MQCLOSE(connectionHandle, hObj, MQCO_NONE, compCode, reason);
-            adminQueueHandle = -1;
-            log.debug("Admin queue closed");
+        if (replyBuffer != null) {
+            replyBuffer.close();
+            replyBuffer = null;
+        }
+    }
+
+    /**
+     * A {@link PCFException} thrown through {@link Iterator} and {@link Stream}
+     */
+    public static class UncheckedPCFException extends RuntimeException {
+
+        public UncheckedPCFException(PCFException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public synchronized PCFException getCause() {
+            return (PCFException) super.getCause();
         }
     }
 
@@ -0,0 +1,420 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.PCFAgent.PCFException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * PCFAsyncAgent - PCF commands in flight concurrently over one reply queue
+ * <p>
+ * {@link PCFAgent} sends a command and waits for its replies before the next one, so N inquiries
+ * take the sum of their round trips. This agent hands each command to a background receiver that
+ * owns the connection: the receiver sends the queued commands with MQPUT1, gets every reply from
+ * one dynamic reply queue (no CorrelId match) and routes it by CorrelId to the future of its
+ * command, completed with all its results when the reply flagged MQCFC_LAST arrives. Fifty
+ * inquiries issued together finish in about the time of the slowest one:
+ * <pre>
+ * try (PCFAsyncAgent agent = new PCFAsyncAgent(hConn)) {
+ *     agent.connect();
+ *     CompletableFuture&lt;List&lt;QueueInfo&gt;&gt; local = agent.inquireQueues("*", MQQT_LOCAL);
+ *     CompletableFuture&lt;List&lt;QueueInfo&gt;&gt; deep = agent.inquireQueues("*", MQQT_LOCAL,
+ *             PCFFilter.greater(MQIA_CURRENT_Q_DEPTH, 10000));
+ *     CompletableFuture.allOf(local, deep).join();
+ * }
+ * </pre>
+ * Every MQI call of the agent runs on the receiver thread, not on the thread that created the
+ * connection: connect with {@code MQCNO_HANDLE_SHARE_BLOCK} (or {@code _NO_BLOCK}), and do not
+ * use the connection from other threads while the agent is open. A command queued while the
+ * receiver waits in MQGET is sent within the poll interval.
+ * <p>
+ * A future fails with a {@link PCFException}: reason of a failed reply, MQRC_NO_MSG_AVAILABLE
+ * when the last reply did not arrive within the timeout. Futures are completed on the receiver
+ * thread, so dependent stages should be quick or use an {@code ...Async} variant. Public methods
+ * are thread safe.
+ */
+@Slf4j
+public class PCFAsyncAgent implements AutoCloseable {
+
+    public static final int DEFAULT_TIMEOUT = 30000; // 30 seconds
+    public static final int DEFAULT_POLL_INTERVAL = 100;
+    private static final int BUFFER_SIZE = 65536;
+
+    private static final MQDescriptorTemplate REPLY_MD = MQDescriptorTemplates.msgDesc(MQMD.MQFMT_ADMIN, null);
+    // Any reply: the CorrelId routes it. A reply longer than the buffer is removed and fails its command
+    private static final int REPLY_GMO_OPTIONS = MQGMO.MQGMO_WAIT | MQGMO.MQGMO_NO_SYNCPOINT | MQGMO.MQGMO_CONVERT
+            | MQGMO.MQGMO_ACCEPT_TRUNCATED_MSG | MQGMO.MQGMO_FAIL_IF_QUIESCING;
+    private static final int[] ALL_ATTRIBUTES = {};
+
+    // Commands are encoded on the calling thread, then copied into their request
+    private static final ThreadLocal<PCFWriter> WRITER = ThreadLocal.withInitial(PCFWriter::new);
+
+    private final IBMMQJNA mq;
+    private final int connectionHandle;
+    private final int timeout;
+    private final int pollInterval;
+    private final Queue<Request<?>> submitted = new ConcurrentLinkedQueue<>();
+    // Written by the receiver only; concurrent for getPendingCount()
+    private final Map<MQId, Request<?>> pending = new ConcurrentHashMap<>();
+    private final CompletableFuture<String> opened = new CompletableFuture<>();
+    private Thread receiver;
+    private volatile boolean running;
+    private volatile PCFException failure;
+
+    /**
+     * Parses one PCF reply message into a result, null to skip the message
+     */
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(PCFCursor reply);
+    }
+
+    /**
+     * Create an agent for the given connection with the default binding
+     *
+     * @param connectionHandle The MQ connection handle from MQCONNX, shared between threads
+     */
+    public PCFAsyncAgent(int connectionHandle) {
+        this(IBMMQJNA.INSTANCE, connectionHandle);
+    }
+
+    /**
+     * Create an agent for the given connection
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONNX, shared between threads
+     */
+    public PCFAsyncAgent(IBMMQJNA mq, int connectionHandle) {
+        this(mq, connectionHandle, DEFAULT_TIMEOUT, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * Create an agent for the given connection
+     *
+     * @param mq               The MQ binding
+     * @param connectionHandle The MQ connection handle from MQCONNX, shared between threads
+     * @param timeout          Milliseconds to wait for the last reply of a command
+     * @param pollInterval     Milliseconds the receiver waits in MQGET before sending newly queued
+     *                         commands
+     */
+    public PCFAsyncAgent(IBMMQJNA mq, int connectionHandle, int timeout, int pollInterval) {
+        if (timeout < 1 || pollInterval < 1) {
+            throw new IllegalArgumentException("Invalid timeout " + timeout + " or poll interval " + pollInterval);
+        }
+        this.mq = mq;
+        this.connectionHandle = connectionHandle;
+        this.timeout = timeout;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Start the receiver, which opens the reply queue, and wait until the queue is open
+     */
+    public synchronized void connect() throws PCFException {
+        if (receiver != null) {
+            throw new IllegalStateException("PCF agent already connected");
+        }
+        running = true;
+        receiver = new Thread(this::receive, "pcf-receiver-" + connectionHandle);
+        receiver.setDaemon(true);
+        receiver.start();
+        try {
+            String replyQueueName = opened.get();
+            log.debug("PCF receiver started on {}", replyQueueName);
+        } catch (ExecutionException e) {
+            close();
+            throw (PCFException) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new PCFException("Interrupted while opening the reply queue", e);
+        }
+    }
+
+    // ========== Commands ==========
+
+    /**
+     * Inquire all queues matching the given pattern
+     */
+    public CompletableFuture<List<QueueInfo>> inquireQueues(String queueNamePattern) {
+        return inquireQueues(queueNamePattern, PCFConstants.MQQT_ALL, null, ALL_ATTRIBUTES);
+    }
+
+    /**
+     * Inquire queues matching the given pattern and type
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     */
+    public CompletableFuture<List<QueueInfo>> inquireQueues(String queueNamePattern, int queueType,
+                                                            int... attributes) {
+        return inquireQueues(queueNamePattern, queueType, null, attributes);
+    }
+
+    /**
+     * Inquire queues matching the given pattern, type and filter
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param queueType        Queue type (MQQT_LOCAL, MQQT_ALIAS, etc., or MQQT_ALL)
+     * @param filter           Condition on an attribute of the queues, null for none
+     * @param attributes       Attributes to return (MQCA_*, MQIA_*), none for all
+     * @return the queues, once the last reply has arrived
+     */
+    public CompletableFuture<List<QueueInfo>> inquireQueues(String queueNamePattern, int queueType,
+                                                            PCFFilter filter, int... attributes) {
+        PCFWriter command = WRITER.get();
+        PCFAgent.writeInquireQueues(command, queueNamePattern, queueType, filter, attributes);
+        // No queue matching the pattern: an MQRC_UNKNOWN_OBJECT_NAME reply, the result is empty
+        return submit(command.toBytes(), MQRC_UNKNOWN_OBJECT_NAME, QueueInfo::parse);
+    }
+
+    /**
+     * Inquire the status of the queues matching the given pattern and filter
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a status attribute, null for none
+     * @param attributes       Status attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return the statuses, once the last reply has arrived
+     */
+    public CompletableFuture<List<QueueStatus>> inquireQueueStatus(String queueNamePattern, PCFFilter filter,
+                                                                   int... attributes) {
+        PCFWriter command = WRITER.get();
+        PCFAgent.writeInquireQueueStatus(command, queueNamePattern, PCFConstants.MQIACF_Q_STATUS, filter,
+                attributes);
+        return submit(command.toBytes(), MQRC_UNKNOWN_OBJECT_NAME, QueueStatus::parse);
+    }
+
+    /**
+     * Inquire the handles open on the queues matching the given pattern and filter
+     *
+     * @param queueNamePattern Queue name pattern
+     * @param filter           Condition on a handle attribute, null for none
+     * @param attributes       Handle attributes to return (MQIACF_Q_STATUS_ATTRS), none for all
+     * @return the handles, once the last reply has arrived
+     */
+    public CompletableFuture<List<QueueHandleStatus>> inquireQueueHandles(String queueNamePattern,
+                                                                          PCFFilter filter, int... attributes) {
+        PCFWriter command = WRITER.get();
+        PCFAgent.writeInquireQueueStatus(command, queueNamePattern, PCFConstants.MQIACF_Q_HANDLE, filter,
+                attributes);
+        return submit(command.toBytes(), MQRC_UNKNOWN_OBJECT_NAME, QueueHandleStatus::parse);
+    }
+
+    /**
+     * Run any PCF command; the command is copied, the writer can be reused when this returns
+     *
+     * @param command Command written by a {@link PCFWriter}
+     * @return the replies decoded into {@link PCFMessage}, once the last one has arrived
+     */
+    public CompletableFuture<List<PCFMessage>> execute(PCFWriter command) {
+        return submit(command.toBytes(), MQRC_NONE, PCFMessage::decode);
+    }
+
+    private <T> CompletableFuture<List<T>> submit(byte[] message, int emptyReason, ResponseParser<T> parser) {
+        Request<T> request = new Request<>(message, emptyReason, parser);
+        if (!running) {
+            request.future.completeExceptionally(notRunning());
+            return request.future;
+        }
+        submitted.add(request);
+        if (!running && submitted.remove(request)) {
+            // Closed meanwhile: the receiver will not see it
+            request.future.completeExceptionally(notRunning());
+        }
+        return request.future;
+    }
+
+    private PCFException notRunning() {
+        return failure != null ? failure : new PCFException("PCF agent not running");
+    }
+
+    /**
+     * @return the number of commands sent and waiting for their last reply
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // ========== Receiver ==========
+
+    /**
+     * A command and the results of its replies received so far
+     */
+    private static final class Request<T> {
+        final byte[] message;
+        final int emptyReason;
+        final ResponseParser<T> parser;
+        final CompletableFuture<List<T>> future = new CompletableFuture<>();
+        final List<T> results = new ArrayList<>();
+        long deadline;
+
+        Request(byte[] message, int emptyReason, ResponseParser<T> parser) {
+            this.message = message;
+            this.emptyReason = emptyReason;
+            this.parser = parser;
+        }
+
+        void onReply(PCFCursor reply) {
+            if (reply.getCompCode() != MQCC_OK) {
+                if (reply.getReason() != emptyReason) {
+                    // The command failed: the other replies are discarded up to the last one
+                    future.completeExceptionally(new PCFException("PCF command failed", reply.getReason()));
+                }
+            } else if (!future.isDone()) {
+                try {
+                    T result = parser.parse(reply);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(new PCFException("Failed to parse PCF reply", e));
+                }
+            }
+            if (reply.isLast()) {
+                future.complete(results);
+            }
+        }
+    }
+
+    /**
+     * Receiver loop: the only thread calling MQ on the connection while the agent is open
+     */
+    private void receive() {
+        MQCallContext ctx = MQCallContext.current();
+        MQSender sender = new MQSender(mq, connectionHandle);
+        PCFCursor reply = new PCFCursor();
+        String replyQueueName;
+        int replyQueueHandle;
+        try {
+            replyQueueName = PCFAgent.openReplyQueue(mq, connectionHandle, ctx);
+            replyQueueHandle = ctx.getHObj();
+        } catch (PCFException e) {
+            running = false;
+            opened.completeExceptionally(e);
+            return;
+        }
+        opened.complete(replyQueueName);
+
+        try (MQMessageBuffer replyBuffer = new MQMessageBuffer(mq, BUFFER_SIZE)) {
+            while (running) {
+                for (Request<?> request = submitted.poll(); request != null; request = submitted.poll()) {
+                    send(sender, replyQueueName, request);
+                }
+                expire();
+
+                // Do not keep newly queued commands waiting behind an MQGET
+                replyBuffer.setMsgDesc(REPLY_MD);
+                replyBuffer.setGetOptions(REPLY_GMO_OPTIONS, submitted.isEmpty() ? pollInterval : 0,
+                        MQGMO.MQMO_NONE);
+                replyBuffer.get(connectionHandle, replyQueueHandle, ctx);
+                if (ctx.failed()) {
+                    if (ctx.getReason() != MQRC_NO_MSG_AVAILABLE) {
+                        failure = new PCFException("Failed to receive PCF response", ctx.getReason());
+                        log.error("PCF receiver stopped, Reason: {}", ctx.getReason());
+                        break;
+                    }
+                    continue;
+                }
+                route(replyBuffer, ctx.getDataLength(), reply);
+            }
+        } finally {
+            running = false;
+            ctx.setHObj(replyQueueHandle);
+            mq.MQCLOSE(connectionHandle, ctx.hObjRef(), MQCO_NONE, ctx.compCodeRef(), ctx.reasonRef());
+            PCFException cause = notRunning();
+            pending.values().forEach(request -> request.future.completeExceptionally(cause));
+            pending.clear();
+            for (Request<?> request = submitted.poll(); request != null; request = submitted.poll()) {
+                request.future.completeExceptionally(cause);
+            }
+            log.debug("PCF receiver on {} stopped", replyQueueName);
+        }
+    }
+
+    private void send(MQSender sender, String replyQueueName, Request<?> request) {
+        try {
+            MQId correlId = sender.send(PCFConstants.SYSTEM_ADMIN_COMMAND_QUEUE, replyQueueName, MQMD.MQFMT_ADMIN,
+                    request.message, request.message.length);
+            request.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            pending.put(correlId, request);
+        } catch (MQCallException e) {
+            request.future.completeExceptionally(new PCFException("Failed to send PCF command", e.getReasonCode()));
+        }
+    }
+
+    private void route(MQMessageBuffer replyBuffer, int replyLength, PCFCursor reply) {
+        MQId correlId = replyBuffer.correlId();
+        Request<?> request = pending.get(correlId);
+        if (request == null) {
+            // Reply of a command that timed out, or not a reply of this agent
+            log.debug("Discarded PCF reply, CorrelId: {}", correlId);
+            return;
+        }
+        if (replyBuffer.getDataLength() < MQCFH.MQCFH_SIZE) {
+            pending.remove(correlId);
+            request.future.completeExceptionally(new PCFException("Response too small: "
+                    + replyBuffer.getDataLength() + " bytes, expected at least " + MQCFH.MQCFH_SIZE));
+            return;
+        }
+        reply.wrap(replyBuffer.getData());
+        if (reply.isLast()) {
+            // Removed before its future completes: no longer pending for the code waiting on it
+            pending.remove(correlId);
+        }
+        if (replyLength > replyBuffer.getCapacity()) {
+            // Truncated: only the header can be trusted
+            request.future.completeExceptionally(new PCFException("PCF reply of " + replyLength
+                    + " bytes truncated to " + replyBuffer.getCapacity(), MQRC_TRUNCATED_MSG_ACCEPTED));
+            return;
+        }
+        request.onReply(reply);
+    }
+
+    private void expire() {
+        long now = System.nanoTime();
+        for (Iterator<Request<?>> it = pending.values().iterator(); it.hasNext(); ) {
+            Request<?> request = it.next();
+            if (now - request.deadline > 0) {
+                it.remove();
+                request.future.completeExceptionally(new PCFException("No reply to PCF command within "
+                        + timeout + " ms", MQRC_NO_MSG_AVAILABLE));
+            }
+        }
+    }
+
+    /**
+     * Stop the receiver and close the reply queue; the commands still pending fail
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = receiver;
+            running = false;
+        }
+        if (thread == null || thread == Thread.currentThread()) {
+            return;
+        }
+        try {
+            // The receiver leaves its MQGET within the poll interval
+            thread.join(pollInterval + 5000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("PCF receiver did not stop");
+        }
+    }
+}
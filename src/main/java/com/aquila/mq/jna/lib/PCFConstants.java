@@ -143,6 +143,64 @@ public final class PCFConstants {
     public static final int MQIA_STATISTICS_Q = 127;
     public static final int MQIA_ACCOUNTING_Q = 133;
 
+    // Attribute Selectors
+    public static final int MQIACF_Q_ATTRS = 1002;
+    public static final int MQIACF_ALL = 1009;
+
+    // Filter Operators
+    public static final int MQCFOP_LESS = 1;
+    public static final int MQCFOP_EQUAL = 2;
+    public static final int MQCFOP_GREATER = 4;
+    public static final int MQCFOP_NOT_LESS = 6;
+    public static final int MQCFOP_NOT_EQUAL = 5;
+    public static final int MQCFOP_NOT_GREATER = 3;
+    public static final int MQCFOP_LIKE = 18;
+    public static final int MQCFOP_NOT_LIKE = 21;
+    public static final int MQCFOP_CONTAINS = 10;
+    public static final int MQCFOP_EXCLUDES = 13;
+    public static final int MQCFOP_CONTAINS_GEN = 26;
+    public static final int MQCFOP_EXCLUDES_GEN = 29;
+
+    // Queue Status Attributes (INQUIRE_Q_STATUS)
+    public static final int MQIACF_Q_STATUS_TYPE = 1103;
+    public static final int MQIACF_Q_HANDLE = 1104;
+    public static final int MQIACF_Q_STATUS = 1105;
+    public static final int MQIACF_Q_STATUS_ATTRS = 1026;
+    public static final int MQIACF_UNCOMMITTED_MSGS = 1027;
+    public static final int MQIACF_Q_TIME_INDICATOR = 1226;
+    public static final int MQIACF_OLDEST_MSG_AGE = 1227;
+    public static final int MQCACF_LAST_PUT_DATE = 3128;
+    public static final int MQCACF_LAST_PUT_TIME = 3129;
+    public static final int MQCACF_LAST_GET_DATE = 3130;
+    public static final int MQCACF_LAST_GET_TIME = 3131;
+
+    // Queue Handle Attributes (INQUIRE_Q_STATUS, MQIACF_Q_HANDLE)
+    public static final int MQIA_APPL_TYPE = 1;
+    public static final int MQIACF_PROCESS_ID = 1024;
+    public static final int MQIACF_OPEN_INPUT_TYPE = 1028;
+    public static final int MQIACF_OPEN_OUTPUT = 1029;
+    public static final int MQIACF_OPEN_SET = 1030;
+    public static final int MQIACF_OPEN_INQUIRE = 1031;
+    public static final int MQIACF_OPEN_BROWSE = 1032;
+    public static final int MQIACF_THREAD_ID = 1081;
+    public static final int MQIACF_HANDLE_STATE = 1154;
+    public static final int MQIACF_ASYNC_STATE = 1308;
+    public static final int MQCACF_USER_IDENTIFIER = 3025;
+    public static final int MQCACF_APPL_TAG = 3058;
+    public static final int MQCACH_CHANNEL_NAME = 3501;
+    public static final int MQCACH_CONNECTION_NAME = 3506;
+    public static final int MQBACF_CONNECTION_ID = 7019;
+
+    // Queue Status Values
+    public static final int MQQSOPEN_INPUT_NONE = 0;
+    public static final int MQQSOPEN_INPUT_SHARED = 1;
+    public static final int MQQSOPEN_INPUT_EXCLUSIVE = 2;
+    public static final int MQQSO_NO = 0;
+    public static final int MQQSO_YES = 1;
+    public static final int MQHSTATE_INACTIVE = 0;
+    public static final int MQHSTATE_ACTIVE = 1;
+    public static final int MQMON_NOT_AVAILABLE = -1;
+
     // Queue Types
     public static final int MQQT_LOCAL = 1;
     public static final int MQQT_MODEL = 2;
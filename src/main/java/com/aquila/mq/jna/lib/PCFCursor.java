@@ -0,0 +1,426 @@
+package com.aquila.mq.jna.lib;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.aquila.mq.jna.lib.PCFConstants.*;
+
+/**
+ * PCFCursor - Walks the parameters of a PCF message in place
+ * <p>
+ * {@link MQCFH#fromBytes}, {@link MQCFST#fromBytes} and {@link MQCFIN#fromBytes} build an object,
+ * and copy the string data, for every structure of a reply. The cursor reads the header and the
+ * current parameter at their offsets in the receive buffer instead; values are read with
+ * primitive accessors and strings are decoded only when asked for:
+ * <pre>
+ * PCFCursor cursor = new PCFCursor().wrap(replyBuffer.getData());
+ * while (cursor.next()) {
+ *     if (cursor.getParameter() == MQIA_CURRENT_Q_DEPTH) {
+ *         depth = cursor.getInt();
+ *     }
+ * }
+ * </pre>
+ * Parameters of a group (MQCFGR) follow the group parameter, which {@link #next()} returns
+ * first. A cursor is reused for every message: {@code wrap} points it at the next one. The buffer
+ * is switched to big-endian, the encoding the PCF messages are built and parsed with.
+ */
+public final class PCFCursor {
+
+    // MQCFH
+    private static final int TYPE_OFFSET = 0;
+    private static final int STRUC_LENGTH_OFFSET = 4;
+    private static final int VERSION_OFFSET = 8;
+    private static final int COMMAND_OFFSET = 12;
+    private static final int MSG_SEQ_NUMBER_OFFSET = 16;
+    private static final int CONTROL_OFFSET = 20;
+    private static final int COMP_CODE_OFFSET = 24;
+    private static final int REASON_OFFSET = 28;
+    private static final int PARAMETER_COUNT_OFFSET = 32;
+
+    // Parameter structures: Type, StrucLength, Parameter, then the fields of each type
+    private static final int PARAMETER_OFFSET = 8;
+    private static final int MIN_PARAMETER_LENGTH = 12;
+    private static final int CFIN_VALUE_OFFSET = 12;
+    private static final int CFIN64_VALUE_OFFSET = 16;
+    private static final int CFST_CCSID_OFFSET = 12;
+    private static final int CFST_STRING_LENGTH_OFFSET = 16;
+    private static final int CFST_STRING_OFFSET = 20;
+    private static final int CFIL_COUNT_OFFSET = 12;
+    private static final int CFIL_VALUES_OFFSET = 16;
+    private static final int CFSL_CCSID_OFFSET = 12;
+    private static final int CFSL_COUNT_OFFSET = 16;
+    private static final int CFSL_STRING_LENGTH_OFFSET = 20;
+    private static final int CFSL_STRINGS_OFFSET = 24;
+    private static final int CFBS_STRING_LENGTH_OFFSET = 12;
+    private static final int CFBS_STRING_OFFSET = 16;
+    private static final int CFGR_PARAMETER_COUNT_OFFSET = 12;
+    private static final int FILTER_OPERATOR_OFFSET = 12;
+    private static final int CFIF_VALUE_OFFSET = 16;
+    private static final int CFSF_CCSID_OFFSET = 16;
+    private static final int CFSF_VALUE_LENGTH_OFFSET = 20;
+    private static final int CFSF_VALUE_OFFSET = 24;
+    private static final int CFBF_VALUE_LENGTH_OFFSET = 16;
+    private static final int CFBF_VALUE_OFFSET = 20;
+
+    private ByteBuffer buffer;
+    private int start;
+    private int limit;
+    private int current;
+    private int nextOffset;
+    private int remaining;
+
+    /**
+     * Point the cursor at the PCF message between the position and the limit of a buffer,
+     * before its first parameter
+     *
+     * @throws IllegalArgumentException if the buffer cannot hold an MQCFH
+     */
+    public PCFCursor wrap(ByteBuffer buffer) {
+        if (buffer.remaining() < MQCFH.MQCFH_SIZE) {
+            throw new IllegalArgumentException("PCF message of " + buffer.remaining()
+                    + " bytes, expected at least " + MQCFH.MQCFH_SIZE);
+        }
+        if (buffer.order() != ByteOrder.BIG_ENDIAN) {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        this.buffer = buffer;
+        this.start = buffer.position();
+        this.limit = buffer.limit();
+        rewind();
+        return this;
+    }
+
+    /**
+     * Go back before the first parameter
+     */
+    public void rewind() {
+        int headerLength = buffer.getInt(start + STRUC_LENGTH_OFFSET);
+        current = -1;
+        nextOffset = start + (headerLength >= MQCFH.MQCFH_SIZE ? headerLength : MQCFH.MQCFH_SIZE);
+        remaining = getParameterCount();
+    }
+
+    // ========== Header ==========
+
+    public int getType() {
+        return buffer.getInt(start + TYPE_OFFSET);
+    }
+
+    public int getVersion() {
+        return buffer.getInt(start + VERSION_OFFSET);
+    }
+
+    public int getCommand() {
+        return buffer.getInt(start + COMMAND_OFFSET);
+    }
+
+    public int getMsgSeqNumber() {
+        return buffer.getInt(start + MSG_SEQ_NUMBER_OFFSET);
+    }
+
+    public int getControl() {
+        return buffer.getInt(start + CONTROL_OFFSET);
+    }
+
+    /**
+     * @return true for the last message of the replies to a command (MQCFC_LAST)
+     */
+    public boolean isLast() {
+        return getControl() == MQCFC_LAST;
+    }
+
+    public int getCompCode() {
+        return buffer.getInt(start + COMP_CODE_OFFSET);
+    }
+
+    public int getReason() {
+        return buffer.getInt(start + REASON_OFFSET);
+    }
+
+    /**
+     * @return the number of parameter structures after the header, not counting those in groups
+     */
+    public int getParameterCount() {
+        return buffer.getInt(start + PARAMETER_COUNT_OFFSET);
+    }
+
+    // ========== Parameters ==========
+
+    /**
+     * Move to the next parameter
+     *
+     * @return false after the last parameter
+     * @throws IllegalStateException if the StrucLength of the parameter does not fit the message
+     */
+    public boolean next() {
+        if (remaining <= 0 || nextOffset + MIN_PARAMETER_LENGTH > limit) {
+            current = -1;
+            return false;
+        }
+        int length = buffer.getInt(nextOffset + STRUC_LENGTH_OFFSET);
+        if (length < MIN_PARAMETER_LENGTH || nextOffset + length > limit) {
+            throw new IllegalStateException("Invalid structure length " + length + " at offset "
+                    + (nextOffset - start));
+        }
+        current = nextOffset;
+        nextOffset += length;
+        remaining--;
+        if (getParameterType() == MQCFT_GROUP) {
+            // The parameters of the group follow it
+            remaining += buffer.getInt(current + CFGR_PARAMETER_COUNT_OFFSET);
+        }
+        return true;
+    }
+
+    /**
+     * @return the structure type of the current parameter (MQCFT_INTEGER, MQCFT_STRING, ...)
+     */
+    public int getParameterType() {
+        return buffer.getInt(current() + TYPE_OFFSET);
+    }
+
+    /**
+     * @return the parameter identifier (MQIA_*, MQCA_*, MQIACF_*, ...)
+     */
+    public int getParameter() {
+        return buffer.getInt(current() + PARAMETER_OFFSET);
+    }
+
+    public int getStrucLength() {
+        return buffer.getInt(current() + STRUC_LENGTH_OFFSET);
+    }
+
+    /**
+     * @return the offset of the current parameter from the start of the message
+     */
+    public int getOffset() {
+        return current() - start;
+    }
+
+    /**
+     * @return the value of an MQCFIN, or the filter value of an MQCFIF
+     */
+    public int getInt() {
+        switch (getParameterType()) {
+            case MQCFT_INTEGER:
+                return buffer.getInt(current + CFIN_VALUE_OFFSET);
+            case MQCFT_INTEGER_FILTER:
+                return buffer.getInt(current + CFIF_VALUE_OFFSET);
+            default:
+                throw wrongType("integer");
+        }
+    }
+
+    /**
+     * @return the value of an MQCFIN64, or of an MQCFIN widened
+     */
+    public long getLong() {
+        switch (getParameterType()) {
+            case MQCFT_INTEGER64:
+                return buffer.getLong(current + CFIN64_VALUE_OFFSET);
+            case MQCFT_INTEGER:
+                return buffer.getInt(current + CFIN_VALUE_OFFSET);
+            default:
+                throw wrongType("64-bit integer");
+        }
+    }
+
+    /**
+     * @return the number of values of an MQCFIL, MQCFIL64 or MQCFSL
+     */
+    public int getCount() {
+        switch (getParameterType()) {
+            case MQCFT_INTEGER_LIST:
+            case MQCFT_INTEGER64_LIST:
+                return buffer.getInt(current + CFIL_COUNT_OFFSET);
+            case MQCFT_STRING_LIST:
+                return buffer.getInt(current + CFSL_COUNT_OFFSET);
+            default:
+                throw wrongType("list");
+        }
+    }
+
+    /**
+     * @return a value of an MQCFIL
+     */
+    public int getInt(int index) {
+        if (getParameterType() != MQCFT_INTEGER_LIST) {
+            throw wrongType("integer list");
+        }
+        return buffer.getInt(current + CFIL_VALUES_OFFSET + checkIndex(index) * Integer.BYTES);
+    }
+
+    /**
+     * @return a value of an MQCFIL64
+     */
+    public long getLong(int index) {
+        if (getParameterType() != MQCFT_INTEGER64_LIST) {
+            throw wrongType("64-bit integer list");
+        }
+        return buffer.getLong(current + CFIL_VALUES_OFFSET + checkIndex(index) * Long.BYTES);
+    }
+
+    /**
+     * @return the number of parameters in an MQCFGR
+     */
+    public int getGroupParameterCount() {
+        if (getParameterType() != MQCFT_GROUP) {
+            throw wrongType("group");
+        }
+        return buffer.getInt(current + CFGR_PARAMETER_COUNT_OFFSET);
+    }
+
+    /**
+     * @return the operator (MQCFOP_*) of an MQCFIF, MQCFSF or MQCFBF
+     */
+    public int getOperator() {
+        switch (getParameterType()) {
+            case MQCFT_INTEGER_FILTER:
+            case MQCFT_STRING_FILTER:
+            case MQCFT_BYTE_STRING_FILTER:
+                return buffer.getInt(current + FILTER_OPERATOR_OFFSET);
+            default:
+                throw wrongType("filter");
+        }
+    }
+
+    /**
+     * @return the CCSID of an MQCFST, MQCFSL or MQCFSF (0: the queue manager's)
+     */
+    public int getCodedCharSetId() {
+        return buffer.getInt(current + stringField(CFST_CCSID_OFFSET, CFSL_CCSID_OFFSET, CFSF_CCSID_OFFSET));
+    }
+
+    /**
+     * @return the length in bytes of the string of an MQCFST or MQCFSF, of each string of an
+     * MQCFSL, or of the bytes of an MQCFBS or MQCFBF
+     */
+    public int getStringLength() {
+        switch (getParameterType()) {
+            case MQCFT_BYTE_STRING:
+                return buffer.getInt(current + CFBS_STRING_LENGTH_OFFSET);
+            case MQCFT_BYTE_STRING_FILTER:
+                return buffer.getInt(current + CFBF_VALUE_LENGTH_OFFSET);
+            default:
+                return buffer.getInt(current + stringField(CFST_STRING_LENGTH_OFFSET, CFSL_STRING_LENGTH_OFFSET,
+                        CFSF_VALUE_LENGTH_OFFSET));
+        }
+    }
+
+    /**
+     * Decode the string of an MQCFST or MQCFSF, without its trailing blanks
+     */
+    public String getString() {
+        int length = getStringLength();
+        return codec().decode(buffer, current + stringField(CFST_STRING_OFFSET, -1, CFSF_VALUE_OFFSET),
+                checkLength(length, stringField(CFST_STRING_OFFSET, -1, CFSF_VALUE_OFFSET)));
+    }
+
+    /**
+     * Decode a string of an MQCFSL, without its trailing blanks
+     */
+    public String getString(int index) {
+        if (getParameterType() != MQCFT_STRING_LIST) {
+            throw wrongType("string list");
+        }
+        int length = getStringLength();
+        int offset = CFSL_STRINGS_OFFSET + checkIndex(index) * length;
+        return codec().decode(buffer, current + offset, checkLength(length, offset));
+    }
+
+    /**
+     * Compare the string of an MQCFST or MQCFSF with a name, without decoding it
+     *
+     * @return true if the string holds the name followed by blanks
+     */
+    public boolean stringEquals(String name) {
+        int offset = stringField(CFST_STRING_OFFSET, -1, CFSF_VALUE_OFFSET);
+        return codec().matches(name, buffer, current + offset, checkLength(getStringLength(), offset));
+    }
+
+    /**
+     * Copy the bytes of an MQCFBS or MQCFBF (MsgId, ConnectionId, ...)
+     *
+     * @return the number of bytes copied
+     */
+    public int getBytes(byte[] dst) {
+        int offset;
+        switch (getParameterType()) {
+            case MQCFT_BYTE_STRING:
+                offset = CFBS_STRING_OFFSET;
+                break;
+            case MQCFT_BYTE_STRING_FILTER:
+                offset = CFBF_VALUE_OFFSET;
+                break;
+            default:
+                throw wrongType("byte string");
+        }
+        int length = Math.min(checkLength(getStringLength(), offset), dst.length);
+        buffer.get(current + offset, dst, 0, length);
+        return length;
+    }
+
+    /**
+     * @return the bytes of an MQCFBS or MQCFBF in a new array
+     */
+    public byte[] getBytes() {
+        byte[] bytes = new byte[getStringLength()];
+        getBytes(bytes);
+        return bytes;
+    }
+
+    private int current() {
+        if (current < 0) {
+            throw new IllegalStateException("No current parameter, call next()");
+        }
+        return current;
+    }
+
+    /**
+     * @return the offset of a field in the string structure at the cursor
+     */
+    private int stringField(int cfst, int cfsl, int cfsf) {
+        int offset;
+        switch (getParameterType()) {
+            case MQCFT_STRING:
+                offset = cfst;
+                break;
+            case MQCFT_STRING_LIST:
+                offset = cfsl;
+                break;
+            case MQCFT_STRING_FILTER:
+                offset = cfsf;
+                break;
+            default:
+                offset = -1;
+        }
+        if (offset < 0) {
+            throw wrongType("string");
+        }
+        return offset;
+    }
+
+    private MQNameCodec codec() {
+        int ccsid = getCodedCharSetId();
+        return ccsid == 0 || ccsid == MQNameCodec.DEFAULT.getCcsid() ? MQNameCodec.DEFAULT : MQNameCodec.forCcsid(ccsid);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= getCount()) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + getCount() + " values");
+        }
+        return index;
+    }
+
+    private int checkLength(int length, int offset) {
+        if (length < 0 || offset + length > getStrucLength()) {
+            throw new IllegalStateException("Invalid string length " + length + " at offset " + getOffset());
+        }
+        return length;
+    }
+
+    private IllegalStateException wrongType(String expected) {
+        return new IllegalStateException("Parameter " + getParameter() + " of type " + getParameterType()
+                + " is not a " + expected);
+    }
+}
@@ -0,0 +1,162 @@
+package com.aquila.mq.jna.lib;
+
+import static com.aquila.mq.jna.lib.PCFConstants.*;
+
+/**
+ * PCFFilter - Condition evaluated by the command server on the objects of an inquiry
+ * <p>
+ * Encoded as an MQCFIF (integer attribute) or MQCFSF (string attribute) in the command, so the
+ * queue manager only replies for the matching objects instead of the client fetching them all:
+ * <pre>
+ * agent.inquireQueues("*", MQQT_LOCAL, PCFFilter.greater(MQIA_CURRENT_Q_DEPTH, 10000));
+ * agent.inquireQueues("*", MQQT_ALL, PCFFilter.like(MQCA_Q_DESC, "PAYMENT*"));
+ * </pre>
+ * A command carries at most one filter. Objects that do not have the filtered attribute (the
+ * depth of an alias queue) do not match. Instances are immutable.
+ */
+public final class PCFFilter {
+
+    private final int parameter;
+    private final int operator;
+    private final int intValue;
+    private final String stringValue;
+
+    private PCFFilter(int parameter, int operator, int intValue, String stringValue) {
+        this.parameter = parameter;
+        this.operator = operator;
+        this.intValue = intValue;
+        this.stringValue = stringValue;
+    }
+
+    // ========== Integer attributes ==========
+
+    /**
+     * Filter on an integer attribute (MQIA_*)
+     *
+     * @param operator Comparison (MQCFOP_*)
+     */
+    public static PCFFilter integer(int parameter, int operator, int value) {
+        return new PCFFilter(parameter, operator, value, null);
+    }
+
+    public static PCFFilter equal(int parameter, int value) {
+        return integer(parameter, MQCFOP_EQUAL, value);
+    }
+
+    public static PCFFilter notEqual(int parameter, int value) {
+        return integer(parameter, MQCFOP_NOT_EQUAL, value);
+    }
+
+    public static PCFFilter greater(int parameter, int value) {
+        return integer(parameter, MQCFOP_GREATER, value);
+    }
+
+    public static PCFFilter notLess(int parameter, int value) {
+        return integer(parameter, MQCFOP_NOT_LESS, value);
+    }
+
+    public static PCFFilter less(int parameter, int value) {
+        return integer(parameter, MQCFOP_LESS, value);
+    }
+
+    public static PCFFilter notGreater(int parameter, int value) {
+        return integer(parameter, MQCFOP_NOT_GREATER, value);
+    }
+
+    // ========== String attributes ==========
+
+    /**
+     * Filter on a string attribute (MQCA_*)
+     *
+     * @param operator Comparison (MQCFOP_*)
+     */
+    public static PCFFilter string(int parameter, int operator, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null filter value");
+        }
+        return new PCFFilter(parameter, operator, 0, value);
+    }
+
+    public static PCFFilter equal(int parameter, String value) {
+        return string(parameter, MQCFOP_EQUAL, value);
+    }
+
+    public static PCFFilter notEqual(int parameter, String value) {
+        return string(parameter, MQCFOP_NOT_EQUAL, value);
+    }
+
+    /**
+     * @param pattern Generic value, ending with an asterisk (e.g. "PAY*")
+     */
+    public static PCFFilter like(int parameter, String pattern) {
+        return string(parameter, MQCFOP_LIKE, pattern);
+    }
+
+    /**
+     * @param pattern Generic value, ending with an asterisk (e.g. "PAY*")
+     */
+    public static PCFFilter notLike(int parameter, String pattern) {
+        return string(parameter, MQCFOP_NOT_LIKE, pattern);
+    }
+
+    // ========== Encoding ==========
+
+    /**
+     * Append the filter structure to a command
+     */
+    void writeTo(PCFWriter command) {
+        if (stringValue != null) {
+            command.stringFilter(parameter, operator, stringValue);
+        } else {
+            command.integerFilter(parameter, operator, intValue);
+        }
+    }
+
+    public int getParameter() {
+        return parameter;
+    }
+
+    public int getOperator() {
+        return operator;
+    }
+
+    public boolean isString() {
+        return stringValue != null;
+    }
+
+    /**
+     * @return the compared value, an Integer or a String
+     */
+    public Object getValue() {
+        return stringValue != null ? stringValue : (Object) intValue;
+    }
+
+    @Override
+    public String toString() {
+        return parameter + " " + operatorName(operator) + " "
+                + (stringValue != null ? "'" + stringValue + "'" : String.valueOf(intValue));
+    }
+
+    private static String operatorName(int operator) {
+        switch (operator) {
+            case MQCFOP_LESS:
+                return "<";
+            case MQCFOP_EQUAL:
+                return "=";
+            case MQCFOP_GREATER:
+                return ">";
+            case MQCFOP_NOT_LESS:
+                return ">=";
+            case MQCFOP_NOT_EQUAL:
+                return "<>";
+            case MQCFOP_NOT_GREATER:
+                return "<=";
+            case MQCFOP_LIKE:
+                return "LIKE";
+            case MQCFOP_NOT_LIKE:
+                return "NOT LIKE";
+            default:
+                return "OP(" + operator + ")";
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.aquila.mq.jna.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.aquila.mq.jna.lib.PCFConstants.*;
+
+/**
+ * PCFMessage - A PCF message decoded into typed parameters
+ * <p>
+ * Where {@link PCFCursor} reads a message in place, the message decodes every parameter type
+ * once into values that outlive the receive buffer:
+ * <table>
+ *     <caption>Values by structure type</caption>
+ *     <tr><td>MQCFIN, MQCFIN64</td><td>Integer, Long</td></tr>
+ *     <tr><td>MQCFIL, MQCFIL64</td><td>int[], long[]</td></tr>
+ *     <tr><td>MQCFST, MQCFSL</td><td>String, String[] (without trailing blanks)</td></tr>
+ *     <tr><td>MQCFBS</td><td>byte[]</td></tr>
+ *     <tr><td>MQCFGR</td><td>PCFMessage holding the parameters of the group</td></tr>
+ *     <tr><td>MQCFIF, MQCFSF, MQCFBF</td><td>Integer, String, byte[] with {@link Parameter#getOperator()}</td></tr>
+ * </table>
+ * Use it for replies whose parameters are all needed, such as the groups of INQUIRE_Q_STATUS.
+ */
+public final class PCFMessage {
+
+    private final int type;
+    private final int command;
+    private final int msgSeqNumber;
+    private final int control;
+    private final int compCode;
+    private final int reason;
+    private final List<Parameter> parameters;
+
+    /**
+     * One decoded parameter structure
+     */
+    public static final class Parameter {
+        private final int type;
+        private final int parameter;
+        private final int operator;
+        private final Object value;
+
+        Parameter(int type, int parameter, int operator, Object value) {
+            this.type = type;
+            this.parameter = parameter;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        /**
+         * @return the structure type (MQCFT_*)
+         */
+        public int getType() {
+            return type;
+        }
+
+        /**
+         * @return the parameter identifier
+         */
+        public int getParameter() {
+            return parameter;
+        }
+
+        /**
+         * @return the operator of a filter (MQCFOP_*), 0 for the other types
+         */
+        public int getOperator() {
+            return operator;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            String text;
+            if (value instanceof String) {
+                text = "'" + value + "'";
+            } else if (value instanceof int[]) {
+                text = Arrays.toString((int[]) value);
+            } else if (value instanceof long[]) {
+                text = Arrays.toString((long[]) value);
+            } else if (value instanceof String[]) {
+                text = Arrays.toString((String[]) value);
+            } else if (value instanceof byte[]) {
+                text = ((byte[]) value).length + " bytes";
+            } else {
+                text = String.valueOf(value);
+            }
+            return parameter + "=" + text;
+        }
+    }
+
+    private PCFMessage(int type, int command, int msgSeqNumber, int control, int compCode, int reason,
+                       List<Parameter> parameters) {
+        this.type = type;
+        this.command = command;
+        this.msgSeqNumber = msgSeqNumber;
+        this.control = control;
+        this.compCode = compCode;
+        this.reason = reason;
+        this.parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Decode the whole message under a cursor, from its first parameter
+     *
+     * @throws IllegalStateException if a structure does not fit the message
+     */
+    public static PCFMessage decode(PCFCursor cursor) {
+        cursor.rewind();
+        List<Parameter> parameters = new ArrayList<>(cursor.getParameterCount());
+        while (cursor.next()) {
+            parameters.add(decodeParameter(cursor));
+        }
+        return new PCFMessage(cursor.getType(), cursor.getCommand(), cursor.getMsgSeqNumber(), cursor.getControl(),
+                cursor.getCompCode(), cursor.getReason(), parameters);
+    }
+
+    private static Parameter decodeParameter(PCFCursor cursor) {
+        int type = cursor.getParameterType();
+        int parameter = cursor.getParameter();
+        switch (type) {
+            case MQCFT_INTEGER:
+                return new Parameter(type, parameter, 0, cursor.getInt());
+            case MQCFT_INTEGER64:
+                return new Parameter(type, parameter, 0, cursor.getLong());
+            case MQCFT_INTEGER_LIST: {
+                int[] values = new int[cursor.getCount()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = cursor.getInt(i);
+                }
+                return new Parameter(type, parameter, 0, values);
+            }
+            case MQCFT_INTEGER64_LIST: {
+                long[] values = new long[cursor.getCount()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = cursor.getLong(i);
+                }
+                return new Parameter(type, parameter, 0, values);
+            }
+            case MQCFT_STRING:
+                return new Parameter(type, parameter, 0, cursor.getString());
+            case MQCFT_STRING_LIST: {
+                String[] values = new String[cursor.getCount()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = cursor.getString(i);
+                }
+                return new Parameter(type, parameter, 0, values);
+            }
+            case MQCFT_BYTE_STRING:
+                return new Parameter(type, parameter, 0, cursor.getBytes());
+            case MQCFT_INTEGER_FILTER:
+                return new Parameter(type, parameter, cursor.getOperator(), cursor.getInt());
+            case MQCFT_STRING_FILTER:
+                return new Parameter(type, parameter, cursor.getOperator(), cursor.getString());
+            case MQCFT_BYTE_STRING_FILTER:
+                return new Parameter(type, parameter, cursor.getOperator(), cursor.getBytes());
+            case MQCFT_GROUP: {
+                int count = cursor.getGroupParameterCount();
+                List<Parameter> members = new ArrayList<>(count);
+                for (int i = 0; i < count && cursor.next(); i++) {
+                    members.add(decodeParameter(cursor));
+                }
+                return new Parameter(type, parameter, 0,
+                        new PCFMessage(MQCFT_GROUP, 0, 0, MQCFC_LAST, 0, 0, members));
+            }
+            default:
+                throw new IllegalStateException("Unknown PCF structure type " + type + " for parameter " + parameter);
+        }
+    }
+
+    // ========== Header ==========
+
+    /**
+     * @return the MQCFH Type, or MQCFT_GROUP for the parameters of a group
+     */
+    public int getType() {
+        return type;
+    }
+
+    public int getCommand() {
+        return command;
+    }
+
+    public int getMsgSeqNumber() {
+        return msgSeqNumber;
+    }
+
+    public int getControl() {
+        return control;
+    }
+
+    public boolean isLast() {
+        return control == MQCFC_LAST;
+    }
+
+    public int getCompCode() {
+        return compCode;
+    }
+
+    public int getReason() {
+        return reason;
+    }
+
+    // ========== Parameters ==========
+
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
+    public boolean contains(int parameter) {
+        return find(parameter) != null;
+    }
+
+    /**
+     * @return the value of the first parameter with the identifier, null if absent
+     */
+    public Object getValue(int parameter) {
+        Parameter found = find(parameter);
+        return found != null ? found.value : null;
+    }
+
+    /**
+     * @throws NoSuchElementException if the parameter is absent
+     */
+    public int getInt(int parameter) {
+        return ((Number) require(parameter)).intValue();
+    }
+
+    public int getInt(int parameter, int defaultValue) {
+        Object value = getValue(parameter);
+        return value != null ? ((Number) value).intValue() : defaultValue;
+    }
+
+    /**
+     * @return an MQCFIN64 value, or an MQCFIN value widened
+     */
+    public long getLong(int parameter) {
+        return ((Number) require(parameter)).longValue();
+    }
+
+    public String getString(int parameter) {
+        return (String) require(parameter);
+    }
+
+    public String getString(int parameter, String defaultValue) {
+        Object value = getValue(parameter);
+        return value != null ? (String) value : defaultValue;
+    }
+
+    public int[] getIntList(int parameter) {
+        return (int[]) require(parameter);
+    }
+
+    public long[] getLongList(int parameter) {
+        return (long[]) require(parameter);
+    }
+
+    public String[] getStringList(int parameter) {
+        return (String[]) require(parameter);
+    }
+
+    public byte[] getBytes(int parameter) {
+        return (byte[]) require(parameter);
+    }
+
+    /**
+     * @return the groups with the identifier, in message order
+     */
+    public List<PCFMessage> getGroups(int parameter) {
+        List<PCFMessage> groups = new ArrayList<>();
+        for (Parameter p : parameters) {
+            if (p.type == MQCFT_GROUP && p.parameter == parameter) {
+                groups.add((PCFMessage) p.value);
+            }
+        }
+        return groups;
+    }
+
+    private Parameter find(int parameter) {
+        for (Parameter p : parameters) {
+            if (p.parameter == parameter) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private Object require(int parameter) {
+        Parameter found = find(parameter);
+        if (found == null) {
+            throw new NoSuchElementException("No parameter " + parameter);
+        }
+        return found.value;
+    }
+
+    @Override
+    public String toString() {
+        return "PCFMessage[Command=" + command + ", CompCode=" + compCode + ", Reason=" + reason
+                + ", Parameters=" + parameters + "]";
+    }
+}
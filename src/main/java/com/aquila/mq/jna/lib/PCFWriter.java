@@ -0,0 +1,299 @@
+package com.aquila.mq.jna.lib;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.aquila.mq.jna.lib.PCFConstants.*;
+
+/**
+ * PCFWriter - Encodes PCF commands into one reusable array
+ * <p>
+ * {@link MQCFH#toBytes}, {@link MQCFST#toBytes} and {@link MQCFIN#toBytes} allocate an object and
+ * an array per structure, then a {@code ByteArrayOutputStream} joins them. The writer encodes the
+ * header and every parameter type straight into an array allocated once, and counts the
+ * parameters into the header as they are written:
+ * <pre>
+ * writer.command(MQCMD_INQUIRE_Q)
+ *       .string(MQCA_Q_NAME, "DEV.*")
+ *       .integer(MQIA_Q_TYPE, MQQT_LOCAL);
+ * sender.send(SYSTEM_ADMIN_COMMAND_QUEUE, replyQueue, MQFMT_ADMIN, writer.array(), writer.length());
+ * </pre>
+ * Strings are encoded with {@link MQNameCodec#DEFAULT}, CodedCharSetId MQCCSI_DEFAULT (the CCSID
+ * of the message descriptor), and padded with blanks to a multiple of 4 bytes. The message is
+ * big-endian, as {@link PCFCursor} reads it. An instance is not thread safe.
+ */
+public final class PCFWriter {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int MQCCSI_DEFAULT = 0;
+    private static final int PARAMETER_COUNT_OFFSET = 32;
+    private static final int CFGR_PARAMETER_COUNT_OFFSET = 12;
+    private static final int MAX_GROUP_DEPTH = 8;
+
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final MQNameCodec codec = MQNameCodec.DEFAULT;
+    // Offset of the count the next parameter adds to: the MQCFH, or the innermost open group
+    private final int[] countOffsets = new int[MAX_GROUP_DEPTH + 1];
+    private int depth;
+
+    /**
+     * Create a writer with a buffer of {@link #DEFAULT_CAPACITY} bytes
+     */
+    public PCFWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a writer with a buffer of the given size, the largest command it will encode
+     */
+    public PCFWriter(int capacity) {
+        if (capacity < MQCFH.MQCFH_SIZE) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        array = new byte[capacity];
+        buffer = ByteBuffer.wrap(array).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Start a command message, discarding the previous one
+     *
+     * @param command Command identifier (MQCMD_*)
+     */
+    public PCFWriter command(int command) {
+        buffer.clear();
+        depth = 0;
+        countOffsets[0] = PARAMETER_COUNT_OFFSET;
+        buffer.putInt(MQCFT_COMMAND).putInt(MQCFH.MQCFH_SIZE).putInt(MQCFH_VERSION_3).putInt(command)
+                .putInt(1).putInt(MQCFC_LAST)
+                .putInt(0).putInt(0).putInt(0); // CompCode, Reason, ParameterCount
+        return this;
+    }
+
+    // ========== Parameters ==========
+
+    /**
+     * MQCFIN
+     */
+    public PCFWriter integer(int parameter, int value) {
+        parameter(MQCFT_INTEGER, 16, parameter).putInt(value);
+        return this;
+    }
+
+    /**
+     * MQCFIN64
+     */
+    public PCFWriter integer64(int parameter, long value) {
+        parameter(MQCFT_INTEGER64, 24, parameter).putInt(0).putLong(value);
+        return this;
+    }
+
+    /**
+     * MQCFIL
+     */
+    public PCFWriter integerList(int parameter, int... values) {
+        parameter(MQCFT_INTEGER_LIST, 16 + values.length * Integer.BYTES, parameter).putInt(values.length);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return this;
+    }
+
+    /**
+     * MQCFIL64
+     */
+    public PCFWriter integer64List(int parameter, long... values) {
+        parameter(MQCFT_INTEGER64_LIST, 16 + values.length * Long.BYTES, parameter).putInt(values.length);
+        for (long value : values) {
+            buffer.putLong(value);
+        }
+        return this;
+    }
+
+    /**
+     * MQCFST
+     */
+    public PCFWriter string(int parameter, String value) {
+        int start = buffer.position();
+        parameter(MQCFT_STRING, 0, parameter).putInt(MQCCSI_DEFAULT).putInt(0);
+        int length = putString(value);
+        buffer.putInt(start + 16, length);
+        return endStructure(start);
+    }
+
+    /**
+     * MQCFSL: every string is padded with blanks to the longest one
+     */
+    public PCFWriter stringList(int parameter, String... values) {
+        int start = buffer.position();
+        parameter(MQCFT_STRING_LIST, 0, parameter).putInt(MQCCSI_DEFAULT).putInt(values.length).putInt(0);
+        int width = 0;
+        int first = buffer.position();
+        for (String value : values) {
+            width = Math.max(width, codec.write(value, buffer, buffer.position()));
+        }
+        for (int i = 0; i < values.length; i++) {
+            int length = codec.write(values[i], buffer, first + i * width);
+            blanks(first + i * width + length, width - length);
+        }
+        buffer.position(first + values.length * width);
+        buffer.putInt(start + 20, width);
+        return endStructure(start);
+    }
+
+    /**
+     * MQCFBS
+     */
+    public PCFWriter byteString(int parameter, byte[] value) {
+        int start = buffer.position();
+        parameter(MQCFT_BYTE_STRING, 0, parameter).putInt(value.length).put(value);
+        return endStructure(start);
+    }
+
+    /**
+     * MQCFBS holding a MsgId, CorrelId or other 24-byte identifier
+     */
+    public PCFWriter byteString(int parameter, MQId value) {
+        parameter(MQCFT_BYTE_STRING, 16 + MQId.LENGTH, parameter).putInt(MQId.LENGTH);
+        value.writeTo(buffer, buffer.position());
+        buffer.position(buffer.position() + MQId.LENGTH);
+        return this;
+    }
+
+    /**
+     * MQCFIF
+     *
+     * @param operator Comparison (MQCFOP_*)
+     */
+    public PCFWriter integerFilter(int parameter, int operator, int value) {
+        parameter(MQCFT_INTEGER_FILTER, 20, parameter).putInt(operator).putInt(value);
+        return this;
+    }
+
+    /**
+     * MQCFSF
+     *
+     * @param operator Comparison (MQCFOP_*)
+     */
+    public PCFWriter stringFilter(int parameter, int operator, String value) {
+        int start = buffer.position();
+        parameter(MQCFT_STRING_FILTER, 0, parameter).putInt(operator).putInt(MQCCSI_DEFAULT).putInt(0);
+        int length = putString(value);
+        buffer.putInt(start + 20, length);
+        return endStructure(start);
+    }
+
+    /**
+     * MQCFBF
+     *
+     * @param operator Comparison (MQCFOP_*)
+     */
+    public PCFWriter byteStringFilter(int parameter, int operator, byte[] value) {
+        int start = buffer.position();
+        parameter(MQCFT_BYTE_STRING_FILTER, 0, parameter).putInt(operator).putInt(value.length).put(value);
+        return endStructure(start);
+    }
+
+    /**
+     * Open an MQCFGR: the parameters written until {@link #endGroup()} belong to the group
+     */
+    public PCFWriter group(int parameter) {
+        if (depth == MAX_GROUP_DEPTH) {
+            throw new IllegalStateException("Groups nested deeper than " + MAX_GROUP_DEPTH);
+        }
+        int start = buffer.position();
+        parameter(MQCFT_GROUP, 16, parameter).putInt(0);
+        countOffsets[++depth] = start + CFGR_PARAMETER_COUNT_OFFSET;
+        return this;
+    }
+
+    /**
+     * Close the innermost open group
+     */
+    public PCFWriter endGroup() {
+        if (depth == 0) {
+            throw new IllegalStateException("No open group");
+        }
+        depth--;
+        return this;
+    }
+
+    // ========== Message ==========
+
+    /**
+     * @return the array holding the message, valid up to {@link #length()}
+     */
+    public byte[] array() {
+        return array;
+    }
+
+    /**
+     * @return the length of the message
+     */
+    public int length() {
+        return buffer.position();
+    }
+
+    public int getCapacity() {
+        return array.length;
+    }
+
+    /**
+     * @return a copy of the message
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[length()];
+        System.arraycopy(array, 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * @return a cursor over the message written so far, e.g. to check it
+     */
+    public PCFCursor cursor() {
+        return new PCFCursor().wrap(ByteBuffer.wrap(array, 0, length()));
+    }
+
+    private ByteBuffer parameter(int type, int length, int parameter) {
+        if (countOffsets[0] == 0) {
+            throw new IllegalStateException("No command started, call command() first");
+        }
+        int countOffset = countOffsets[depth];
+        buffer.putInt(countOffset, buffer.getInt(countOffset) + 1);
+        return buffer.putInt(type).putInt(length).putInt(parameter);
+    }
+
+    /**
+     * Write a string and its blank padding to a multiple of 4 bytes
+     *
+     * @return the length of the string, without the padding
+     */
+    private int putString(String value) {
+        int length = codec.write(value, buffer, buffer.position());
+        int padded = (length + 3) & ~3;
+        blanks(buffer.position() + length, padded - length);
+        buffer.position(buffer.position() + padded);
+        return length;
+    }
+
+    private void blanks(int index, int count) {
+        byte blank = codec.blank();
+        for (int i = 0; i < count; i++) {
+            buffer.put(index + i, blank);
+        }
+    }
+
+    /**
+     * Pad the structure started at {@code start} to a multiple of 4 bytes and set its StrucLength
+     */
+    private PCFWriter endStructure(int start) {
+        int length = buffer.position() - start;
+        int padded = (length + 3) & ~3;
+        for (int i = length; i < padded; i++) {
+            buffer.put((byte) 0);
+        }
+        buffer.putInt(start + 4, padded);
+        return this;
+    }
+}
@@ -0,0 +1,24 @@
+package com.aquila.mq.jna.lib;
+
+/**
+ * PanamaBinding - Factory for the Foreign Function &amp; Memory binding of the MQ verbs
+ * <p>
+ * This is the Java 17 version of the class. The real implementation is compiled from
+ * {@code src/main/java22} into {@code META-INF/versions/22} of the multi-release jar,
+ * so the binding is only available when running the jar on Java 22 or later.
+ */
+final class PanamaBinding {
+
+    private PanamaBinding() {
+    }
+
+    /**
+     * Create the Panama binding
+     *
+     * @throws UnsupportedOperationException always, on runtimes older than Java 22
+     */
+    static IBMMQJNA create() {
+        throw new UnsupportedOperationException("The Panama binding requires Java 22+ and the multi-release jar "
+                + "(running Java " + Runtime.version().feature() + ")");
+    }
+}
@@ -0,0 +1,231 @@
+package com.aquila.mq.jna.lib;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * QueueHandleStatus - A handle open on an MQ queue, from an INQUIRE_Q_STATUS reply
+ * (MQIACF_Q_HANDLE): which application holds it and how the queue is open
+ */
+@Slf4j
+public class QueueHandleStatus {
+
+    private String queueName;
+    private String applTag;
+    private int applType;
+    private String userId;
+    private String channelName;
+    private String connectionName;
+    private int processId;
+    private int threadId;
+    private int openInputType;
+    private boolean openOutput;
+    private boolean openBrowse;
+    private boolean openInquire;
+    private boolean openSet;
+    private int handleState;
+    private int asyncState;
+    private MQId connectionId;
+
+    public QueueHandleStatus() {
+    }
+
+    /**
+     * Read an open handle from an INQUIRE_Q_STATUS reply
+     *
+     * @return the handle, null if the reply carries no queue name
+     */
+    public static QueueHandleStatus parse(PCFCursor reply) {
+        QueueHandleStatus handle = new QueueHandleStatus();
+        try {
+            while (reply.next()) {
+                switch (reply.getParameterType()) {
+                    case PCFConstants.MQCFT_STRING:
+                        handle.setStringAttribute(reply);
+                        break;
+                    case PCFConstants.MQCFT_INTEGER:
+                        handle.setIntAttribute(reply.getParameter(), reply.getInt());
+                        break;
+                    case PCFConstants.MQCFT_BYTE_STRING:
+                        if (reply.getParameter() == PCFConstants.MQBACF_CONNECTION_ID
+                                && reply.getStringLength() == MQId.LENGTH) {
+                            handle.connectionId = MQId.of(reply.getBytes());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (IllegalStateException e) {
+            log.warn("{}, stopping parse", e.getMessage());
+        }
+        return handle.getQueueName() != null ? handle : null;
+    }
+
+    private void setStringAttribute(PCFCursor reply) {
+        switch (reply.getParameter()) {
+            case PCFConstants.MQCA_Q_NAME:
+                queueName = reply.getString();
+                break;
+            case PCFConstants.MQCACF_APPL_TAG:
+                applTag = reply.getString();
+                break;
+            case PCFConstants.MQCACF_USER_IDENTIFIER:
+                userId = reply.getString();
+                break;
+            case PCFConstants.MQCACH_CHANNEL_NAME:
+                channelName = reply.getString();
+                break;
+            case PCFConstants.MQCACH_CONNECTION_NAME:
+                connectionName = reply.getString();
+                break;
+        }
+    }
+
+    private void setIntAttribute(int parameter, int value) {
+        switch (parameter) {
+            case PCFConstants.MQIA_APPL_TYPE:
+                applType = value;
+                break;
+            case PCFConstants.MQIACF_PROCESS_ID:
+                processId = value;
+                break;
+            case PCFConstants.MQIACF_THREAD_ID:
+                threadId = value;
+                break;
+            case PCFConstants.MQIACF_OPEN_INPUT_TYPE:
+                openInputType = value;
+                break;
+            case PCFConstants.MQIACF_OPEN_OUTPUT:
+                openOutput = value == PCFConstants.MQQSO_YES;
+                break;
+            case PCFConstants.MQIACF_OPEN_BROWSE:
+                openBrowse = value == PCFConstants.MQQSO_YES;
+                break;
+            case PCFConstants.MQIACF_OPEN_INQUIRE:
+                openInquire = value == PCFConstants.MQQSO_YES;
+                break;
+            case PCFConstants.MQIACF_OPEN_SET:
+                openSet = value == PCFConstants.MQQSO_YES;
+                break;
+            case PCFConstants.MQIACF_HANDLE_STATE:
+                handleState = value;
+                break;
+            case PCFConstants.MQIACF_ASYNC_STATE:
+                asyncState = value;
+                break;
+        }
+    }
+
+    // Getters
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public String getApplTag() {
+        return applTag;
+    }
+
+    /**
+     * @return the type of the application (MQAT_*)
+     */
+    public int getApplType() {
+        return applType;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return the channel of a client connection, null or empty for a local application
+     */
+    public String getChannelName() {
+        return channelName;
+    }
+
+    public String getConnectionName() {
+        return connectionName;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    public int getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * @return MQQSOPEN_INPUT_NONE, _SHARED or _EXCLUSIVE
+     */
+    public int getOpenInputType() {
+        return openInputType;
+    }
+
+    /**
+     * @return true if the handle gets messages: a consumer of the queue
+     */
+    public boolean isOpenInput() {
+        return openInputType != PCFConstants.MQQSOPEN_INPUT_NONE;
+    }
+
+    public boolean isOpenOutput() {
+        return openOutput;
+    }
+
+    public boolean isOpenBrowse() {
+        return openBrowse;
+    }
+
+    public boolean isOpenInquire() {
+        return openInquire;
+    }
+
+    public boolean isOpenSet() {
+        return openSet;
+    }
+
+    /**
+     * @return true if an API call is in progress on the handle (MQHSTATE_ACTIVE), e.g. a consumer
+     * waiting in MQGET
+     */
+    public boolean isActive() {
+        return handleState == PCFConstants.MQHSTATE_ACTIVE;
+    }
+
+    /**
+     * @return the state of the asynchronous consumer of the handle (MQAS_*)
+     */
+    public int getAsyncState() {
+        return asyncState;
+    }
+
+    /**
+     * @return the connection holding the handle, null if not returned
+     */
+    public MQId getConnectionId() {
+        return connectionId;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-48s %-28s pid %d tid %d", queueName, applTag, processId, threadId));
+        if (isOpenInput()) {
+            sb.append(openInputType == PCFConstants.MQQSOPEN_INPUT_EXCLUSIVE ? " INPUT(EXCL)" : " INPUT(SHARED)");
+        }
+        if (openOutput) {
+            sb.append(" OUTPUT");
+        }
+        if (openBrowse) {
+            sb.append(" BROWSE");
+        }
+        if (isActive()) {
+            sb.append(" ACTIVE");
+        }
+        if (channelName != null && !channelName.isEmpty()) {
+            sb.append(" via ").append(channelName).append(" (").append(connectionName).append(")");
+        }
+        return sb.toString();
+    }
+}
@@ -1,10 +1,13 @@
 package com.aquila.mq.jna.lib;
 
+import lombok.extern.slf4j.Slf4j;
+
 import static com.aquila.mq.jna.lib.PCFConstants.getQueueTypeName;
 
 /**
  * QueueInfo - Holds information about an MQ queue
  */
+@Slf4j
 public class QueueInfo {
 
     private String name;
@@ -19,6 +22,7 @@ public class QueueInfo {
     private String remoteQName;      // For remote queues
     private String remoteQMgrName;   // For remote queues
     private String clusterName;      // For cluster queues
+    private int attributes;          // Bits of the attributes read from the reply
 
     public QueueInfo() {
     }
@@ -27,6 +31,131 @@ public class QueueInfo {
         this.name = name;
     }
 
+    /**
+     * Read a queue from an INQUIRE_Q reply; only the strings of the attributes kept are decoded
+     *
+     * @return the queue, null if the reply carries no queue name
+     */
+    public static QueueInfo parse(PCFCursor reply) {
+        QueueInfo queue = new QueueInfo();
+        try {
+            while (reply.next()) {
+                switch (reply.getParameterType()) {
+                    case PCFConstants.MQCFT_STRING:
+                        queue.setStringAttribute(reply);
+                        break;
+                    case PCFConstants.MQCFT_INTEGER:
+                        queue.setIntAttribute(reply.getParameter(), reply.getInt());
+                        break;
+                    default:
+                        // Lists and other structure types are skipped
+                        break;
+                }
+            }
+        } catch (IllegalStateException e) {
+            log.warn("{}, stopping parse", e.getMessage());
+        }
+        return queue.getName() != null ? queue : null;
+    }
+
+    /**
+     * @param parameter Attribute (MQCA_*, MQIA_*)
+     * @return true if the reply carried the attribute: false for the attributes left out of the
+     * selection of {@code PCFAgent.inquireQueues(pattern, type, attributes...)}, whose fields are
+     * unset
+     */
+    public boolean hasAttribute(int parameter) {
+        int bit = attributeBit(parameter);
+        return bit >= 0 && (attributes & 1 << bit) != 0;
+    }
+
+    private static int attributeBit(int parameter) {
+        switch (parameter) {
+            case PCFConstants.MQCA_Q_NAME:
+                return 0;
+            case PCFConstants.MQCA_Q_DESC:
+                return 1;
+            case PCFConstants.MQCA_BASE_Q_NAME:
+                return 2;
+            case PCFConstants.MQCA_REMOTE_Q_NAME:
+                return 3;
+            case PCFConstants.MQCA_REMOTE_Q_MGR_NAME:
+                return 4;
+            case PCFConstants.MQCA_CLUSTER_NAME:
+                return 5;
+            case PCFConstants.MQIA_Q_TYPE:
+                return 6;
+            case PCFConstants.MQIA_CURRENT_Q_DEPTH:
+                return 7;
+            case PCFConstants.MQIA_MAX_Q_DEPTH:
+                return 8;
+            case PCFConstants.MQIA_MAX_MSG_LENGTH:
+                return 9;
+            case PCFConstants.MQIA_OPEN_INPUT_COUNT:
+                return 10;
+            case PCFConstants.MQIA_OPEN_OUTPUT_COUNT:
+                return 11;
+            default:
+                return -1;
+        }
+    }
+
+    private void setStringAttribute(PCFCursor reply) {
+        int bit = attributeBit(reply.getParameter());
+        if (bit < 0) {
+            return;
+        }
+        attributes |= 1 << bit;
+        switch (reply.getParameter()) {
+            case PCFConstants.MQCA_Q_NAME:
+                name = reply.getString();
+                break;
+            case PCFConstants.MQCA_Q_DESC:
+                description = reply.getString();
+                break;
+            case PCFConstants.MQCA_BASE_Q_NAME:
+                baseQName = reply.getString();
+                break;
+            case PCFConstants.MQCA_REMOTE_Q_NAME:
+                remoteQName = reply.getString();
+                break;
+            case PCFConstants.MQCA_REMOTE_Q_MGR_NAME:
+                remoteQMgrName = reply.getString();
+                break;
+            case PCFConstants.MQCA_CLUSTER_NAME:
+                clusterName = reply.getString();
+                break;
+        }
+    }
+
+    private void setIntAttribute(int parameter, int value) {
+        int bit = attributeBit(parameter);
+        if (bit < 0) {
+            return;
+        }
+        attributes |= 1 << bit;
+        switch (parameter) {
+            case PCFConstants.MQIA_Q_TYPE:
+                type = value;
+                break;
+            case PCFConstants.MQIA_CURRENT_Q_DEPTH:
+                currentDepth = value;
+                break;
+            case PCFConstants.MQIA_MAX_Q_DEPTH:
+                maxDepth = value;
+                break;
+            case PCFConstants.MQIA_MAX_MSG_LENGTH:
+                maxMsgLength = value;
+                break;
+            case PCFConstants.MQIA_OPEN_INPUT_COUNT:
+                openInputCount = value;
+                break;
+            case PCFConstants.MQIA_OPEN_OUTPUT_COUNT:
+                openOutputCount = value;
+                break;
+        }
+    }
+
     // Getters and setters
     public String getName() {
         return name;
@@ -133,7 +262,7 @@ public class QueueInfo {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("%-48s %-8s", name, getTypeName()));
 
-        if (currentDepth >= 0) {
+        if (attributes == 0 ? currentDepth >= 0 : hasAttribute(PCFConstants.MQIA_CURRENT_Q_DEPTH)) {
             sb.append(String.format(" Depth: %d/%d", currentDepth, maxDepth));
         }
 
@@ -0,0 +1,275 @@
+package com.aquila.mq.jna.lib;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * QueueStatus - Status of an MQ queue, from an INQUIRE_Q_STATUS reply (MQIACF_Q_STATUS)
+ * <p>
+ * The time and age attributes are only measured when queue monitoring is on (MONQ); otherwise
+ * the queue manager returns MQMON_NOT_AVAILABLE (-1) for them and blank dates and times.
+ */
+@Slf4j
+public class QueueStatus {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-ddHH.mm.ss");
+
+    private String name;
+    private int currentDepth;
+    private int openInputCount;
+    private int openOutputCount;
+    private int uncommittedMsgs;
+    private int oldestMsgAge = PCFConstants.MQMON_NOT_AVAILABLE;
+    private int shortTermOnQTime = PCFConstants.MQMON_NOT_AVAILABLE;
+    private int longTermOnQTime = PCFConstants.MQMON_NOT_AVAILABLE;
+    private String lastPutDate;
+    private String lastPutTime;
+    private String lastGetDate;
+    private String lastGetTime;
+
+    public QueueStatus() {
+    }
+
+    public QueueStatus(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Read a queue status from an INQUIRE_Q_STATUS reply
+     *
+     * @return the status, null if the reply carries no queue name
+     */
+    public static QueueStatus parse(PCFCursor reply) {
+        QueueStatus status = new QueueStatus();
+        try {
+            while (reply.next()) {
+                switch (reply.getParameterType()) {
+                    case PCFConstants.MQCFT_STRING:
+                        status.setStringAttribute(reply);
+                        break;
+                    case PCFConstants.MQCFT_INTEGER:
+                        status.setIntAttribute(reply.getParameter(), reply.getInt());
+                        break;
+                    case PCFConstants.MQCFT_INTEGER_LIST:
+                        if (reply.getParameter() == PCFConstants.MQIACF_Q_TIME_INDICATOR && reply.getCount() == 2) {
+                            status.shortTermOnQTime = reply.getInt(0);
+                            status.longTermOnQTime = reply.getInt(1);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (IllegalStateException e) {
+            log.warn("{}, stopping parse", e.getMessage());
+        }
+        return status.getName() != null ? status : null;
+    }
+
+    private void setStringAttribute(PCFCursor reply) {
+        switch (reply.getParameter()) {
+            case PCFConstants.MQCA_Q_NAME:
+                name = reply.getString();
+                break;
+            case PCFConstants.MQCACF_LAST_PUT_DATE:
+                lastPutDate = reply.getString();
+                break;
+            case PCFConstants.MQCACF_LAST_PUT_TIME:
+                lastPutTime = reply.getString();
+                break;
+            case PCFConstants.MQCACF_LAST_GET_DATE:
+                lastGetDate = reply.getString();
+                break;
+            case PCFConstants.MQCACF_LAST_GET_TIME:
+                lastGetTime = reply.getString();
+                break;
+        }
+    }
+
+    private void setIntAttribute(int parameter, int value) {
+        switch (parameter) {
+            case PCFConstants.MQIA_CURRENT_Q_DEPTH:
+                currentDepth = value;
+                break;
+            case PCFConstants.MQIA_OPEN_INPUT_COUNT:
+                openInputCount = value;
+                break;
+            case PCFConstants.MQIA_OPEN_OUTPUT_COUNT:
+                openOutputCount = value;
+                break;
+            case PCFConstants.MQIACF_UNCOMMITTED_MSGS:
+                uncommittedMsgs = value;
+                break;
+            case PCFConstants.MQIACF_OLDEST_MSG_AGE:
+                oldestMsgAge = value;
+                break;
+        }
+    }
+
+    /**
+     * @return the date and time of a "yyyy-MM-dd" date and "HH.mm.ss" time, null when blank
+     */
+    static LocalDateTime dateTime(String date, String time) {
+        if (date == null || date.isEmpty() || time == null || time.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(date + time, DATE_TIME);
+        } catch (DateTimeParseException e) {
+            log.debug("Invalid date and time {} {}", date, time);
+            return null;
+        }
+    }
+
+    // Getters and setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCurrentDepth() {
+        return currentDepth;
+    }
+
+    public void setCurrentDepth(int currentDepth) {
+        this.currentDepth = currentDepth;
+    }
+
+    public int getOpenInputCount() {
+        return openInputCount;
+    }
+
+    public void setOpenInputCount(int openInputCount) {
+        this.openInputCount = openInputCount;
+    }
+
+    public int getOpenOutputCount() {
+        return openOutputCount;
+    }
+
+    public void setOpenOutputCount(int openOutputCount) {
+        this.openOutputCount = openOutputCount;
+    }
+
+    /**
+     * @return the number of messages put or got under a unit of work not committed yet
+     */
+    public int getUncommittedMsgs() {
+        return uncommittedMsgs;
+    }
+
+    public void setUncommittedMsgs(int uncommittedMsgs) {
+        this.uncommittedMsgs = uncommittedMsgs;
+    }
+
+    /**
+     * @return the age in seconds of the oldest message on the queue, -1 if not monitored
+     */
+    public int getOldestMsgAge() {
+        return oldestMsgAge;
+    }
+
+    public void setOldestMsgAge(int oldestMsgAge) {
+        this.oldestMsgAge = oldestMsgAge;
+    }
+
+    /**
+     * @return the time in microseconds the last few messages stayed on the queue, -1 if not
+     * monitored
+     */
+    public int getShortTermOnQTime() {
+        return shortTermOnQTime;
+    }
+
+    public void setShortTermOnQTime(int shortTermOnQTime) {
+        this.shortTermOnQTime = shortTermOnQTime;
+    }
+
+    /**
+     * @return the time in microseconds messages stayed on the queue over a longer period, -1 if
+     * not monitored
+     */
+    public int getLongTermOnQTime() {
+        return longTermOnQTime;
+    }
+
+    public void setLongTermOnQTime(int longTermOnQTime) {
+        this.longTermOnQTime = longTermOnQTime;
+    }
+
+    public String getLastPutDate() {
+        return lastPutDate;
+    }
+
+    public void setLastPutDate(String lastPutDate) {
+        this.lastPutDate = lastPutDate;
+    }
+
+    public String getLastPutTime() {
+        return lastPutTime;
+    }
+
+    public void setLastPutTime(String lastPutTime) {
+        this.lastPutTime = lastPutTime;
+    }
+
+    public String getLastGetDate() {
+        return lastGetDate;
+    }
+
+    public void setLastGetDate(String lastGetDate) {
+        this.lastGetDate = lastGetDate;
+    }
+
+    public String getLastGetTime() {
+        return lastGetTime;
+    }
+
+    public void setLastGetTime(String lastGetTime) {
+        this.lastGetTime = lastGetTime;
+    }
+
+    /**
+     * @return the time of the last put, in the time zone of the queue manager; null if none or not
+     * monitored
+     */
+    public LocalDateTime getLastPut() {
+        return dateTime(lastPutDate, lastPutTime);
+    }
+
+    /**
+     * @return the time of the last get, in the time zone of the queue manager; null if none or not
+     * monitored
+     */
+    public LocalDateTime getLastGet() {
+        return dateTime(lastGetDate, lastGetTime);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-48s Depth: %d In: %d Out: %d", name, currentDepth, openInputCount,
+                openOutputCount));
+
+        if (uncommittedMsgs > 0) {
+            sb.append(" Uncommitted: ").append(uncommittedMsgs);
+        }
+
+        if (oldestMsgAge >= 0) {
+            sb.append(" Oldest: ").append(oldestMsgAge).append("s");
+        }
+
+        LocalDateTime lastGet = getLastGet();
+        if (lastGet != null) {
+            sb.append(" Last get: ").append(lastGet);
+        }
+
+        return sb.toString();
+    }
+}
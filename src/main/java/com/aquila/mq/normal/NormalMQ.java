@@ -46,6 +46,8 @@ public class NormalMQ {
             MQMessage rcvMessage = new MQMessage();
             qag.get(rcvMessage, gmo);
         }
+        // The gets were done under syncpoint
+        mqQueueManager.commit();
         long endGet = System.currentTimeMillis();
         log.info("closing queue");
         long endClose = System.currentTimeMillis();
@@ -0,0 +1,617 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+
+import java.io.File;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * IBMMQPanama - Foreign Function &amp; Memory binding of the IBM MQ verbs
+ * <p>
+ * Each verb is a {@link Linker} downcall handle. The byte[] structures and the output
+ * parameters are staged in per-thread native scratch segments sized from {@link MQLayouts},
+ * so a call copies its arguments once in and once out and allocates no native memory.
+ * Parameters are documented on {@link IBMMQJNA}.
+ */
+class IBMMQPanama implements IBMMQJNA {
+
+    private static final Linker LINKER = Linker.nativeLinker();
+    private static final SymbolLookup MQM = lookup();
+
+    private static final MethodHandle MQCONN = downcall("MQCONN",
+            FunctionDescriptor.ofVoid(ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQCONNX = downcall("MQCONNX",
+            FunctionDescriptor.ofVoid(ADDRESS, ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQDISC = downcall("MQDISC",
+            FunctionDescriptor.ofVoid(ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQOPEN = downcall("MQOPEN",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQCLOSE = downcall("MQCLOSE",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle MQPUT = downcall("MQPUT",
+            FunctionDescriptor.ofVoid(JAVA_INT, JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQPUT1 = downcall("MQPUT1",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, ADDRESS, ADDRESS, JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQBEGIN = downcall("MQBEGIN",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQCMIT = downcall("MQCMIT",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle MQBACK = downcall("MQBACK",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle MQSTAT = downcall("MQSTAT",
+            FunctionDescriptor.ofVoid(JAVA_INT, JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQINQ = downcall("MQINQ",
+            FunctionDescriptor.ofVoid(JAVA_INT, JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, JAVA_INT, ADDRESS,
+                    ADDRESS, ADDRESS));
+    private static final MethodHandle MQSET = downcall("MQSET",
+            FunctionDescriptor.ofVoid(JAVA_INT, JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, JAVA_INT, ADDRESS,
+                    ADDRESS, ADDRESS));
+    private static final MethodHandle MQCRTMH = downcall("MQCRTMH",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQDLTMH = downcall("MQDLTMH",
+            FunctionDescriptor.ofVoid(JAVA_INT, ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQSETMP = downcall("MQSETMP",
+            FunctionDescriptor.ofVoid(JAVA_INT, JAVA_LONG, ADDRESS, ADDRESS, ADDRESS, JAVA_INT, JAVA_INT, ADDRESS,
+                    ADDRESS, ADDRESS));
+    private static final MethodHandle MQINQMP = downcall("MQINQMP",
+            FunctionDescriptor.ofVoid(JAVA_INT, JAVA_LONG, ADDRESS, ADDRESS, ADDRESS, ADDRESS, JAVA_INT, ADDRESS,
+                    ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle MQGET = downcall("MQGET",
+            FunctionDescriptor.ofVoid(JAVA_INT, JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS, ADDRESS, ADDRESS,
+                    ADDRESS));
+
+    /**
+     * Callback verbs take a JNA {@link com.sun.jna.Callback} (MQCBD), which FFM cannot pass:
+     * they go through the direct-mapped binding on the same library
+     */
+    private static final class CallbackVerbs {
+        static final IBMMQJNA DIRECT = new IBMMQJNADirect();
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Find libmqm in jna.library.path first (as JNA does), then in the system library path
+     */
+    private static SymbolLookup lookup() {
+        String fileName = System.mapLibraryName(MQBinding.LIBRARY_NAME);
+        String libraryPath = System.getProperty("jna.library.path");
+        if (libraryPath != null) {
+            for (String dir : libraryPath.split(File.pathSeparator)) {
+                Path candidate = Path.of(dir, fileName);
+                if (Files.exists(candidate)) {
+                    return SymbolLookup.libraryLookup(candidate, Arena.global());
+                }
+            }
+        }
+        return SymbolLookup.libraryLookup(fileName, Arena.global());
+    }
+
+    private static MethodHandle downcall(String verb, FunctionDescriptor descriptor) {
+        MemorySegment symbol = MQM.find(verb)
+                .orElseThrow(() -> new UnsatisfiedLinkError("Symbol " + verb + " not found in " + MQBinding.LIBRARY_NAME));
+        return LINKER.downcallHandle(symbol, descriptor);
+    }
+
+    /**
+     * Per-thread native staging area for structures, buffers and output parameters
+     */
+    private static final class Scratch {
+        final Arena arena = Arena.ofAuto();
+        // hconn/hobj, compCode, reason, dataLength
+        final MemorySegment slots = arena.allocate(16, 8);
+        final MemorySegment handle = slots.asSlice(0, 4);
+        final MemorySegment compCode = slots.asSlice(4, 4);
+        final MemorySegment reason = slots.asSlice(8, 4);
+        final MemorySegment dataLength = slots.asSlice(12, 4);
+        // message handle (MQHMSG is 64-bit) and property type
+        final MemorySegment hmsg = arena.allocate(8, 8);
+        final MemorySegment type = arena.allocate(4, 4);
+        MemorySegment name = arena.allocate(IBMMQJNA.MQ_Q_MGR_NAME_LENGTH + 1L);
+        MemorySegment objDesc = arena.allocate(MQLayouts.MQOD);
+        MemorySegment msgDesc = arena.allocate(MQLayouts.MQMD);
+        MemorySegment msgOpts = arena.allocate(Math.max(MQLayouts.MQPMO.byteSize(), MQLayouts.MQGMO.byteSize()), 8);
+        MemorySegment buffer = arena.allocate(4096, 8);
+        MemorySegment ints = arena.allocate(256, 8);
+
+        MemorySegment ensure(MemorySegment segment, long size) {
+            return segment.byteSize() >= size ? segment : arena.allocate(size, 8);
+        }
+
+        MemorySegment name(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            name = ensure(name, bytes.length + 1L);
+            MemorySegment.copy(bytes, 0, name, JAVA_BYTE, 0, bytes.length);
+            name.set(JAVA_BYTE, bytes.length, (byte) 0);
+            return name;
+        }
+
+        MemorySegment objDesc(byte[] value) {
+            objDesc = ensure(objDesc, value.length);
+            return copyIn(value, objDesc);
+        }
+
+        MemorySegment msgDesc(byte[] value) {
+            msgDesc = ensure(msgDesc, value.length);
+            return copyIn(value, msgDesc);
+        }
+
+        MemorySegment msgOpts(byte[] value) {
+            msgOpts = ensure(msgOpts, value.length);
+            return copyIn(value, msgOpts);
+        }
+
+        /**
+         * Selectors followed by the integer attributes
+         */
+        MemorySegment ints(int[] selectors, int selectorCount, int[] intAttrs, int intAttrCount, boolean copyAttrs) {
+            ints = ensure(ints, 4L * (selectorCount + intAttrCount));
+            MemorySegment.copy(selectors, 0, ints, JAVA_INT, 0, selectorCount);
+            if (copyAttrs && intAttrCount > 0) {
+                MemorySegment.copy(intAttrs, 0, ints, JAVA_INT, 4L * selectorCount, intAttrCount);
+            }
+            return ints;
+        }
+
+        MemorySegment buffer(byte[] value, int length, boolean copyIn) {
+            buffer = ensure(buffer, length);
+            if (copyIn && length > 0) {
+                MemorySegment.copy(value, 0, buffer, JAVA_BYTE, 0, length);
+            }
+            return buffer;
+        }
+    }
+
+    private static MemorySegment copyIn(byte[] value, MemorySegment segment) {
+        MemorySegment.copy(value, 0, segment, JAVA_BYTE, 0, value.length);
+        return segment;
+    }
+
+    private static void copyOut(MemorySegment segment, byte[] value, int length) {
+        MemorySegment.copy(segment, JAVA_BYTE, 0, value, 0, length);
+    }
+
+    private static void results(Scratch scratch, IntByReference pCompCode, IntByReference pReason) {
+        pCompCode.setValue(scratch.compCode.get(JAVA_INT, 0));
+        pReason.setValue(scratch.reason.get(JAVA_INT, 0));
+    }
+
+    /**
+     * View JNA native memory as a segment (no copy)
+     */
+    private static MemorySegment segment(Pointer pointer, long size) {
+        if (pointer == null) {
+            return MemorySegment.NULL;
+        }
+        return MemorySegment.ofAddress(Pointer.nativeValue(pointer)).reinterpret(size);
+    }
+
+    /**
+     * View a property value as a segment. A negative length (MQVL_NULL_TERMINATED) is not a size:
+     * the segment then covers the JNA memory behind the pointer, or nothing when that size is
+     * unknown, as only the address reaches MQ.
+     */
+    private static MemorySegment valueSegment(Pointer pValue, int valueLength) {
+        if (valueLength >= 0) {
+            return segment(pValue, valueLength);
+        }
+        return segment(pValue, pValue instanceof Memory memory ? memory.size() : 0);
+    }
+
+    /**
+     * View a direct buffer as a segment, from its position to its limit (no copy)
+     */
+    private static MemorySegment segment(ByteBuffer buffer) {
+        if (buffer == null) {
+            return MemorySegment.NULL;
+        }
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("A direct ByteBuffer is required");
+        }
+        return MemorySegment.ofBuffer(buffer);
+    }
+
+    private static IllegalStateException failure(String verb, Throwable t) {
+        return new IllegalStateException(verb + " downcall failed", t);
+    }
+
+    @Override
+    public void MQCONN(byte[] pQMgrName, IntByReference pHconn, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment name = scratch.ensure(scratch.name, pQMgrName.length);
+        scratch.name = name;
+        copyIn(pQMgrName, name);
+        try {
+            MQCONN.invokeExact(name, scratch.handle, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQCONN", t);
+        }
+        pHconn.setValue(scratch.handle.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQCONNX(String pQMgrName, MQCNO pConnectOpts, IntByReference pHconn, IntByReference pCompCode,
+                        IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        // MQCNO and the MQCD/MQCSP it points to already live in JNA native memory
+        pConnectOpts.write();
+        MemorySegment connectOpts = MemorySegment.ofAddress(Pointer.nativeValue(pConnectOpts.getPointer()))
+                .reinterpret(pConnectOpts.size());
+        try {
+            MQCONNX.invokeExact(scratch.name(pQMgrName), connectOpts, scratch.handle, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQCONNX", t);
+        }
+        pConnectOpts.read();
+        pHconn.setValue(scratch.handle.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQCONNX(Pointer pQMgrName, Pointer pConnectOpts, IntByReference pHconn, IntByReference pCompCode,
+                        IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            MQCONNX.invokeExact(segment(pQMgrName, IBMMQJNA.MQ_Q_MGR_NAME_LENGTH),
+                    segment(pConnectOpts, MQConnectionDescriptors.MQCNO_LENGTH), scratch.handle, scratch.compCode,
+                    scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQCONNX", t);
+        }
+        pHconn.setValue(scratch.handle.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQDISC(IntByReference pHconn, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        scratch.handle.set(JAVA_INT, 0, pHconn.getValue());
+        try {
+            MQDISC.invokeExact(scratch.handle, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQDISC", t);
+        }
+        pHconn.setValue(scratch.handle.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQOPEN(int Hconn, byte[] pObjDesc, int Options, IntByReference pHobj, IntByReference pCompCode,
+                       IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment objDesc = scratch.objDesc(pObjDesc);
+        try {
+            MQOPEN.invokeExact(Hconn, objDesc, Options, scratch.handle, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQOPEN", t);
+        }
+        // MQOD is input/output (resolved and dynamic queue names)
+        copyOut(objDesc, pObjDesc, pObjDesc.length);
+        pHobj.setValue(scratch.handle.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQOPEN(int Hconn, ByteBuffer pObjDesc, int Options, IntByReference pHobj, IntByReference pCompCode,
+                       IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            MQOPEN.invokeExact(Hconn, segment(pObjDesc), Options, scratch.handle, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQOPEN", t);
+        }
+        pHobj.setValue(scratch.handle.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQCLOSE(int Hconn, IntByReference pHobj, int Options, IntByReference pCompCode,
+                        IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        scratch.handle.set(JAVA_INT, 0, pHobj.getValue());
+        try {
+            MQCLOSE.invokeExact(Hconn, scratch.handle, Options, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQCLOSE", t);
+        }
+        pHobj.setValue(scratch.handle.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQPUT(int Hconn, int Hobj, byte[] pMsgDesc, byte[] pPutMsgOpts, int BufferLength, byte[] pBuffer,
+                      IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment msgDesc = scratch.msgDesc(pMsgDesc);
+        MemorySegment putMsgOpts = scratch.msgOpts(pPutMsgOpts);
+        MemorySegment buffer = scratch.buffer(pBuffer, BufferLength, true);
+        try {
+            MQPUT.invokeExact(Hconn, Hobj, msgDesc, putMsgOpts, BufferLength, buffer, scratch.compCode,
+                    scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQPUT", t);
+        }
+        // MQMD and MQPMO are input/output (MsgId, resolved names)
+        copyOut(msgDesc, pMsgDesc, pMsgDesc.length);
+        copyOut(putMsgOpts, pPutMsgOpts, pPutMsgOpts.length);
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQGET(int Hconn, int Hobj, byte[] pMsgDesc, byte[] pGetMsgOpts, int BufferLength, byte[] pBuffer,
+                      IntByReference pDataLength, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment msgDesc = scratch.msgDesc(pMsgDesc);
+        MemorySegment getMsgOpts = scratch.msgOpts(pGetMsgOpts);
+        MemorySegment buffer = scratch.buffer(pBuffer, BufferLength, false);
+        try {
+            MQGET.invokeExact(Hconn, Hobj, msgDesc, getMsgOpts, BufferLength, buffer, scratch.dataLength,
+                    scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQGET", t);
+        }
+        int dataLength = scratch.dataLength.get(JAVA_INT, 0);
+        copyOut(msgDesc, pMsgDesc, pMsgDesc.length);
+        copyOut(getMsgOpts, pGetMsgOpts, pGetMsgOpts.length);
+        copyOut(buffer, pBuffer, Math.max(0, Math.min(dataLength, BufferLength)));
+        pDataLength.setValue(dataLength);
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQPUT1(int Hconn, byte[] pObjDesc, byte[] pMsgDesc, byte[] pPutMsgOpts, int BufferLength,
+                       byte[] pBuffer, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment objDesc = scratch.objDesc(pObjDesc);
+        MemorySegment msgDesc = scratch.msgDesc(pMsgDesc);
+        MemorySegment putMsgOpts = scratch.msgOpts(pPutMsgOpts);
+        MemorySegment buffer = scratch.buffer(pBuffer, BufferLength, true);
+        try {
+            MQPUT1.invokeExact(Hconn, objDesc, msgDesc, putMsgOpts, BufferLength, buffer, scratch.compCode,
+                    scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQPUT1", t);
+        }
+        copyOut(objDesc, pObjDesc, pObjDesc.length);
+        copyOut(msgDesc, pMsgDesc, pMsgDesc.length);
+        copyOut(putMsgOpts, pPutMsgOpts, pPutMsgOpts.length);
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQCB(int Hconn, int Operation, MQCBD pCallbackDesc, int Hobj, byte[] pMsgDesc, byte[] pGetMsgOpts,
+                     IntByReference pCompCode, IntByReference pReason) {
+        CallbackVerbs.DIRECT.MQCB(Hconn, Operation, pCallbackDesc, Hobj, pMsgDesc, pGetMsgOpts, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQCTL(int Hconn, int Operation, MQCTLO pControlOpts, IntByReference pCompCode,
+                      IntByReference pReason) {
+        CallbackVerbs.DIRECT.MQCTL(Hconn, Operation, pControlOpts, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQBEGIN(int Hconn, byte[] pBeginOptions, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        // MQBO is 12 bytes: staged in the message options segment
+        MemorySegment beginOptions = scratch.msgOpts(pBeginOptions);
+        try {
+            MQBEGIN.invokeExact(Hconn, beginOptions, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQBEGIN", t);
+        }
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQCMIT(int Hconn, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            MQCMIT.invokeExact(Hconn, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQCMIT", t);
+        }
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQBACK(int Hconn, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            MQBACK.invokeExact(Hconn, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQBACK", t);
+        }
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQSTAT(int Hconn, int Type, MQSTS pStatus, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        pStatus.write();
+        MemorySegment status = segment(pStatus.getPointer(), pStatus.size());
+        try {
+            MQSTAT.invokeExact(Hconn, Type, status, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQSTAT", t);
+        }
+        pStatus.read();
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQINQ(int Hconn, int Hobj, int SelectorCount, int[] pSelectors, int IntAttrCount, int[] pIntAttrs,
+                      int CharAttrLength, byte[] pCharAttrs, IntByReference pCompCode, IntByReference pReason) {
+        attributes(MQINQ, "MQINQ", false, Hconn, Hobj, SelectorCount, pSelectors, IntAttrCount, pIntAttrs,
+                CharAttrLength, pCharAttrs, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQSET(int Hconn, int Hobj, int SelectorCount, int[] pSelectors, int IntAttrCount, int[] pIntAttrs,
+                      int CharAttrLength, byte[] pCharAttrs, IntByReference pCompCode, IntByReference pReason) {
+        attributes(MQSET, "MQSET", true, Hconn, Hobj, SelectorCount, pSelectors, IntAttrCount, pIntAttrs,
+                CharAttrLength, pCharAttrs, pCompCode, pReason);
+    }
+
+    /**
+     * MQINQ and MQSET share their signature: only the direction of the attributes differs
+     */
+    private void attributes(MethodHandle verb, String name, boolean input, int hConn, int hObj, int selectorCount,
+                            int[] selectors, int intAttrCount, int[] intAttrs, int charAttrLength, byte[] charAttrs,
+                            IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment ints = scratch.ints(selectors, selectorCount, intAttrs, intAttrCount, input);
+        MemorySegment selectorSegment = ints.asSlice(0, 4L * selectorCount);
+        MemorySegment intAttrSegment = ints.asSlice(4L * selectorCount, 4L * intAttrCount);
+        MemorySegment charAttrSegment = charAttrLength > 0
+                ? scratch.buffer(charAttrs, charAttrLength, input) : MemorySegment.NULL;
+        try {
+            verb.invokeExact(hConn, hObj, selectorCount, selectorSegment, intAttrCount, intAttrSegment,
+                    charAttrLength, charAttrSegment, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure(name, t);
+        }
+        if (!input) {
+            if (intAttrCount > 0) {
+                MemorySegment.copy(intAttrSegment, JAVA_INT, 0, intAttrs, 0, intAttrCount);
+            }
+            if (charAttrLength > 0) {
+                copyOut(charAttrSegment, charAttrs, charAttrLength);
+            }
+        }
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQCRTMH(int Hconn, byte[] pCrtMsgHOpts, LongByReference pHmsg, IntByReference pCompCode,
+                        IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment options = scratch.msgOpts(pCrtMsgHOpts);
+        try {
+            MQCRTMH.invokeExact(Hconn, options, scratch.hmsg, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQCRTMH", t);
+        }
+        pHmsg.setValue(scratch.hmsg.get(JAVA_LONG, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQDLTMH(int Hconn, LongByReference pHmsg, byte[] pDltMsgHOpts, IntByReference pCompCode,
+                        IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        MemorySegment options = scratch.msgOpts(pDltMsgHOpts);
+        scratch.hmsg.set(JAVA_LONG, 0, pHmsg.getValue());
+        try {
+            MQDLTMH.invokeExact(Hconn, scratch.hmsg, options, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQDLTMH", t);
+        }
+        pHmsg.setValue(scratch.hmsg.get(JAVA_LONG, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQSETMP(int Hconn, long Hmsg, Pointer pSetPropOpts, Pointer pName, Pointer pPropDesc, int Type,
+                        int ValueLength, Pointer pValue, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            MQSETMP.invokeExact(Hconn, Hmsg, segment(pSetPropOpts, MQMessageProperties.MQSMPO_LENGTH),
+                    segment(pName, MQPropertyName.MQCHARV_LENGTH), segment(pPropDesc, MQMessageProperties.MQPD_LENGTH),
+                    Type, ValueLength, valueSegment(pValue, ValueLength), scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQSETMP", t);
+        }
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQINQMP(int Hconn, long Hmsg, Pointer pInqPropOpts, Pointer pName, Pointer pPropDesc,
+                        IntByReference pType, int ValueLength, Pointer pValue, IntByReference pDataLength,
+                        IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        scratch.type.set(JAVA_INT, 0, pType.getValue());
+        try {
+            MQINQMP.invokeExact(Hconn, Hmsg, segment(pInqPropOpts, MQMessageProperties.MQIMPO_LENGTH),
+                    segment(pName, MQPropertyName.MQCHARV_LENGTH), segment(pPropDesc, MQMessageProperties.MQPD_LENGTH),
+                    scratch.type, ValueLength, valueSegment(pValue, ValueLength), scratch.dataLength, scratch.compCode,
+                    scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQINQMP", t);
+        }
+        pType.setValue(scratch.type.get(JAVA_INT, 0));
+        pDataLength.setValue(scratch.dataLength.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQPUT(int Hconn, int Hobj, Pointer pMsgDesc, Pointer pPutMsgOpts, int BufferLength, Pointer pBuffer,
+                      IntByReference pCompCode, IntByReference pReason) {
+        put(Hconn, Hobj, segment(pMsgDesc, MQLayouts.MQMD.byteSize()), segment(pPutMsgOpts, MQLayouts.MQPMO.byteSize()),
+                BufferLength, segment(pBuffer, BufferLength), pCompCode, pReason);
+    }
+
+    @Override
+    public void MQPUT(int Hconn, int Hobj, ByteBuffer pMsgDesc, ByteBuffer pPutMsgOpts, int BufferLength,
+                      ByteBuffer pBuffer, IntByReference pCompCode, IntByReference pReason) {
+        put(Hconn, Hobj, segment(pMsgDesc), segment(pPutMsgOpts), BufferLength, segment(pBuffer), pCompCode, pReason);
+    }
+
+    @Override
+    public void MQGET(int Hconn, int Hobj, Pointer pMsgDesc, Pointer pGetMsgOpts, int BufferLength, Pointer pBuffer,
+                      IntByReference pDataLength, IntByReference pCompCode, IntByReference pReason) {
+        get(Hconn, Hobj, segment(pMsgDesc, MQLayouts.MQMD.byteSize()), segment(pGetMsgOpts, MQLayouts.MQGMO.byteSize()),
+                BufferLength, segment(pBuffer, BufferLength), pDataLength, pCompCode, pReason);
+    }
+
+    @Override
+    public void MQGET(int Hconn, int Hobj, ByteBuffer pMsgDesc, ByteBuffer pGetMsgOpts, int BufferLength,
+                      ByteBuffer pBuffer, IntByReference pDataLength, IntByReference pCompCode,
+                      IntByReference pReason) {
+        get(Hconn, Hobj, segment(pMsgDesc), segment(pGetMsgOpts), BufferLength, segment(pBuffer), pDataLength,
+                pCompCode, pReason);
+    }
+
+    private void put(int hConn, int hObj, MemorySegment msgDesc, MemorySegment putMsgOpts, int bufferLength,
+                     MemorySegment buffer, IntByReference pCompCode, IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            MQPUT.invokeExact(hConn, hObj, msgDesc, putMsgOpts, bufferLength, buffer, scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQPUT", t);
+        }
+        results(scratch, pCompCode, pReason);
+    }
+
+    private void get(int hConn, int hObj, MemorySegment msgDesc, MemorySegment getMsgOpts, int bufferLength,
+                     MemorySegment buffer, IntByReference pDataLength, IntByReference pCompCode,
+                     IntByReference pReason) {
+        Scratch scratch = SCRATCH.get();
+        try {
+            MQGET.invokeExact(hConn, hObj, msgDesc, getMsgOpts, bufferLength, buffer, scratch.dataLength,
+                    scratch.compCode, scratch.reason);
+        } catch (Throwable t) {
+            throw failure("MQGET", t);
+        }
+        pDataLength.setValue(scratch.dataLength.get(JAVA_INT, 0));
+        results(scratch, pCompCode, pReason);
+    }
+}
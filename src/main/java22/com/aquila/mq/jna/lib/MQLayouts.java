@@ -0,0 +1,158 @@
+package com.aquila.mq.jna.lib;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.StructLayout;
+
+import static java.lang.foreign.MemoryLayout.paddingLayout;
+import static java.lang.foreign.MemoryLayout.sequenceLayout;
+import static java.lang.foreign.MemoryLayout.structLayout;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * MQLayouts - MQ structures laid out as Foreign Function &amp; Memory layouts
+ * Based on cmqc.h (64-bit, native byte order, current structure versions)
+ */
+final class MQLayouts {
+
+    private MQLayouts() {
+    }
+
+    private static MemoryLayout chars(String name, int length) {
+        return sequenceLayout(length, JAVA_BYTE).withName(name);
+    }
+
+    /**
+     * MQCHARV - Variable-length string (24 bytes)
+     */
+    static final StructLayout MQCHARV = structLayout(
+            ADDRESS.withName("VSPtr"),
+            JAVA_INT.withName("VSOffset"),
+            JAVA_INT.withName("VSBufSize"),
+            JAVA_INT.withName("VSLength"),
+            JAVA_INT.withName("VSCCSID")
+    ).withName("MQCHARV");
+
+    /**
+     * MQMD - Message Descriptor, Version 2 (364 bytes, Version 1 ends at 324)
+     */
+    static final StructLayout MQMD = structLayout(
+            chars("StrucId", 4),
+            JAVA_INT.withName("Version"),
+            JAVA_INT.withName("Report"),
+            JAVA_INT.withName("MsgType"),
+            JAVA_INT.withName("Expiry"),
+            JAVA_INT.withName("Feedback"),
+            JAVA_INT.withName("Encoding"),
+            JAVA_INT.withName("CodedCharSetId"),
+            chars("Format", 8),
+            JAVA_INT.withName("Priority"),
+            JAVA_INT.withName("Persistence"),
+            chars("MsgId", 24),
+            chars("CorrelId", 24),
+            JAVA_INT.withName("BackoutCount"),
+            chars("ReplyToQ", 48),
+            chars("ReplyToQMgr", 48),
+            chars("UserIdentifier", 12),
+            chars("AccountingToken", 32),
+            chars("ApplIdentityData", 32),
+            JAVA_INT.withName("PutApplType"),
+            chars("PutApplName", 28),
+            chars("PutDate", 8),
+            chars("PutTime", 8),
+            chars("ApplOriginData", 4),
+            // Version 2
+            chars("GroupId", 24),
+            JAVA_INT.withName("MsgSeqNumber"),
+            JAVA_INT.withName("Offset"),
+            JAVA_INT.withName("MsgFlags"),
+            JAVA_INT.withName("OriginalLength")
+    ).withName("MQMD");
+
+    /**
+     * MQGMO - Get Message Options, Version 4 (112 bytes)
+     */
+    static final StructLayout MQGMO = structLayout(
+            chars("StrucId", 4),
+            JAVA_INT.withName("Version"),
+            JAVA_INT.withName("Options"),
+            JAVA_INT.withName("WaitInterval"),
+            JAVA_INT.withName("Signal1"),
+            JAVA_INT.withName("Signal2"),
+            chars("ResolvedQName", 48),
+            // Version 2
+            JAVA_INT.withName("MatchOptions"),
+            JAVA_BYTE.withName("GroupStatus"),
+            JAVA_BYTE.withName("SegmentStatus"),
+            JAVA_BYTE.withName("Segmentation"),
+            JAVA_BYTE.withName("Reserved1"),
+            // Version 3
+            chars("MsgToken", 16),
+            JAVA_INT.withName("ReturnedLength"),
+            // Version 4
+            JAVA_INT.withName("Reserved2"),
+            JAVA_LONG.withName("MsgHandle")
+    ).withName("MQGMO");
+
+    /**
+     * MQPMO - Put Message Options, Version 3 (184 bytes)
+     */
+    static final StructLayout MQPMO = structLayout(
+            chars("StrucId", 4),
+            JAVA_INT.withName("Version"),
+            JAVA_INT.withName("Options"),
+            JAVA_INT.withName("Timeout"),
+            JAVA_INT.withName("Context"),
+            JAVA_INT.withName("KnownDestCount"),
+            JAVA_INT.withName("UnknownDestCount"),
+            JAVA_INT.withName("InvalidDestCount"),
+            chars("ResolvedQName", 48),
+            chars("ResolvedQMgrName", 48),
+            // Version 2
+            JAVA_INT.withName("RecsPresent"),
+            JAVA_INT.withName("PutMsgRecFields"),
+            JAVA_INT.withName("PutMsgRecOffset"),
+            JAVA_INT.withName("ResponseRecOffset"),
+            ADDRESS.withName("PutMsgRecPtr"),
+            ADDRESS.withName("ResponseRecPtr"),
+            // Version 3
+            JAVA_LONG.withName("OriginalMsgHandle"),
+            JAVA_LONG.withName("NewMsgHandle"),
+            JAVA_INT.withName("Action"),
+            JAVA_INT.withName("PubLevel")
+    ).withName("MQPMO");
+
+    /**
+     * MQOD - Object Descriptor, Version 4 (424 bytes)
+     */
+    static final StructLayout MQOD = structLayout(
+            chars("StrucId", 4),
+            JAVA_INT.withName("Version"),
+            JAVA_INT.withName("ObjectType"),
+            chars("ObjectName", 48),
+            chars("ObjectQMgrName", 48),
+            chars("DynamicQName", 48),
+            chars("AlternateUserId", 12),
+            // Version 2
+            JAVA_INT.withName("RecsPresent"),
+            JAVA_INT.withName("KnownDestCount"),
+            JAVA_INT.withName("UnknownDestCount"),
+            JAVA_INT.withName("InvalidDestCount"),
+            JAVA_INT.withName("ObjectRecOffset"),
+            JAVA_INT.withName("ResponseRecOffset"),
+            ADDRESS.withName("ObjectRecPtr"),
+            ADDRESS.withName("ResponseRecPtr"),
+            // Version 3
+            chars("AlternateSecurityId", 40),
+            chars("ResolvedQName", 48),
+            chars("ResolvedQMgrName", 48),
+            // Version 4
+            MQCHARV.withName("ObjectString"),
+            MQCHARV.withName("SelectionString"),
+            MQCHARV.withName("ResObjectString"),
+            JAVA_INT.withName("ResolvedType"),
+            paddingLayout(4)
+    ).withName("MQOD");
+}
@@ -0,0 +1,19 @@
+package com.aquila.mq.jna.lib;
+
+/**
+ * PanamaBinding - Factory for the Foreign Function &amp; Memory binding of the MQ verbs
+ * <p>
+ * Java 22 version of the class, packaged in {@code META-INF/versions/22} of the multi-release jar.
+ */
+final class PanamaBinding {
+
+    private PanamaBinding() {
+    }
+
+    /**
+     * Create the Panama binding
+     */
+    static IBMMQJNA create() {
+        return new IBMMQPanama();
+    }
+}
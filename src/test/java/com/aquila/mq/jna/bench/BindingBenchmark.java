@@ -0,0 +1,79 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.IBMMQJNA;
+import com.aquila.mq.jna.lib.MQBinding;
+import com.aquila.mq.jna.lib.MQGMO;
+import com.aquila.mq.jna.lib.MQMD;
+import com.aquila.mq.jna.lib.MQPMO;
+import com.sun.jna.ptr.IntByReference;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of the JNA proxy binding against the direct-mapped and the Panama bindings
+ * <p>
+ * Runs against the stub library built with {@code make -C src/main/c stub},
+ * so only the Java-to-native transition and argument marshalling are measured.
+ * <code>
+ * mvn test-compile
+ * java -cp target/test-classes:target/classes:$(deps) com.aquila.mq.jna.bench.BindingBenchmark
+ * </code>
+ * The Panama binding needs Java 22+ and the multi-release jar: put
+ * {@code target/IBMMQNative-1.0-SNAPSHOT.jar} on the classpath instead of {@code target/classes}.
+ * Elsewhere its setup fails, so add {@code -p binding=PROXY,DIRECT}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djna.library.path=target/native")
+public class BindingBenchmark {
+
+    private static final int HCONN = 1;
+    private static final int HOBJ = 1;
+
+    @Param({"PROXY", "DIRECT", "PANAMA"})
+    public MQBinding binding;
+
+    private IBMMQJNA mq;
+    private byte[] md;
+    private byte[] pmo;
+    private byte[] gmo;
+    private byte[] payload;
+    private IntByReference compCode;
+    private IntByReference reason;
+    private IntByReference dataLength;
+
+    @Setup
+    public void setup() {
+        mq = binding.create();
+        md = MQMD.createMinimalMD(null);
+        pmo = MQPMO.createMinimalPMO(MQPMO.MQPMO_NO_SYNCPOINT);
+        gmo = MQGMO.createMinimalGMO(MQGMO.MQGMO_NO_WAIT, 0, MQGMO.MQMO_NONE);
+        payload = new byte[256];
+        compCode = new IntByReference();
+        reason = new IntByReference();
+        dataLength = new IntByReference();
+    }
+
+    @Benchmark
+    public int put() {
+        mq.MQPUT(HCONN, HOBJ, md, pmo, payload.length, payload, compCode, reason);
+        return compCode.getValue();
+    }
+
+    @Benchmark
+    public int get() {
+        mq.MQGET(HCONN, HOBJ, md, gmo, payload.length, payload, dataLength, compCode, reason);
+        return dataLength.getValue();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BindingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.IBMMQJNA;
+import com.aquila.mq.jna.lib.MQBinding;
+import com.aquila.mq.jna.lib.MQCD;
+import com.aquila.mq.jna.lib.MQCNO;
+import com.aquila.mq.jna.lib.MQCSP;
+import com.aquila.mq.jna.lib.MQCallContext;
+import com.aquila.mq.jna.lib.MQCallException;
+import com.aquila.mq.jna.lib.MQConnectionDescriptors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.ibm.mq.constants.CMQXC.MQCHT_CLNTCONN;
+import static com.ibm.mq.constants.CMQXC.MQXPT_TCP;
+
+/**
+ * Cost of one MQCONNX of a client connection
+ * <p>
+ * {@code structuresPerConnect} builds the MQCD, MQCSP and MQCNO structures for every connect, as
+ * the examples do; {@code reusedDescriptors} calls MQCONNX on the block of
+ * {@link MQConnectionDescriptors}. Runs against the stub library ({@code make -C src/main/c stub}),
+ * so the difference is the Java-side work per connect.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djna.library.path=target/native")
+public class ConnectBenchmark {
+
+    private static final String Q_MGR = "QM1";
+    private static final String CHANNEL = "DEV.APP.SVRCONN";
+    private static final String CONNECTION = "mq.example.com(1414)";
+    private static final String USER = "app";
+    private static final String PASSWORD = "passw0rd";
+
+    @Param({"PROXY", "DIRECT"})
+    public MQBinding binding;
+
+    private IBMMQJNA mq;
+    private MQConnectionDescriptors descriptors;
+
+    @Setup
+    public void setup() {
+        mq = binding.create();
+        descriptors = new MQConnectionDescriptors(Q_MGR, CHANNEL, CONNECTION);
+        descriptors.setCredentials(USER, PASSWORD);
+    }
+
+    @Benchmark
+    public int structuresPerConnect() {
+        MQCD mqcd = new MQCD();
+        mqcd.Version = MQCD.MQCD_VERSION_10;
+        mqcd.setChannelName(CHANNEL);
+        mqcd.setConnectionName(CONNECTION);
+        mqcd.ChannelType = MQCHT_CLNTCONN;
+        mqcd.TransportType = MQXPT_TCP;
+        MQCSP mqcsp = new MQCSP();
+        mqcsp.setCredentials(USER, PASSWORD);
+        MQCNO mqcno = new MQCNO();
+        mqcno.setClientConnection(mqcd);
+        mqcno.setSecurityParms(mqcsp);
+
+        MQCallContext ctx = MQCallContext.current();
+        mq.MQCONNX(Q_MGR, mqcno, ctx.hConnRef(), ctx.compCodeRef(), ctx.reasonRef());
+        return ctx.getHConn();
+    }
+
+    @Benchmark
+    public int reusedDescriptors() throws MQCallException {
+        return descriptors.connect(mq);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConnectBenchmark.class.getSimpleName()).build()).run();
+    }
+}
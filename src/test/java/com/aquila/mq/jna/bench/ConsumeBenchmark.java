@@ -0,0 +1,93 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.IBMMQJNA;
+import com.aquila.mq.jna.lib.MQBinding;
+import com.aquila.mq.jna.lib.MQCallContext;
+import com.aquila.mq.jna.lib.MQCallException;
+import com.aquila.mq.jna.lib.MQConsumer;
+import com.aquila.mq.jna.lib.MQMD;
+import com.aquila.mq.jna.lib.MQMessageBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Message consumption: MQCB/MQCTL callbacks against the MQGET polling loop of NormalMQ
+ * <p>
+ * Runs against the stub library ({@code make -C src/main/c stub}), whose MQCTL dispatcher
+ * delivers 256-byte messages as fast as the callback returns. Both paths copy the MQMD and the
+ * payload out of native memory for every message, so the scores compare the delivery mechanism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djna.library.path=target/native")
+public class ConsumeBenchmark {
+
+    private static final int HCONN = 1;
+    private static final int HOBJ = 1;
+    private static final int BATCH = 1000;
+
+    @Param({"DIRECT"})
+    public MQBinding binding;
+
+    private IBMMQJNA mq;
+    private MQMessageBuffer message;
+    private MQConsumer consumer;
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Setup
+    public void setup() throws MQCallException {
+        mq = binding.create();
+        message = new MQMessageBuffer(mq, 256);
+        consumer = new MQConsumer(mq, HCONN, Runnable::run);
+        consumer.subscribe("DEV.QUEUE.1", m -> delivered.incrementAndGet());
+        consumer.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        consumer.close();
+        message.close();
+    }
+
+    /**
+     * One MQGET per message, as the NormalMQ loop does
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void polling(Blackhole blackhole) {
+        MQCallContext ctx = MQCallContext.current();
+        byte[] msgDesc = new byte[MQMD.MQMD_LENGTH_1];
+        for (int i = 0; i < BATCH; i++) {
+            message.get(HCONN, HOBJ, ctx);
+            message.getMsgDescPointer().read(0, msgDesc, 0, msgDesc.length);
+            blackhole.consume(message.toByteArray());
+        }
+    }
+
+    /**
+     * Messages pushed by the MQCTL dispatcher to the registered callback
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long callback() {
+        long target = delivered.get() + BATCH;
+        long count;
+        while ((count = delivered.get()) < target) {
+            Thread.onSpinWait();
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConsumeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.MQDescriptorTemplate;
+import com.aquila.mq.jna.lib.MQDescriptorTemplates;
+import com.aquila.mq.jna.lib.MQMD;
+import com.aquila.mq.jna.lib.MQMDView;
+import com.aquila.mq.jna.lib.MQPMO;
+import com.aquila.mq.jna.lib.MQPMOView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message cost of preparing the MQMD and MQPMO of a reply
+ * <p>
+ * {@code structureToBytes} is what the verbs taking {@code byte[]} need today (reflective
+ * {@code write()} then a copy), {@code structureWrite} stops at the native memory of the
+ * structure, and {@code flyweight} writes the same fields in place through the views.
+ * {@code createMinimal} encodes the byte[] descriptors of a PCF command from scratch, and
+ * {@code template} copies them from {@link MQDescriptorTemplates} into reused arrays.
+ * <p>
+ * On the receiving side, {@code receivedStructure} decodes a received descriptor with
+ * {@code Structure.read()} (as JNA does after MQGET) to check its CorrelId and Format, and
+ * {@code receivedView} does the same checks in place through {@link MQMDView}.
+ * No verb is called.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DescriptorBenchmark {
+
+    private static final String REPLY_TO_Q = "DEV.REPLY.QUEUE";
+    private static final int PUT_OPTIONS = MQPMO.MQPMO_NO_SYNCPOINT | MQPMO.MQPMO_FAIL_IF_QUIESCING;
+
+    private final byte[] correlId = new byte[MQMD.MQ_CORREL_ID_LENGTH];
+    private MQMD md;
+    private MQPMO pmo;
+    private MQMDView mdView;
+    private MQPMOView pmoView;
+    private final byte[] mdBytes = new byte[MQMD.MQMD_LENGTH_1];
+    private final byte[] pmoBytes = new byte[MQPMO.MQPMO_LENGTH_1];
+    private MQDescriptorTemplate pmoTemplate;
+
+    @Setup
+    public void setup() {
+        md = new MQMD();
+        pmo = new MQPMO();
+        mdView = MQMDView.allocate();
+        pmoView = MQPMOView.allocate();
+        pmoTemplate = MQDescriptorTemplates.putOptions(PUT_OPTIONS);
+    }
+
+    @Benchmark
+    public void structureToBytes(Blackhole bh) {
+        md.MsgType = MQMD.MQMT_REPLY;
+        md.Persistence = MQMD.MQPER_NOT_PERSISTENT;
+        md.setFormat(MQMD.MQFMT_STRING);
+        md.setReplyToQ(REPLY_TO_Q);
+        System.arraycopy(correlId, 0, md.CorrelId, 0, MQMD.MQ_CORREL_ID_LENGTH);
+        pmo.Options = PUT_OPTIONS;
+        bh.consume(md.toBytes());
+        bh.consume(pmo.toBytes());
+    }
+
+    @Benchmark
+    public void structureWrite(Blackhole bh) {
+        md.MsgType = MQMD.MQMT_REPLY;
+        md.Persistence = MQMD.MQPER_NOT_PERSISTENT;
+        md.setFormat(MQMD.MQFMT_STRING);
+        md.setReplyToQ(REPLY_TO_Q);
+        System.arraycopy(correlId, 0, md.CorrelId, 0, MQMD.MQ_CORREL_ID_LENGTH);
+        pmo.Options = PUT_OPTIONS;
+        md.write();
+        pmo.write();
+        bh.consume(md.getPointer());
+        bh.consume(pmo.getPointer());
+    }
+
+    @Benchmark
+    public void flyweight(Blackhole bh) {
+        mdView.setMsgType(MQMD.MQMT_REPLY);
+        mdView.setPersistence(MQMD.MQPER_NOT_PERSISTENT);
+        mdView.setFormat(MQMD.MQFMT_STRING);
+        mdView.setReplyToQ(REPLY_TO_Q);
+        mdView.setCorrelId(correlId);
+        pmoView.setOptions(PUT_OPTIONS);
+        bh.consume(mdView.getBuffer());
+        bh.consume(pmoView.getBuffer());
+    }
+
+    @Benchmark
+    public void createMinimal(Blackhole bh) {
+        bh.consume(MQMD.createMinimalMD(REPLY_TO_Q));
+        bh.consume(MQPMO.createMinimalPMO(PUT_OPTIONS));
+    }
+
+    @Benchmark
+    public void template(Blackhole bh) {
+        MQDescriptorTemplates.msgDesc(MQMD.MQFMT_ADMIN, REPLY_TO_Q).copyTo(mdBytes);
+        pmoTemplate.copyTo(pmoBytes);
+        bh.consume(mdBytes);
+        bh.consume(pmoBytes);
+    }
+
+    @Benchmark
+    public boolean receivedStructure() {
+        md.read();
+        return Arrays.equals(md.CorrelId, correlId)
+                && MQMD.MQFMT_STRING.equals(new String(md.Format, StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public boolean receivedView() {
+        return mdView.hasCorrelId(correlId) && mdView.isFormat(MQMD.MQFMT_STRING);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DescriptorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
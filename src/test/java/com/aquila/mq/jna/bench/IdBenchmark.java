@@ -0,0 +1,84 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.MQId;
+import com.aquila.mq.jna.lib.MQMD;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of matching a reply CorrelId to its pending request, and of formatting a MsgId
+ * <p>
+ * {@code lookupByteBuffer} keys the pending requests by a {@code ByteBuffer} wrapping a copy of
+ * the 24 bytes (what a {@code byte[]} needs to be a map key); {@code lookupId} reads an
+ * {@link MQId} from the received descriptor. {@code hexFormat} is the former
+ * {@code String.format("%02X")} per byte of {@link MQMD#getMsgIdHex}, {@code hexId} the table
+ * of {@link MQId#toHex}. No verb is called.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdBenchmark {
+
+    private static final int PENDING = 100_000;
+
+    private final Map<ByteBuffer, Integer> pendingByBuffer = new HashMap<>();
+    private final Map<MQId, Integer> pendingById = new HashMap<>();
+    private final byte[] msgDesc = new byte[MQMD.MQMD_LENGTH_1];
+    private final byte[] msgId = new byte[MQMD.MQ_MSG_ID_LENGTH];
+
+    @Setup
+    public void setup() {
+        // Queue manager MsgIds: "AMQ ", the queue manager name, then a unique part
+        byte[] id = Arrays.copyOf("AMQ QM1         ".getBytes(StandardCharsets.US_ASCII), MQId.LENGTH);
+        for (int i = 0; i < PENDING; i++) {
+            ByteBuffer.wrap(id).putLong(16, 0x5F3A000000000000L + i);
+            pendingByBuffer.put(ByteBuffer.wrap(id.clone()), i);
+            pendingById.put(MQId.of(id), i);
+        }
+        ByteBuffer.wrap(id).putLong(16, 0x5F3A000000000000L + PENDING / 2);
+        System.arraycopy(id, 0, msgDesc, MQMD.CORREL_ID_OFFSET, MQId.LENGTH);
+        System.arraycopy(id, 0, msgId, 0, MQId.LENGTH);
+    }
+
+    @Benchmark
+    public Integer lookupByteBuffer() {
+        byte[] correlId = new byte[MQMD.MQ_CORREL_ID_LENGTH];
+        System.arraycopy(msgDesc, MQMD.CORREL_ID_OFFSET, correlId, 0, MQMD.MQ_CORREL_ID_LENGTH);
+        return pendingByBuffer.get(ByteBuffer.wrap(correlId));
+    }
+
+    @Benchmark
+    public Integer lookupId() {
+        return pendingById.get(MQId.read(msgDesc, MQMD.CORREL_ID_OFFSET));
+    }
+
+    @Benchmark
+    public String hexFormat() {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : msgId) {
+            sb.append(String.format("%02X", b));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String hexId() {
+        return MQId.of(msgId).toHex();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IdBenchmark.class.getSimpleName()).build()).run();
+    }
+}
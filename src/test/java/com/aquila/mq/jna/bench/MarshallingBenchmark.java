@@ -0,0 +1,93 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.IBMMQJNA;
+import com.aquila.mq.jna.lib.MQBinding;
+import com.aquila.mq.jna.lib.MQGMO;
+import com.aquila.mq.jna.lib.MQMD;
+import com.aquila.mq.jna.lib.MQMessageBuffer;
+import com.sun.jna.ptr.IntByReference;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MQGET marshalling cost: byte[] arguments against long-lived native memory
+ * <p>
+ * Runs against the stub library ({@code make -C src/main/c stub}), which returns at once,
+ * so the difference is the per-call copy of the MQMD, the MQGMO and the receive buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djna.library.path=target/native")
+public class MarshallingBenchmark {
+
+    private static final int HCONN = 1;
+    private static final int HOBJ = 1;
+
+    @Param({"PROXY", "DIRECT"})
+    public MQBinding binding;
+
+    @Param({"256", "65536"})
+    public int size;
+
+    private IBMMQJNA mq;
+    private byte[] md;
+    private byte[] gmo;
+    private byte[] buffer;
+    private ByteBuffer mdBuffer;
+    private ByteBuffer gmoBuffer;
+    private ByteBuffer dataBuffer;
+    private MQMessageBuffer message;
+    private IntByReference compCode;
+    private IntByReference reason;
+    private IntByReference dataLength;
+
+    @Setup
+    public void setup() {
+        mq = binding.create();
+        md = MQMD.createMinimalMD(null);
+        gmo = MQGMO.createMinimalGMO(MQGMO.MQGMO_NO_WAIT, 0, MQGMO.MQMO_NONE);
+        buffer = new byte[size];
+        mdBuffer = ByteBuffer.allocateDirect(MQMD.MQMD_LENGTH_2).put(md).clear();
+        gmoBuffer = ByteBuffer.allocateDirect(MQGMO.MQGMO_LENGTH_4).put(gmo).clear();
+        dataBuffer = ByteBuffer.allocateDirect(size);
+        message = new MQMessageBuffer(mq, size);
+        compCode = new IntByReference();
+        reason = new IntByReference();
+        dataLength = new IntByReference();
+    }
+
+    @TearDown
+    public void tearDown() {
+        message.close();
+    }
+
+    @Benchmark
+    public int getArray() {
+        mq.MQGET(HCONN, HOBJ, md, gmo, buffer.length, buffer, dataLength, compCode, reason);
+        return dataLength.getValue();
+    }
+
+    @Benchmark
+    public int getByteBuffer() {
+        mq.MQGET(HCONN, HOBJ, mdBuffer, gmoBuffer, size, dataBuffer, dataLength, compCode, reason);
+        return dataLength.getValue();
+    }
+
+    @Benchmark
+    public int getMessageBuffer() {
+        message.get(HCONN, HOBJ, compCode, reason);
+        return message.getDataLength();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MarshallingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
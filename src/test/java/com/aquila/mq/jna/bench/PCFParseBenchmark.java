@@ -0,0 +1,137 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.MQCFH;
+import com.aquila.mq.jna.lib.MQCFIN;
+import com.aquila.mq.jna.lib.MQCFST;
+import com.aquila.mq.jna.lib.PCFConstants;
+import com.aquila.mq.jna.lib.PCFCursor;
+import com.aquila.mq.jna.lib.QueueInfo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of parsing one INQUIRE_Q reply of a local queue (8 string and 24 integer attributes)
+ * <p>
+ * The reply sits in a direct buffer, as after an MQGET into {@code MQMessageBuffer}.
+ * {@code structures} is the former parse of {@code PCFAgent}: a copy of the reply, then an
+ * {@link MQCFH}, an {@link MQCFST} or {@link MQCFIN} and a wrapping {@code ByteBuffer} per
+ * parameter. {@code cursor} reads the same {@link QueueInfo} in place through {@link PCFCursor},
+ * and {@code cursorScan} only reads the depth of a queue known by name, decoding no string.
+ * No verb is called.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PCFParseBenchmark {
+
+    private static final String QUEUE_NAME = "DEV.QUEUE.1";
+
+    private ByteBuffer reply;
+    private final PCFCursor cursor = new PCFCursor();
+
+    @Setup
+    public void setup() {
+        ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+        MQCFH header = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 32);
+        header.Type = PCFConstants.MQCFT_RESPONSE;
+        recorded.writeBytes(header.toBytes());
+        recorded.writeBytes(string(PCFConstants.MQCA_Q_NAME, QUEUE_NAME, 48));
+        recorded.writeBytes(string(PCFConstants.MQCA_Q_DESC, "Development queue", 64));
+        recorded.writeBytes(string(PCFConstants.MQCA_PROCESS_NAME, "", 48));
+        recorded.writeBytes(string(PCFConstants.MQCA_BACKOUT_REQ_Q_NAME, "DEV.DEAD.LETTER.QUEUE", 48));
+        recorded.writeBytes(string(PCFConstants.MQCA_CREATION_DATE, "2024-05-02", 12));
+        recorded.writeBytes(string(PCFConstants.MQCA_CREATION_TIME, "10.15.00", 8));
+        recorded.writeBytes(string(PCFConstants.MQCA_TRIGGER_DATA, "", 64));
+        recorded.writeBytes(string(PCFConstants.MQCA_CLUSTER_NAME, "", 48));
+        int[] integers = {PCFConstants.MQIA_Q_TYPE, PCFConstants.MQIA_CURRENT_Q_DEPTH, PCFConstants.MQIA_MAX_Q_DEPTH,
+                PCFConstants.MQIA_MAX_MSG_LENGTH, PCFConstants.MQIA_OPEN_INPUT_COUNT, PCFConstants.MQIA_OPEN_OUTPUT_COUNT,
+                PCFConstants.MQIA_INHIBIT_PUT, PCFConstants.MQIA_INHIBIT_GET, PCFConstants.MQIA_DEF_PRIORITY,
+                PCFConstants.MQIA_DEF_PERSISTENCE, PCFConstants.MQIA_TRIGGER_CONTROL, PCFConstants.MQIA_TRIGGER_TYPE,
+                PCFConstants.MQIA_TRIGGER_MSG_PRIORITY, PCFConstants.MQIA_TRIGGER_DEPTH, PCFConstants.MQIA_SCOPE,
+                PCFConstants.MQIA_USAGE, PCFConstants.MQIA_SHAREABILITY, PCFConstants.MQIA_DEF_INPUT_OPEN_OPTION,
+                PCFConstants.MQIA_HARDEN_GET_BACKOUT, PCFConstants.MQIA_MSG_DELIVERY_SEQUENCE,
+                PCFConstants.MQIA_RETENTION_INTERVAL, PCFConstants.MQIA_BACKOUT_THRESHOLD,
+                PCFConstants.MQIA_DEF_BIND, PCFConstants.MQIA_Q_DEPTH_HIGH_LIMIT};
+        for (int i = 0; i < integers.length; i++) {
+            recorded.writeBytes(MQCFIN.create(integers[i], i == 1 ? 42 : i).toBytes());
+        }
+        byte[] bytes = recorded.toByteArray();
+        reply = ByteBuffer.allocateDirect(bytes.length);
+        reply.put(bytes).flip();
+    }
+
+    private static byte[] string(int parameter, String value, int width) {
+        MQCFST param = MQCFST.create(parameter, String.format("%-" + width + "s", value));
+        return param.toBytes();
+    }
+
+    @Benchmark
+    public QueueInfo structures() {
+        byte[] response = new byte[reply.remaining()];
+        reply.get(0, response);
+        MQCFH header = MQCFH.fromBytes(response, 0);
+        QueueInfo queue = new QueueInfo();
+        int offset = MQCFH.MQCFH_SIZE;
+        for (int i = 0; i < header.ParameterCount && offset + 8 <= response.length; i++) {
+            ByteBuffer headerBuffer = ByteBuffer.wrap(response, offset, 8);
+            headerBuffer.order(ByteOrder.BIG_ENDIAN);
+            int structType = headerBuffer.getInt();
+            int strucLength = headerBuffer.getInt();
+            if (structType == PCFConstants.MQCFT_STRING) {
+                MQCFST strParam = MQCFST.fromBytes(response, offset);
+                String value = strParam.getStringValue();
+                if (strParam.Parameter == PCFConstants.MQCA_Q_NAME) {
+                    queue.setName(value);
+                } else if (strParam.Parameter == PCFConstants.MQCA_Q_DESC) {
+                    queue.setDescription(value);
+                } else if (strParam.Parameter == PCFConstants.MQCA_CLUSTER_NAME) {
+                    queue.setClusterName(value);
+                }
+            } else if (structType == PCFConstants.MQCFT_INTEGER) {
+                MQCFIN intParam = MQCFIN.fromBytes(response, offset);
+                if (intParam.Parameter == PCFConstants.MQIA_Q_TYPE) {
+                    queue.setType(intParam.Value);
+                } else if (intParam.Parameter == PCFConstants.MQIA_CURRENT_Q_DEPTH) {
+                    queue.setCurrentDepth(intParam.Value);
+                } else if (intParam.Parameter == PCFConstants.MQIA_MAX_Q_DEPTH) {
+                    queue.setMaxDepth(intParam.Value);
+                }
+            }
+            offset += strucLength;
+        }
+        return queue;
+    }
+
+    @Benchmark
+    public QueueInfo cursor() {
+        return QueueInfo.parse(cursor.wrap(reply));
+    }
+
+    @Benchmark
+    public int cursorScan() {
+        PCFCursor reply = cursor.wrap(this.reply);
+        boolean matched = false;
+        while (reply.next()) {
+            if (reply.getParameter() == PCFConstants.MQCA_Q_NAME) {
+                matched = reply.stringEquals(QUEUE_NAME);
+            } else if (matched && reply.getParameter() == PCFConstants.MQIA_CURRENT_Q_DEPTH) {
+                return reply.getInt();
+            }
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PCFParseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.MQCFH;
+import com.aquila.mq.jna.lib.MQCFIN;
+import com.aquila.mq.jna.lib.MQCFST;
+import com.aquila.mq.jna.lib.PCFConstants;
+import com.aquila.mq.jna.lib.PCFWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding one INQUIRE_Q command (queue name pattern and queue type)
+ * <p>
+ * {@code structures} is the former build of {@code PCFAgent}: an {@link MQCFH}, {@link MQCFST} and
+ * {@link MQCFIN}, each encoded into its own array and joined by a {@code ByteArrayOutputStream}.
+ * {@code writer} encodes the same bytes into the reused array of a {@link PCFWriter}. No verb is
+ * called.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PCFWriteBenchmark {
+
+    private static final String PATTERN = "DEV.QUEUE.*";
+
+    private final PCFWriter writer = new PCFWriter();
+
+    @Benchmark
+    public byte[] structures() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.writeBytes(MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 2).toBytes());
+        baos.writeBytes(MQCFST.create(PCFConstants.MQCA_Q_NAME, PATTERN).toBytes());
+        baos.writeBytes(MQCFIN.create(PCFConstants.MQIA_Q_TYPE, PCFConstants.MQQT_LOCAL).toBytes());
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public int writer() {
+        return writer.command(PCFConstants.MQCMD_INQUIRE_Q)
+                .string(PCFConstants.MQCA_Q_NAME, PATTERN)
+                .integer(PCFConstants.MQIA_Q_TYPE, PCFConstants.MQQT_LOCAL)
+                .length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PCFWriteBenchmark.class.getSimpleName()).build()).run();
+    }
+}
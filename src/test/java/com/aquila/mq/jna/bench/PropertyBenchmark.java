@@ -0,0 +1,72 @@
+package com.aquila.mq.jna.bench;
+
+import com.aquila.mq.jna.lib.IBMMQJNA;
+import com.aquila.mq.jna.lib.MQBinding;
+import com.aquila.mq.jna.lib.MQCallException;
+import com.aquila.mq.jna.lib.MQMessageProperties;
+import com.aquila.mq.jna.lib.MQPropertyName;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of setting and reading back two properties per message
+ * <p>
+ * {@code reusedHandle} keeps one message handle and names encoded once; {@code handlePerMessage}
+ * creates and deletes a handle and encodes the names for every message. Runs against the stub
+ * library ({@code make -C src/main/c stub}), so the difference is the Java-side work per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djna.library.path=target/native")
+public class PropertyBenchmark {
+
+    private static final int HCONN = 1;
+    private static final int CAPACITY = 256;
+    private static final MQPropertyName ROUTING_KEY = MQPropertyName.of("routing.key");
+    private static final MQPropertyName PRIORITY_CLASS = MQPropertyName.of("priority.class");
+
+    @Param({"PROXY", "DIRECT"})
+    public MQBinding binding;
+
+    private IBMMQJNA mq;
+    private MQMessageProperties properties;
+
+    @Setup
+    public void setup() throws MQCallException {
+        mq = binding.create();
+        properties = new MQMessageProperties(mq, HCONN, CAPACITY);
+    }
+
+    @TearDown
+    public void tearDown() {
+        properties.close();
+    }
+
+    @Benchmark
+    public int reusedHandle() throws MQCallException {
+        properties.setString(ROUTING_KEY, "orders.eu");
+        properties.setInt(PRIORITY_CLASS, 3);
+        return properties.getInt(PRIORITY_CLASS, 0);
+    }
+
+    @Benchmark
+    public int handlePerMessage() throws MQCallException {
+        try (MQMessageProperties perMessage = new MQMessageProperties(mq, HCONN, CAPACITY)) {
+            MQPropertyName priorityClass = MQPropertyName.of("priority.class");
+            perMessage.setString(MQPropertyName.of("routing.key"), "orders.eu");
+            perMessage.setInt(priorityClass, 3);
+            return perMessage.getInt(priorityClass, 0);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PropertyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,196 @@
+package com.aquila.mq.jna.build;
+
+import com.aquila.mq.jna.lib.layout.MQCDLayout;
+import com.aquila.mq.jna.lib.layout.MQCXPLayout;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Preprocessing and layout of the C headers by {@link MQLayoutGenerator}, on the constructs of the
+ * IBM headers and on the cmqxc.h of IBM MQ kept as src/main/c/cmqcx.h
+ */
+public class MQLayoutGeneratorTest {
+
+    private static final Path HEADERS = Path.of("src/main/c");
+
+    private static String preprocess(String text, Map<String, String> macros) {
+        return MQLayoutGenerator.preprocess(text, macros).replaceAll("\\s+", " ").trim();
+    }
+
+    private static Map<String, MQLayoutGenerator.Struct> structs(String... headers) {
+        Map<String, String> macros = new HashMap<>(MQLayoutGenerator.PREDEFINED);
+        Map<String, MQLayoutGenerator.Struct> structs = new LinkedHashMap<>();
+        for (String header : headers) {
+            MQLayoutGenerator.readStructs(MQLayoutGenerator.preprocess(header, macros), macros, structs);
+        }
+        return structs;
+    }
+
+    @Test
+    public void testConditionals() {
+        Map<String, String> macros = new HashMap<>(MQLayoutGenerator.PREDEFINED);
+        String text = """
+                #if defined(MQ_64_BIT)
+                  a
+                #elif defined(MQ_32_BIT)
+                  b
+                #else
+                  c
+                #endif
+                #if !defined(MQ_64_BIT)
+                  d
+                #elif defined(__linux__) && !defined(_AIX)
+                  e
+                  #ifdef __cplusplus
+                    f
+                  #else
+                    g
+                  #endif
+                #elif 1
+                  h
+                #endif
+                #ifndef MQ_64_BIT
+                  i
+                #endif
+                """;
+        assertEquals("a e g", preprocess(text, macros));
+
+        macros.remove("MQ_64_BIT");
+        assertEquals("c d i", preprocess(text, macros));
+    }
+
+    @Test
+    public void testDefines() {
+        Map<String, String> macros = new HashMap<>();
+        String text = """
+                #define MQ_NAME_LENGTH  48  /* Length of a name */
+                #define MQ_LONG_NAME    (MQ_NAME_LENGTH + \\
+                                         16)
+                #define MQ_STRUC_ID     "XY  "
+                #define MQ_MAX(a, b)    ((a) > (b) ? (a) : (b))
+                #define MQ_GONE         1
+                #undef MQ_GONE
+                #if 0
+                  #define MQ_INACTIVE   1
+                #endif
+                /* A comment over
+                   two lines
+                #define MQ_COMMENTED  1 */
+                #if MQ_LONG_NAME == 64 && MQ_NAME_LENGTH >= 0x30L
+                  long names
+                #endif
+                """;
+        assertEquals("long names", preprocess(text, macros));
+        assertEquals(64L, MQLayoutGenerator.number("MQ_LONG_NAME", macros));
+        assertEquals("\"XY  \"", MQLayoutGenerator.string("MQ_STRUC_ID", macros));
+        assertNull(MQLayoutGenerator.number("MQ_STRUC_ID", macros));
+        assertFalse(macros.containsKey("MQ_MAX"));
+        assertFalse(macros.containsKey("MQ_GONE"));
+        assertFalse(macros.containsKey("MQ_INACTIVE"));
+        assertFalse(macros.containsKey("MQ_COMMENTED"));
+    }
+
+    @Test
+    public void testExpressions() {
+        Map<String, String> macros = Map.of("A", "2", "B", "(A * 3)", "EMPTY", "", "SELF", "SELF + 1");
+        assertEquals(7, MQLayoutGenerator.evaluate("1 + B", macros));
+        assertEquals(1, MQLayoutGenerator.evaluate("defined A && !defined(C) || 0", macros));
+        assertEquals(1, MQLayoutGenerator.evaluate("(B - 1) % 4 == 1 && B >> 1 == 3", macros));
+        assertEquals(0, MQLayoutGenerator.evaluate("UNDEFINED || EMPTY", macros));
+        assertEquals(1, MQLayoutGenerator.evaluate("SELF", macros));
+        assertThrows(IllegalArgumentException.class, () -> MQLayoutGenerator.evaluate("A +", macros));
+    }
+
+    @Test
+    public void testUnbalancedConditionals() {
+        assertThrows(IllegalStateException.class, () -> MQLayoutGenerator.preprocess("#if 1\n", new HashMap<>()));
+        assertThrows(IllegalStateException.class, () -> MQLayoutGenerator.preprocess("#endif\n", new HashMap<>()));
+        assertThrows(IllegalStateException.class, () -> MQLayoutGenerator.preprocess("#elif 1\n", new HashMap<>()));
+    }
+
+    @Test
+    public void testStructures() {
+        Map<String, MQLayoutGenerator.Struct> structs = structs("""
+                #define MQ_TAG_LENGTH 6
+                struct tagMQXV {
+                  MQPTR   VSPtr;
+                  MQLONG  VSLength;
+                };
+                """, """
+                typedef void (MQENTRY MQ_CALLBACK) (PMQVOID pArea);
+                struct tagMQXY {
+                  MQCHAR4 StrucId;
+                  MQLONG  Version;   /* Ver:1 */
+                  MQXV    Name;
+                  MQCHAR  Tag[MQ_TAG_LENGTH];
+                  /* Ver:2 */
+                };
+                struct tagMQXZ {
+                  MQFLOAT32 Value;
+                };
+                """);
+
+        assertEquals(List.of("MQXV", "MQXY"), List.copyOf(structs.keySet()));
+        MQLayoutGenerator.Struct xy = structs.get("MQXY");
+        MQLayoutGenerator.Field name = xy.fields().get(2);
+        assertEquals(MQLayoutGenerator.Kind.STRUCT, name.kind());
+        assertEquals(8, name.offset());
+        assertEquals(16, name.size());
+        assertEquals(24, xy.fields().get(3).offset());
+        assertEquals(6, xy.fields().get(3).size());
+        assertEquals(Map.of(1, 8, 2, 32), xy.versionLengths());
+        assertEquals(Map.of(1, 8, 2, 30), xy.versionEnds());
+        assertEquals(32, xy.size());
+    }
+
+    @Test
+    public void testLengthCheck() {
+        MQLayoutGenerator.Struct xy = structs("""
+                struct tagMQXY {
+                  MQLONG  Version;
+                  /* Ver:1 */
+                  MQPTR   Ptr;
+                  MQLONG  Length;
+                  /* Ver:2 */
+                };
+                """).get("MQXY");
+        List<String> errors = new ArrayList<>();
+
+        // The padded length and the end of the last field are both accepted, the header's is kept
+        Map<String, String> macros = Map.of("MQXY_LENGTH_1", "4", "MQXY_LENGTH_2", "20", "MQXY_CURRENT_LENGTH", "20");
+        assertEquals(Map.of(1, 4, 2, 20), MQLayoutGenerator.check(xy, macros, errors));
+        assertEquals(Map.of(1, 4, 2, 24), MQLayoutGenerator.check(xy, Map.of(), errors));
+        assertEquals(List.of(), errors);
+
+        MQLayoutGenerator.check(xy, Map.of("MQXY_LENGTH_2", "28"), errors);
+        assertEquals(List.of("MQXY version 2: computed length 24, header defines 28"), errors);
+    }
+
+    /**
+     * The cmqxc.h of IBM MQ gives the layouts the build generated from it
+     */
+    @Test
+    public void testIbmHeader() throws IOException {
+        Map<String, MQLayoutGenerator.Struct> structs = structs(
+                Files.readString(HEADERS.resolve("cmqc.h"), StandardCharsets.ISO_8859_1),
+                Files.readString(HEADERS.resolve("cmqcx.h"), StandardCharsets.ISO_8859_1));
+
+        MQLayoutGenerator.Struct cd = structs.get("MQCD");
+        assertEquals(MQCDLayout.SIZE, cd.size());
+        assertEquals(MQCDLayout.LENGTH_12, cd.versionLengths().get(12));
+        assertEquals(MQCDLayout.SSL_CIPHER_SPEC_OFFSET, cd.fields().stream()
+                .filter(f -> f.name().equals("SSLCipherSpec")).findFirst().orElseThrow().offset());
+        assertEquals(MQCXPLayout.SIZE, structs.get("MQCXP").size());
+    }
+}
@@ -0,0 +1,159 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MQSTAT reconciliation of {@link MQAsyncPutter}, over a binding that accepts every put and
+ * reports the outcome scripted for it at the next MQSTAT, as a queue manager does for
+ * asynchronous puts.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQAsyncPutterTest {
+
+    private static final int WARNING = -1;
+
+    // Outcome of the next puts (MQRC_NONE, WARNING or a failure reason), and of those not reported yet
+    private final Deque<Integer> outcomes = new ArrayDeque<>();
+    private final List<Integer> unreported = new ArrayList<>();
+    // Number of puts done at each MQSTAT
+    private final List<Integer> statusAt = new ArrayList<>();
+    private final List<Integer> putOptions = new ArrayList<>();
+    private final List<Long> putMsgHandles = new ArrayList<>();
+    private int puts;
+    private int statusReason = MQRC_NONE;
+
+    private IBMMQJNA queueManager() {
+        return RecordingBinding.builder()
+                .on("MQPUT", args -> {
+                    putOptions.add(args[3] instanceof Pointer ? ((Pointer) args[3]).getInt(8)
+                            : ByteBuffer.wrap((byte[]) args[3]).order(ByteOrder.nativeOrder()).getInt(8));
+                    if (args[3] instanceof Pointer) {
+                        putMsgHandles.add(((Pointer) args[3]).getLong(MQPMOView.ORIGINAL_MSG_HANDLE_OFFSET));
+                    }
+                    puts++;
+                    unreported.add(outcomes.isEmpty() ? MQRC_NONE : outcomes.poll());
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQSTAT", args -> {
+                    statusAt.add(puts);
+                    assertEquals(MQSTS.MQSTAT_TYPE_ASYNC_ERROR, (int) (Integer) args[1]);
+                    report((MQSTS) args[2]);
+                    RecordingBinding.complete(args, statusReason);
+                })
+                .build();
+    }
+
+    private void report(MQSTS status) {
+        for (int outcome : unreported) {
+            if (outcome == MQRC_NONE) {
+                status.PutSuccessCount++;
+            } else if (outcome == WARNING) {
+                status.PutWarningCount++;
+            } else {
+                if (status.PutFailureCount++ == 0) {
+                    status.CompCode = MQCC_FAILED;
+                    status.Reason = outcome;
+                }
+            }
+        }
+        unreported.clear();
+    }
+
+    private static byte[] msgDesc() {
+        return MQMD.createMinimalMD(MQMD.MQFMT_NONE, MQMD.MQMT_DATAGRAM, null);
+    }
+
+    @Test
+    public void testCountsAreReconciled() throws MQCallException {
+        outcomes.addAll(List.of(MQRC_NONE, MQRC_Q_FULL, MQRC_NONE,
+                MQRC_NONE, WARNING, MQRC_NOT_AUTHORIZED,
+                MQRC_NONE));
+        MQAsyncPutter putter = new MQAsyncPutter(queueManager(), 1, 2, 3);
+        for (int i = 0; i < 7; i++) {
+            putter.put(msgDesc(), new byte[8]);
+        }
+        assertEquals(List.of(3, 6), statusAt);
+        assertEquals(MQRC_Q_FULL, putter.getFirstFailureReason());
+
+        putter.close();
+        assertEquals(List.of(3, 6, 7), statusAt);
+        assertEquals(7, putter.getPutCount());
+        assertEquals(4, putter.getSuccessCount());
+        assertEquals(1, putter.getWarningCount());
+        assertEquals(2, putter.getFailureCount());
+        assertEquals(putter.getPutCount(),
+                putter.getSuccessCount() + putter.getWarningCount() + putter.getFailureCount());
+        // The first failure is kept over the later ones
+        assertEquals(MQRC_Q_FULL, putter.getFirstFailureReason());
+    }
+
+    @Test
+    public void testMessageBufferPuts() throws MQCallException {
+        IBMMQJNA mq = queueManager();
+        try (MQMessageBuffer message = new MQMessageBuffer(mq, 16);
+             MQAsyncPutter putter = new MQAsyncPutter(mq, 1, 2, 2)) {
+            message.setData(new byte[4], 0, 4);
+            putter.put(message);
+            putter.put(message);
+            putter.put(msgDesc(), new byte[4]);
+        }
+        assertEquals(List.of(2, 3), statusAt);
+        assertEquals(3, putOptions.size());
+        for (int options : putOptions) {
+            assertEquals(MQPMO.MQPMO_ASYNC_RESPONSE, options & MQPMO.MQPMO_ASYNC_RESPONSE);
+        }
+    }
+
+    @Test
+    public void testMessageBufferKeepsPutOptions() throws MQCallException {
+        IBMMQJNA mq = queueManager();
+        try (MQMessageBuffer message = new MQMessageBuffer(mq, 16);
+             MQAsyncPutter putter = new MQAsyncPutter(mq, 1, 2, 2)) {
+            message.setData(new byte[4], 0, 4);
+            message.setPutOptions(MQDescriptorTemplates.putOptions(MQPMO_SYNCPOINT | MQPMO_SYNC_RESPONSE));
+            message.setPutMsgHandle(7L);
+            putter.put(message);
+            putter.put(message);
+        }
+        assertEquals(List.of(7L, 7L), putMsgHandles);
+        for (int options : putOptions) {
+            assertEquals(MQPMO_SYNCPOINT | MQPMO_ASYNC_RESPONSE | MQPMO_NEW_MSG_ID | MQPMO_FAIL_IF_QUIESCING, options);
+        }
+    }
+
+    @Test
+    public void testCloseWithoutPendingPuts() throws MQCallException {
+        MQAsyncPutter putter = new MQAsyncPutter(queueManager(), 1, 2, 2);
+        putter.close();
+        putter.put(msgDesc(), new byte[4]);
+        putter.put(msgDesc(), new byte[4]);
+        putter.close();
+
+        assertEquals(List.of(2), statusAt);
+        assertEquals(2, putter.getSuccessCount());
+        assertEquals(MQRC_NONE, putter.getFirstFailureReason());
+    }
+
+    @Test
+    public void testStatusFailure() {
+        statusReason = MQRC_CONNECTION_BROKEN;
+        MQAsyncPutter putter = new MQAsyncPutter(queueManager(), 1, 2, 1);
+        MQCallException e = assertThrows(MQCallException.class, () -> putter.put(msgDesc(), new byte[4]));
+        assertEquals(MQRC_CONNECTION_BROKEN, e.getReasonCode());
+        assertEquals(1, putter.getPutCount());
+        assertEquals(0, putter.getSuccessCount());
+        assertEquals(List.of(1), statusAt);
+    }
+}
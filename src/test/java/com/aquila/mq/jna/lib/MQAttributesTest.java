@@ -0,0 +1,170 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Packing of the MQINQ and MQSET arguments by {@link MQAttributes} and decoding of the results,
+ * over a binding that plays a queue: integer attributes are returned in selector order and
+ * character attributes concatenated, as the queue manager does.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQAttributesTest {
+
+    private static final int UNKNOWN_SELECTOR = 1999;
+
+    private final Map<Integer, Integer> intAttrs = new HashMap<>();
+    private final Map<Integer, String> charAttrs = new HashMap<>();
+    private final Map<Integer, Integer> charLengths = Map.of(
+            MQCA_Q_NAME, MQ_Q_NAME_LENGTH,
+            MQCA_Q_DESC, MQAttributes.MQ_Q_DESC_LENGTH,
+            MQCA_TRIGGER_DATA, MQAttributes.MQ_TRIGGER_DATA_LENGTH);
+    // Verb, selectors, IntAttrCount and CharAttrLength of each call
+    private final List<String> calls = new ArrayList<>();
+    private final List<int[]> counts = new ArrayList<>();
+    private final List<Integer> closed = new ArrayList<>();
+    private String openedName;
+
+    private IBMMQJNA queue() {
+        intAttrs.put(MQIA_CURRENT_Q_DEPTH, 42);
+        intAttrs.put(MQIA_MAX_Q_DEPTH, 5000);
+        intAttrs.put(MQIA_INHIBIT_PUT, MQQA_PUT_ALLOWED);
+        charAttrs.put(MQCA_Q_NAME, "DEV.QUEUE.1");
+        charAttrs.put(MQCA_Q_DESC, "Orders");
+        return RecordingBinding.builder()
+                .on("MQOPEN", args -> {
+                    openedName = new String((byte[]) args[1], MQODView.OBJECT_NAME_OFFSET, MQ_Q_NAME_LENGTH,
+                            StandardCharsets.US_ASCII).trim();
+                    ((IntByReference) args[3]).setValue(7);
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQCLOSE", args -> {
+                    closed.add(((IntByReference) args[1]).getValue());
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQINQ", args -> attributes("MQINQ", args))
+                .on("MQSET", args -> attributes("MQSET", args))
+                .build();
+    }
+
+    private void attributes(String verb, Object[] args) {
+        int[] selectors = (int[]) args[3];
+        calls.add(verb + Arrays.toString(Arrays.copyOf(selectors, (Integer) args[2])));
+        counts.add(new int[]{(Integer) args[4], (Integer) args[6]});
+        int reason = MQRC_NONE;
+        if (selectors[0] == UNKNOWN_SELECTOR) {
+            reason = MQRC_SELECTOR_ERROR;
+        } else if (verb.equals("MQINQ")) {
+            inquire(selectors, (int[]) args[5], (byte[]) args[7]);
+        } else {
+            set(selectors, (int[]) args[5], (byte[]) args[7]);
+        }
+        RecordingBinding.complete(args, reason);
+    }
+
+    private void inquire(int[] selectors, int[] ints, byte[] chars) {
+        int i = 0;
+        int offset = 0;
+        for (int selector : selectors) {
+            if (selector < MQCA_FIRST) {
+                ints[i++] = intAttrs.getOrDefault(selector, -1);
+            } else {
+                int length = charLengths.get(selector);
+                byte[] value = MQNameCodec.DEFAULT.encode(charAttrs.getOrDefault(selector, ""), length);
+                System.arraycopy(value, 0, chars, offset, length);
+                offset += length;
+            }
+        }
+    }
+
+    private void set(int[] selectors, int[] ints, byte[] chars) {
+        int i = 0;
+        int offset = 0;
+        for (int selector : selectors) {
+            if (selector < MQCA_FIRST) {
+                intAttrs.put(selector, ints[i++]);
+            } else {
+                int length = charLengths.get(selector);
+                charAttrs.put(selector, new String(chars, offset, length, StandardCharsets.US_ASCII));
+                offset += length;
+            }
+        }
+    }
+
+    @Test
+    public void testSingleAttributes() throws MQCallException {
+        MQAttributes attributes = new MQAttributes(queue(), 1, 7);
+        assertEquals(42, attributes.getCurrentDepth());
+        assertEquals(5000, attributes.getMaxDepth());
+        assertEquals("Orders", attributes.getDescription());
+
+        assertEquals(List.of("MQINQ[" + MQIA_CURRENT_Q_DEPTH + "]", "MQINQ[" + MQIA_MAX_Q_DEPTH + "]",
+                "MQINQ[" + MQCA_Q_DESC + "]"), calls);
+        // An integer inquiry passes one integer and no characters, a character one the reverse
+        assertArrayEquals(new int[]{1, 0}, counts.get(0));
+        assertArrayEquals(new int[]{0, MQAttributes.MQ_Q_DESC_LENGTH}, counts.get(2));
+    }
+
+    @Test
+    public void testSeveralAttributesInOneCall() throws MQCallException {
+        MQAttributes attributes = new MQAttributes(queue(), 1, 7);
+        int[] ints = new int[2];
+        byte[] chars = new byte[MQ_Q_NAME_LENGTH + MQAttributes.MQ_Q_DESC_LENGTH];
+        attributes.inquire(new int[]{MQCA_Q_NAME, MQIA_CURRENT_Q_DEPTH, MQCA_Q_DESC, MQIA_MAX_Q_DEPTH}, ints, chars);
+
+        assertArrayEquals(new int[]{2, chars.length}, counts.get(0));
+        assertArrayEquals(new int[]{42, 5000}, ints);
+        assertEquals("DEV.QUEUE.1", MQNameCodec.DEFAULT.decode(chars, 0, MQ_Q_NAME_LENGTH));
+        assertEquals("Orders", MQNameCodec.DEFAULT.decode(chars, MQ_Q_NAME_LENGTH, MQAttributes.MQ_Q_DESC_LENGTH));
+    }
+
+    @Test
+    public void testSet() throws MQCallException {
+        MQAttributes attributes = new MQAttributes(queue(), 1, 7);
+        attributes.setInhibitPut(true);
+        attributes.setString(MQCA_TRIGGER_DATA, "start", MQAttributes.MQ_TRIGGER_DATA_LENGTH);
+
+        assertEquals(List.of("MQSET[" + MQIA_INHIBIT_PUT + "]", "MQSET[" + MQCA_TRIGGER_DATA + "]"), calls);
+        assertArrayEquals(new int[]{1, 0}, counts.get(0));
+        assertArrayEquals(new int[]{0, MQAttributes.MQ_TRIGGER_DATA_LENGTH}, counts.get(1));
+        assertEquals(MQQA_PUT_INHIBITED, intAttrs.get(MQIA_INHIBIT_PUT));
+        // Blank padded to the length of the attribute
+        assertEquals("start" + " ".repeat(MQAttributes.MQ_TRIGGER_DATA_LENGTH - 5), charAttrs.get(MQCA_TRIGGER_DATA));
+
+        attributes.setInhibitPut(false);
+        assertEquals(MQQA_PUT_ALLOWED, attributes.getInt(MQIA_INHIBIT_PUT));
+    }
+
+    @Test
+    public void testOpenAndClose() throws MQCallException {
+        IBMMQJNA mq = queue();
+        try (MQAttributes attributes = MQAttributes.open(mq, 1, "DEV.QUEUE.1", MQOO_INQUIRE)) {
+            assertEquals(7, attributes.getObjectHandle());
+            assertEquals(42, attributes.getCurrentDepth());
+        }
+        assertEquals("DEV.QUEUE.1", openedName);
+        assertEquals(List.of(7), closed);
+
+        // A handle opened by the caller stays open
+        new MQAttributes(mq, 1, 7).close();
+        assertEquals(List.of(7), closed);
+    }
+
+    @Test
+    public void testFailure() {
+        MQAttributes attributes = new MQAttributes(queue(), 1, 7);
+        MQCallException e = assertThrows(MQCallException.class, () -> attributes.getInt(UNKNOWN_SELECTOR));
+        assertEquals(MQRC_SELECTOR_ERROR, e.getReasonCode());
+    }
+}
@@ -0,0 +1,202 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQDMHOLayout;
+import com.sun.jna.Memory;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Selection of the {@link MQBinding} and the same verbs called through each binding against the
+ * stub library.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQBindingTest {
+
+    @AfterEach
+    public void clearProperty() {
+        System.clearProperty(MQBinding.BINDING_PROPERTY);
+    }
+
+    @Test
+    public void testFromProperty() {
+        System.clearProperty(MQBinding.BINDING_PROPERTY);
+        assertEquals(MQBinding.PROXY, MQBinding.fromProperty());
+        System.setProperty(MQBinding.BINDING_PROPERTY, " Direct ");
+        assertEquals(MQBinding.DIRECT, MQBinding.fromProperty());
+        System.setProperty(MQBinding.BINDING_PROPERTY, "panama");
+        assertEquals(MQBinding.PANAMA, MQBinding.fromProperty());
+        System.setProperty(MQBinding.BINDING_PROPERTY, " ");
+        assertEquals(MQBinding.PROXY, MQBinding.fromProperty());
+        // An unknown binding falls back to the proxy
+        System.setProperty(MQBinding.BINDING_PROPERTY, "jni");
+        assertEquals(MQBinding.PROXY, MQBinding.fromProperty());
+    }
+
+    @Test
+    public void testLoad() {
+        System.setProperty(MQBinding.BINDING_PROPERTY, "direct");
+        assertInstanceOf(IBMMQJNADirect.class, MQBinding.load());
+        System.clearProperty(MQBinding.BINDING_PROPERTY);
+        assertTrue(Proxy.isProxyClass(MQBinding.load().getClass()));
+    }
+
+    /**
+     * Where the Panama binding is unavailable, loading it falls back to the proxy binding
+     */
+    @Test
+    public void testLoadFallsBackFromPanama() {
+        System.setProperty(MQBinding.BINDING_PROPERTY, "panama");
+        IBMMQJNA mq = MQBinding.load();
+        if (Runtime.version().feature() < 22) {
+            assertTrue(Proxy.isProxyClass(mq.getClass()));
+        } else {
+            assertTrue(Proxy.isProxyClass(mq.getClass()) || mq.getClass().getSimpleName().equals("IBMMQPanama"));
+        }
+    }
+
+    @Test
+    public void testProxyBinding() {
+        assertVerbs(MQBinding.PROXY.create());
+    }
+
+    @Test
+    public void testDirectBinding() {
+        assertVerbs(MQBinding.DIRECT.create());
+    }
+
+    /**
+     * The Java 17 classes refuse the Panama binding, and so do the Java 22 ones when they are not
+     * in a multi-release jar: MQPanamaBindingIT runs the Panama binding from the jar.
+     */
+    @Test
+    public void testPanamaBindingRefused() {
+        IBMMQJNA mq;
+        try {
+            mq = MQBinding.PANAMA.create();
+        } catch (UnsupportedOperationException e) {
+            assertTrue(e.getMessage().contains("Java 22+"), e.getMessage());
+            return;
+        }
+        assertTrue(Runtime.version().feature() >= 22, "Panama binding created on Java " + Runtime.version());
+        assertVerbs(mq);
+    }
+
+    /**
+     * Connect, open, put, get, inquire, use a property and disconnect, with the results the stub reports
+     */
+    static void assertVerbs(IBMMQJNA mq) {
+        IntByReference compCode = new IntByReference(-1);
+        IntByReference reason = new IntByReference(-1);
+
+        IntByReference hConn = new IntByReference();
+        mq.MQCONN(MQNameCodec.DEFAULT.encode("QM1", MQ_Q_MGR_NAME_LENGTH), hConn, compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        assertEquals(MQRC_NONE, reason.getValue());
+        assertEquals(1, hConn.getValue());
+
+        IntByReference hObj = new IntByReference();
+        compCode.setValue(-1);
+        mq.MQOPEN(hConn.getValue(), MQDescriptorTemplates.objectDescriptor("APP.IN").newCopy(),
+                MQOO_OUTPUT | MQOO_INPUT_SHARED | MQOO_INQUIRE, hObj, compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        assertEquals(1, hObj.getValue());
+        MQODView od = MQODView.allocate();
+        od.setObjectName("APP.IN");
+        compCode.setValue(-1);
+        mq.MQOPEN(hConn.getValue(), od.getBuffer(), MQOO_OUTPUT, hObj, compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+
+        compCode.setValue(-1);
+        mq.MQPUT(hConn.getValue(), hObj.getValue(), MQMD.createMinimalMD(MQFMT_STRING, MQMT_DATAGRAM, null),
+                MQPMO.createMinimalPMO(MQPMO_NO_SYNCPOINT), 4, new byte[4], compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+
+        byte[] buffer = new byte[64];
+        IntByReference dataLength = new IntByReference();
+        compCode.setValue(-1);
+        mq.MQGET(hConn.getValue(), hObj.getValue(), new MQMD().toBytes(), MQGMO.createMinimalGMO(MQGMO_NO_WAIT, 0,
+                MQMO_NONE), buffer.length, buffer, dataLength, compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        assertEquals(buffer.length, dataLength.getValue());
+
+        // The pointer variants, through the native block of a message buffer
+        MQCallContext ctx = MQCallContext.current();
+        try (MQMessageBuffer message = new MQMessageBuffer(mq, 128)) {
+            message.setData(new byte[16], 0, 16);
+            message.put(hConn.getValue(), hObj.getValue(), ctx);
+            assertTrue(ctx.isOk());
+            message.get(hConn.getValue(), hObj.getValue(), ctx);
+            assertTrue(ctx.isOk());
+            assertEquals(128, message.getDataLength());
+        }
+
+        int[] ints = new int[2];
+        compCode.setValue(-1);
+        mq.MQINQ(hConn.getValue(), hObj.getValue(), 2, new int[]{MQIA_CURRENT_Q_DEPTH, MQIA_MAX_Q_DEPTH},
+                2, ints, 0, null, compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        assertArrayEquals(new int[]{42, 0}, ints);
+
+        // A string property of MQVL_NULL_TERMINATED length, the stub ignores the options and descriptor
+        MQPropertyName name = MQPropertyName.of("binding.text");
+        Memory value = new Memory(16);
+        value.setString(0, "abc", "US-ASCII");
+        compCode.setValue(-1);
+        mq.MQSETMP(hConn.getValue(), 1L, null, name.getPointer(), null, MQTYPE_STRING, MQVL_NULL_TERMINATED, value,
+                compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        IntByReference type = new IntByReference();
+        compCode.setValue(-1);
+        mq.MQINQMP(hConn.getValue(), 1L, null, name.getPointer(), null, type, (int) value.size(), value, dataLength,
+                compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        assertEquals(MQTYPE_STRING, type.getValue());
+        assertEquals(3, dataLength.getValue());
+        assertArrayEquals("abc".getBytes(StandardCharsets.US_ASCII), value.getByteArray(0, 3));
+        compCode.setValue(-1);
+        mq.MQDLTMH(hConn.getValue(), new LongByReference(1L), MQDMHOLayout.allocate().toBytes(), compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+
+        compCode.setValue(-1);
+        mq.MQCLOSE(hConn.getValue(), hObj, MQCO_NONE, compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        assertEquals(0, hObj.getValue());
+
+        compCode.setValue(-1);
+        mq.MQDISC(hConn, compCode, reason);
+        assertEquals(MQCC_OK, compCode.getValue());
+        assertEquals(-1, hConn.getValue());
+    }
+
+    @Test
+    public void testBindingsAgreeOnAsyncPuts() {
+        for (MQBinding binding : new MQBinding[]{MQBinding.PROXY, MQBinding.DIRECT}) {
+            IBMMQJNA mq = binding.create();
+            IntByReference compCode = new IntByReference();
+            IntByReference reason = new IntByReference();
+            MQSTS status = new MQSTS();
+            // Start from no pending puts
+            mq.MQSTAT(1, MQSTS.MQSTAT_TYPE_ASYNC_ERROR, status, compCode, reason);
+
+            byte[] pmo = MQPMO.createMinimalPMO(MQPMO_ASYNC_RESPONSE);
+            for (int i = 0; i < 3; i++) {
+                mq.MQPUT(1, 1, MQMD.createMinimalMD(MQFMT_NONE, MQMT_DATAGRAM, null), pmo, 0, new byte[0],
+                        compCode, reason);
+            }
+            status = new MQSTS();
+            mq.MQSTAT(1, MQSTS.MQSTAT_TYPE_ASYNC_ERROR, status, compCode, reason);
+            assertEquals(MQCC_OK, compCode.getValue());
+            assertEquals(3, status.PutSuccessCount, binding.name());
+            assertEquals(0, status.PutFailureCount, binding.name());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.aquila.mq.jna.lib;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation profile of the put/get hot loop with {@link MQCallContext} and {@link MQMessageBuffer},
+ * through the direct and the proxy bindings.
+ * Runs against the stub library.
+ */
+@Slf4j
+@ExtendWith(StubLibrary.class)
+public class MQCallContextTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    // Far below one object per call: any per-call garbage would be several MB
+    private static final long MAX_ALLOCATED_BYTES = 4096;
+
+    @Test
+    public void testDirectPutGetLoopAllocatesNothing() {
+        long allocated = allocated(MQBinding.DIRECT);
+        assertTrue(allocated < MAX_ALLOCATED_BYTES, "hot loop allocated " + allocated + " bytes");
+    }
+
+    /**
+     * The proxy binding boxes the arguments of each call, but copies neither the descriptor nor the payload
+     */
+    @Test
+    public void testProxyPutGetLoopCopiesNoBuffer() {
+        long perPair = allocated(MQBinding.PROXY) / ITERATIONS;
+        assertTrue(perPair < MQMD.MQMD_LENGTH_2, "put/get pair allocated " + perPair + " bytes");
+    }
+
+    /**
+     * @return the bytes allocated by the measured put/get pairs through the binding
+     */
+    private static long allocated(MQBinding binding) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocation counter not supported");
+
+        IBMMQJNA mq = binding.create();
+        MQCallContext ctx = MQCallContext.current();
+        try (MQMessageBuffer message = new MQMessageBuffer(mq, 1024)) {
+            message.setData(new byte[256], 0, 256);
+
+            loop(message, ctx, WARMUP);
+            long threadId = Thread.currentThread().getId();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            loop(message, ctx, ITERATIONS);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+            log.info("{} binding: {} put/get pairs allocated {} bytes", binding, ITERATIONS, allocated);
+            return allocated;
+        }
+    }
+
+    private static void loop(MQMessageBuffer message, MQCallContext ctx, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            message.setDataLength(256);
+            message.put(1, 1, ctx);
+            if (!ctx.isOk()) {
+                throw new IllegalStateException("MQPUT failed: " + ctx.getReason());
+            }
+            message.get(1, 1, ctx);
+            if (!ctx.isOk()) {
+                throw new IllegalStateException("MQGET failed: " + ctx.getReason());
+            }
+        }
+    }
+}
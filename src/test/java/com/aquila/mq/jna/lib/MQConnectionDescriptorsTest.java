@@ -0,0 +1,148 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCDLayout;
+import com.aquila.mq.jna.lib.layout.MQCNOLayout;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static com.ibm.mq.constants.CMQXC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The native block of {@link MQConnectionDescriptors}, read back through the JNA mappings: the MQCNO
+ * points to the MQCD and MQCSP of the block, and MQCONNX is passed the block as is.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQConnectionDescriptorsTest {
+
+    private static <T extends Structure> T read(Class<T> type, Pointer pointer) {
+        T structure = Structure.newInstance(type, pointer);
+        structure.read();
+        return structure;
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.US_ASCII).trim();
+    }
+
+    @Test
+    public void testDescriptors() {
+        MQConnectionDescriptors descriptors = new MQConnectionDescriptors("QM1", "DEV.APP.SVRCONN", "host(1414)");
+        assertEquals("QM1", descriptors.getQueueManagerName());
+
+        MQCNO cno = read(MQCNO.class, descriptors.getConnectOptions());
+        assertEquals(MQCNO.MQCNO_STRUC_ID, new String(cno.StrucId, StandardCharsets.US_ASCII));
+        assertEquals(MQCNO.MQCNO_CLIENT_BINDING, cno.Options);
+        assertEquals(MQCNO.MQCNO_CLIENT_BINDING, descriptors.getOptions());
+        // Without credentials no MQCSP is passed
+        assertNull(cno.SecurityParmsPtr);
+
+        // The MQCD follows the MQCNO and the MQCSP in the same block
+        MQCDLayout cd = descriptors.getChannelDefinition();
+        assertEquals(Native.getDirectBufferPointer(cd.getBuffer()), cno.ClientConnPtr);
+        assertEquals(MQConnectionDescriptors.MQCNO_LENGTH + MQConnectionDescriptors.MQCSP_LENGTH,
+                Pointer.nativeValue(cno.ClientConnPtr) - Pointer.nativeValue(descriptors.getConnectOptions()));
+        assertEquals(MQCD_VERSION_10, cd.getVersion());
+        assertEquals("DEV.APP.SVRCONN", cd.getChannelName());
+        assertEquals("host(1414)", cd.getConnectionName());
+        assertEquals(MQCHT_CLNTCONN, cd.getChannelType());
+        assertEquals(MQXPT_TCP, cd.getTransportType());
+        MQCD mapped = read(MQCD.class, cno.ClientConnPtr);
+        assertEquals("DEV.APP.SVRCONN", text(mapped.ChannelName));
+        assertEquals("host(1414)", text(mapped.ConnectionName));
+        assertEquals(MQCHT_CLNTCONN, mapped.ChannelType);
+
+        descriptors.setOptions(MQCNO.MQCNO_CLIENT_BINDING | MQCNO.MQCNO_RECONNECT);
+        assertEquals(MQCNO.MQCNO_CLIENT_BINDING | MQCNO.MQCNO_RECONNECT,
+                descriptors.getConnectOptions().getInt(MQCNOLayout.OPTIONS_OFFSET));
+    }
+
+    @Test
+    public void testCredentials() {
+        MQConnectionDescriptors descriptors = new MQConnectionDescriptors("QM1", "DEV.APP.SVRCONN", "host(1414)");
+        descriptors.setCredentials("app", "passw0rd");
+
+        MQCNO cno = read(MQCNO.class, descriptors.getConnectOptions());
+        assertNotNull(cno.SecurityParmsPtr);
+        MQCSP csp = read(MQCSP.class, cno.SecurityParmsPtr);
+        assertEquals(MQCSP.MQCSP_AUTH_USER_ID_AND_PWD, csp.AuthenticationType);
+        assertEquals(3, csp.CSPUserIdLength);
+        assertEquals("app", csp.CSPUserIdPtr.getString(0, StandardCharsets.UTF_8.name()));
+        assertEquals(8, csp.CSPPasswordLength);
+        assertArrayEquals("passw0rd".getBytes(StandardCharsets.UTF_8), csp.CSPPasswordPtr.getByteArray(0, 8));
+
+        // Shorter credentials leave nothing of the previous ones
+        descriptors.setCredentials("ab", "pw");
+        assertEquals(0, csp.CSPPasswordPtr.getByte(2));
+        descriptors.clearCredentials();
+        assertNull(read(MQCNO.class, descriptors.getConnectOptions()).SecurityParmsPtr);
+        assertEquals(0, csp.CSPUserIdPtr.getByte(0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> descriptors.setCredentials("app", "x".repeat(MQ_CSP_PASSWORD_LENGTH + 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> descriptors.setCredentials("u".repeat(MQConnectionDescriptors.MAX_USER_ID_LENGTH + 1), "pw"));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        MQConnectionDescriptors descriptors = new MQConnectionDescriptors("QM1", "DEV.APP.SVRCONN", "host(1414)");
+        descriptors.setCredentials("app", "passw0rd");
+        MQConnectionDescriptors copy = descriptors.copy();
+        assertEquals("QM1", copy.getQueueManagerName());
+
+        // The pointers of the copy are into its own block
+        MQCNO cno = read(MQCNO.class, copy.getConnectOptions());
+        long base = Pointer.nativeValue(copy.getConnectOptions());
+        long original = Pointer.nativeValue(descriptors.getConnectOptions());
+        assertNotEquals(original, base);
+        long cdOffset = Pointer.nativeValue(read(MQCNO.class, descriptors.getConnectOptions()).ClientConnPtr) - original;
+        assertEquals(base + cdOffset, Pointer.nativeValue(cno.ClientConnPtr));
+        MQCSP csp = read(MQCSP.class, cno.SecurityParmsPtr);
+        assertEquals("app", csp.CSPUserIdPtr.getString(0, StandardCharsets.UTF_8.name()));
+
+        copy.getChannelDefinition().setConnectionName("other(1414)");
+        copy.setQueueManagerName("QM2");
+        assertEquals("host(1414)", descriptors.getChannelDefinition().getConnectionName());
+        assertEquals("QM1", descriptors.getQueueManagerName());
+    }
+
+    @Test
+    public void testConnect() throws MQCallException {
+        List<Pointer> connectOptions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        IBMMQJNA mq = RecordingBinding.builder()
+                .on("MQCONNX", args -> {
+                    if (!(args[0] instanceof Pointer)) {
+                        throw new UnsupportedOperationException("MQCONNX with byte[] descriptors");
+                    }
+                    names.add(text(((Pointer) args[0]).getByteArray(0, MQ_Q_MGR_NAME_LENGTH)));
+                    connectOptions.add((Pointer) args[1]);
+                    boolean known = names.get(names.size() - 1).equals("QM1");
+                    ((IntByReference) args[2]).setValue(known ? 5 : -1);
+                    RecordingBinding.complete(args, known ? MQRC_NONE : MQRC_Q_MGR_NAME_ERROR);
+                })
+                .build();
+
+        MQConnectionDescriptors descriptors = new MQConnectionDescriptors("QM1", "DEV.APP.SVRCONN", "host(1414)");
+        assertEquals(5, descriptors.connect(mq));
+        assertEquals(5, descriptors.connect(mq));
+        assertEquals(List.of("QM1", "QM1"), names);
+        // The same block on every connect
+        assertEquals(descriptors.getConnectOptions(), connectOptions.get(0));
+        assertEquals(descriptors.getConnectOptions(), connectOptions.get(1));
+
+        descriptors.setQueueManagerName("QMX");
+        MQCallException e = assertThrows(MQCallException.class, () -> descriptors.connect(mq));
+        assertEquals(MQRC_Q_MGR_NAME_ERROR, e.getReasonCode());
+    }
+}
@@ -0,0 +1,127 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Start and stop of a {@link MQConsumer} and the messages delivered by the dispatcher of the stub
+ * library.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQConsumerTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private int failedStops;
+
+    /**
+     * The stub binding, recording the verbs and failing the next {@code failedStops} MQCTL stops
+     */
+    private IBMMQJNA stub() {
+        IBMMQJNA mq = MQBinding.DIRECT.create();
+        return RecordingBinding.builder()
+                .record(calls)
+                .on("MQCTL", args -> {
+                    if ((int) args[1] == MQCTLO.MQOP_STOP && failedStops > 0) {
+                        failedStops--;
+                        RecordingBinding.complete(args, MQRC_CONNECTION_BROKEN);
+                    } else {
+                        mq.MQCTL((int) args[0], (int) args[1], (MQCTLO) args[2], (IntByReference) args[3],
+                                (IntByReference) args[4]);
+                    }
+                })
+                .delegate(mq)
+                .build();
+    }
+
+    @Test
+    public void testDelivery() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(3);
+        List<MQConsumer.ConsumedMessage> messages = new ArrayList<>();
+        try (MQConsumer consumer = new MQConsumer(stub(), 1, Runnable::run)) {
+            consumer.subscribe("APP.IN", message -> {
+                synchronized (messages) {
+                    messages.add(message);
+                }
+                delivered.countDown();
+            });
+            assertFalse(consumer.isStarted());
+            consumer.start();
+            assertTrue(consumer.isStarted());
+            assertTrue(delivered.await(10, TimeUnit.SECONDS));
+            consumer.stop();
+            assertFalse(consumer.isStarted());
+        }
+        synchronized (messages) {
+            MQConsumer.ConsumedMessage message = messages.get(0);
+            assertEquals("APP.IN", message.getQueueName());
+            assertEquals(256, message.getData().length);
+            assertEquals(MQMD.MQMD_LENGTH_2, message.getMsgDesc().length);
+        }
+        assertEquals(List.of("MQOPEN", "MQCB", "MQCTL", "MQCTL", "MQCB", "MQCLOSE"), calls);
+    }
+
+    @Test
+    public void testSubscribe() throws MQCallException {
+        try (MQConsumer consumer = new MQConsumer(stub(), 1, Runnable::run)) {
+            consumer.subscribe("APP.IN", message -> {
+            });
+            assertThrows(IllegalArgumentException.class, () -> consumer.subscribe("APP.IN", message -> {
+            }));
+            consumer.start();
+            assertThrows(IllegalStateException.class, () -> consumer.subscribe("APP.OTHER", message -> {
+            }));
+        }
+        assertEquals(List.of("MQOPEN", "MQCB", "MQCTL", "MQCTL", "MQCB", "MQCLOSE"), calls);
+    }
+
+    @Test
+    public void testStaysStartedWhenStopFails() throws MQCallException {
+        MQConsumer consumer = new MQConsumer(stub(), 1, Runnable::run);
+        consumer.subscribe("APP.IN", message -> {
+        });
+        consumer.start();
+
+        failedStops = 1;
+        MQCallException e = assertThrows(MQCallException.class, consumer::stop);
+        assertEquals(MQRC_CONNECTION_BROKEN, e.getReasonCode());
+        assertTrue(consumer.isStarted());
+
+        // Stopped by the retry
+        consumer.stop();
+        assertFalse(consumer.isStarted());
+
+        // close() does not stop again a stopped consumer
+        calls.clear();
+        consumer.close();
+        assertEquals(List.of("MQCB", "MQCLOSE"), calls);
+    }
+
+    @Test
+    public void testCloseStopsTheStartedConsumer() throws MQCallException {
+        MQConsumer consumer = new MQConsumer(stub(), 1, Runnable::run);
+        consumer.subscribe("APP.IN", message -> {
+        });
+        consumer.start();
+
+        // A failed stop is logged and the queues are still closed
+        failedStops = 1;
+        calls.clear();
+        consumer.close();
+        assertEquals(List.of("MQCTL", "MQCB", "MQCLOSE"), calls);
+        assertTrue(consumer.isStarted());
+
+        calls.clear();
+        consumer.close();
+        assertEquals(List.of("MQCTL"), calls);
+        assertFalse(consumer.isStarted());
+    }
+}
@@ -0,0 +1,147 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Memory;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Templates of {@link MQDescriptorTemplates}: one instance per variant, holding the bytes the
+ * createMinimal* encoders produce, with the fields at the offsets of the views
+ */
+public class MQDescriptorTemplatesTest {
+
+    private static MQMDView msgDescView(MQDescriptorTemplate template) {
+        // Version 1 descriptor: widen it for the view
+        ByteBuffer buffer = ByteBuffer.allocate(MQMD.MQMD_LENGTH_2);
+        template.copyTo(buffer, 0);
+        return new MQMDView(buffer, 0);
+    }
+
+    @Test
+    public void testMsgDesc() {
+        MQDescriptorTemplate request = MQDescriptorTemplates.msgDesc(MQFMT_STRING, "APP.REPLY");
+        assertSame(request, MQDescriptorTemplates.msgDesc(MQFMT_STRING, "APP.REPLY"));
+        assertNotSame(request, MQDescriptorTemplates.msgDesc(MQFMT_STRING, "APP.OTHER"));
+        assertNotSame(request, MQDescriptorTemplates.msgDesc(MQFMT_NONE, "APP.REPLY"));
+        assertArrayEquals(MQMD.createMinimalMD(MQFMT_STRING, MQMT_REQUEST, "APP.REPLY"), request.newCopy());
+        assertEquals(MQMD_LENGTH_1, request.length());
+
+        MQMDView md = msgDescView(request);
+        assertEquals(MQMD_VERSION_1, md.getVersion());
+        assertEquals(MQMT_REQUEST, md.getMsgType());
+        assertTrue(md.isFormat(MQFMT_STRING));
+        assertEquals("APP.REPLY", md.getReplyToQ());
+
+        MQDescriptorTemplate datagram = MQDescriptorTemplates.msgDesc(MQFMT_STRING, null);
+        assertSame(datagram, MQDescriptorTemplates.msgDesc(MQFMT_STRING, null));
+        md = msgDescView(datagram);
+        assertEquals(MQMT_DATAGRAM, md.getMsgType());
+        assertEquals("", md.getReplyToQ());
+    }
+
+    @Test
+    public void testPutOptions() {
+        int options = MQPMO_NO_SYNCPOINT | MQPMO_FAIL_IF_QUIESCING;
+        MQDescriptorTemplate template = MQDescriptorTemplates.putOptions(options);
+        assertSame(template, MQDescriptorTemplates.putOptions(options));
+        assertArrayEquals(MQPMO.createMinimalPMO(options), template.newCopy());
+
+        ByteBuffer buffer = ByteBuffer.allocate(MQPMOView.allocate().length());
+        template.copyTo(buffer, 0);
+        MQPMOView pmo = new MQPMOView(buffer, 0);
+        assertEquals(MQPMO_VERSION_1, pmo.getVersion());
+        assertEquals(options, pmo.getOptions());
+    }
+
+    @Test
+    public void testGetOptions() {
+        MQDescriptorTemplate template = MQDescriptorTemplates.getOptions(MQGMO_WAIT, 5000, MQMO_MATCH_CORREL_ID);
+        assertSame(template, MQDescriptorTemplates.getOptions(MQGMO_WAIT, 5000, MQMO_MATCH_CORREL_ID));
+        assertNotSame(template, MQDescriptorTemplates.getOptions(MQGMO_WAIT, 1000, MQMO_MATCH_CORREL_ID));
+        // Options and match options are distinct parts of the key
+        assertNotSame(MQDescriptorTemplates.getOptions(1, 0, 2), MQDescriptorTemplates.getOptions(2, 0, 1));
+        assertArrayEquals(MQGMO.createMinimalGMO(MQGMO_WAIT, 5000, MQMO_MATCH_CORREL_ID), template.newCopy());
+
+        ByteBuffer buffer = ByteBuffer.allocate(MQGMOView.allocate().length());
+        template.copyTo(buffer, 0);
+        MQGMOView gmo = new MQGMOView(buffer, 0);
+        assertEquals(MQGMO_VERSION_2, gmo.getVersion());
+        assertEquals(MQGMO_WAIT, gmo.getOptions());
+        assertEquals(5000, gmo.getWaitInterval());
+        assertEquals(MQMO_MATCH_CORREL_ID, gmo.getMatchOptions());
+
+        MQDescriptorTemplates.getOptions(MQGMO_WAIT, MQWI_UNLIMITED, MQMO_NONE).copyTo(buffer, 0);
+        assertEquals(MQWI_UNLIMITED, gmo.getWaitInterval());
+        assertEquals(MQMO_NONE, gmo.getMatchOptions());
+    }
+
+    @Test
+    public void testObjectDescriptor() {
+        MQDescriptorTemplate template = MQDescriptorTemplates.objectDescriptor("DEV.QUEUE.1");
+        assertSame(template, MQDescriptorTemplates.objectDescriptor("DEV.QUEUE.1"));
+
+        assertEquals(MQODView.MQOD_LENGTH_4, template.length());
+        ByteBuffer buffer = ByteBuffer.allocate(template.length());
+        template.copyTo(buffer, 0);
+        MQODView od = new MQODView(buffer, 0);
+        assertEquals(MQOD_VERSION_1, od.getVersion());
+        assertEquals(MQOT_Q, od.getObjectType());
+        assertEquals("DEV.QUEUE.1", od.getObjectName());
+        assertEquals(MQ_Q_NAME_LENGTH, MQODView.MQ_OBJECT_NAME_LENGTH);
+        assertArrayEquals(MQNameCodec.DEFAULT.encode("DEV.QUEUE.1", MQ_Q_NAME_LENGTH),
+                Arrays.copyOfRange(template.newCopy(), MQODView.OBJECT_NAME_OFFSET,
+                        MQODView.OBJECT_NAME_OFFSET + MQ_Q_NAME_LENGTH));
+    }
+
+    @Test
+    public void testCopies() {
+        MQDescriptorTemplate template = MQDescriptorTemplates.msgDesc(MQFMT_NONE, "APP.REPLY");
+        byte[] expected = template.newCopy();
+        int offset = 16;
+
+        byte[] array = new byte[template.length() + offset];
+        template.copyTo(array);
+        assertArrayEquals(expected, Arrays.copyOf(array, template.length()));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(template.length() + offset);
+        template.copyTo(buffer, offset);
+        byte[] copied = new byte[template.length()];
+        buffer.get(offset, copied);
+        assertArrayEquals(expected, copied);
+        assertEquals(0, buffer.position());
+
+        try (Memory memory = new Memory(template.length() + offset)) {
+            memory.clear();
+            template.copyTo(memory, offset);
+            assertArrayEquals(expected, memory.getByteArray(offset, template.length()));
+            assertEquals(0, memory.getByte(offset - 1));
+        }
+
+        // A copy updated in place leaves the template as it was
+        byte[] copy = template.newCopy();
+        copy[MQMD.MSG_ID_OFFSET] = 1;
+        assertArrayEquals(expected, template.newCopy());
+        assertNotSame(template.newCopy(), template.newCopy());
+    }
+
+    @Test
+    public void testRegistryLimit() {
+        // Reply queues of a format of their own, so that the other variants stay cached
+        String format = "LIMIT   ";
+        for (int i = 0; i < MQDescriptorTemplates.MAX_TEMPLATES; i++) {
+            MQDescriptorTemplates.msgDesc(format, "LIMIT.Q." + i);
+        }
+        // Past the limit, a variant is built on each call, with the same contents
+        MQDescriptorTemplate first = MQDescriptorTemplates.msgDesc(format, "LIMIT.BEYOND");
+        MQDescriptorTemplate second = MQDescriptorTemplates.msgDesc(format, "LIMIT.BEYOND");
+        assertNotSame(first, second);
+        assertArrayEquals(first.newCopy(), second.newCopy());
+        // The cached variants are still returned
+        assertSame(MQDescriptorTemplates.msgDesc(format, "LIMIT.Q.0"), MQDescriptorTemplates.msgDesc(format, "LIMIT.Q.0"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LRU eviction, statistics and invalidation of {@link MQHandleCache}, over a binding that records
+ * the MQOPEN and MQCLOSE calls.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQHandleCacheTest {
+
+    private final List<Integer> closed = new ArrayList<>();
+    private int opens;
+
+    private IBMMQJNA recordingBinding() {
+        return RecordingBinding.builder()
+                .on("MQOPEN", args -> {
+                    ((IntByReference) args[3]).setValue(++opens);
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQCLOSE", args -> {
+                    closed.add(((IntByReference) args[1]).getValue());
+                    ((IntByReference) args[1]).setValue(MQHO_NONE);
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .build();
+    }
+
+    @Test
+    public void testHitsAndMisses() throws MQCallException {
+        try (MQHandleCache cache = new MQHandleCache(recordingBinding(), 1, 4)) {
+            int hObj = cache.open("Q1", MQOO_OUTPUT);
+            assertEquals(hObj, cache.open("Q1", MQOO_OUTPUT));
+            // Same queue, other options: another handle
+            assertNotEquals(hObj, cache.open("Q1", MQOO_INPUT_SHARED));
+
+            assertEquals(2, opens);
+            assertEquals(1, cache.getHits());
+            assertEquals(2, cache.getMisses());
+            assertEquals(2, cache.size());
+        }
+        assertEquals(List.of(1, 2), closed);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws MQCallException {
+        try (MQHandleCache cache = new MQHandleCache(recordingBinding(), 1, 2)) {
+            int q1 = cache.open("Q1", MQOO_OUTPUT);
+            int q2 = cache.open("Q2", MQOO_OUTPUT);
+            cache.open("Q1", MQOO_OUTPUT);
+            cache.open("Q3", MQOO_OUTPUT);
+
+            assertEquals(List.of(q2), closed);
+            assertEquals(1, cache.getEvictions());
+            assertEquals(2, cache.size());
+            assertEquals(q1, cache.open("Q1", MQOO_OUTPUT));
+        }
+    }
+
+    @Test
+    public void testObjectChangedInvalidates() throws MQCallException {
+        try (MQHandleCache cache = new MQHandleCache(recordingBinding(), 1, 2)) {
+            int hObj = cache.open("Q1", MQOO_OUTPUT);
+            assertFalse(cache.invalidateIfChanged("Q1", MQOO_OUTPUT, MQRC_NONE));
+            assertTrue(cache.invalidateIfChanged("Q1", MQOO_OUTPUT, MQRC_OBJECT_CHANGED));
+
+            assertEquals(List.of(hObj), closed);
+            assertEquals(1, cache.getInvalidations());
+            assertNotEquals(hObj, cache.open("Q1", MQOO_OUTPUT));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Memory;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Byte layout, hex form and value semantics of {@link MQId}
+ */
+public class MQIdTest {
+
+    private static byte[] sequence() {
+        byte[] bytes = new byte[MQId.LENGTH];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (0xF0 + i);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testRoundTripsThroughTargets() {
+        byte[] bytes = sequence();
+        MQId id = MQId.of(bytes);
+        assertArrayEquals(bytes, id.toBytes());
+
+        byte[] msgDesc = new byte[MQMD.MQMD_LENGTH_1];
+        id.writeTo(msgDesc, MQMD.CORREL_ID_OFFSET);
+        assertEquals(id, MQId.read(msgDesc, MQMD.CORREL_ID_OFFSET));
+        assertTrue(id.matches(msgDesc, MQMD.CORREL_ID_OFFSET));
+        assertFalse(id.matches(msgDesc, MQMD.MSG_ID_OFFSET));
+
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(40).order(order);
+            id.writeTo(buffer, 8);
+            byte[] written = new byte[MQId.LENGTH];
+            buffer.get(8, written);
+            assertArrayEquals(bytes, written);
+            assertEquals(id, MQId.read(buffer, 8));
+        }
+
+        Memory memory = new Memory(40);
+        id.writeTo(memory, 16);
+        assertArrayEquals(bytes, memory.getByteArray(16, MQId.LENGTH));
+        assertEquals(id, MQId.read(memory, 16));
+    }
+
+    @Test
+    public void testHex() {
+        MQId id = MQId.of(sequence());
+        String hex = "F0F1F2F3F4F5F6F7F8F9FAFBFCFDFEFF0001020304050607";
+
+        assertEquals(hex, id.toHex());
+        assertEquals(id, MQId.fromHex(hex));
+        assertEquals(id, MQId.fromHex(hex.toLowerCase()));
+        assertThrows(IllegalArgumentException.class, () -> MQId.fromHex(hex.substring(2)));
+        assertThrows(IllegalArgumentException.class, () -> MQId.fromHex(hex.replace('A', 'G')));
+
+        MQMD md = new MQMD();
+        System.arraycopy(sequence(), 0, md.MsgId, 0, MQId.LENGTH);
+        assertEquals(hex, md.getMsgIdHex());
+    }
+
+    @Test
+    public void testValue() {
+        byte[] bytes = sequence();
+        MQId id = MQId.of(bytes);
+        bytes[MQId.LENGTH - 1]++;
+        MQId next = MQId.of(bytes);
+
+        assertEquals(id, MQId.of(sequence()));
+        assertEquals(id.hashCode(), MQId.of(sequence()).hashCode());
+        assertNotEquals(id, next);
+        assertTrue(id.compareTo(next) < 0);
+        // Unsigned: 0xF0 sorts after 0x00
+        assertTrue(id.compareTo(MQId.NONE) > 0);
+
+        assertSame(MQId.NONE, MQId.of(new byte[MQId.LENGTH]));
+        assertTrue(MQId.NONE.isNone());
+        assertFalse(id.isNone());
+        assertThrows(IllegalArgumentException.class, () -> MQId.of(new byte[16]));
+    }
+}
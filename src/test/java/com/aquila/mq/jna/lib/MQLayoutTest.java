@@ -0,0 +1,153 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCBCLayout;
+import com.aquila.mq.jna.lib.layout.MQCHARVLayout;
+import com.aquila.mq.jna.lib.layout.MQCMHOLayout;
+import com.aquila.mq.jna.lib.layout.MQCNOLayout;
+import com.aquila.mq.jna.lib.layout.MQCSPLayout;
+import com.aquila.mq.jna.lib.layout.MQDMHOLayout;
+import com.aquila.mq.jna.lib.layout.MQGMOLayout;
+import com.aquila.mq.jna.lib.layout.MQIMPOLayout;
+import com.aquila.mq.jna.lib.layout.MQMDLayout;
+import com.aquila.mq.jna.lib.layout.MQODLayout;
+import com.aquila.mq.jna.lib.layout.MQPDLayout;
+import com.aquila.mq.jna.lib.layout.MQPMOLayout;
+import com.aquila.mq.jna.lib.layout.MQSMPOLayout;
+import com.ibm.mq.constants.CMQC;
+import com.sun.jna.Structure;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Layouts generated from cmqc.h by MQLayoutGenerator, checked against the offsets JNA computes
+ * for the {@link Structure} mappings, the lengths of {@link CMQC} and the 64-bit structure sizes of
+ * the IBM MQ classes for Java, and the offsets the views and {@link MQMessageBuffer} take from them
+ */
+public class MQLayoutTest {
+
+    private static final int POINTER_SIZE = 8;
+
+    private static int fieldOffset(Structure structure, String field) throws ReflectiveOperationException {
+        Method fieldOffset = Structure.class.getDeclaredMethod("fieldOffset", String.class);
+        fieldOffset.setAccessible(true);
+        return (Integer) fieldOffset.invoke(structure, field);
+    }
+
+    /**
+     * Every field of the JNA mapping is at the offset of the generated layout
+     */
+    private static void assertSameLayout(Structure structure, Class<?> layout, int size) throws ReflectiveOperationException {
+        for (String field : structure.getClass().getAnnotation(Structure.FieldOrder.class).value()) {
+            String constant = field.replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                    .replaceAll("([A-Z])([A-Z][a-z])", "$1_$2")
+                    .toUpperCase() + "_OFFSET";
+            assertEquals(fieldOffset(structure, field), layout.getField(constant).getInt(null),
+                    layout.getSimpleName() + "." + constant);
+        }
+        assertEquals(size, structure.size(), layout.getSimpleName() + ".SIZE");
+    }
+
+    @Test
+    public void testLayoutsMatchTheStructureMappings() throws ReflectiveOperationException {
+        assertSameLayout(new MQMD(), MQMDLayout.class, MQMDLayout.SIZE);
+        assertSameLayout(new MQGMO(), MQGMOLayout.class, MQGMOLayout.SIZE);
+        assertSameLayout(new MQPMO(), MQPMOLayout.class, MQPMOLayout.SIZE);
+        assertSameLayout(new MQOD(), MQODLayout.class, MQODLayout.SIZE);
+        assertSameLayout(new MQCNO(), MQCNOLayout.class, MQCNOLayout.SIZE);
+    }
+
+    @Test
+    public void testLengthsMatchTheConstants() {
+        assertEquals(CMQC.MQMD_LENGTH_1, MQMDLayout.LENGTH_1);
+        assertEquals(CMQC.MQMD_LENGTH_2, MQMDLayout.LENGTH_2);
+        assertEquals(CMQC.MQGMO_LENGTH_1, MQGMOLayout.LENGTH_1);
+        assertEquals(CMQC.MQGMO_LENGTH_2, MQGMOLayout.LENGTH_2);
+        assertEquals(CMQC.MQGMO_LENGTH_3, MQGMOLayout.LENGTH_3);
+        assertEquals(CMQC.MQGMO_LENGTH_4, MQGMOLayout.LENGTH_4);
+        assertEquals(CMQC.MQPMO_LENGTH_1, MQPMOLayout.LENGTH_1);
+        assertEquals(CMQC.MQOD_LENGTH_1, MQODLayout.LENGTH_1);
+        assertEquals(CMQC.MQCNO_LENGTH_1, MQCNOLayout.LENGTH_1);
+        assertEquals(CMQC.MQCNO_CURRENT_VERSION, MQCNOLayout.CURRENT_VERSION);
+        assertEquals(CMQC.MQMD_STRUC_ID, MQMDLayout.STRUC_ID);
+
+        // 64-bit lengths, which the Java constants do not carry
+        assertEquals(184, MQPMOLayout.LENGTH_3);
+        assertEquals(424, MQODLayout.LENGTH_4);
+        assertEquals(272, MQCNOLayout.LENGTH_8);
+    }
+
+    /**
+     * Every LENGTH_n of the layout is the size of version n the IBM classes compute for 64-bit
+     * pointers ({@code getSizeVn}), which does not include the padding that cmqc.h may count
+     */
+    private static void assertIbmLengths(Class<?> layout, Class<?> ibm) throws ReflectiveOperationException {
+        for (int version = 1; ; version++) {
+            java.lang.reflect.Field length;
+            try {
+                length = layout.getField("LENGTH_" + version);
+            } catch (NoSuchFieldException e) {
+                assertTrue(version > 1, layout.getSimpleName() + " has no LENGTH_1");
+                return;
+            }
+            int expected = (Integer) ibm.getMethod("getSizeV" + version, int.class).invoke(null, POINTER_SIZE);
+            int actual = length.getInt(null);
+            assertTrue(actual == expected || actual == (expected + POINTER_SIZE - 1) / POINTER_SIZE * POINTER_SIZE,
+                    layout.getSimpleName() + ".LENGTH_" + version + " = " + actual + ", IBM size " + expected);
+        }
+    }
+
+    @Test
+    public void testLengthsMatchTheIbmClasses() throws ReflectiveOperationException {
+        assertIbmLengths(MQMDLayout.class, com.ibm.mq.jmqi.MQMD.class);
+        assertIbmLengths(MQGMOLayout.class, com.ibm.mq.jmqi.MQGMO.class);
+        assertIbmLengths(MQPMOLayout.class, com.ibm.mq.jmqi.MQPMO.class);
+        assertIbmLengths(MQODLayout.class, com.ibm.mq.jmqi.MQOD.class);
+        assertIbmLengths(MQCNOLayout.class, com.ibm.mq.jmqi.MQCNO.class);
+        assertIbmLengths(MQCSPLayout.class, com.ibm.mq.exits.MQCSP.class);
+        assertIbmLengths(MQSMPOLayout.class, com.ibm.mq.jmqi.MQSMPO.class);
+        assertIbmLengths(MQPDLayout.class, com.ibm.mq.jmqi.MQPD.class);
+        assertIbmLengths(MQIMPOLayout.class, com.ibm.mq.jmqi.MQIMPO.class);
+        assertIbmLengths(MQCMHOLayout.class, com.ibm.mq.jmqi.MQCMHO.class);
+        assertIbmLengths(MQDMHOLayout.class, com.ibm.mq.jmqi.MQDMHO.class);
+        assertIbmLengths(MQCBCLayout.class, com.ibm.mq.jmqi.MQCBC.class);
+        assertEquals(com.ibm.mq.jmqi.MQCHARV.getSize(POINTER_SIZE), MQCHARVLayout.SIZE);
+    }
+
+    @Test
+    public void testMessageBufferBlock() {
+        assertEquals(0, MQMessageBuffer.MSG_DESC_OFFSET);
+        assertEquals(368, MQMessageBuffer.PUT_OPTIONS_OFFSET);
+        assertEquals(552, MQMessageBuffer.GET_OPTIONS_OFFSET);
+        assertEquals(664, MQMessageBuffer.DATA_OFFSET);
+        assertEquals(0, MQMessageBuffer.PUT_OPTIONS_OFFSET % 8);
+        assertEquals(0, MQMessageBuffer.GET_OPTIONS_OFFSET % 8);
+        assertEquals(0, MQMessageBuffer.DATA_OFFSET % 8);
+    }
+
+    @Test
+    public void testWellKnownOffsets() {
+        assertEquals(48, MQMD.MSG_ID_OFFSET);
+        assertEquals(72, MQMD.CORREL_ID_OFFSET);
+        assertEquals(24, MQMD.MQ_MSG_ID_LENGTH);
+        assertEquals(28, MQMDView.CCSID_OFFSET);
+        assertEquals(100, MQMDView.REPLY_TO_Q_OFFSET);
+        assertEquals(324, MQMDView.GROUP_ID_OFFSET);
+        assertEquals(96, MQGMOView.RETURNED_LENGTH_OFFSET);
+        assertEquals(104, MQGMOView.MSG_HANDLE_OFFSET);
+        assertEquals(160, MQPMOView.ORIGINAL_MSG_HANDLE_OFFSET);
+        assertEquals(180, MQPMOView.PUB_LEVEL_OFFSET);
+        assertEquals(344, MQODView.OBJECT_STRING_OFFSET);
+        assertEquals(416, MQODView.RESOLVED_TYPE_OFFSET);
+        assertEquals(192, MQCNOLayout.SECURITY_PARMS_PTR_OFFSET);
+        assertEquals(16, MQCNOLayout.CLIENT_CONN_PTR_OFFSET);
+        assertEquals(16, MQCSPLayout.CSP_USER_ID_PTR_OFFSET);
+        assertEquals(52, MQCSPLayout.CSP_PASSWORD_LENGTH_OFFSET);
+        assertEquals(20, MQPDLayout.COPY_OPTIONS_OFFSET);
+        assertEquals(32, MQIMPOLayout.RETURNED_NAME_OFFSET);
+        assertEquals(20, MQCHARVLayout.VSCCSID_OFFSET);
+        assertEquals(44, MQCBCLayout.DATA_LENGTH_OFFSET);
+    }
+}
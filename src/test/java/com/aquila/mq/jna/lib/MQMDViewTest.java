@@ -0,0 +1,121 @@
+package com.aquila.mq.jna.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Decoding of a received descriptor in place by {@link MQMDView}: the format, names and ids are read
+ * from the descriptor bytes only when asked for, and compared without being copied
+ */
+public class MQMDViewTest {
+
+    private static final MQId MSG_ID = MQId.fromHex("414d5120514d31202020202020202020b1b2b3b4b5b6b7b8");
+    private static final MQId CORREL_ID = MQId.fromHex("0000000000000000000000000000000000000000000000ff");
+
+    /**
+     * A descriptor as received by a consumer: Version 2 bytes written through the JNA mapping
+     */
+    private static byte[] received(String format) {
+        MQMD md = new MQMD();
+        md.MsgType = MQMT_REPLY;
+        md.setFormat(format);
+        md.setReplyToQ("APP.REPLY");
+        System.arraycopy(MSG_ID.toBytes(), 0, md.MsgId, 0, MQ_MSG_ID_LENGTH);
+        System.arraycopy(CORREL_ID.toBytes(), 0, md.CorrelId, 0, MQ_CORREL_ID_LENGTH);
+        md.BackoutCount = 2;
+        System.arraycopy("app".getBytes(StandardCharsets.US_ASCII), 0, md.UserIdentifier, 0, 3);
+        System.arraycopy("20261017".getBytes(StandardCharsets.US_ASCII), 0, md.PutDate, 0, 8);
+        md.MsgSeqNumber = 4;
+        return md.toBytes();
+    }
+
+    @Test
+    public void testFormat() {
+        MQMDView md = new MQMDView(ByteBuffer.wrap(received(MQFMT_STRING)), 0);
+        assertTrue(md.isFormat(MQFMT_STRING));
+        assertTrue(md.isFormat(MQFMT_STRING.trim()));
+        assertFalse(md.isFormat(MQFMT_NONE));
+        assertFalse(md.isFormat("MQSTRX"));
+        // The common formats are returned as shared strings, without decoding
+        assertEquals("MQSTR", md.getFormat());
+        assertSame(md.getFormat(), md.getFormat());
+        assertSame(md.getFormat(), new MQMDView(ByteBuffer.wrap(received(MQFMT_STRING)), 0).getFormat());
+
+        md.wrap(ByteBuffer.wrap(received(MQFMT_NONE)), 0);
+        assertEquals("", md.getFormat());
+        assertTrue(md.isFormat(MQFMT_NONE));
+        assertTrue(md.isFormat(""));
+        md.wrap(ByteBuffer.wrap(received(MQFMT_ADMIN)), 0);
+        assertSame(md.getFormat(), md.getFormat());
+        assertEquals("MQADMIN", md.getFormat());
+
+        // Other formats are decoded
+        md.wrap(ByteBuffer.wrap(received("APPFMT")), 0);
+        assertEquals("APPFMT", md.getFormat());
+        assertNotSame(md.getFormat(), md.getFormat());
+    }
+
+    @Test
+    public void testIds() {
+        MQMDView md = new MQMDView(ByteBuffer.wrap(received(MQFMT_STRING)), 0);
+        assertTrue(md.hasMsgId(MSG_ID.toBytes()));
+        assertTrue(md.hasCorrelId(CORREL_ID.toBytes()));
+        assertFalse(md.hasMsgId(CORREL_ID.toBytes()));
+        assertFalse(md.hasCorrelId(new byte[MQ_CORREL_ID_LENGTH]));
+        // An array of another length never matches
+        assertFalse(md.hasMsgId(new byte[8]));
+
+        assertEquals(MSG_ID, md.msgId());
+        assertEquals(CORREL_ID, md.correlId());
+        byte[] msgId = new byte[MQ_MSG_ID_LENGTH];
+        md.getMsgId(msgId);
+        assertArrayEquals(MSG_ID.toBytes(), msgId);
+    }
+
+    @Test
+    public void testNamesAreTrimmed() {
+        byte[] bytes = received(MQFMT_STRING);
+        MQMDView md = new MQMDView(ByteBuffer.wrap(bytes), 0);
+        assertEquals("APP.REPLY", md.getReplyToQ());
+        assertEquals("", md.getReplyToQMgr());
+        assertEquals("app", md.getUserIdentifier());
+        assertEquals("20261017", md.getPutDate());
+        assertEquals(MQMT_REPLY, md.getMsgType());
+        assertEquals(2, md.getBackoutCount());
+        assertEquals(4, md.getMsgSeqNumber());
+
+        // Trailing NULs are trimmed like blanks
+        bytes[MQMDView.REPLY_TO_Q_OFFSET + 9] = 0;
+        bytes[MQMDView.REPLY_TO_Q_OFFSET + 47] = 0;
+        assertEquals("APP.REPLY", md.getReplyToQ());
+    }
+
+    @Test
+    public void testReadsTheCurrentBytes() {
+        // Nothing is decoded ahead: a descriptor updated in place is read as it is now
+        byte[] bytes = received(MQFMT_STRING);
+        MQMDView md = new MQMDView(ByteBuffer.wrap(bytes), 0);
+        assertEquals("MQSTR", md.getFormat());
+        System.arraycopy(MQFMT_PCF.getBytes(StandardCharsets.US_ASCII), 0, bytes, MQMDView.FORMAT_OFFSET, 8);
+        assertEquals("MQPCF", md.getFormat());
+        System.arraycopy(CORREL_ID.toBytes(), 0, bytes, MQMD.MSG_ID_OFFSET, MQ_MSG_ID_LENGTH);
+        assertTrue(md.hasMsgId(CORREL_ID.toBytes()));
+    }
+
+    @Test
+    public void testConsumedMessage() {
+        MQConsumer.ConsumedMessage message = new MQConsumer.ConsumedMessage("APP.IN", received(MQFMT_STRING), new byte[0]);
+        MQMDView md = message.msgDesc();
+        assertSame(md, message.msgDesc());
+        assertTrue(md.isFormat(MQFMT_STRING));
+        assertTrue(md.hasCorrelId(CORREL_ID.toBytes()));
+        assertEquals(MSG_ID, message.msgId());
+        assertEquals(CORREL_ID, message.correlId());
+        assertArrayEquals(MSG_ID.toBytes(), message.getMsgId());
+    }
+}
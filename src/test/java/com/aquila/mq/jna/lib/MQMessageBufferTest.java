@@ -0,0 +1,267 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Layout of the native block of {@link MQMessageBuffer}: the descriptor, options and payload are
+ * written at their offsets and passed in place to MQPUT and MQGET, over a binding that records the
+ * pointers and plays a queue holding one message.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQMessageBufferTest {
+
+    private static final MQId MSG_ID = MQId.fromHex("414d5120514d31202020202020202020" + "0102030405060708");
+
+    // MQMD, options and buffer pointers and the length passed to each call
+    private final List<Pointer[]> pointers = new ArrayList<>();
+    private final List<Integer> lengths = new ArrayList<>();
+    private byte[] queued = "queued message".getBytes(StandardCharsets.US_ASCII);
+
+    private IBMMQJNA queue() {
+        return RecordingBinding.builder()
+                .on("MQPUT", args -> {
+                    pointers.add(new Pointer[]{(Pointer) args[2], (Pointer) args[3], (Pointer) args[5]});
+                    lengths.add((Integer) args[4]);
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQGET", args -> {
+                    Pointer md = (Pointer) args[2];
+                    Pointer buffer = (Pointer) args[5];
+                    int bufferLength = (Integer) args[4];
+                    pointers.add(new Pointer[]{md, (Pointer) args[3], buffer});
+                    lengths.add(bufferLength);
+                    MSG_ID.writeTo(md, MQMD.MSG_ID_OFFSET);
+                    buffer.write(0, queued, 0, Math.min(queued.length, bufferLength));
+                    ((IntByReference) args[6]).setValue(queued.length);
+                    if (queued.length > bufferLength) {
+                        RecordingBinding.complete(args, MQCC_WARNING, MQRC_TRUNCATED_MSG_ACCEPTED);
+                    } else {
+                        RecordingBinding.complete(args, MQRC_NONE);
+                    }
+                })
+                .build();
+    }
+
+    @Test
+    public void testDefaults() {
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 64)) {
+            MQMDView md = message.msgDesc();
+            assertEquals(MQMessageBuffer.MSG_DESC_OFFSET, md.getOffset());
+            assertEquals(MQMD_STRUC_ID, new String(md.toBytes(), 0, 4, StandardCharsets.US_ASCII));
+            assertEquals(MQMD_VERSION_1, md.getVersion());
+            assertEquals(MQMT_DATAGRAM, md.getMsgType());
+            assertTrue(md.isFormat(MQFMT_NONE));
+
+            MQPMOView pmo = message.putOptions();
+            assertEquals(MQMessageBuffer.PUT_OPTIONS_OFFSET, pmo.getOffset());
+            assertEquals(MQPMO_VERSION_1, pmo.getVersion());
+            assertEquals(MQPMO_NO_SYNCPOINT, pmo.getOptions());
+
+            MQGMOView gmo = message.getOptions();
+            assertEquals(MQMessageBuffer.GET_OPTIONS_OFFSET, gmo.getOffset());
+            assertEquals(MQGMO_VERSION_2, gmo.getVersion());
+            assertEquals(MQGMO_NO_WAIT, gmo.getOptions());
+            assertEquals(0, gmo.getWaitInterval());
+            assertEquals(MQMO_NONE, gmo.getMatchOptions());
+
+            assertEquals(64, message.getCapacity());
+            assertEquals(0, message.getDataLength());
+        }
+    }
+
+    @Test
+    public void testPointersShareTheBlock() {
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 64)) {
+            Pointer block = message.getMsgDescPointer();
+            assertEquals(Pointer.nativeValue(block) + MQMessageBuffer.PUT_OPTIONS_OFFSET,
+                    Pointer.nativeValue(message.getPutOptionsPointer()));
+            assertEquals(Pointer.nativeValue(block) + MQMessageBuffer.GET_OPTIONS_OFFSET,
+                    Pointer.nativeValue(message.getGetOptionsPointer()));
+            assertEquals(Pointer.nativeValue(block) + MQMessageBuffer.DATA_OFFSET,
+                    Pointer.nativeValue(message.getDataPointer()));
+
+            // The views and the pointers read the same memory
+            message.setPutOptions(MQPMO_SYNCPOINT | MQPMO_NEW_MSG_ID);
+            assertEquals(MQPMO_SYNCPOINT | MQPMO_NEW_MSG_ID, message.putOptions().getOptions());
+            message.getOptions().setWaitInterval(2500);
+            assertEquals(2500, message.getGetOptionsPointer().getInt(MQGMOView.WAIT_INTERVAL_OFFSET));
+            message.msgDesc().setPriority(7);
+            assertEquals(7, block.getInt(MQMDView.PRIORITY_OFFSET));
+        }
+    }
+
+    @Test
+    public void testOptionFields() {
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 64)) {
+            message.setGetOptions(MQGMO_WAIT | MQGMO_SYNCPOINT, 5000, MQMO_MATCH_CORREL_ID);
+            Pointer gmo = message.getGetOptionsPointer();
+            assertEquals(MQGMO_WAIT | MQGMO_SYNCPOINT, gmo.getInt(MQGMOView.OPTIONS_OFFSET));
+            assertEquals(5000, gmo.getInt(MQGMOView.WAIT_INTERVAL_OFFSET));
+            assertEquals(MQMO_MATCH_CORREL_ID, gmo.getInt(MQGMOView.MATCH_OPTIONS_OFFSET));
+
+            message.setPutOptions(MQDescriptorTemplates.putOptions(MQPMO_FAIL_IF_QUIESCING));
+            assertEquals(MQPMO_FAIL_IF_QUIESCING, message.putOptions().getOptions());
+            message.setGetOptions(MQGMO.createMinimalGMO(MQGMO_NO_SYNCPOINT, 100, MQMO_MATCH_MSG_ID));
+            assertEquals(MQGMO_NO_SYNCPOINT, message.getOptions().getOptions());
+            assertEquals(100, message.getOptions().getWaitInterval());
+            assertEquals(MQMO_MATCH_MSG_ID, message.getOptions().getMatchOptions());
+
+            message.setMsgDesc(MQDescriptorTemplates.msgDesc(MQFMT_STRING, "APP.REPLY"));
+            assertEquals(MQMT_REQUEST, message.msgDesc().getMsgType());
+            assertEquals("APP.REPLY", message.msgDesc().getReplyToQ());
+            message.setMsgDesc(MQMD.createMinimalMD(MQFMT_NONE, MQMT_DATAGRAM, null));
+            assertTrue(message.msgDesc().isFormat(MQFMT_NONE));
+            assertEquals("", message.msgDesc().getReplyToQ());
+        }
+    }
+
+    @Test
+    public void testMessageHandles() {
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 64)) {
+            message.setPutMsgHandle(0x1234_5678_9ABCL);
+            MQPMOView pmo = message.putOptions();
+            assertEquals(MQPMO_VERSION_3, pmo.getVersion());
+            assertEquals(0x1234_5678_9ABCL, pmo.getOriginalMsgHandle());
+            assertEquals(9, message.getPutOptionsPointer().getInt(MQPMOView.PUB_LEVEL_OFFSET));
+            message.setPutMsgHandle(MQHM_NONE);
+            assertEquals(MQPMO_VERSION_3, pmo.getVersion());
+            assertEquals(MQHM_NONE, pmo.getOriginalMsgHandle());
+
+            message.setGetMsgHandle(42L);
+            MQGMOView gmo = message.getOptions();
+            assertEquals(MQGMO_VERSION_4, gmo.getVersion());
+            assertEquals(42L, gmo.getMsgHandle());
+            assertEquals(42L, message.getGetOptionsPointer().getLong(MQGMOView.MSG_HANDLE_OFFSET));
+        }
+    }
+
+    @Test
+    public void testIds() {
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 64)) {
+            MQId correlId = MQId.fromHex("00112233445566778899aabbccddeeff0011223344556677");
+            message.setMsgId(MSG_ID);
+            message.setCorrelId(correlId);
+            assertEquals(MSG_ID, message.msgId());
+            assertEquals(correlId, message.correlId());
+            assertEquals(MSG_ID, message.msgDesc().msgId());
+            assertArrayEquals(MSG_ID.toBytes(),
+                    message.getMsgDescPointer().getByteArray(MQMD.MSG_ID_OFFSET, MQMD.MQ_MSG_ID_LENGTH));
+
+            byte[] bytes = new byte[MQMD.MQ_CORREL_ID_LENGTH];
+            message.getCorrelId(bytes);
+            assertArrayEquals(correlId.toBytes(), bytes);
+            message.setMsgId(correlId.toBytes());
+            byte[] msgId = new byte[MQMD.MQ_MSG_ID_LENGTH];
+            message.getMsgId(msgId);
+            assertArrayEquals(correlId.toBytes(), msgId);
+
+            message.resetForGet();
+            assertTrue(message.msgId().isNone());
+            assertTrue(message.correlId().isNone());
+            // The fields either side are left alone
+            assertEquals(MQMT_DATAGRAM, message.msgDesc().getMsgType());
+            assertEquals(0, message.msgDesc().getBackoutCount());
+        }
+    }
+
+    @Test
+    public void testData() {
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 8)) {
+            byte[] payload = "abcdefghij".getBytes(StandardCharsets.US_ASCII);
+            message.setData(payload, 2, 5);
+            assertEquals(5, message.getDataLength());
+            assertArrayEquals("cdefg".getBytes(StandardCharsets.US_ASCII), message.toByteArray());
+
+            ByteBuffer data = message.getData();
+            assertSame(data, message.getData());
+            assertEquals(0, data.position());
+            assertEquals(5, data.limit());
+            assertEquals('c', data.get(0));
+
+            byte[] dst = new byte[4];
+            assertEquals(3, message.copyData(dst, 1));
+            assertArrayEquals(new byte[]{0, 'c', 'd', 'e'}, dst);
+
+            assertThrows(IllegalArgumentException.class, () -> message.setData(payload, 0, 9));
+            assertThrows(IllegalArgumentException.class, () -> message.setDataLength(9));
+            assertThrows(IllegalArgumentException.class, () -> message.setDataLength(-1));
+            assertEquals(5, message.getDataLength());
+
+            // Written through the data pointer, then sized
+            message.getDataPointer().setByte(7, (byte) 'z');
+            message.setDataLength(8);
+            assertEquals(8, message.getData().limit());
+            assertEquals('z', message.toByteArray()[7]);
+        }
+    }
+
+    @Test
+    public void testPutAndGetPassTheBlock() {
+        MQCallContext ctx = MQCallContext.current();
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 32)) {
+            message.setData(new byte[12], 0, 12);
+            message.put(1, 2, ctx);
+            assertTrue(ctx.isOk());
+            assertEquals(12, (int) lengths.get(0));
+
+            message.resetForGet();
+            message.get(1, 2, ctx);
+            assertTrue(ctx.isOk());
+            assertEquals(32, (int) lengths.get(1));
+            assertEquals(queued.length, message.getDataLength());
+            assertArrayEquals(queued, message.toByteArray());
+            // The queue manager updated the descriptor in place
+            assertEquals(MSG_ID, message.msgId());
+
+            for (Pointer[] call : pointers) {
+                assertEquals(message.getMsgDescPointer(), call[0]);
+                assertEquals(message.getDataPointer(), call[2]);
+            }
+            assertEquals(message.getPutOptionsPointer(), pointers.get(0)[1]);
+            assertEquals(message.getGetOptionsPointer(), pointers.get(1)[1]);
+        }
+    }
+
+    @Test
+    public void testTruncatedGet() {
+        queued = "a message longer than the buffer".getBytes(StandardCharsets.US_ASCII);
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 8)) {
+            IntByReference compCode = new IntByReference();
+            IntByReference reason = new IntByReference();
+            message.get(1, 2, compCode, reason);
+            assertEquals(MQRC_TRUNCATED_MSG_ACCEPTED, reason.getValue());
+            // The data length is capped at the capacity, not the length of the message
+            assertEquals(8, message.getDataLength());
+            assertArrayEquals("a messag".getBytes(StandardCharsets.US_ASCII), message.toByteArray());
+        }
+    }
+
+    @Test
+    public void testGetAtMostBufferLength() {
+        queued = "a message longer than the buffer".getBytes(StandardCharsets.US_ASCII);
+        try (MQMessageBuffer message = new MQMessageBuffer(queue(), 64)) {
+            MQCallContext ctx = MQCallContext.current();
+            message.get(1, 2, 4, ctx);
+            assertEquals(4, lengths.get(0));
+            assertEquals(MQRC_TRUNCATED_MSG_ACCEPTED, ctx.getReason());
+            // The context has the full message length, the block only the bytes got
+            assertEquals(queued.length, ctx.getDataLength());
+            assertEquals(4, message.getDataLength());
+            assertArrayEquals("a me".getBytes(StandardCharsets.US_ASCII), message.toByteArray());
+
+            assertThrows(IllegalArgumentException.class, () -> message.get(1, 2, 65, ctx));
+            assertThrows(IllegalArgumentException.class, () -> message.get(1, 2, -1, ctx));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQCHARVLayout;
+import com.aquila.mq.jna.lib.layout.MQIMPOLayout;
+import com.aquila.mq.jna.lib.layout.MQPDLayout;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property names encoded by {@link MQPropertyName} and the MQSETMP/MQINQMP calls of
+ * {@link MQMessageProperties}, against the stub library, which keeps the properties set and returns
+ * them unconverted.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQMessagePropertiesTest {
+
+    private static final MQPropertyName ROUTING_KEY = MQPropertyName.of("routing.key");
+    private static final MQPropertyName COUNT = MQPropertyName.of("count");
+    private static final MQPropertyName MISSING = MQPropertyName.of("missing");
+
+    private final List<String> calls = new ArrayList<>();
+
+    /**
+     * The stub binding, recording the verbs and checking the option structures passed to MQSETMP/MQINQMP
+     */
+    private IBMMQJNA stub() {
+        IBMMQJNA mq = MQBinding.DIRECT.create();
+        return RecordingBinding.builder()
+                .record(calls)
+                .observe("MQSETMP", args -> {
+                    assertStrucId("SMPO", (Pointer) args[2]);
+                    assertEquals(MQPropertyName.CCSID_UTF8, ((Pointer) args[2]).getInt(16));
+                    assertStrucId("PD  ", (Pointer) args[4]);
+                    assertEquals(MQPD_SUPPORT_OPTIONAL, ((Pointer) args[4]).getInt(MQPDLayout.SUPPORT_OFFSET));
+                    assertEquals(MQCOPY_FORWARD | MQCOPY_PUBLISH | MQCOPY_REPORT,
+                            ((Pointer) args[4]).getInt(MQPDLayout.COPY_OPTIONS_OFFSET));
+                })
+                .observe("MQINQMP", args -> {
+                    Pointer impo = (Pointer) args[2];
+                    assertStrucId("IMPO", impo);
+                    assertEquals(MQIMPO_CONVERT_VALUE | MQIMPO_CONVERT_TYPE, impo.getInt(MQIMPOLayout.OPTIONS_OFFSET));
+                    assertEquals(MQCCSI_APPL,
+                            impo.getInt(MQIMPOLayout.RETURNED_NAME_OFFSET + MQCHARVLayout.VSCCSID_OFFSET));
+                    assertEquals("        ", new String(impo.getByteArray(MQIMPOLayout.TYPE_STRING_OFFSET,
+                            MQIMPOLayout.TYPE_STRING_LENGTH), StandardCharsets.US_ASCII));
+                })
+                .delegate(mq)
+                .build();
+    }
+
+    private static void assertStrucId(String strucId, Pointer structure) {
+        assertEquals(strucId, new String(structure.getByteArray(0, 4), StandardCharsets.US_ASCII));
+        assertEquals(1, structure.getInt(4));
+    }
+
+    @Test
+    public void testPropertyName() {
+        MQPropertyName name = MQPropertyName.of("prix.\u00e9");
+        byte[] utf8 = "prix.\u00e9".getBytes(StandardCharsets.UTF_8);
+        Pointer charv = name.getPointer();
+        // VSPtr points at the name stored right after the MQCHARV
+        assertEquals(Pointer.nativeValue(charv) + MQPropertyName.MQCHARV_LENGTH, Pointer.nativeValue(charv.getPointer(0)));
+        assertArrayEquals(utf8, charv.getPointer(0).getByteArray(0, utf8.length));
+        assertEquals(0, charv.getInt(8));
+        assertEquals(utf8.length, charv.getInt(12));
+        assertEquals(utf8.length, charv.getInt(16));
+        assertEquals(MQPropertyName.CCSID_UTF8, charv.getInt(20));
+        assertEquals("prix.\u00e9", name.getName());
+
+        assertThrows(IllegalArgumentException.class, () -> MQPropertyName.of(""));
+        assertThrows(IllegalArgumentException.class, () -> MQPropertyName.of(null));
+    }
+
+    @Test
+    public void testRoundTrip() throws MQCallException {
+        try (MQMessageProperties properties = new MQMessageProperties(stub(), 1, 64)) {
+            assertNotEquals(MQHM_NONE, properties.getHandle());
+
+            properties.setString(ROUTING_KEY, "orders.\u00e9t\u00e9");
+            assertEquals("orders.\u00e9t\u00e9", properties.getString(ROUTING_KEY));
+            properties.setInt(COUNT, 42);
+            assertEquals(42, properties.getInt(COUNT, -1));
+            properties.setLong(COUNT, 1L << 40);
+            assertEquals(1L << 40, properties.getLong(COUNT, -1L));
+            properties.setBytes(ROUTING_KEY, new byte[]{1, 2, 3});
+            assertArrayEquals(new byte[]{1, 2, 3}, properties.getBytes(ROUTING_KEY));
+            properties.setBoolean(COUNT, true);
+            assertEquals(1, properties.getInt(COUNT, -1));
+        }
+        assertEquals("MQCRTMH", calls.get(0));
+        assertEquals("MQDLTMH", calls.get(calls.size() - 1));
+    }
+
+    @Test
+    public void testMissingProperty() throws MQCallException {
+        try (MQMessageProperties properties = new MQMessageProperties(stub(), 1, 64)) {
+            assertEquals(-1, properties.getInt(MISSING, -1));
+            assertEquals(-1L, properties.getLong(MISSING, -1L));
+            assertNull(properties.getString(MISSING));
+            assertNull(properties.getBytes(MISSING));
+        }
+    }
+
+    @Test
+    public void testCapacity() throws MQCallException {
+        assertThrows(IllegalArgumentException.class, () -> new MQMessageProperties(stub(), 1, 4));
+        try (MQMessageProperties properties = new MQMessageProperties(stub(), 1, 8)) {
+            assertThrows(IllegalArgumentException.class, () -> properties.setString(ROUTING_KEY, "123456789"));
+            assertThrows(IllegalArgumentException.class, () -> properties.setBytes(ROUTING_KEY, new byte[9]));
+            properties.setString(ROUTING_KEY, "12345678");
+            assertEquals("12345678", properties.getString(ROUTING_KEY));
+        }
+        // A capacity or a value too large is refused before any call
+        assertEquals(List.of("MQCRTMH", "MQSETMP", "MQINQMP", "MQDLTMH"), calls);
+    }
+
+    @Test
+    public void testCloseDeletesTheHandleOnce() throws MQCallException {
+        MQMessageProperties properties = new MQMessageProperties(stub(), 1, 16);
+        properties.close();
+        assertEquals(MQHM_NONE, properties.getHandle());
+        properties.close();
+        assertEquals(List.of("MQCRTMH", "MQDLTMH"), calls);
+    }
+
+    @Test
+    public void testMessageBufferHandles() throws MQCallException {
+        try (MQMessageProperties properties = new MQMessageProperties(stub(), 1, 16);
+             MQMessageBuffer message = new MQMessageBuffer(stub(), 16)) {
+            message.setPutMsgHandle(properties.getHandle());
+            message.setGetMsgHandle(properties.getHandle());
+            assertEquals(properties.getHandle(), message.putOptions().getOriginalMsgHandle());
+            assertEquals(properties.getHandle(), message.getOptions().getMsgHandle());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.aquila.mq.jna.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Padding, truncation, caching and CCSIDs of {@link MQNameCodec}
+ */
+public class MQNameCodecTest {
+
+    private static final MQNameCodec UTF8 = MQNameCodec.forCcsid(MQNameCodec.CCSID_UTF8);
+
+    @Test
+    public void testPadsWithBlanks() {
+        byte[] encoded = UTF8.encode("DEV.QUEUE.1", MQNameCodec.MQ_Q_NAME_LENGTH);
+
+        assertEquals(MQNameCodec.MQ_Q_NAME_LENGTH, encoded.length);
+        assertEquals(String.format("%-48s", "DEV.QUEUE.1"), new String(encoded, StandardCharsets.US_ASCII));
+        assertEquals("DEV.QUEUE.1", UTF8.decode(encoded, 0, encoded.length));
+        assertEquals(String.format("%20s", ""), new String(UTF8.encode(null, 20), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testEncodingIsCached() {
+        byte[] first = UTF8.encode("DEV.APP.SVRCONN", MQNameCodec.MQ_CHANNEL_NAME_LENGTH);
+
+        assertSame(first, UTF8.encode("DEV.APP.SVRCONN", MQNameCodec.MQ_CHANNEL_NAME_LENGTH));
+        assertNotSame(first, UTF8.encode("DEV.APP.SVRCONN", MQNameCodec.MQ_Q_NAME_LENGTH));
+    }
+
+    @Test
+    public void testWritesIntoTargets() {
+        byte[] array = new byte[60];
+        UTF8.encode("Q1", array, 4, MQNameCodec.MQ_Q_NAME_LENGTH);
+        assertEquals("Q1", UTF8.decode(array, 4, MQNameCodec.MQ_Q_NAME_LENGTH));
+        assertEquals(0, array[3]);
+        assertEquals(0, array[52]);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(60);
+        buffer.position(10);
+        UTF8.encode("Q2", buffer, 4, MQNameCodec.MQ_Q_NAME_LENGTH);
+        assertEquals("Q2", UTF8.decode(buffer, 4, MQNameCodec.MQ_Q_NAME_LENGTH));
+        assertEquals(10, buffer.position());
+    }
+
+    @Test
+    public void testTruncatesOnCharacterBoundary() {
+        // "é" is 2 bytes in UTF-8: the third one does not fit in 5 bytes
+        byte[] encoded = UTF8.encode("ééé", 5);
+
+        assertArrayEquals(new byte[]{(byte) 0xC3, (byte) 0xA9, (byte) 0xC3, (byte) 0xA9, ' '}, encoded);
+        assertEquals("éé", UTF8.decode(encoded, 0, 5));
+    }
+
+    @Test
+    public void testEbcdic() {
+        MQNameCodec ebcdic = MQNameCodec.forCcsid(500);
+        byte[] encoded = ebcdic.encode("Q1", 4);
+
+        // 'Q', '1' and the EBCDIC blank
+        assertArrayEquals(new byte[]{(byte) 0xD8, (byte) 0xF1, 0x40, 0x40}, encoded);
+        assertEquals("Q1", ebcdic.decode(encoded, 0, 4));
+        assertSame(ebcdic, MQNameCodec.forCcsid(500));
+    }
+
+    @Test
+    public void testMatches() {
+        ByteBuffer buffer = ByteBuffer.wrap(UTF8.encode("MQSTR", 8));
+
+        assertTrue(UTF8.matches("MQSTR", buffer, 0, 8));
+        assertTrue(UTF8.matches("MQSTR   ", buffer, 0, 8));
+        assertFalse(UTF8.matches("MQST", buffer, 0, 8));
+        assertFalse(UTF8.matches("MQSTRING", buffer, 0, 8));
+
+        MQNameCodec ebcdic = MQNameCodec.forCcsid(500);
+        assertTrue(ebcdic.matches("MQSTR", ByteBuffer.wrap(ebcdic.encode("MQSTR", 8)), 0, 8));
+        assertFalse(ebcdic.matches("MQSTR", buffer, 0, 8));
+    }
+
+    @Test
+    public void testUnknownCcsid() {
+        assertThrows(IllegalArgumentException.class, () -> MQNameCodec.forCcsid(99999));
+    }
+}
@@ -0,0 +1,52 @@
+package com.aquila.mq.jna.lib;
+
+import com.aquila.mq.jna.lib.layout.MQGMOLayout;
+import com.aquila.mq.jna.lib.layout.MQMDLayout;
+import com.aquila.mq.jna.lib.layout.MQODLayout;
+import com.aquila.mq.jna.lib.layout.MQPMOLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The Panama binding, run by failsafe in the java22 profile against the multi-release jar, where
+ * the classes of {@code META-INF/versions/22} replace the Java 17 ones.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQPanamaBindingIT {
+
+    @AfterEach
+    public void clearProperty() {
+        System.clearProperty(MQBinding.BINDING_PROPERTY);
+    }
+
+    @Test
+    public void testPanamaBinding() {
+        IBMMQJNA mq = MQBinding.PANAMA.create();
+        assertEquals("IBMMQPanama", mq.getClass().getSimpleName());
+        MQBindingTest.assertVerbs(mq);
+    }
+
+    @Test
+    public void testLoad() {
+        System.setProperty(MQBinding.BINDING_PROPERTY, "panama");
+        assertEquals("IBMMQPanama", MQBinding.load().getClass().getSimpleName());
+    }
+
+    /**
+     * The layouts of the Panama binding agree with the ones generated from cmqc.h
+     */
+    @Test
+    public void testLayouts() throws ReflectiveOperationException {
+        Class<?> layouts = Class.forName(MQBinding.class.getPackageName() + ".MQLayouts");
+        Method byteSize = Class.forName("java.lang.foreign.MemoryLayout").getMethod("byteSize");
+        assertEquals(MQMDLayout.SIZE, ((Long) byteSize.invoke(layouts.getDeclaredField("MQMD").get(null))).intValue());
+        assertEquals(MQGMOLayout.SIZE, ((Long) byteSize.invoke(layouts.getDeclaredField("MQGMO").get(null))).intValue());
+        assertEquals(MQPMOLayout.SIZE, ((Long) byteSize.invoke(layouts.getDeclaredField("MQPMO").get(null))).intValue());
+        assertEquals(MQODLayout.SIZE, ((Long) byteSize.invoke(layouts.getDeclaredField("MQOD").get(null))).intValue());
+    }
+}
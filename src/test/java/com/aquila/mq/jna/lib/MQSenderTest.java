@@ -0,0 +1,67 @@
+package com.aquila.mq.jna.lib;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Message descriptors sent by {@link MQSender}, over a binding that records the MQMD of each
+ * MQPUT1.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQSenderTest {
+
+    private final List<MQMDView> sent = new ArrayList<>();
+
+    private MQSender recordingSender() {
+        IBMMQJNA mq = RecordingBinding.builder()
+                .on("MQPUT1", args -> {
+                    // The sender passes a Version 1 MQMD: widen it for the view
+                    byte[] md = (byte[]) args[2];
+                    ByteBuffer copy = ByteBuffer.allocate(MQMD.MQMD_LENGTH_2).put(md, 0, md.length);
+                    sent.add(new MQMDView(copy, 0));
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .build();
+        return new MQSender(mq, 1);
+    }
+
+    @Test
+    public void testDatagram() throws MQCallException {
+        recordingSender().send("APP.IN", "hello".getBytes(StandardCharsets.US_ASCII));
+
+        MQMDView md = sent.get(0);
+        assertEquals(MQMT_DATAGRAM, md.getMsgType());
+        assertTrue(md.isFormat(MQFMT_NONE));
+        assertEquals("", md.getReplyToQ());
+    }
+
+    @Test
+    public void testRequest() throws MQCallException {
+        recordingSender().send("APP.IN", "APP.REPLY", new byte[4]);
+
+        MQMDView md = sent.get(0);
+        assertEquals(MQMT_REQUEST, md.getMsgType());
+        assertTrue(md.isFormat(MQFMT_NONE));
+        assertEquals("APP.REPLY", md.getReplyToQ());
+    }
+
+    @Test
+    public void testExplicitFormat() throws MQCallException {
+        MQSender sender = recordingSender();
+        sender.send(PCFConstants.SYSTEM_ADMIN_COMMAND_QUEUE, "PCF.REPLY", MQMD.MQFMT_ADMIN, new byte[36]);
+        sender.send("APP.IN", null, MQFMT_STRING, "text".getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(MQMT_REQUEST, sent.get(0).getMsgType());
+        assertTrue(sent.get(0).isFormat(MQFMT_ADMIN));
+        assertEquals(MQMT_DATAGRAM, sent.get(1).getMsgType());
+        assertTrue(sent.get(1).isFormat(MQFMT_STRING));
+    }
+}
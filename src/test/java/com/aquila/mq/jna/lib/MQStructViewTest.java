@@ -0,0 +1,189 @@
+package com.aquila.mq.jna.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flyweight views of {@link MQStructView}: the defaults written by init(), the fields at the offsets
+ * of the generated layouts, and views attached at an offset of a shared buffer
+ */
+public class MQStructViewTest {
+
+    @Test
+    public void testDefaultsMatchTheStructures() {
+        // The mapping defaults to a PCF request rather than to MQMD_DEFAULT
+        MQMD md = new MQMD();
+        md.MsgType = MQMT_DATAGRAM;
+        md.Persistence = MQPER_PERSISTENCE_AS_Q_DEF;
+        md.PutApplType = MQAT_NO_CONTEXT;
+        assertArrayEquals(md.toBytes(), MQMDView.allocate().toBytes());
+        assertArrayEquals(new MQGMO().toBytes(), MQGMOView.allocate().toBytes());
+
+        assertEquals(MQMD_LENGTH_2, MQMDView.allocate().length());
+        assertEquals(MQGMO_LENGTH_4, MQGMOView.allocate().length());
+        assertEquals(MQPMOView.PUB_LEVEL_OFFSET + 4, MQPMOView.allocate().length());
+        assertEquals(MQODView.MQOD_LENGTH_4, MQODView.allocate().length());
+
+        MQPMOView pmo = MQPMOView.allocate();
+        assertEquals(MQPMO_VERSION_3, pmo.getVersion());
+        assertEquals(MQPMO_NONE, pmo.getOptions());
+        assertEquals(MQHM_NONE, pmo.getOriginalMsgHandle());
+        assertEquals(9, pmo.getBuffer().getInt(MQPMOView.PUB_LEVEL_OFFSET));
+        assertEquals("", pmo.getResolvedQName());
+
+        MQODView od = MQODView.allocate();
+        assertEquals(MQOD_VERSION_1, od.getVersion());
+        assertEquals(MQOT_Q, od.getObjectType());
+        assertEquals("", od.getObjectName());
+        assertEquals("AMQ.*", od.getDynamicQName());
+    }
+
+    @Test
+    public void testMsgDescFields() {
+        MQMDView md = MQMDView.allocate();
+        ByteBuffer buffer = md.getBuffer();
+        md.setMsgType(MQMT_REPLY);
+        md.setExpiry(300);
+        md.setFeedback(MQFB_COA);
+        md.setCodedCharSetId(1208);
+        md.setPriority(4);
+        md.setPersistence(MQPER_PERSISTENT);
+        md.setFormat(MQFMT_STRING);
+        md.setReplyToQ("APP.REPLY");
+        md.setReplyToQMgr("QM1");
+        md.setMsgSeqNumber(3);
+        md.setMsgFlags(MQMF_LAST_MSG_IN_GROUP);
+
+        assertEquals(MQMT_REPLY, buffer.getInt(MQMDView.MSG_TYPE_OFFSET));
+        assertEquals(300, buffer.getInt(MQMDView.EXPIRY_OFFSET));
+        assertEquals(MQFB_COA, buffer.getInt(MQMDView.FEEDBACK_OFFSET));
+        assertEquals(1208, buffer.getInt(MQMDView.CCSID_OFFSET));
+        assertEquals(4, buffer.getInt(MQMDView.PRIORITY_OFFSET));
+        assertEquals(MQPER_PERSISTENT, buffer.getInt(MQMDView.PERSISTENCE_OFFSET));
+        assertEquals(3, buffer.getInt(MQMDView.MSG_SEQ_NUMBER_OFFSET));
+        assertEquals(MQMF_LAST_MSG_IN_GROUP, buffer.getInt(MQMDView.MSG_FLAGS_OFFSET));
+        assertEquals(MQFMT_STRING, text(buffer, MQMDView.FORMAT_OFFSET, MQMDView.MQ_FORMAT_LENGTH));
+        // Names are blank padded to the length of the field
+        assertEquals("APP.REPLY" + " ".repeat(39), text(buffer, MQMDView.REPLY_TO_Q_OFFSET, MQ_Q_NAME_LENGTH));
+        assertEquals("QM1" + " ".repeat(45), text(buffer, MQMDView.REPLY_TO_Q_MGR_OFFSET, MQ_Q_MGR_NAME_LENGTH));
+
+        // The same bytes through the JNA mapping
+        MQMD structure = new MQMD();
+        structure.getPointer().write(0, md.toBytes(), 0, MQMD_LENGTH_2);
+        structure.read();
+        assertEquals(MQMT_REPLY, structure.MsgType);
+        assertEquals(1208, structure.CodedCharSetId);
+        assertEquals(3, structure.MsgSeqNumber);
+        assertEquals("APP.REPLY", new String(structure.ReplyToQ, StandardCharsets.US_ASCII).trim());
+
+        byte[] groupId = new byte[MQMDView.MQ_GROUP_ID_LENGTH];
+        groupId[0] = 7;
+        md.setGroupId(groupId);
+        assertEquals(7, buffer.get(MQMDView.GROUP_ID_OFFSET));
+        byte[] read = new byte[MQMDView.MQ_GROUP_ID_LENGTH];
+        md.getGroupId(read);
+        assertArrayEquals(groupId, read);
+    }
+
+    @Test
+    public void testMsgIdToCorrelId() {
+        MQMDView md = MQMDView.allocate();
+        MQId msgId = MQId.fromHex("414d5120514d31202020202020202020a1a2a3a4a5a6a7a8");
+        md.setMsgId(msgId);
+        md.copyMsgIdToCorrelId();
+        assertEquals(msgId, md.correlId());
+        assertEquals(msgId, MQId.read(md.getBuffer(), MQMD.CORREL_ID_OFFSET));
+
+        md.resetForGet();
+        assertTrue(md.msgId().isNone());
+        assertTrue(md.correlId().isNone());
+    }
+
+    @Test
+    public void testOptionFields() {
+        MQGMOView gmo = MQGMOView.allocate();
+        gmo.setOptions(MQGMO_WAIT | MQGMO_CONVERT);
+        gmo.setWaitInterval(MQWI_UNLIMITED);
+        gmo.setMatchOptions(MQMO_MATCH_CORREL_ID);
+        gmo.setMsgHandle(0x0102_0304_0506_0708L);
+        ByteBuffer buffer = gmo.getBuffer();
+        assertEquals(MQGMO_WAIT | MQGMO_CONVERT, buffer.getInt(MQGMOView.OPTIONS_OFFSET));
+        assertEquals(MQWI_UNLIMITED, buffer.getInt(MQGMOView.WAIT_INTERVAL_OFFSET));
+        assertEquals(MQMO_MATCH_CORREL_ID, buffer.getInt(MQGMOView.MATCH_OPTIONS_OFFSET));
+        assertEquals(0x0102_0304_0506_0708L, buffer.getLong(MQGMOView.MSG_HANDLE_OFFSET));
+        assertEquals(-1, gmo.getReturnedLength());
+        assertEquals(' ', gmo.getGroupStatus());
+
+        MQPMOView pmo = MQPMOView.allocate();
+        pmo.setOptions(MQPMO_SYNCPOINT);
+        pmo.setContext(5);
+        pmo.setOriginalMsgHandle(11L);
+        pmo.setNewMsgHandle(12L);
+        buffer = pmo.getBuffer();
+        assertEquals(MQPMO_SYNCPOINT, buffer.getInt(MQPMOView.OPTIONS_OFFSET));
+        assertEquals(5, buffer.getInt(MQPMOView.CONTEXT_OFFSET));
+        assertEquals(11L, buffer.getLong(MQPMOView.ORIGINAL_MSG_HANDLE_OFFSET));
+        assertEquals(12L, buffer.getLong(MQPMOView.NEW_MSG_HANDLE_OFFSET));
+
+        MQODView od = MQODView.allocate();
+        od.setObjectName("DEV.QUEUE.1");
+        od.setObjectQMgrName("QM1");
+        od.setObjectType(MQOT_Q_MGR);
+        buffer = od.getBuffer();
+        assertEquals(MQOT_Q_MGR, buffer.getInt(MQODView.OBJECT_TYPE_OFFSET));
+        assertEquals("DEV.QUEUE.1" + " ".repeat(37), text(buffer, MQODView.OBJECT_NAME_OFFSET, MQ_Q_NAME_LENGTH));
+        assertEquals("QM1", od.getObjectQMgrName());
+    }
+
+    @Test
+    public void testViewsShareABuffer() {
+        // A descriptor and options side by side, as in a message buffer
+        int gmoOffset = 368;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(gmoOffset + MQGMO_LENGTH_4);
+        MQMDView md = new MQMDView(buffer, 0);
+        MQGMOView gmo = new MQGMOView(buffer, gmoOffset);
+        md.init();
+        gmo.init();
+        assertSame(ByteOrder.nativeOrder(), buffer.order());
+        assertEquals(gmoOffset, gmo.getOffset());
+        assertEquals(MQGMO_VERSION_4, gmo.getVersion());
+        assertEquals("GMO ", text(buffer, gmoOffset, 4));
+
+        gmo.setWaitInterval(250);
+        assertEquals(250, buffer.getInt(gmoOffset + MQGMOView.WAIT_INTERVAL_OFFSET));
+        assertEquals(MQMD_VERSION_2, md.getVersion());
+
+        // wrap() points the view at another structure
+        ByteBuffer other = ByteBuffer.allocate(16 + MQMD_LENGTH_2).order(ByteOrder.BIG_ENDIAN);
+        assertSame(md, md.wrap(other, 16));
+        assertSame(ByteOrder.nativeOrder(), other.order());
+        md.init();
+        md.setPriority(2);
+        assertEquals(2, other.getInt(16 + MQMDView.PRIORITY_OFFSET));
+        assertEquals(MQPRI_PRIORITY_AS_Q_DEF, buffer.getInt(MQMDView.PRIORITY_OFFSET));
+    }
+
+    @Test
+    public void testStructureMustFit() {
+        ByteBuffer buffer = ByteBuffer.allocate(MQMD_LENGTH_2);
+        assertThrows(IndexOutOfBoundsException.class, () -> new MQMDView(buffer, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> new MQMDView(buffer, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> new MQGMOView(ByteBuffer.allocate(MQGMO_LENGTH_2), 0));
+        MQMDView md = new MQMDView(buffer, 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> md.wrap(ByteBuffer.allocate(MQMD_LENGTH_1), 0));
+        // A failed wrap leaves the view where it was
+        assertSame(buffer, md.getBuffer());
+    }
+
+    private static String text(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,147 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batching of {@link MQUnitOfWork}, over a binding that records the MQI verbs it is given.
+ */
+@ExtendWith(StubLibrary.class)
+public class MQUnitOfWorkTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<int[]> getOptions = new ArrayList<>();
+    private int messages;
+    private int putReason = MQRC_NONE;
+    private int commitReason = MQRC_NONE;
+    private MQMessageBuffer message;
+
+    @AfterEach
+    public void release() {
+        if (message != null) {
+            message.close();
+        }
+    }
+
+    private IBMMQJNA recordingBinding() {
+        IBMMQJNA mq = RecordingBinding.builder()
+                .record(calls)
+                .on("MQPUT", args -> RecordingBinding.complete(args, putReason))
+                .on("MQGET", args -> {
+                    Pointer gmo = (Pointer) args[3];
+                    getOptions.add(new int[]{gmo.getInt(MQGMOView.OPTIONS_OFFSET),
+                            gmo.getInt(MQGMOView.WAIT_INTERVAL_OFFSET)});
+                    ((IntByReference) args[6]).setValue(0);
+                    if (messages > 0) {
+                        messages--;
+                        RecordingBinding.complete(args, MQRC_NONE);
+                    } else {
+                        RecordingBinding.complete(args, MQRC_NO_MSG_AVAILABLE);
+                    }
+                })
+                .on("MQCMIT", args -> RecordingBinding.complete(args, commitReason))
+                .on("MQBACK", args -> RecordingBinding.complete(args, MQRC_NONE))
+                .build();
+        message = new MQMessageBuffer(mq, 64);
+        return mq;
+    }
+
+    private long count(String verb) {
+        return calls.stream().filter(verb::equals).count();
+    }
+
+    @Test
+    public void testCommitEveryBatch() throws MQCallException {
+        try (MQUnitOfWork unit = new MQUnitOfWork(recordingBinding(), 1, 3, 0)) {
+            for (int i = 0; i < 7; i++) {
+                unit.put(2, message);
+            }
+            assertEquals(2, unit.getCommits());
+            assertEquals(1, unit.getPending());
+            assertEquals(List.of("MQPUT", "MQPUT", "MQPUT", "MQCMIT"), calls.subList(0, 4));
+            assertEquals(MQPMO.MQPMO_SYNCPOINT, message.putOptions().getOptions() & MQPMO.MQPMO_SYNCPOINT);
+        }
+        assertEquals(3, count("MQCMIT"));
+    }
+
+    @Test
+    public void testCommitOnTimeout() throws Exception {
+        try (MQUnitOfWork unit = new MQUnitOfWork(recordingBinding(), 1, 100, 20)) {
+            unit.put(2, message);
+            assertFalse(unit.commitIfDue());
+            Thread.sleep(30);
+            assertTrue(unit.commitIfDue());
+            assertEquals(0, unit.getPending());
+
+            // Due operations are committed by the next operation as well
+            unit.put(2, message);
+            Thread.sleep(30);
+            unit.put(2, message);
+            assertEquals(2, unit.getCommits());
+            assertEquals(0, unit.getPending());
+        }
+        assertEquals(2, count("MQCMIT"));
+    }
+
+    @Test
+    public void testGetWaitsNoLongerThanTheTimeout() throws MQCallException {
+        try (MQUnitOfWork unit = new MQUnitOfWork(recordingBinding(), 1, 100, 1000)) {
+            // Nothing pending: the wait is the caller's, unlimited included
+            assertFalse(unit.get(2, message, MQWI_UNLIMITED));
+            assertEquals(MQGMO.MQGMO_WAIT, getOptions.get(0)[0] & MQGMO.MQGMO_WAIT);
+            assertEquals(MQWI_UNLIMITED, getOptions.get(0)[1]);
+
+            assertFalse(unit.get(2, message, 0));
+            assertEquals(0, getOptions.get(1)[0] & MQGMO.MQGMO_WAIT);
+
+            messages = 1;
+            assertTrue(unit.get(2, message, 5000));
+            assertEquals(1, unit.getPending());
+            assertEquals(MQGMO.MQGMO_SYNCPOINT, getOptions.get(2)[0] & MQGMO.MQGMO_SYNCPOINT);
+
+            // One pending: the wait ends when it is due, and the drained queue commits it
+            assertFalse(unit.get(2, message, MQWI_UNLIMITED));
+            int[] capped = getOptions.get(3);
+            assertEquals(MQGMO.MQGMO_WAIT, capped[0] & MQGMO.MQGMO_WAIT);
+            assertTrue(capped[1] >= 0 && capped[1] <= 1000, "wait interval " + capped[1]);
+            assertEquals(0, unit.getPending());
+            assertEquals(1, unit.getCommits());
+        }
+        assertEquals(1, count("MQCMIT"));
+    }
+
+    @Test
+    public void testBackoutOnFailure() throws MQCallException {
+        MQUnitOfWork unit = new MQUnitOfWork(recordingBinding(), 1, 3, 0);
+        unit.put(2, message);
+        putReason = MQRC_Q_FULL;
+        MQCallException e = assertThrows(MQCallException.class, () -> unit.put(2, message));
+        assertEquals(MQRC_Q_FULL, e.getReasonCode());
+        assertEquals(1, unit.getPending());
+
+        unit.backout();
+        assertEquals(0, unit.getPending());
+        assertEquals(1, count("MQBACK"));
+        unit.close();
+        assertEquals(0, count("MQCMIT"));
+
+        // A failed commit backs the batch out
+        putReason = MQRC_NONE;
+        commitReason = MQRC_BACKED_OUT;
+        unit.put(2, message);
+        unit.put(2, message);
+        e = assertThrows(MQCallException.class, () -> unit.put(2, message));
+        assertEquals(MQRC_BACKED_OUT, e.getReasonCode());
+        assertEquals(0, unit.getPending());
+        assertEquals(0, unit.getCommits());
+    }
+}
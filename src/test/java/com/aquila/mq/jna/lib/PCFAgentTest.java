@@ -0,0 +1,329 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming of the PCF replies by {@link PCFAgent}, over a binding that plays the command server:
+ * each MQPUT1 queues the replies of the next command under its MsgId, and MQGET returns them by
+ * CorrelId.
+ */
+@ExtendWith(StubLibrary.class)
+public class PCFAgentTest {
+
+    private final Map<MQId, Deque<byte[]>> replyQueue = new HashMap<>();
+    private final Deque<List<byte[]>> nextReplies = new ArrayDeque<>();
+    private final List<PCFMessage> commands = new ArrayList<>();
+    private int puts;
+    private int gets;
+    private int truncatedGets;
+    private final List<Integer> truncatedBufferLengths = new ArrayList<>();
+
+    private IBMMQJNA commandServer() {
+        return RecordingBinding.builder()
+                .on("MQOPEN", args -> {
+                    ((IntByReference) args[3]).setValue(1);
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQCLOSE", args -> RecordingBinding.complete(args, MQRC_NONE))
+                .on("MQPUT1", args -> {
+                    byte[] msgDesc = (byte[]) args[2];
+                    commands.add(PCFMessage.decode(new PCFCursor()
+                            .wrap(ByteBuffer.wrap((byte[]) args[5], 0, (Integer) args[4]))));
+                    MQId msgId = MQId.fromHex(String.format("%048X", ++puts));
+                    msgId.writeTo(msgDesc, MQMD.MSG_ID_OFFSET);
+                    replyQueue.put(msgId, new ArrayDeque<>(nextReplies.removeFirst()));
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQGET", args -> {
+                    gets++;
+                    MQMDView msgDesc = new MQMDView(((Pointer) args[2]).getByteBuffer(0, MQMD.MQMD_LENGTH_2), 0);
+                    assertTrue(msgDesc.isFormat(MQFMT_ADMIN), "reply descriptor format");
+                    Pointer getMsgOpts = (Pointer) args[3];
+                    if ((getMsgOpts.getInt(MQGMOView.OPTIONS_OFFSET) & MQGMO.MQGMO_ACCEPT_TRUNCATED_MSG) != 0) {
+                        truncatedGets++;
+                        truncatedBufferLengths.add((Integer) args[4]);
+                    }
+                    Deque<byte[]> replies = replyQueue.get(MQId.read((Pointer) args[2], MQMD.CORREL_ID_OFFSET));
+                    byte[] reply = replies != null ? replies.poll() : null;
+                    if (reply == null) {
+                        RecordingBinding.complete(args, MQRC_NO_MSG_AVAILABLE);
+                    } else {
+                        boolean truncated = reply.length > (Integer) args[4];
+                        ((Pointer) args[5]).write(0, reply, 0, Math.min(reply.length, (Integer) args[4]));
+                        ((IntByReference) args[6]).setValue(reply.length);
+                        if (truncated) {
+                            RecordingBinding.complete(args, MQCC_WARNING, MQRC_TRUNCATED_MSG_ACCEPTED);
+                        } else {
+                            RecordingBinding.complete(args, MQRC_NONE);
+                        }
+                    }
+                })
+                .build();
+    }
+
+    private static byte[] queueReply(String queueName, boolean last) {
+        MQCFH header = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 1);
+        header.Type = PCFConstants.MQCFT_RESPONSE;
+        header.Control = last ? PCFConstants.MQCFC_LAST : PCFConstants.MQCFC_NOT_LAST;
+        ByteArrayOutputStream reply = new ByteArrayOutputStream();
+        reply.writeBytes(header.toBytes());
+        reply.writeBytes(MQCFST.create(PCFConstants.MQCA_Q_NAME, queueName).toBytes());
+        return reply.toByteArray();
+    }
+
+    private static byte[] errorReply(int reason) {
+        MQCFH header = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 0);
+        header.Type = PCFConstants.MQCFT_RESPONSE;
+        header.CompCode = MQCC_FAILED;
+        header.Reason = reason;
+        return header.toBytes();
+    }
+
+    private static byte[] depthReply(String queueName, int depth) {
+        MQCFH header = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 3);
+        header.Type = PCFConstants.MQCFT_RESPONSE;
+        ByteArrayOutputStream reply = new ByteArrayOutputStream();
+        reply.writeBytes(header.toBytes());
+        reply.writeBytes(MQCFST.create(PCFConstants.MQCA_Q_NAME, queueName).toBytes());
+        reply.writeBytes(MQCFIN.create(PCFConstants.MQIA_Q_TYPE, PCFConstants.MQQT_LOCAL).toBytes());
+        reply.writeBytes(MQCFIN.create(PCFConstants.MQIA_CURRENT_Q_DEPTH, depth).toBytes());
+        return reply.toByteArray();
+    }
+
+    private static byte[] statusReply(String queueName, int depth, int oldestMsgAge) {
+        PCFWriter reply = new PCFWriter(512);
+        reply.command(PCFConstants.MQCMD_INQUIRE_Q_STATUS)
+                .string(PCFConstants.MQCA_Q_NAME, queueName)
+                .integer(PCFConstants.MQIACF_Q_STATUS_TYPE, PCFConstants.MQIACF_Q_STATUS)
+                .integer(PCFConstants.MQIA_CURRENT_Q_DEPTH, depth)
+                .integer(PCFConstants.MQIA_OPEN_INPUT_COUNT, 1)
+                .integer(PCFConstants.MQIACF_UNCOMMITTED_MSGS, 3)
+                .integer(PCFConstants.MQIACF_OLDEST_MSG_AGE, oldestMsgAge)
+                .integerList(PCFConstants.MQIACF_Q_TIME_INDICATOR, 1500, 2500)
+                .string(PCFConstants.MQCACF_LAST_GET_DATE, "2026-10-17")
+                .string(PCFConstants.MQCACF_LAST_GET_TIME, "09.30.15")
+                .string(PCFConstants.MQCACF_LAST_PUT_DATE, "")
+                .string(PCFConstants.MQCACF_LAST_PUT_TIME, "");
+        return response(reply, true);
+    }
+
+    private static byte[] handleReply(String applTag, int openInputType, boolean last) {
+        PCFWriter reply = new PCFWriter(512);
+        reply.command(PCFConstants.MQCMD_INQUIRE_Q_STATUS)
+                .string(PCFConstants.MQCA_Q_NAME, "APP.IN")
+                .integer(PCFConstants.MQIACF_Q_STATUS_TYPE, PCFConstants.MQIACF_Q_HANDLE)
+                .string(PCFConstants.MQCACF_APPL_TAG, applTag)
+                .integer(PCFConstants.MQIACF_PROCESS_ID, 4242)
+                .integer(PCFConstants.MQIACF_OPEN_INPUT_TYPE, openInputType)
+                .integer(PCFConstants.MQIACF_OPEN_OUTPUT, PCFConstants.MQQSO_NO)
+                .integer(PCFConstants.MQIACF_HANDLE_STATE, PCFConstants.MQHSTATE_ACTIVE)
+                .string(PCFConstants.MQCACH_CHANNEL_NAME, "APP.SVRCONN")
+                .byteString(PCFConstants.MQBACF_CONNECTION_ID, MQId.fromHex(String.format("%048X", 7)));
+        return response(reply, last);
+    }
+
+    /**
+     * Turn a message written as a command into a reply
+     */
+    private static byte[] response(PCFWriter reply, boolean last) {
+        byte[] bytes = reply.toBytes();
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        header.putInt(0, PCFConstants.MQCFT_RESPONSE);
+        header.putInt(20, last ? PCFConstants.MQCFC_LAST : PCFConstants.MQCFC_NOT_LAST);
+        return bytes;
+    }
+
+    private void replyWithQueues(int count) {
+        nextReplies.add(Stream.iterate(1, i -> i + 1).limit(count)
+                .map(i -> queueReply("Q" + i, i == count))
+                .collect(Collectors.toList()));
+    }
+
+    private PCFAgent connectedAgent() throws PCFAgent.PCFException {
+        PCFAgent agent = new PCFAgent(commandServer(), 1);
+        agent.connect();
+        return agent;
+    }
+
+    @Test
+    public void testInquireQueuesReceivesEveryReply() throws PCFAgent.PCFException {
+        replyWithQueues(5);
+        try (PCFAgent agent = connectedAgent()) {
+            List<QueueInfo> queues = agent.inquireQueues("*");
+
+            assertEquals(List.of("Q1", "Q2", "Q3", "Q4", "Q5"),
+                    queues.stream().map(QueueInfo::getName).collect(Collectors.toList()));
+            assertEquals(5, gets);
+        }
+    }
+
+    @Test
+    public void testAttributeSelection() throws PCFAgent.PCFException {
+        replyWithQueues(1);
+        nextReplies.add(List.of(depthReply("Q1", 42)));
+        try (PCFAgent agent = connectedAgent()) {
+            agent.inquireQueues("*");
+            assertFalse(commands.get(0).contains(PCFConstants.MQIACF_Q_ATTRS));
+
+            QueueInfo queue = agent.inquireQueues("Q*", PCFConstants.MQQT_LOCAL,
+                    PCFConstants.MQIA_CURRENT_Q_DEPTH).get(0);
+
+            PCFMessage command = commands.get(1);
+            assertEquals("Q*", command.getString(PCFConstants.MQCA_Q_NAME));
+            assertArrayEquals(new int[]{PCFConstants.MQIA_CURRENT_Q_DEPTH},
+                    command.getIntList(PCFConstants.MQIACF_Q_ATTRS));
+            assertEquals(42, queue.getCurrentDepth());
+            assertTrue(queue.hasAttribute(PCFConstants.MQCA_Q_NAME));
+            assertTrue(queue.hasAttribute(PCFConstants.MQIA_CURRENT_Q_DEPTH));
+            assertFalse(queue.hasAttribute(PCFConstants.MQIA_MAX_Q_DEPTH));
+            assertFalse(queue.hasAttribute(PCFConstants.MQCA_Q_DESC));
+        }
+    }
+
+    @Test
+    public void testFilterIsSentToTheCommandServer() throws PCFAgent.PCFException {
+        replyWithQueues(1);
+        MQCFH empty = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 0);
+        empty.Type = PCFConstants.MQCFT_RESPONSE;
+        nextReplies.add(List.of(empty.toBytes()));
+        try (PCFAgent agent = connectedAgent()) {
+            agent.inquireQueues("*", PCFConstants.MQQT_LOCAL,
+                    PCFFilter.greater(PCFConstants.MQIA_CURRENT_Q_DEPTH, 10000), PCFConstants.MQIA_CURRENT_Q_DEPTH);
+
+            PCFMessage.Parameter filter = commands.get(0).getParameters().get(3);
+            assertEquals(PCFConstants.MQCFT_INTEGER_FILTER, filter.getType());
+            assertEquals(PCFConstants.MQIA_CURRENT_Q_DEPTH, filter.getParameter());
+            assertEquals(PCFConstants.MQCFOP_GREATER, filter.getOperator());
+            assertEquals(10000, filter.getValue());
+
+            // Nothing matches: one reply without queue
+            assertTrue(agent.inquireQueues("*", PCFConstants.MQQT_ALL,
+                    PCFFilter.like(PCFConstants.MQCA_Q_DESC, "PAY*")).isEmpty());
+            filter = commands.get(1).getParameters().get(2);
+            assertEquals(PCFConstants.MQCFT_STRING_FILTER, filter.getType());
+            assertEquals(PCFConstants.MQCFOP_LIKE, filter.getOperator());
+            assertEquals("PAY*", filter.getValue());
+        }
+    }
+
+    @Test
+    public void testQueueStatus() throws PCFAgent.PCFException {
+        nextReplies.add(List.of(statusReply("APP.IN", 120, 75)));
+        try (PCFAgent agent = connectedAgent()) {
+            QueueStatus status = agent.inquireQueueStatus("APP.*",
+                    PCFFilter.greater(PCFConstants.MQIACF_OLDEST_MSG_AGE, 60)).get(0);
+
+            PCFMessage command = commands.get(0);
+            assertEquals(PCFConstants.MQCMD_INQUIRE_Q_STATUS, command.getCommand());
+            assertEquals(PCFConstants.MQIACF_Q_STATUS, command.getInt(PCFConstants.MQIACF_Q_STATUS_TYPE));
+            assertEquals(PCFConstants.MQCFT_INTEGER_FILTER, command.getParameters().get(2).getType());
+
+            assertEquals("APP.IN", status.getName());
+            assertEquals(120, status.getCurrentDepth());
+            assertEquals(1, status.getOpenInputCount());
+            assertEquals(3, status.getUncommittedMsgs());
+            assertEquals(75, status.getOldestMsgAge());
+            assertEquals(1500, status.getShortTermOnQTime());
+            assertEquals(2500, status.getLongTermOnQTime());
+            assertEquals(LocalDateTime.of(2026, 10, 17, 9, 30, 15), status.getLastGet());
+            assertNull(status.getLastPut());
+        }
+    }
+
+    @Test
+    public void testQueueHandlesAreStreamed() throws PCFAgent.PCFException {
+        nextReplies.add(List.of(handleReply("consumer", PCFConstants.MQQSOPEN_INPUT_SHARED, false),
+                handleReply("browser", PCFConstants.MQQSOPEN_INPUT_NONE, true)));
+        try (PCFAgent agent = connectedAgent()) {
+            try (Stream<QueueHandleStatus> handles = agent.streamQueueHandles("APP.IN", null)) {
+                List<QueueHandleStatus> consumers = handles.filter(QueueHandleStatus::isOpenInput)
+                        .collect(Collectors.toList());
+
+                assertEquals(1, consumers.size());
+                QueueHandleStatus consumer = consumers.get(0);
+                assertEquals("APP.IN", consumer.getQueueName());
+                assertEquals("consumer", consumer.getApplTag());
+                assertEquals(4242, consumer.getProcessId());
+                assertTrue(consumer.isActive());
+                assertFalse(consumer.isOpenOutput());
+                assertEquals("APP.SVRCONN", consumer.getChannelName());
+                assertEquals(MQId.fromHex(String.format("%048X", 7)), consumer.getConnectionId());
+            }
+            assertEquals(PCFConstants.MQIACF_Q_HANDLE,
+                    commands.get(0).getInt(PCFConstants.MQIACF_Q_STATUS_TYPE));
+        }
+    }
+
+    @Test
+    public void testStreamGetsRepliesOnDemand() throws PCFAgent.PCFException {
+        replyWithQueues(5);
+        try (PCFAgent agent = connectedAgent()) {
+            Iterator<QueueInfo> queues = agent.iterateQueues("*", PCFConstants.MQQT_ALL);
+            assertEquals(0, gets);
+            assertEquals("Q1", queues.next().getName());
+            assertEquals(1, gets);
+        }
+    }
+
+    @Test
+    public void testEarlyCloseDrainsRemainingReplies() throws PCFAgent.PCFException {
+        replyWithQueues(6);
+        try (PCFAgent agent = connectedAgent()) {
+            try (Stream<QueueInfo> queues = agent.streamQueues("*", PCFConstants.MQQT_ALL)) {
+                assertEquals(List.of("Q1", "Q2"),
+                        queues.limit(2).map(QueueInfo::getName).collect(Collectors.toList()));
+            }
+
+            assertEquals(4, truncatedGets);
+            // Only the MQCFH of the drained replies is got, enough to find the last one
+            assertEquals(List.of(MQCFH.MQCFH_SIZE, MQCFH.MQCFH_SIZE, MQCFH.MQCFH_SIZE, MQCFH.MQCFH_SIZE),
+                    truncatedBufferLengths);
+            assertTrue(replyQueue.values().stream().allMatch(Deque::isEmpty));
+        }
+    }
+
+    @Test
+    public void testNextCommandDrainsOpenResponses() throws PCFAgent.PCFException {
+        replyWithQueues(4);
+        replyWithQueues(2);
+        try (PCFAgent agent = connectedAgent()) {
+            assertEquals("Q1", agent.iterateQueues("*", PCFConstants.MQQT_ALL).next().getName());
+
+            assertEquals(2, agent.inquireQueues("*").size());
+            assertEquals(3, truncatedGets);
+        }
+    }
+
+    @Test
+    public void testFailures() throws PCFAgent.PCFException {
+        nextReplies.add(List.of(errorReply(MQRC_UNKNOWN_OBJECT_NAME)));
+        nextReplies.add(List.of(errorReply(MQRC_NOT_AUTHORIZED)));
+        try (PCFAgent agent = connectedAgent()) {
+            assertTrue(agent.inquireQueues("NONE.*").isEmpty());
+
+            try (Stream<QueueInfo> queues = agent.streamQueues("*", PCFConstants.MQQT_ALL)) {
+                PCFAgent.UncheckedPCFException e = assertThrows(PCFAgent.UncheckedPCFException.class, queues::count);
+                assertEquals(MQRC_NOT_AUTHORIZED, e.getCause().getReasonCode());
+            }
+        }
+    }
+}
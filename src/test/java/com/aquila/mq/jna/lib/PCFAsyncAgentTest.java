@@ -0,0 +1,167 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.ibm.mq.constants.CMQC.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent commands of {@link PCFAsyncAgent}, over a binding that plays the command server: each
+ * MQPUT1 queues the replies of its command, and MQGET returns the replies of the most recent
+ * command first, so the replies of concurrent commands arrive interleaved.
+ */
+@ExtendWith(StubLibrary.class)
+public class PCFAsyncAgentTest {
+
+    // Replies of each command, by CorrelId; the receiver thread takes them, the test thread adds them
+    private final Deque<Map.Entry<MQId, Deque<byte[]>>> replyQueue = new LinkedBlockingDeque<>();
+    private final Deque<List<byte[]>> nextReplies = new LinkedBlockingDeque<>();
+    private final AtomicInteger puts = new AtomicInteger();
+    private final AtomicInteger closes = new AtomicInteger();
+
+    private IBMMQJNA commandServer() {
+        return RecordingBinding.builder()
+                .on("MQOPEN", args -> {
+                    ((IntByReference) args[3]).setValue(1);
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQCLOSE", args -> {
+                    closes.incrementAndGet();
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQPUT1", args -> {
+                    MQId msgId = MQId.fromHex(String.format("%048X", puts.incrementAndGet()));
+                    msgId.writeTo((byte[]) args[2], MQMD.MSG_ID_OFFSET);
+                    List<byte[]> replies = nextReplies.poll();
+                    if (replies != null) {
+                        replyQueue.addFirst(Map.entry(msgId, new ArrayDeque<>(replies)));
+                    }
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .on("MQGET", args -> {
+                    Map.Entry<MQId, Deque<byte[]>> command = replyQueue.peekFirst();
+                    if (command == null) {
+                        // MQGET wait: do not spin
+                        Thread.sleep(1);
+                        RecordingBinding.complete(args, MQRC_NO_MSG_AVAILABLE);
+                        return;
+                    }
+                    byte[] reply = command.getValue().poll();
+                    if (command.getValue().isEmpty()) {
+                        replyQueue.remove(command);
+                    }
+                    command.getKey().writeTo((Pointer) args[2], MQMD.CORREL_ID_OFFSET);
+                    ((Pointer) args[5]).write(0, reply, 0, reply.length);
+                    ((IntByReference) args[6]).setValue(reply.length);
+                    RecordingBinding.complete(args, MQRC_NONE);
+                })
+                .build();
+    }
+
+    private static byte[] queueReply(String queueName, boolean last) {
+        MQCFH header = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 1);
+        header.Type = PCFConstants.MQCFT_RESPONSE;
+        header.Control = last ? PCFConstants.MQCFC_LAST : PCFConstants.MQCFC_NOT_LAST;
+        ByteArrayOutputStream reply = new ByteArrayOutputStream();
+        reply.writeBytes(header.toBytes());
+        reply.writeBytes(MQCFST.create(PCFConstants.MQCA_Q_NAME, queueName).toBytes());
+        return reply.toByteArray();
+    }
+
+    private static byte[] errorReply(int reason, boolean last) {
+        MQCFH header = MQCFH.createCommand(PCFConstants.MQCMD_INQUIRE_Q, 0);
+        header.Type = PCFConstants.MQCFT_RESPONSE;
+        header.Control = last ? PCFConstants.MQCFC_LAST : PCFConstants.MQCFC_NOT_LAST;
+        header.CompCode = MQCC_FAILED;
+        header.Reason = reason;
+        return header.toBytes();
+    }
+
+    private static List<String> names(CompletableFuture<List<QueueInfo>> queues) throws Exception {
+        return queues.get(5, TimeUnit.SECONDS).stream().map(QueueInfo::getName).collect(Collectors.toList());
+    }
+
+    private static int reason(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return ((PCFAgent.PCFException) e.getCause()).getReasonCode();
+    }
+
+    private PCFAsyncAgent connectedAgent(int timeout) throws PCFAgent.PCFException {
+        PCFAsyncAgent agent = new PCFAsyncAgent(commandServer(), 1, timeout, 10);
+        agent.connect();
+        return agent;
+    }
+
+    @Test
+    public void testRepliesAreRoutedByCorrelId() throws Exception {
+        nextReplies.add(List.of(queueReply("A1", false), queueReply("A2", false), queueReply("A3", true)));
+        nextReplies.add(List.of(queueReply("B1", false), queueReply("B2", true)));
+        nextReplies.add(List.of(queueReply("C1", true)));
+        try (PCFAsyncAgent agent = connectedAgent(5000)) {
+            CompletableFuture<List<QueueInfo>> a = agent.inquireQueues("A*");
+            CompletableFuture<List<QueueInfo>> b = agent.inquireQueues("B*");
+            CompletableFuture<List<QueueInfo>> c = agent.inquireQueues("C*");
+
+            assertEquals(List.of("A1", "A2", "A3"), names(a));
+            assertEquals(List.of("B1", "B2"), names(b));
+            assertEquals(List.of("C1"), names(c));
+            assertEquals(0, agent.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        nextReplies.add(List.of(errorReply(MQRC_UNKNOWN_OBJECT_NAME, true)));
+        nextReplies.add(List.of(errorReply(MQRC_NOT_AUTHORIZED, false), errorReply(MQRC_NOT_AUTHORIZED, true)));
+        nextReplies.add(List.of(queueReply("Q1", true)));
+        try (PCFAsyncAgent agent = connectedAgent(5000)) {
+            CompletableFuture<List<QueueInfo>> none = agent.inquireQueues("NONE.*");
+            CompletableFuture<List<QueueInfo>> denied = agent.inquireQueues("SECRET.*");
+            CompletableFuture<List<QueueInfo>> after = agent.inquireQueues("Q*");
+
+            assertTrue(none.get(5, TimeUnit.SECONDS).isEmpty());
+            assertEquals(MQRC_NOT_AUTHORIZED, reason(denied));
+            assertEquals(List.of("Q1"), names(after));
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        // No reply queued for the command: the command server never answers
+        try (PCFAsyncAgent agent = connectedAgent(50)) {
+            CompletableFuture<List<QueueInfo>> queues = agent.inquireQueues("*");
+            assertEquals(MQRC_NO_MSG_AVAILABLE, reason(queues));
+            assertEquals(0, agent.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testCloseFailsPendingCommands() throws Exception {
+        CompletableFuture<List<QueueInfo>> queues;
+        try (PCFAsyncAgent agent = connectedAgent(60000)) {
+            queues = agent.inquireQueues("*");
+            assertThrows(TimeoutException.class, () -> queues.get(50, TimeUnit.MILLISECONDS));
+        }
+        assertTrue(queues.isCompletedExceptionally());
+        assertEquals(1, closes.get());
+
+        PCFAsyncAgent closed = new PCFAsyncAgent(commandServer(), 1);
+        assertTrue(closed.inquireQueues("*").isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,139 @@
+package com.aquila.mq.jna.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.aquila.mq.jna.lib.PCFConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walking the parameters of a PCF message in place with {@link PCFCursor}
+ */
+public class PCFCursorTest {
+
+    private static final int MQGACF_Q_HANDLE = 8002;
+
+    private final ByteBuffer message = ByteBuffer.allocate(512);
+    private int parameterCount;
+
+    private void header(int control) {
+        message.putInt(MQCFT_RESPONSE).putInt(MQCFH.MQCFH_SIZE).putInt(MQCFH_VERSION_3)
+                .putInt(MQCMD_INQUIRE_Q).putInt(1).putInt(control).putInt(0).putInt(0).putInt(0);
+    }
+
+    private void string(int parameter, String value, int width) {
+        message.putInt(MQCFT_STRING).putInt(20 + width).putInt(parameter).putInt(1208).putInt(width)
+                .put(String.format("%-" + width + "s", value).getBytes(StandardCharsets.US_ASCII));
+        parameterCount++;
+    }
+
+    private ByteBuffer finish() {
+        message.putInt(32, parameterCount);
+        return message.flip();
+    }
+
+    @Test
+    public void testHeader() {
+        header(MQCFC_NOT_LAST);
+        PCFCursor cursor = new PCFCursor().wrap(finish());
+
+        assertEquals(MQCFT_RESPONSE, cursor.getType());
+        assertEquals(MQCMD_INQUIRE_Q, cursor.getCommand());
+        assertFalse(cursor.isLast());
+        assertEquals(0, cursor.getParameterCount());
+        assertFalse(cursor.next());
+        assertThrows(IllegalArgumentException.class, () -> cursor.wrap(ByteBuffer.allocate(20)));
+    }
+
+    @Test
+    public void testScalars() {
+        header(MQCFC_LAST);
+        string(MQCA_Q_NAME, "DEV.QUEUE.1", 48);
+        message.putInt(MQCFT_INTEGER).putInt(16).putInt(MQIA_CURRENT_Q_DEPTH).putInt(42);
+        message.putInt(MQCFT_INTEGER64).putInt(24).putInt(MQIA_MAX_Q_DEPTH).putInt(0).putLong(1L << 40);
+        message.putInt(MQCFT_BYTE_STRING).putInt(40).putInt(MQBACF_CONNECTION_ID).putInt(24).put(new byte[24]);
+        parameterCount += 3;
+        PCFCursor cursor = new PCFCursor().wrap(finish());
+
+        assertTrue(cursor.isLast());
+        assertTrue(cursor.next());
+        assertEquals(MQCA_Q_NAME, cursor.getParameter());
+        assertEquals("DEV.QUEUE.1", cursor.getString());
+        assertTrue(cursor.stringEquals("DEV.QUEUE.1"));
+        assertFalse(cursor.stringEquals("DEV.QUEUE"));
+        assertThrows(IllegalStateException.class, cursor::getInt);
+
+        assertTrue(cursor.next());
+        assertEquals(42, cursor.getInt());
+        assertEquals(42L, cursor.getLong());
+
+        assertTrue(cursor.next());
+        assertEquals(1L << 40, cursor.getLong());
+
+        assertTrue(cursor.next());
+        assertEquals(MQCFT_BYTE_STRING, cursor.getParameterType());
+        assertEquals(MQId.NONE, MQId.of(cursor.getBytes()));
+
+        assertFalse(cursor.next());
+        cursor.rewind();
+        assertTrue(cursor.next());
+        assertEquals(MQCA_Q_NAME, cursor.getParameter());
+    }
+
+    @Test
+    public void testListsAndFilters() {
+        header(MQCFC_LAST);
+        message.putInt(MQCFT_INTEGER_LIST).putInt(28).putInt(MQIACF_Q_ATTRS).putInt(3).putInt(1).putInt(2).putInt(3);
+        message.putInt(MQCFT_STRING_LIST).putInt(32).putInt(MQCA_Q_NAME).putInt(0).putInt(2).putInt(4)
+                .put("Q1  Q2  ".getBytes(StandardCharsets.US_ASCII));
+        message.putInt(MQCFT_INTEGER_FILTER).putInt(20).putInt(MQIA_CURRENT_Q_DEPTH).putInt(MQCFOP_GREATER).putInt(10);
+        parameterCount += 3;
+        PCFCursor cursor = new PCFCursor().wrap(finish());
+
+        assertTrue(cursor.next());
+        assertEquals(3, cursor.getCount());
+        assertEquals(3, cursor.getInt(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.getInt(3));
+
+        assertTrue(cursor.next());
+        assertEquals(2, cursor.getCount());
+        assertEquals("Q1", cursor.getString(0));
+        assertEquals("Q2", cursor.getString(1));
+
+        assertTrue(cursor.next());
+        assertEquals(MQCFOP_GREATER, cursor.getOperator());
+        assertEquals(10, cursor.getInt());
+    }
+
+    @Test
+    public void testGroupParametersFollowTheGroup() {
+        header(MQCFC_LAST);
+        message.putInt(MQCFT_GROUP).putInt(16).putInt(MQGACF_Q_HANDLE).putInt(2);
+        parameterCount++;
+        string(MQCA_Q_NAME, "Q1", 4);
+        message.putInt(MQCFT_INTEGER).putInt(16).putInt(MQIA_OPEN_INPUT_COUNT).putInt(1);
+        // Only the group counts in the header
+        parameterCount = 1;
+        PCFCursor cursor = new PCFCursor().wrap(finish());
+
+        assertTrue(cursor.next());
+        assertEquals(2, cursor.getGroupParameterCount());
+        assertTrue(cursor.next());
+        assertEquals("Q1", cursor.getString());
+        assertTrue(cursor.next());
+        assertEquals(1, cursor.getInt());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testInvalidLength() {
+        header(MQCFC_LAST);
+        message.putInt(MQCFT_INTEGER).putInt(400).putInt(MQIA_CURRENT_Q_DEPTH).putInt(42);
+        parameterCount++;
+        PCFCursor cursor = new PCFCursor().wrap(finish());
+
+        assertThrows(IllegalStateException.class, cursor::next);
+    }
+}
@@ -0,0 +1,126 @@
+package com.aquila.mq.jna.lib;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.aquila.mq.jna.lib.PCFConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Encoding of PCF commands by {@link PCFWriter}, read back with {@link PCFCursor} and
+ * {@link PCFMessage}
+ */
+public class PCFWriterTest {
+
+    private static final int MQGACF_Q_HANDLE = 8002;
+
+    private final PCFWriter writer = new PCFWriter(1024);
+
+    @Test
+    public void testInquireQueueMatchesStructures() {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.writeBytes(MQCFH.createCommand(MQCMD_INQUIRE_Q, 2).toBytes());
+        expected.writeBytes(MQCFST.create(MQCA_Q_NAME, "DEV.*").toBytes());
+        expected.writeBytes(MQCFIN.create(MQIA_Q_TYPE, MQQT_LOCAL).toBytes());
+
+        writer.command(MQCMD_INQUIRE_Q).string(MQCA_Q_NAME, "DEV.*").integer(MQIA_Q_TYPE, MQQT_LOCAL);
+
+        assertArrayEquals(expected.toByteArray(), writer.toBytes());
+    }
+
+    @Test
+    public void testEveryParameterType() {
+        MQId connectionId = MQId.fromHex("414D5143514D3120202020202020202000000000000000FF");
+        writer.command(MQCMD_INQUIRE_Q)
+                .integer(MQIA_Q_TYPE, MQQT_LOCAL)
+                .integer64(MQIA_CURRENT_Q_DEPTH, 1L << 40)
+                .integerList(MQIACF_Q_ATTRS, MQCA_Q_NAME, MQIA_CURRENT_Q_DEPTH)
+                .integer64List(MQIA_CURRENT_Q_DEPTH, 1, -1)
+                .string(MQCA_Q_NAME, "ABC")
+                .stringList(MQCA_Q_DESC, "A", "LONGER", "")
+                .byteString(MQBACF_CONNECTION_ID, connectionId)
+                .byteString(MQBACF_CONNECTION_ID, new byte[]{1, 2, 3})
+                .integerFilter(MQIA_CURRENT_Q_DEPTH, MQCFOP_GREATER, 10)
+                .stringFilter(MQCA_Q_DESC, MQCFOP_LIKE, "PAY*")
+                .byteStringFilter(MQBACF_CONNECTION_ID, MQCFOP_GREATER, new byte[]{9});
+
+        PCFCursor cursor = writer.cursor();
+        assertEquals(MQCFT_COMMAND, cursor.getType());
+        assertEquals(11, cursor.getParameterCount());
+        int length = 0;
+        while (cursor.next()) {
+            assertEquals(0, cursor.getStrucLength() % 4, "StrucLength of " + cursor.getParameter());
+            length += cursor.getStrucLength();
+        }
+        assertEquals(writer.length(), MQCFH.MQCFH_SIZE + length);
+
+        PCFMessage message = PCFMessage.decode(writer.cursor());
+        List<PCFMessage.Parameter> parameters = message.getParameters();
+        assertEquals(11, parameters.size());
+        assertEquals(MQQT_LOCAL, message.getInt(MQIA_Q_TYPE));
+        assertEquals(1L << 40, parameters.get(1).getValue());
+        assertArrayEquals(new int[]{MQCA_Q_NAME, MQIA_CURRENT_Q_DEPTH}, message.getIntList(MQIACF_Q_ATTRS));
+        assertArrayEquals(new long[]{1, -1}, (long[]) parameters.get(3).getValue());
+        assertEquals("ABC", message.getString(MQCA_Q_NAME));
+        assertArrayEquals(new String[]{"A", "LONGER", ""}, message.getStringList(MQCA_Q_DESC));
+        assertEquals(connectionId, MQId.of((byte[]) parameters.get(6).getValue()));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) parameters.get(7).getValue());
+        assertEquals(MQCFOP_GREATER, parameters.get(8).getOperator());
+        assertEquals(10, parameters.get(8).getValue());
+        assertEquals(MQCFOP_LIKE, parameters.get(9).getOperator());
+        assertEquals("PAY*", parameters.get(9).getValue());
+        assertArrayEquals(new byte[]{9}, (byte[]) parameters.get(10).getValue());
+    }
+
+    @Test
+    public void testGroupsCountTheirOwnParameters() {
+        writer.command(MQCMD_INQUIRE_Q)
+                .string(MQCA_Q_NAME, "Q1")
+                .group(MQGACF_Q_HANDLE)
+                .integer(MQIA_Q_TYPE, MQQT_LOCAL)
+                .string(MQCA_Q_DESC, "first")
+                .endGroup()
+                .group(MQGACF_Q_HANDLE)
+                .integer(MQIA_Q_TYPE, MQQT_ALIAS)
+                .endGroup();
+
+        PCFMessage message = PCFMessage.decode(writer.cursor());
+        assertEquals(3, message.getParameters().size());
+        assertEquals("Q1", message.getString(MQCA_Q_NAME));
+        List<PCFMessage> groups = message.getGroups(MQGACF_Q_HANDLE);
+        assertEquals(2, groups.size());
+        assertEquals(MQQT_LOCAL, groups.get(0).getInt(MQIA_Q_TYPE));
+        assertEquals("first", groups.get(0).getString(MQCA_Q_DESC));
+        assertEquals(MQQT_ALIAS, groups.get(1).getInt(MQIA_Q_TYPE));
+        assertEquals(1, groups.get(1).getParameters().size());
+    }
+
+    @Test
+    public void testBufferIsReused() {
+        byte[] array = writer.array();
+        writer.command(MQCMD_INQUIRE_Q).string(MQCA_Q_NAME, "A.LONG.QUEUE.NAME").integer(MQIA_Q_TYPE, MQQT_ALL);
+        writer.command(MQCMD_INQUIRE_Q).integer(MQIA_Q_TYPE, MQQT_LOCAL);
+
+        assertSame(array, writer.array());
+        assertEquals(MQCFH.MQCFH_SIZE + 16, writer.length());
+        assertEquals(1, writer.cursor().getParameterCount());
+        assertEquals(MQQT_LOCAL, PCFMessage.decode(writer.cursor()).getInt(MQIA_Q_TYPE));
+    }
+
+    @Test
+    public void testMisuse() {
+        PCFWriter fresh = new PCFWriter();
+        assertThrows(IllegalStateException.class, () -> fresh.integer(MQIA_Q_TYPE, MQQT_LOCAL));
+        assertThrows(IllegalStateException.class, () -> writer.command(MQCMD_INQUIRE_Q).endGroup());
+        assertThrows(IllegalArgumentException.class, () -> new PCFWriter(16));
+
+        char[] name = new char[2000];
+        Arrays.fill(name, 'X');
+        assertThrows(BufferOverflowException.class,
+                () -> writer.command(MQCMD_INQUIRE_Q).string(MQCA_Q_NAME, new String(name)));
+    }
+}
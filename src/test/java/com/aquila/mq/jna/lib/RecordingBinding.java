@@ -0,0 +1,138 @@
+package com.aquila.mq.jna.lib;
+
+import com.sun.jna.ptr.IntByReference;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ibm.mq.constants.CMQC.*;
+
+/**
+ * RecordingBinding - Builder of an {@link IBMMQJNA} answering each verb with a handler of the test
+ * <p>
+ * A handler receives the arguments of the call, both overloads of a verb included, and completes
+ * it with {@link #complete}. Observers run before the handler or the delegate. A verb without a
+ * handler goes to the delegate binding when there is one, and fails otherwise:
+ * <pre>
+ * IBMMQJNA mq = RecordingBinding.builder()
+ *         .record(calls)
+ *         .on("MQOPEN", args -> {
+ *             ((IntByReference) args[3]).setValue(1);
+ *             RecordingBinding.complete(args, MQRC_NONE);
+ *         })
+ *         .build();
+ * </pre>
+ * The stub library must be loadable ({@link StubLibrary}), as for any binding.
+ */
+final class RecordingBinding {
+
+    /**
+     * Answer to one verb call
+     */
+    @FunctionalInterface
+    interface Verb {
+        void call(Object[] args) throws Exception;
+    }
+
+    private final Map<String, List<Verb>> observers = new HashMap<>();
+    private final Map<String, Verb> handlers = new HashMap<>();
+    private List<String> calls;
+    private IBMMQJNA delegate;
+
+    private RecordingBinding() {
+    }
+
+    static RecordingBinding builder() {
+        return new RecordingBinding();
+    }
+
+    /**
+     * Add the verb name of every call to the list
+     */
+    RecordingBinding record(List<String> calls) {
+        this.calls = calls;
+        return this;
+    }
+
+    /**
+     * Answer the verb with the handler instead of the delegate
+     */
+    RecordingBinding on(String verb, Verb handler) {
+        handlers.put(verb, handler);
+        return this;
+    }
+
+    /**
+     * Run the observer on the arguments before the verb is answered
+     */
+    RecordingBinding observe(String verb, Verb observer) {
+        observers.computeIfAbsent(verb, v -> new ArrayList<>()).add(observer);
+        return this;
+    }
+
+    /**
+     * Pass the verbs without a handler to the binding
+     */
+    RecordingBinding delegate(IBMMQJNA delegate) {
+        this.delegate = delegate;
+        return this;
+    }
+
+    IBMMQJNA build() {
+        return (IBMMQJNA) Proxy.newProxyInstance(IBMMQJNA.class.getClassLoader(), new Class<?>[]{IBMMQJNA.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return object(proxy, method, args);
+                    }
+                    String verb = method.getName();
+                    if (calls != null) {
+                        calls.add(verb);
+                    }
+                    for (Verb observer : observers.getOrDefault(verb, List.of())) {
+                        observer.call(args);
+                    }
+                    Verb handler = handlers.get(verb);
+                    if (handler != null) {
+                        handler.call(args);
+                        return null;
+                    }
+                    if (delegate == null) {
+                        throw new UnsupportedOperationException(verb);
+                    }
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Object object(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return RecordingBinding.class.getSimpleName();
+        }
+    }
+
+    /**
+     * Complete a call in its last two arguments, pCompCode and pReason: MQCC_OK for MQRC_NONE and
+     * MQCC_FAILED for any other reason
+     */
+    static void complete(Object[] args, int reason) {
+        complete(args, reason == MQRC_NONE ? MQCC_OK : MQCC_FAILED, reason);
+    }
+
+    static void complete(Object[] args, int compCode, int reason) {
+        ((IntByReference) args[args.length - 2]).setValue(compCode);
+        ((IntByReference) args[args.length - 1]).setValue(reason);
+    }
+}
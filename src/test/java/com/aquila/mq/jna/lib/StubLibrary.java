@@ -0,0 +1,33 @@
+package com.aquila.mq.jna.lib;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * StubLibrary - Points JNA at the stub libmqm.so before the tests of a class
+ * <p>
+ * Loading {@link IBMMQJNA} loads a libmqm, even for a test that only calls a {@link RecordingBinding}.
+ * Maven builds the stub in the generate-test-resources phase, elsewhere build it with
+ * {@code make -C src/main/c stub}: a missing stub fails the class instead of skipping it.
+ * <pre>
+ * &#64;ExtendWith(StubLibrary.class)
+ * public class MQSenderTest { ... }
+ * </pre>
+ */
+public class StubLibrary implements BeforeAllCallback {
+
+    static final String STUB_PATH = "target/native";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        assertTrue(new File(STUB_PATH, "libmqm.so").exists(),
+                "stub libmqm.so not built: run mvn generate-test-resources or make -C src/main/c stub");
+        if (System.getProperty("jna.library.path") == null) {
+            System.setProperty("jna.library.path", STUB_PATH);
+        }
+    }
+}